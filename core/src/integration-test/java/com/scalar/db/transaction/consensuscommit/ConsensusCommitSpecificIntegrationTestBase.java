@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -29,6 +30,7 @@ import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CommitException;
 import com.scalar.db.exception.transaction.CrudException;
+import com.scalar.db.exception.transaction.TransactionException;
 import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
 import com.scalar.db.io.DataType;
 import com.scalar.db.io.IntValue;
@@ -303,7 +305,8 @@ public abstract class ConsensusCommitSpecificIntegrationTestBase {
 
     // Assert
     verify(recovery).recover(any(Selection.class), any(TransactionResult.class));
-    verify(recovery).rollforwardRecord(any(Selection.class), any(TransactionResult.class));
+    verify(recovery)
+        .rollforwardRecord(any(Selection.class), any(TransactionResult.class), anyLong());
     TransactionResult result;
     if (s instanceof Get) {
       Optional<Result> r = transaction.get((Get) s);
@@ -527,7 +530,8 @@ public abstract class ConsensusCommitSpecificIntegrationTestBase {
 
     // Assert
     verify(recovery, times(2)).recover(any(Selection.class), any(TransactionResult.class));
-    verify(recovery).rollforwardRecord(any(Selection.class), any(TransactionResult.class));
+    verify(recovery)
+        .rollforwardRecord(any(Selection.class), any(TransactionResult.class), anyLong());
     TransactionResult result;
     if (s instanceof Get) {
       Optional<Result> r = transaction.get((Get) s);
@@ -659,7 +663,8 @@ public abstract class ConsensusCommitSpecificIntegrationTestBase {
 
     // Assert
     verify(recovery).recover(any(Selection.class), any(TransactionResult.class));
-    verify(recovery).rollforwardRecord(any(Selection.class), any(TransactionResult.class));
+    verify(recovery)
+        .rollforwardRecord(any(Selection.class), any(TransactionResult.class), anyLong());
     if (s instanceof Get) {
       assertThat(transaction.get((Get) s).isPresent()).isFalse();
     } else {
@@ -875,7 +880,8 @@ public abstract class ConsensusCommitSpecificIntegrationTestBase {
 
     // Assert
     verify(recovery, times(2)).recover(any(Selection.class), any(TransactionResult.class));
-    verify(recovery).rollforwardRecord(any(Selection.class), any(TransactionResult.class));
+    verify(recovery)
+        .rollforwardRecord(any(Selection.class), any(TransactionResult.class), anyLong());
     if (s instanceof Get) {
       assertThat(transaction.get((Get) s).isPresent()).isFalse();
     } else {
@@ -999,6 +1005,38 @@ public abstract class ConsensusCommitSpecificIntegrationTestBase {
     assertThat(result1).isEqualTo(result3);
   }
 
+  @Test
+  public void
+      commit_ProjectedGetGivenUnderExtraWriteAndTransactionAborted_ShouldRollbackReadRecordEntirely()
+          throws TransactionException, CoordinatorException {
+    // Arrange
+    ConsensusCommit transaction = manager.begin();
+    transaction.put(preparePut(0, 0, namespace1, TABLE_1).withValue(BALANCE, INITIAL_BALANCE));
+    transaction.commit();
+
+    ConsensusCommit transaction1 =
+        manager.begin(Isolation.SERIALIZABLE, SerializableStrategy.EXTRA_WRITE);
+    // the read record is written back by EXTRA_WRITE, so its before image must not lose the
+    // columns that are not projected
+    transaction1.get(
+        prepareGet(0, 0, namespace1, TABLE_1)
+            .withProjection(ACCOUNT_ID)
+            .withProjection(ACCOUNT_TYPE));
+    transaction1.put(preparePut(1, 0, namespace1, TABLE_1).withValue(BALANCE, 1));
+    // the transaction is aborted by another one after the records are prepared
+    coordinator.putState(new Coordinator.State(transaction1.getId(), TransactionState.ABORTED));
+
+    // Act
+    assertThatThrownBy(transaction1::commit).isInstanceOf(CommitException.class);
+
+    // Assert
+    ConsensusCommit another = manager.begin();
+    Optional<Result> result = another.get(prepareGet(0, 0, namespace1, TABLE_1));
+    another.commit();
+    assertThat(result).isPresent();
+    assertThat(getBalance(result.get())).isEqualTo(INITIAL_BALANCE);
+  }
+
   @Test
   public void putAndCommit_PutGivenForNonExisting_ShouldCreateRecord()
       throws CommitException, UnknownTransactionStatusException, CrudException {
@@ -2317,18 +2355,19 @@ public abstract class ConsensusCommitSpecificIntegrationTestBase {
   }
 
   @Test
-  public void scan_OverlappingPutGivenBefore_ShouldThrowIllegalArgumentException() {
+  public void scan_OverlappingPutGivenBefore_ShouldReturnPutRecord() throws CrudException {
     // Arrange
     ConsensusCommit transaction = manager.begin();
     transaction.put(preparePut(0, 0, namespace1, TABLE_1).withValue(BALANCE, 1));
 
     // Act
     Scan scan = prepareScan(0, 0, 0, namespace1, TABLE_1);
-    Throwable thrown = catchThrowable(() -> transaction.scan(scan));
+    List<Result> results = transaction.scan(scan);
     transaction.rollback();
 
     // Assert
-    assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    assertThat(results.size()).isEqualTo(1);
+    assertThat(results.get(0).getInt(BALANCE)).isEqualTo(1);
   }
 
   @Test
@@ -2449,18 +2488,19 @@ public abstract class ConsensusCommitSpecificIntegrationTestBase {
   }
 
   @Test
-  public void scanAll_OverlappingPutGivenBefore_ShouldThrowIllegalArgumentException() {
+  public void scanAll_OverlappingPutGivenBefore_ShouldReturnPutRecord() throws CrudException {
     // Arrange
     ConsensusCommit transaction = manager.begin();
     transaction.put(preparePut(0, 0, namespace1, TABLE_1).withIntValue(BALANCE, 1));
 
     // Act
     ScanAll scanAll = prepareScanAll(namespace1, TABLE_1);
-    Throwable thrown = catchThrowable(() -> transaction.scan(scanAll));
+    List<Result> results = transaction.scan(scanAll);
     transaction.rollback();
 
     // Assert
-    assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    assertThat(results.size()).isEqualTo(1);
+    assertThat(results.get(0).getInt(BALANCE)).isEqualTo(1);
   }
 
   @Test
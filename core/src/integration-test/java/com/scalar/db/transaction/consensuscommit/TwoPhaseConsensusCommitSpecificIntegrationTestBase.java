@@ -2259,14 +2259,18 @@ public abstract class TwoPhaseConsensusCommitSpecificIntegrationTestBase {
   }
 
   @Test
-  public void scan_OverlappingPutGivenBefore_ShouldIllegalArgumentException() {
+  public void scan_OverlappingPutGivenBefore_ShouldReturnPutRecord() throws TransactionException {
     // Arrange
     TwoPhaseConsensusCommit transaction = manager.start();
     transaction.put(preparePut(0, 0, TABLE_1).withValue(BALANCE, 1));
 
-    // Act Assert
-    assertThatThrownBy(() -> transaction.scan(prepareScan(0, 0, 0, TABLE_1)))
-        .isInstanceOf(IllegalArgumentException.class);
+    // Act
+    List<Result> results = transaction.scan(prepareScan(0, 0, 0, TABLE_1));
+    transaction.rollback();
+
+    // Assert
+    assertThat(results.size()).isEqualTo(1);
+    assertThat(results.get(0).getInt(BALANCE)).isEqualTo(1);
   }
 
   @Test
@@ -2451,14 +2455,19 @@ public abstract class TwoPhaseConsensusCommitSpecificIntegrationTestBase {
   }
 
   @Test
-  public void scanAll_OverlappingPutGivenBefore_ShouldThrowIllegalArgumentException() {
+  public void scanAll_OverlappingPutGivenBefore_ShouldReturnPutRecord()
+      throws TransactionException {
     // Arrange
     TwoPhaseConsensusCommit transaction = manager.start();
     transaction.put(preparePut(0, 0, TABLE_1).withIntValue(BALANCE, 1));
 
     // Act
-    assertThatThrownBy(() -> transaction.scan(prepareScanAll(TABLE_1)))
-        .isInstanceOf(IllegalArgumentException.class);
+    List<Result> results = transaction.scan(prepareScanAll(TABLE_1));
+    transaction.rollback();
+
+    // Assert
+    assertThat(results.size()).isEqualTo(1);
+    assertThat(results.get(0).getInt(BALANCE)).isEqualTo(1);
   }
 
   @Test
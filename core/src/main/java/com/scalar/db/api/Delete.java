@@ -107,6 +107,11 @@ public class Delete extends Mutation {
     return (Delete) super.withConsistency(consistency);
   }
 
+  @Override
+  public Delete withDeadlineMillis(long deadlineMillis) {
+    return (Delete) super.withDeadlineMillis(deadlineMillis);
+  }
+
   @Override
   public void accept(OperationVisitor v) {
     v.visit(this);
@@ -3,6 +3,7 @@ package com.scalar.db.api;
 import com.scalar.db.exception.storage.ExecutionException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A storage abstraction for interacting with distributed storage implementations. The user can
@@ -183,6 +184,71 @@ public interface DistributedStorage {
    */
   void mutate(List<? extends Mutation> mutations) throws ExecutionException;
 
+  /**
+   * Retrieves a result from the storage asynchronously with the specified {@link Get} command. If
+   * the operation fails, the returned future completes exceptionally with {@link
+   * ExecutionException}.
+   *
+   * <p>The default implementation executes {@link #get(Get)} in the calling thread and returns a
+   * completed future. Storage implementations that have a non-blocking client override it.
+   *
+   * @param get a {@code Get} command
+   * @return a {@code CompletableFuture} of an {@code Optional} with the returned result
+   */
+  default CompletableFuture<Optional<Result>> getAsync(Get get) {
+    CompletableFuture<Optional<Result>> future = new CompletableFuture<>();
+    try {
+      future.complete(get(get));
+    } catch (ExecutionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  /**
+   * Retrieves results from the storage asynchronously with the specified {@link Scan} or {@link
+   * ScanAll} command. The returned future completes when the first results are available, and
+   * fetching the subsequent results through the {@link Scanner} can block. If the operation fails,
+   * the returned future completes exceptionally with {@link ExecutionException}.
+   *
+   * <p>The default implementation executes {@link #scan(Scan)} in the calling thread and returns a
+   * completed future. Storage implementations that have a non-blocking client override it.
+   *
+   * @param scan a {@code Scan} or {@code ScanAll} command
+   * @return a {@code CompletableFuture} of {@link Scanner} to iterate results
+   */
+  default CompletableFuture<Scanner> scanAsync(Scan scan) {
+    CompletableFuture<Scanner> future = new CompletableFuture<>();
+    try {
+      future.complete(scan(scan));
+    } catch (ExecutionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  /**
+   * Mutates entries of the storage asynchronously with the specified list of {@link Mutation}
+   * commands. If the operation fails, the returned future completes exceptionally with {@link
+   * ExecutionException}.
+   *
+   * <p>The default implementation executes {@link #mutate(List)} in the calling thread and returns
+   * a completed future. Storage implementations that have a non-blocking client override it.
+   *
+   * @param mutations a list of {@code Mutation} commands
+   * @return a {@code CompletableFuture} that completes when the mutations are applied
+   */
+  default CompletableFuture<Void> mutateAsync(List<? extends Mutation> mutations) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    try {
+      mutate(mutations);
+      future.complete(null);
+    } catch (ExecutionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   /**
    * Closes connections to the cluster. The connections are shared among multiple services such as
    * StorageService and TransactionService, thus this should only be used when closing applications.
@@ -1,6 +1,10 @@
 package com.scalar.db.api;
 
+import com.scalar.db.exception.transaction.AbortException;
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
 import java.util.Optional;
 
 public interface DistributedTransactionManager {
@@ -70,6 +74,76 @@ public interface DistributedTransactionManager {
    */
   DistributedTransaction begin(String txId) throws TransactionException;
 
+  /**
+   * Begins a new read-only transaction. A read-only transaction only performs gets and scans, so
+   * implementations can commit it without the overhead of the write path. By default, it's the same
+   * as {@link #begin()}.
+   *
+   * @return {@link DistributedTransaction}
+   * @throws TransactionException if starting the transaction failed
+   */
+  default DistributedTransaction beginReadOnly() throws TransactionException {
+    return begin();
+  }
+
+  /**
+   * Begins a new read-only transaction with the specified transaction ID. It is users'
+   * responsibility to guarantee uniqueness of the ID so it is not recommended to use this method
+   * unless you know exactly what you are doing. By default, it's the same as {@link
+   * #begin(String)}.
+   *
+   * @param txId an user-provided unique transaction ID
+   * @return {@link DistributedTransaction}
+   * @throws TransactionException if starting the transaction failed
+   */
+  default DistributedTransaction beginReadOnly(String txId) throws TransactionException {
+    return begin(txId);
+  }
+
+  /**
+   * Executes the specified function in a new transaction and commits it. When the transaction
+   * conflicts with other transactions, i.e., {@link CrudConflictException} or {@link
+   * CommitConflictException} is thrown, it's rolled back and the function is executed again in
+   * another transaction, up to 10 times. By default, the transaction is retried immediately, and
+   * the implementations may override this method to back off before a retry.
+   *
+   * @param function a function that performs the operations of the transaction
+   * @param <T> the type of the result of the function
+   * @return the result of the function
+   * @throws TransactionException if the function or the commit failed, or the transaction kept
+   *     conflicting until the maximum number of retries
+   */
+  default <T> T execute(TransactionFunction<T> function) throws TransactionException {
+    int retries = 0;
+    while (true) {
+      DistributedTransaction transaction = begin();
+      try {
+        T result = function.apply(transaction);
+        transaction.commit();
+        return result;
+      } catch (CrudConflictException | CommitConflictException e) {
+        try {
+          transaction.abort();
+        } catch (AbortException ignored) {
+          // the transaction is retried or the conflict is thrown anyway
+        }
+        if (retries++ >= 10) {
+          throw e;
+        }
+      } catch (UnknownTransactionStatusException e) {
+        // the transaction might have been committed, so it's neither aborted nor retried
+        throw e;
+      } catch (TransactionException | RuntimeException e) {
+        try {
+          transaction.abort();
+        } catch (AbortException ignored) {
+          // the original exception is thrown
+        }
+        throw e;
+      }
+    }
+  }
+
   /**
    * Starts a new transaction. This method is an alias of {@link #begin()}.
    *
@@ -108,6 +108,11 @@ public class Get extends Selection {
     return (Get) super.withConsistency(consistency);
   }
 
+  @Override
+  public Get withDeadlineMillis(long deadlineMillis) {
+    return (Get) super.withDeadlineMillis(deadlineMillis);
+  }
+
   @Override
   public void accept(OperationVisitor v) {
     v.visit(this);
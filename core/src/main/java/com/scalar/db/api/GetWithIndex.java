@@ -62,6 +62,11 @@ public class GetWithIndex extends Get {
     return (GetWithIndex) super.withConsistency(consistency);
   }
 
+  @Override
+  public GetWithIndex withDeadlineMillis(long deadlineMillis) {
+    return (GetWithIndex) super.withDeadlineMillis(deadlineMillis);
+  }
+
   /**
    * @deprecated As of release 3.6.0. Will be removed in release 5.0.0. Use the setter method of the
    *     Get builder instead; to create a Get builder, use {@link Get#newBuilder()}
@@ -26,6 +26,7 @@ public abstract class Operation {
   private Optional<String> namespace;
   private Optional<String> tableName;
   private Consistency consistency;
+  private long deadlineMillis;
 
   public Operation(Key partitionKey, Key clusteringKey) {
     this.partitionKey = checkNotNull(partitionKey);
@@ -33,6 +34,7 @@ public abstract class Operation {
     namespace = Optional.empty();
     tableName = Optional.empty();
     consistency = Consistency.SEQUENTIAL;
+    deadlineMillis = Long.MAX_VALUE;
   }
 
   public Operation(Operation operation) {
@@ -41,6 +43,7 @@ public abstract class Operation {
     namespace = operation.namespace;
     tableName = operation.tableName;
     consistency = operation.consistency;
+    deadlineMillis = operation.deadlineMillis;
   }
 
   /**
@@ -145,6 +148,29 @@ public abstract class Operation {
     return this;
   }
 
+  /**
+   * Returns the deadline of this operation as a time in milliseconds since the epoch. The storage
+   * implementations use the time remaining until the deadline as the timeout of the request and
+   * fail the operation without sending it if the deadline has already passed.
+   *
+   * @return the deadline, or {@code Long.MAX_VALUE} if this operation doesn't have a deadline
+   */
+  public long getDeadlineMillis() {
+    return deadlineMillis;
+  }
+
+  /**
+   * Sets the specified deadline for this operation. The deadline isn't taken into account in {@link
+   * #equals(Object)} since it doesn't change what the operation does.
+   *
+   * @param deadlineMillis a deadline as a time in milliseconds since the epoch
+   * @return this object
+   */
+  public Operation withDeadlineMillis(long deadlineMillis) {
+    this.deadlineMillis = deadlineMillis;
+    return this;
+  }
+
   /**
    * Indicates whether some other object is "equal to" this object. The other object is considered
    * equal if:
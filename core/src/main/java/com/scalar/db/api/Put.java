@@ -735,6 +735,11 @@ public class Put extends Mutation {
     return (Put) super.withConsistency(consistency);
   }
 
+  @Override
+  public Put withDeadlineMillis(long deadlineMillis) {
+    return (Put) super.withDeadlineMillis(deadlineMillis);
+  }
+
   @Override
   public void accept(OperationVisitor v) {
     v.visit(this);
@@ -265,6 +265,11 @@ public class Scan extends Selection {
     return (Scan) super.withConsistency(consistency);
   }
 
+  @Override
+  public Scan withDeadlineMillis(long deadlineMillis) {
+    return (Scan) super.withDeadlineMillis(deadlineMillis);
+  }
+
   @Override
   public void accept(OperationVisitor v) {
     v.visit(this);
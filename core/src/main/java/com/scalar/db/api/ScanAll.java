@@ -139,6 +139,11 @@ public class ScanAll extends Scan {
     return (ScanAll) super.withConsistency(consistency);
   }
 
+  @Override
+  public ScanAll withDeadlineMillis(long deadlineMillis) {
+    return (ScanAll) super.withDeadlineMillis(deadlineMillis);
+  }
+
   /**
    * @deprecated As of release 3.6.0. Will be removed in release 5.0.0. Use the setter method of the
    *     Scan builder instead; to create a Scan builder, use {@link Scan#newBuilder()}
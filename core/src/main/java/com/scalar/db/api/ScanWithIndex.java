@@ -131,6 +131,11 @@ public class ScanWithIndex extends Scan {
     return (ScanWithIndex) super.withConsistency(consistency);
   }
 
+  @Override
+  public ScanWithIndex withDeadlineMillis(long deadlineMillis) {
+    return (ScanWithIndex) super.withDeadlineMillis(deadlineMillis);
+  }
+
   /**
    * @deprecated As of release 3.6.0. Will be removed in release 5.0.0. Use the setter method of the
    *     Scan builder instead; to create a Scan builder, use {@link Scan#newBuilder()}
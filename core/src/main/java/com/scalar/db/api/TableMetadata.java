@@ -24,6 +24,7 @@ public class TableMetadata {
   private final ImmutableLinkedHashSet<String> clusteringKeyNames;
   private final ImmutableMap<String, Order> clusteringOrders;
   private final ImmutableSet<String> secondaryIndexNames;
+  private final ImmutableMap<String, Integer> columnIndexes;
 
   private TableMetadata(
       LinkedHashMap<String, DataType> columns,
@@ -39,6 +40,13 @@ public class TableMetadata {
         new ImmutableLinkedHashSet<>(Objects.requireNonNull(clusteringKeyNames));
     this.clusteringOrders = ImmutableMap.copyOf(Objects.requireNonNull(clusteringOrders));
     this.secondaryIndexNames = ImmutableSet.copyOf(Objects.requireNonNull(secondaryIndexNames));
+
+    ImmutableMap.Builder<String, Integer> indexes = ImmutableMap.builder();
+    int index = 0;
+    for (String columnName : columnNames) {
+      indexes.put(columnName, index++);
+    }
+    columnIndexes = indexes.build();
   }
 
   /**
@@ -79,6 +87,18 @@ public class TableMetadata {
     return columnDataTypes.get(columnName);
   }
 
+  /**
+   * Returns the ordinal of the specified column, which is its position in the column names. The
+   * ordinals let results store their columns in arrays instead of maps.
+   *
+   * @param columnName a column name to retrieve the ordinal
+   * @return the ordinal of the specified column, or -1 if the column doesn't exist
+   */
+  public int getColumnIndex(String columnName) {
+    Integer index = columnIndexes.get(columnName);
+    return index == null ? -1 : index;
+  }
+
   /**
    * Returns the map of the columns names and the data types
    *
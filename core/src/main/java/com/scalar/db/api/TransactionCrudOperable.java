@@ -2,6 +2,7 @@ package com.scalar.db.api;
 
 import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.CrudException;
+import com.scalar.db.transaction.common.ListTransactionScanner;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +36,25 @@ public interface TransactionCrudOperable {
    */
   List<Result> scan(Scan scan) throws CrudConflictException, CrudException;
 
+  /**
+   * Retrieves results from the storage through a transaction with the specified {@link Scan}
+   * command and returns a {@link Scanner} to iterate over them. Unlike {@link #scan(Scan)}, the
+   * results can be fetched one by one without holding all of them in memory, depending on the
+   * implementation. The scanner should be closed after use, and only the results that have been
+   * fetched before it's closed are read by the transaction.
+   *
+   * <p>The default implementation wraps the results of {@link #scan(Scan)}, which are fetched at
+   * once.
+   *
+   * @param scan a {@code Scan} command
+   * @return a {@code Scanner} of the results
+   * @throws CrudConflictException if conflicts happened. You can retry the transaction in this case
+   * @throws CrudException if the operation failed
+   */
+  default Scanner getScanner(Scan scan) throws CrudConflictException, CrudException {
+    return new ListTransactionScanner(scan(scan));
+  }
+
   /**
    * Inserts/Updates an entry to the storage through a transaction with the specified {@link Put}
    * command. Note that the conditions set in Put will be ignored. Please program such conditions in
@@ -89,4 +109,37 @@ public interface TransactionCrudOperable {
    * @throws CrudException if the operation failed
    */
   void mutate(List<? extends Mutation> mutations) throws CrudConflictException, CrudException;
+
+  /** A scanner abstraction for iterating results through a transaction. */
+  interface Scanner extends AutoCloseable, Iterable<Result> {
+
+    /**
+     * Returns the next result.
+     *
+     * @return an {@code Optional} with the next result, or an empty {@code Optional} if there are
+     *     no more results
+     * @throws CrudConflictException if conflicts happened. You can retry the transaction in this
+     *     case
+     * @throws CrudException if the operation failed
+     */
+    Optional<Result> one() throws CrudConflictException, CrudException;
+
+    /**
+     * Returns all the remaining results.
+     *
+     * @return a list of {@link Result}
+     * @throws CrudConflictException if conflicts happened. You can retry the transaction in this
+     *     case
+     * @throws CrudException if the operation failed
+     */
+    List<Result> all() throws CrudConflictException, CrudException;
+
+    /**
+     * Closes the scanner. The results that are not fetched yet are not read by the transaction.
+     *
+     * @throws CrudException if closing the scanner failed
+     */
+    @Override
+    void close() throws CrudException;
+  }
 }
@@ -0,0 +1,23 @@
+package com.scalar.db.api;
+
+import com.scalar.db.exception.transaction.TransactionException;
+
+/**
+ * A function executed in a transaction by {@link DistributedTransactionManager#execute}. The
+ * function may be called more than once since the transaction is retried when it conflicts, so it
+ * shouldn't have side effects outside the transaction.
+ *
+ * @param <T> the type of the result of the function
+ */
+@FunctionalInterface
+public interface TransactionFunction<T> {
+
+  /**
+   * Performs the operations of the transaction.
+   *
+   * @param transaction a transaction. It must not be committed or rolled back in the function
+   * @return the result of the function
+   * @throws TransactionException if an operation of the transaction failed
+   */
+  T apply(DistributedTransaction transaction) throws TransactionException;
+}
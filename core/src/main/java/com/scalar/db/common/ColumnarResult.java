@@ -0,0 +1,426 @@
+package com.scalar.db.common;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.io.BigIntColumn;
+import com.scalar.db.io.BlobColumn;
+import com.scalar.db.io.BooleanColumn;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.DoubleColumn;
+import com.scalar.db.io.FloatColumn;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.Key;
+import com.scalar.db.io.TextColumn;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A compact implementation of {@code Result} that stores the columns in arrays indexed by the
+ * column ordinals of the table metadata (see {@link TableMetadata#getColumnIndex(String)}). The
+ * values of BOOLEAN, INT, BIGINT, FLOAT and DOUBLE columns are stored in a primitive array, so
+ * building a result from a storage doesn't allocate a {@code Column} object and a map entry for
+ * each column, and reading a value is an array access. The {@code Column} objects are created only
+ * when {@link #getColumns()} is called.
+ */
+@Immutable
+public class ColumnarResult extends AbstractResult {
+  private static final Logger logger = LoggerFactory.getLogger(ColumnarResult.class);
+
+  private final TableMetadata metadata;
+  private final String[] names;
+  private final DataType[] dataTypes;
+  private final BitSet contained;
+  private final BitSet nulls;
+  // the values of BOOLEAN, INT, BIGINT, FLOAT and DOUBLE columns
+  private final long[] primitiveValues;
+  // the values of TEXT and BLOB columns
+  private final Object[] objectValues;
+  private final Set<String> containedColumnNames;
+  private final Supplier<Map<String, Column<?>>> columns;
+
+  private ColumnarResult(Builder builder) {
+    metadata = builder.metadata;
+    names = builder.names;
+    dataTypes = builder.dataTypes;
+    contained = builder.contained;
+    nulls = builder.nulls;
+    primitiveValues = builder.primitiveValues;
+    objectValues = builder.objectValues;
+    containedColumnNames = new ContainedColumnNames();
+    columns = Suppliers.memoize(this::createColumns);
+  }
+
+  /**
+   * Returns a builder of a result of a table with the specified metadata.
+   *
+   * @param metadata the metadata of the table
+   * @return a builder
+   */
+  public static Builder newBuilder(TableMetadata metadata) {
+    return new Builder(metadata);
+  }
+
+  @Override
+  public Optional<Key> getPartitionKey() {
+    return getKey(metadata.getPartitionKeyNames());
+  }
+
+  @Override
+  public Optional<Key> getClusteringKey() {
+    return getKey(metadata.getClusteringKeyNames());
+  }
+
+  private Optional<Key> getKey(LinkedHashSet<String> names) {
+    if (names.isEmpty()) {
+      return Optional.empty();
+    }
+    Key.Builder builder = Key.newBuilder();
+    for (String name : names) {
+      int index = metadata.getColumnIndex(name);
+      if (!contained.get(index)) {
+        logger.warn("full key doesn't seem to be projected into the result");
+        return Optional.empty();
+      }
+      builder.add(createColumn(index));
+    }
+    return Optional.of(builder.build());
+  }
+
+  private int indexOf(String columnName) {
+    int index = metadata.getColumnIndex(columnName);
+    if (index < 0 || !contained.get(index)) {
+      throw new IllegalArgumentException(columnName + " doesn't exist");
+    }
+    return index;
+  }
+
+  private int indexOf(String columnName, DataType dataType) {
+    int index = indexOf(columnName);
+    if (dataTypes[index] != dataType) {
+      throw new UnsupportedOperationException(
+          "The data type of this column is " + dataTypes[index]);
+    }
+    return index;
+  }
+
+  @Override
+  public boolean isNull(String columnName) {
+    return nulls.get(indexOf(columnName));
+  }
+
+  @Override
+  public boolean getBoolean(String columnName) {
+    return primitiveValues[indexOf(columnName, DataType.BOOLEAN)] != 0;
+  }
+
+  @Override
+  public int getInt(String columnName) {
+    return (int) primitiveValues[indexOf(columnName, DataType.INT)];
+  }
+
+  @Override
+  public long getBigInt(String columnName) {
+    return primitiveValues[indexOf(columnName, DataType.BIGINT)];
+  }
+
+  @Override
+  public float getFloat(String columnName) {
+    return Float.intBitsToFloat((int) primitiveValues[indexOf(columnName, DataType.FLOAT)]);
+  }
+
+  @Override
+  public double getDouble(String columnName) {
+    return Double.longBitsToDouble(primitiveValues[indexOf(columnName, DataType.DOUBLE)]);
+  }
+
+  @Nullable
+  @Override
+  public String getText(String columnName) {
+    return (String) objectValues[indexOf(columnName, DataType.TEXT)];
+  }
+
+  @Nullable
+  @Override
+  public ByteBuffer getBlobAsByteBuffer(String columnName) {
+    byte[] value = (byte[]) objectValues[indexOf(columnName, DataType.BLOB)];
+    return value == null ? null : ByteBuffer.wrap(value);
+  }
+
+  @Nullable
+  @Override
+  public byte[] getBlobAsBytes(String columnName) {
+    byte[] value = (byte[]) objectValues[indexOf(columnName, DataType.BLOB)];
+    return value == null ? null : value.clone();
+  }
+
+  @Nullable
+  @Override
+  public Object getAsObject(String columnName) {
+    int index = indexOf(columnName);
+    if (nulls.get(index)) {
+      return null;
+    }
+    switch (dataTypes[index]) {
+      case BOOLEAN:
+        return primitiveValues[index] != 0;
+      case INT:
+        return (int) primitiveValues[index];
+      case BIGINT:
+        return primitiveValues[index];
+      case FLOAT:
+        return Float.intBitsToFloat((int) primitiveValues[index]);
+      case DOUBLE:
+        return Double.longBitsToDouble(primitiveValues[index]);
+      case TEXT:
+        return objectValues[index];
+      case BLOB:
+        return ByteBuffer.wrap((byte[]) objectValues[index]);
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  @Override
+  public boolean contains(String columnName) {
+    int index = metadata.getColumnIndex(columnName);
+    return index >= 0 && contained.get(index);
+  }
+
+  @Override
+  public Set<String> getContainedColumnNames() {
+    return containedColumnNames;
+  }
+
+  @Override
+  public Map<String, Column<?>> getColumns() {
+    return columns.get();
+  }
+
+  private Map<String, Column<?>> createColumns() {
+    ImmutableMap.Builder<String, Column<?>> builder = ImmutableMap.builder();
+    for (int i = contained.nextSetBit(0); i >= 0; i = contained.nextSetBit(i + 1)) {
+      Column<?> column = createColumn(i);
+      builder.put(column.getName(), column);
+    }
+    return builder.build();
+  }
+
+  private Column<?> createColumn(int index) {
+    String name = names[index];
+    boolean isNull = nulls.get(index);
+    switch (dataTypes[index]) {
+      case BOOLEAN:
+        return isNull
+            ? BooleanColumn.ofNull(name)
+            : BooleanColumn.of(name, primitiveValues[index] != 0);
+      case INT:
+        return isNull ? IntColumn.ofNull(name) : IntColumn.of(name, (int) primitiveValues[index]);
+      case BIGINT:
+        return isNull ? BigIntColumn.ofNull(name) : BigIntColumn.of(name, primitiveValues[index]);
+      case FLOAT:
+        return isNull
+            ? FloatColumn.ofNull(name)
+            : FloatColumn.of(name, Float.intBitsToFloat((int) primitiveValues[index]));
+      case DOUBLE:
+        return isNull
+            ? DoubleColumn.ofNull(name)
+            : DoubleColumn.of(name, Double.longBitsToDouble(primitiveValues[index]));
+      case TEXT:
+        return isNull ? TextColumn.ofNull(name) : TextColumn.of(name, (String) objectValues[index]);
+      case BLOB:
+        return isNull ? BlobColumn.ofNull(name) : BlobColumn.of(name, (byte[]) objectValues[index]);
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  /** A view of the names of the contained columns in the order of the ordinals. */
+  private class ContainedColumnNames extends AbstractSet<String> {
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof String && ColumnarResult.this.contains((String) o);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return new Iterator<String>() {
+        private int next = contained.nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public String next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          String name = names[next];
+          next = contained.nextSetBit(next + 1);
+          return name;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return contained.cardinality();
+    }
+  }
+
+  /** A builder of {@code ColumnarResult}. The columns can be set in any order. */
+  @NotThreadSafe
+  public static class Builder {
+    private final TableMetadata metadata;
+    private final String[] names;
+    private final DataType[] dataTypes;
+    private final BitSet contained;
+    private final BitSet nulls;
+    private final long[] primitiveValues;
+    private final Object[] objectValues;
+    private boolean built;
+
+    private Builder(TableMetadata metadata) {
+      this.metadata = Objects.requireNonNull(metadata);
+      int size = metadata.getColumnNames().size();
+      names = new String[size];
+      dataTypes = new DataType[size];
+      int i = 0;
+      for (String name : metadata.getColumnNames()) {
+        names[i] = name;
+        dataTypes[i++] = metadata.getColumnDataType(name);
+      }
+      contained = new BitSet(size);
+      nulls = new BitSet(size);
+      primitiveValues = new long[size];
+      objectValues = new Object[size];
+    }
+
+    private int indexOf(String columnName, DataType dataType) {
+      if (built) {
+        throw new IllegalStateException("the result has already been built");
+      }
+      int index = metadata.getColumnIndex(columnName);
+      if (index < 0) {
+        throw new IllegalArgumentException(columnName + " doesn't exist in the table");
+      }
+      if (dataType != null && dataTypes[index] != dataType) {
+        throw new IllegalArgumentException(
+            "the data type of " + columnName + " is " + dataTypes[index]);
+      }
+      contained.set(index);
+      nulls.clear(index);
+      return index;
+    }
+
+    public Builder setNull(String columnName) {
+      nulls.set(indexOf(columnName, null));
+      return this;
+    }
+
+    public Builder setBoolean(String columnName, boolean value) {
+      primitiveValues[indexOf(columnName, DataType.BOOLEAN)] = value ? 1 : 0;
+      return this;
+    }
+
+    public Builder setInt(String columnName, int value) {
+      primitiveValues[indexOf(columnName, DataType.INT)] = value;
+      return this;
+    }
+
+    public Builder setBigInt(String columnName, long value) {
+      primitiveValues[indexOf(columnName, DataType.BIGINT)] = value;
+      return this;
+    }
+
+    public Builder setFloat(String columnName, float value) {
+      primitiveValues[indexOf(columnName, DataType.FLOAT)] = Float.floatToRawIntBits(value);
+      return this;
+    }
+
+    public Builder setDouble(String columnName, double value) {
+      primitiveValues[indexOf(columnName, DataType.DOUBLE)] = Double.doubleToRawLongBits(value);
+      return this;
+    }
+
+    public Builder setText(String columnName, @Nullable String value) {
+      int index = indexOf(columnName, DataType.TEXT);
+      objectValues[index] = value;
+      if (value == null) {
+        nulls.set(index);
+      }
+      return this;
+    }
+
+    /**
+     * Sets the value of a BLOB column. The array is not copied, so it must not be modified after
+     * it's set.
+     *
+     * @param columnName a column name
+     * @param value a value
+     * @return this builder
+     */
+    public Builder setBlob(String columnName, @Nullable byte[] value) {
+      int index = indexOf(columnName, DataType.BLOB);
+      objectValues[index] = value;
+      if (value == null) {
+        nulls.set(index);
+      }
+      return this;
+    }
+
+    /**
+     * Sets the value of the specified column.
+     *
+     * @param column a column
+     * @return this builder
+     */
+    public Builder set(Column<?> column) {
+      String name = column.getName();
+      if (column.hasNullValue()) {
+        indexOf(name, column.getDataType());
+        return setNull(name);
+      }
+      switch (column.getDataType()) {
+        case BOOLEAN:
+          return setBoolean(name, column.getBooleanValue());
+        case INT:
+          return setInt(name, column.getIntValue());
+        case BIGINT:
+          return setBigInt(name, column.getBigIntValue());
+        case FLOAT:
+          return setFloat(name, column.getFloatValue());
+        case DOUBLE:
+          return setDouble(name, column.getDoubleValue());
+        case TEXT:
+          return setText(name, column.getTextValue());
+        case BLOB:
+          return setBlob(name, column.getBlobValueAsBytes());
+        default:
+          throw new AssertionError();
+      }
+    }
+
+    public ColumnarResult build() {
+      built = true;
+      return new ColumnarResult(this);
+    }
+  }
+}
@@ -12,6 +12,7 @@ import com.scalar.db.api.Scanner;
 import com.scalar.db.exception.storage.ExecutionException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.concurrent.ThreadSafe;
 
 /** @deprecated As of release 3.5.0. Will be removed in release 5.0.0 */
@@ -95,6 +96,21 @@ public class StorageService implements DistributedStorage {
     storage.mutate(mutations);
   }
 
+  @Override
+  public CompletableFuture<Optional<Result>> getAsync(Get get) {
+    return storage.getAsync(get);
+  }
+
+  @Override
+  public CompletableFuture<Scanner> scanAsync(Scan scan) {
+    return storage.scanAsync(scan);
+  }
+
+  @Override
+  public CompletableFuture<Void> mutateAsync(List<? extends Mutation> mutations) {
+    return storage.mutateAsync(mutations);
+  }
+
   @Override
   public void close() {
     storage.close();
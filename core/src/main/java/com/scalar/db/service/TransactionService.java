@@ -5,6 +5,7 @@ import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
 import com.scalar.db.api.Isolation;
 import com.scalar.db.api.SerializableStrategy;
+import com.scalar.db.api.TransactionFunction;
 import com.scalar.db.api.TransactionState;
 import com.scalar.db.exception.transaction.TransactionException;
 import java.util.Optional;
@@ -66,6 +67,21 @@ public class TransactionService implements DistributedTransactionManager {
     return manager.begin(txId);
   }
 
+  @Override
+  public <T> T execute(TransactionFunction<T> function) throws TransactionException {
+    return manager.execute(function);
+  }
+
+  @Override
+  public DistributedTransaction beginReadOnly() throws TransactionException {
+    return manager.beginReadOnly();
+  }
+
+  @Override
+  public DistributedTransaction beginReadOnly(String txId) throws TransactionException {
+    return manager.beginReadOnly(txId);
+  }
+
   @Override
   public DistributedTransaction start() throws TransactionException {
     return manager.start();
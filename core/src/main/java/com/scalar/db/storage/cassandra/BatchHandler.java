@@ -5,14 +5,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.WriteType;
 import com.datastax.driver.core.exceptions.WriteTimeoutException;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.scalar.db.api.Mutation;
 import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.exception.storage.RetriableExecutionException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,30 +58,103 @@ public class BatchHandler {
    */
   public void handle(List<? extends Mutation> mutations)
       throws RetriableExecutionException, NoMutationException {
+    ResultSet results;
     try {
-      ResultSet results = execute(mutations);
-      // it's for conditional update. non-conditional update always return true
-      if (!results.wasApplied()) {
-        throw new NoMutationException("no mutation was applied.");
+      results = session.execute(makeBatchStatement(mutations));
+    } catch (RuntimeException e) {
+      RetriableExecutionException exception = toExecutionException(e);
+      if (exception == null) {
+        return;
       }
-    } catch (WriteTimeoutException e) {
+      throw exception;
+    }
+    // it's for conditional update. non-conditional update always return true
+    if (!results.wasApplied()) {
+      throw new NoMutationException("no mutation was applied.");
+    }
+  }
+
+  /**
+   * Execute the specified list of {@link Mutation}s in batch asynchronously. All the {@link
+   * Mutation}s in the list must be for the same partition.
+   *
+   * @param mutations a list of {@code Mutation}s to execute
+   * @return a {@code CompletableFuture} which completes exceptionally with {@link
+   *     RetriableExecutionException} if it failed, but it can be retried, or {@link
+   *     NoMutationException} if at least one of conditional {@code Mutation}s failed because it
+   *     didn't meet the condition
+   */
+  public CompletableFuture<Void> handleAsync(List<? extends Mutation> mutations) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    ResultSetFuture resultSetFuture;
+    try {
+      resultSetFuture = session.executeAsync(makeBatchStatement(mutations));
+    } catch (RuntimeException e) {
+      completeWithException(future, e);
+      return future;
+    }
+
+    Futures.addCallback(
+        resultSetFuture,
+        new FutureCallback<ResultSet>() {
+          @Override
+          public void onSuccess(ResultSet results) {
+            if (!results.wasApplied()) {
+              future.completeExceptionally(new NoMutationException("no mutation was applied."));
+            } else {
+              future.complete(null);
+            }
+          }
+
+          @Override
+          public void onFailure(@Nonnull Throwable t) {
+            if (t instanceof RuntimeException) {
+              completeWithException(future, (RuntimeException) t);
+            } else {
+              future.completeExceptionally(t);
+            }
+          }
+        },
+        MoreExecutors.directExecutor());
+    return future;
+  }
+
+  private void completeWithException(CompletableFuture<Void> future, RuntimeException e) {
+    RetriableExecutionException exception = toExecutionException(e);
+    if (exception == null) {
+      future.complete(null);
+    } else {
+      future.completeExceptionally(exception);
+    }
+  }
+
+  /**
+   * Converts the specified exception thrown by the driver into {@link RetriableExecutionException}
+   *
+   * @param e an exception thrown by the driver
+   * @return a {@code RetriableExecutionException}, or null if the batch is logged successfully and
+   *     the failure can be ignored
+   */
+  @Nullable
+  private RetriableExecutionException toExecutionException(RuntimeException e) {
+    if (e instanceof WriteTimeoutException) {
       logger.warn("write timeout happened during batch mutate operation.", e);
-      WriteType writeType = e.getWriteType();
+      WriteType writeType = ((WriteTimeoutException) e).getWriteType();
       if (writeType == WriteType.BATCH_LOG) {
-        throw new RetriableExecutionException("logging failed in the batch.", e);
+        return new RetriableExecutionException("logging failed in the batch.", e);
       } else if (writeType == WriteType.BATCH) {
         logger.warn("logging was succeeded, but mutations in the batch partially failed.", e);
+        return null;
       } else {
-        throw new RetriableExecutionException(
+        return new RetriableExecutionException(
             "operation failed in the batch with type " + writeType, e);
       }
-    } catch (RuntimeException e) {
-      logger.warn(e.getMessage(), e);
-      throw new RetriableExecutionException(e.getMessage(), e);
     }
+    logger.warn(e.getMessage(), e);
+    return new RetriableExecutionException(e.getMessage(), e);
   }
 
-  private ResultSet execute(List<? extends Mutation> mutations) {
+  private BatchStatement makeBatchStatement(List<? extends Mutation> mutations) {
     BatchStatement batch = new BatchStatement();
     BatchComposer composer = new BatchComposer(batch, handlers);
 
@@ -90,7 +170,8 @@ public class BatchHandler {
     if (conditional) {
       setConsistencyForConditionalMutation(batch);
     }
-    return session.execute(batch);
+    StatementHandler.setReadTimeout(batch, mutations);
+    return batch;
   }
 
   @VisibleForTesting
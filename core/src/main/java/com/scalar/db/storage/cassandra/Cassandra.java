@@ -18,9 +18,11 @@ import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.config.DatabaseConfig;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.storage.common.AbstractDistributedStorage;
+import com.scalar.db.storage.common.AsyncUtils;
 import com.scalar.db.storage.common.checker.OperationChecker;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
@@ -141,6 +143,75 @@ public class Cassandra extends AbstractDistributedStorage {
     batch.handle(mutations);
   }
 
+  @Override
+  public CompletableFuture<Optional<Result>> getAsync(Get get) {
+    Get copied = copyAndSetTargetToIfNot(get);
+    ResultInterpreter interpreter;
+    try {
+      operationChecker.check(copied);
+      interpreter =
+          new ResultInterpreter(copied.getProjections(), metadataManager.getTableMetadata(copied));
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    return handlers
+        .select()
+        .handleAsync(copied)
+        .thenApply(
+            resultSet -> {
+              Row row = resultSet.one();
+              if (row == null) {
+                return Optional.empty();
+              }
+              if (resultSet.one() != null) {
+                throw new IllegalArgumentException(
+                    "please use scan() for non-exact match selection");
+              }
+              return Optional.of(interpreter.interpret(row));
+            });
+  }
+
+  @Override
+  public CompletableFuture<Scanner> scanAsync(Scan scan) {
+    Scan copied = copyAndSetTargetToIfNot(scan);
+    ResultInterpreter interpreter;
+    try {
+      operationChecker.check(copied);
+      interpreter =
+          new ResultInterpreter(copied.getProjections(), metadataManager.getTableMetadata(copied));
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    // only the first page is fetched asynchronously. the following pages are fetched when the
+    // scanner reaches them
+    return handlers
+        .select()
+        .handleAsync(copied)
+        .thenApply(resultSet -> new ScannerImpl(resultSet, interpreter));
+  }
+
+  @Override
+  public CompletableFuture<Void> mutateAsync(List<? extends Mutation> mutations) {
+    checkArgument(mutations.size() != 0);
+    List<? extends Mutation> copied = copyAndSetTargetToIfNot(mutations);
+    try {
+      operationChecker.check(copied);
+      for (Mutation mutation : copied) {
+        operationChecker.check(mutation);
+      }
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    if (copied.size() == 1) {
+      Mutation mutation = copied.get(0);
+      return handlers.get(mutation).handleAsync(mutation).thenApply(results -> null);
+    }
+    return batch.handleAsync(copied);
+  }
+
   @Override
   public void close() {
     clusterManager.close();
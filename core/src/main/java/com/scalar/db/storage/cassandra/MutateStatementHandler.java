@@ -12,7 +12,6 @@ import com.scalar.db.api.Operation;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.exception.storage.RetriableExecutionException;
-import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,47 +26,52 @@ public abstract class MutateStatementHandler extends StatementHandler {
   }
 
   /**
-   * Executes the specified {@link Mutation} {@link Operation}
+   * Checks if the specified conditional {@link Mutation} is applied
    *
    * @param operation {@link Mutation} operation
-   * @return a {@code ResultSet}
-   * @throws RetriableExecutionException if the execution failed, but it can be retriable
-   * @throws ReadRepairableExecutionException if the execution partially failed, which can be
-   *     repaired by a following read
+   * @param results a {@code ResultSet} of the operation
+   * @throws NoMutationException if the mutation was not applied because of its condition
    */
   @Override
-  @Nonnull
-  public ResultSet handle(Operation operation) throws ExecutionException {
-    try {
-      ResultSet results = handleInternal(operation);
-
-      Mutation mutation = (Mutation) operation;
-      if (mutation.getCondition().isPresent() && !results.one().getBool(0)) {
-        throw new NoMutationException("no mutation was applied.");
-      }
-      return results;
+  protected void checkResults(Operation operation, ResultSet results) throws ExecutionException {
+    Mutation mutation = (Mutation) operation;
+    if (mutation.getCondition().isPresent() && !results.one().getBool(0)) {
+      throw new NoMutationException("no mutation was applied.");
+    }
+  }
 
-    } catch (WriteTimeoutException e) {
+  /**
+   * Converts the specified exception thrown by the driver into {@link ExecutionException}
+   *
+   * @param operation {@link Mutation} operation
+   * @param e an exception thrown by the driver
+   * @return {@link RetriableExecutionException} if the execution failed, but it can be retriable,
+   *     or {@link ReadRepairableExecutionException} if the execution partially failed, which can be
+   *     repaired by a following read
+   */
+  @Override
+  protected ExecutionException toExecutionException(Operation operation, RuntimeException e) {
+    if (e instanceof WriteTimeoutException) {
       logger.warn("write timeout happened during mutate operation.", e);
-      if (e.getWriteType() == WriteType.CAS) {
+      WriteTimeoutException writeTimeoutException = (WriteTimeoutException) e;
+      if (writeTimeoutException.getWriteType() == WriteType.CAS) {
         // retry needs to be done if applications need to do the operation exactly
-        throw new RetriableExecutionException("paxos phase in CAS operation failed.", e);
-      } else if (e.getWriteType() == WriteType.SIMPLE) {
+        return new RetriableExecutionException("paxos phase in CAS operation failed.", e);
+      } else if (writeTimeoutException.getWriteType() == WriteType.SIMPLE) {
         Mutation mutation = (Mutation) operation;
         if (mutation.getCondition().isPresent()) {
           // learn phase needs to be repaired (by re-reading)
-          throw new ReadRepairableExecutionException("learn phase in CAS operation failed.", e);
+          return new ReadRepairableExecutionException("learn phase in CAS operation failed.", e);
         } else {
           // retry needs to be done if applications need to do the operation exactly
-          throw new RetriableExecutionException("simple write operation failed.", e);
+          return new RetriableExecutionException("simple write operation failed.", e);
         }
       } else {
-        throw new ExecutionException("something wrong because it is neither CAS nor SIMPLE", e);
+        return new ExecutionException("something wrong because it is neither CAS nor SIMPLE", e);
       }
-    } catch (RuntimeException e) {
-      logger.warn(e.getMessage(), e);
-      throw new RetriableExecutionException(e.getMessage(), e);
     }
+    logger.warn(e.getMessage(), e);
+    return new RetriableExecutionException(e.getMessage(), e);
   }
 
   @Override
@@ -6,12 +6,22 @@ import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
 import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.scalar.db.api.Consistency;
 import com.scalar.db.api.Operation;
 import com.scalar.db.api.Selection;
 import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.util.ScalarDbUtils;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
@@ -44,12 +54,63 @@ public abstract class StatementHandler {
    */
   @Nonnull
   public ResultSet handle(Operation operation) throws ExecutionException {
+    ResultSet results;
     try {
-      return handleInternal(operation);
+      results = handleInternal(operation);
     } catch (RuntimeException e) {
-      logger.error(e.getMessage(), e);
-      throw new ExecutionException(e.getMessage(), e);
+      throw toExecutionException(operation, e);
     }
+    checkResults(operation, results);
+    return results;
+  }
+
+  /**
+   * Executes the specified {@code Operation} asynchronously. The returned future completes in a
+   * thread of the driver, so the callers shouldn't run blocking tasks in its dependent stages.
+   *
+   * @param operation an {@code Operation} to execute
+   * @return a {@code CompletableFuture} of a {@code ResultSet}, which completes exceptionally with
+   *     {@link ExecutionException} if the execution failed
+   */
+  @Nonnull
+  public CompletableFuture<ResultSet> handleAsync(Operation operation) {
+    CompletableFuture<ResultSet> future = new CompletableFuture<>();
+    ResultSetFuture resultSetFuture;
+    try {
+      PreparedStatement prepared = prepare(operation);
+      BoundStatement bound = bind(prepared, operation);
+      setConsistency(bound, operation);
+      setReadTimeout(bound, Collections.singletonList(operation));
+      resultSetFuture = executeAsync(bound, operation);
+    } catch (RuntimeException e) {
+      future.completeExceptionally(toExecutionException(operation, e));
+      return future;
+    }
+
+    Futures.addCallback(
+        resultSetFuture,
+        new FutureCallback<ResultSet>() {
+          @Override
+          public void onSuccess(ResultSet results) {
+            try {
+              checkResults(operation, results);
+              future.complete(results);
+            } catch (ExecutionException | RuntimeException e) {
+              future.completeExceptionally(e);
+            }
+          }
+
+          @Override
+          public void onFailure(@Nonnull Throwable t) {
+            if (t instanceof RuntimeException) {
+              future.completeExceptionally(toExecutionException(operation, (RuntimeException) t));
+            } else {
+              future.completeExceptionally(t);
+            }
+          }
+        },
+        MoreExecutors.directExecutor());
+    return future;
   }
 
   /**
@@ -63,9 +124,31 @@ public abstract class StatementHandler {
     PreparedStatement prepared = prepare(operation);
     BoundStatement bound = bind(prepared, operation);
     setConsistency(bound, operation);
+    setReadTimeout(bound, Collections.singletonList(operation));
     return execute(bound, operation);
   }
 
+  /**
+   * Checks the results of the specified {@code Operation}. It does nothing by default.
+   *
+   * @param operation an executed {@code Operation}
+   * @param results a {@code ResultSet} of the operation
+   * @throws ExecutionException if the results indicate that the operation failed
+   */
+  protected void checkResults(Operation operation, ResultSet results) throws ExecutionException {}
+
+  /**
+   * Converts the specified exception thrown by the driver into {@link ExecutionException}
+   *
+   * @param operation an {@code Operation} that failed
+   * @param e an exception thrown by the driver
+   * @return an {@code ExecutionException}
+   */
+  protected ExecutionException toExecutionException(Operation operation, RuntimeException e) {
+    logger.error(e.getMessage(), e);
+    return new ExecutionException(e.getMessage(), e);
+  }
+
   /**
    * Returns a {@link PreparedStatement} based on the given query string
    *
@@ -94,12 +177,35 @@ public abstract class StatementHandler {
     overwriteConsistency(bound, operation);
   }
 
+  /**
+   * Sets the time remaining until the earliest deadline of the specified operations as the read
+   * timeout of the statement, so that the driver gives up waiting for the response at the deadline
+   *
+   * @param statement a {@code Statement}
+   * @param operations {@code Operation}s executed by the statement
+   * @throws IllegalStateException if the deadline has already passed
+   */
+  static void setReadTimeout(Statement statement, List<? extends Operation> operations) {
+    OptionalLong remaining = ScalarDbUtils.getRemainingTimeMillis(operations);
+    if (!remaining.isPresent()) {
+      return;
+    }
+    if (remaining.getAsLong() <= 0) {
+      throw new IllegalStateException("the deadline of the operation has already passed");
+    }
+    statement.setReadTimeoutMillis((int) Math.min(remaining.getAsLong(), Integer.MAX_VALUE));
+  }
+
   protected abstract PreparedStatement prepare(Operation operation);
 
   protected abstract BoundStatement bind(PreparedStatement prepared, Operation operation);
 
   protected abstract ResultSet execute(BoundStatement bound, Operation operation);
 
+  protected ResultSetFuture executeAsync(BoundStatement bound, Operation operation) {
+    return session.executeAsync(bound);
+  }
+
   protected abstract void overwriteConsistency(BoundStatement bound, Operation operation);
 
   /**
@@ -0,0 +1,29 @@
+package com.scalar.db.storage.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public final class AsyncUtils {
+
+  private AsyncUtils() {}
+
+  public static <T> CompletableFuture<T> failedFuture(Throwable t) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(t);
+    return future;
+  }
+
+  /**
+   * Returns the cause of the specified {@link CompletionException}. The exceptions passed to the
+   * dependent stages of a {@link CompletableFuture} are wrapped in it.
+   *
+   * @param t a throwable passed to a dependent stage
+   * @return the cause if the throwable is a {@code CompletionException}, the throwable otherwise
+   */
+  public static Throwable unwrap(Throwable t) {
+    if (t instanceof CompletionException && t.getCause() != null) {
+      return t.getCause();
+    }
+    return t;
+  }
+}
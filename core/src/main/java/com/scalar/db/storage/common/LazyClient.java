@@ -0,0 +1,66 @@
+package com.scalar.db.storage.common;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A client that is created on the first access. A storage that uses a client only for some
+ * operations, e.g., an asynchronous client next to a synchronous one, doesn't need to open its
+ * connections until one of the operations is called.
+ *
+ * @param <T> the type of the client
+ */
+@ThreadSafe
+public class LazyClient<T extends AutoCloseable> implements Supplier<T> {
+  private static final Logger logger = LoggerFactory.getLogger(LazyClient.class);
+
+  private final Supplier<T> factory;
+
+  @GuardedBy("this")
+  @Nullable
+  private T client;
+
+  @GuardedBy("this")
+  private boolean closed;
+
+  /** @param factory a factory of the client, which is called at most once */
+  public LazyClient(Supplier<T> factory) {
+    this.factory = checkNotNull(factory);
+  }
+
+  /**
+   * Returns the client, creating it if it hasn't been created yet.
+   *
+   * @return the client
+   * @throws IllegalStateException if this is already closed
+   */
+  @Override
+  public synchronized T get() {
+    checkState(!closed, "the client is already closed");
+    if (client == null) {
+      client = checkNotNull(factory.get());
+    }
+    return client;
+  }
+
+  /** Closes the client if it has been created. */
+  public synchronized void close() {
+    closed = true;
+    if (client == null) {
+      return;
+    }
+    try {
+      client.close();
+    } catch (Exception e) {
+      logger.warn("failed to close the client", e);
+    }
+    client = null;
+  }
+}
@@ -1,5 +1,6 @@
 package com.scalar.db.storage.cosmos;
 
+import com.azure.cosmos.CosmosAsyncClient;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosException;
 import com.scalar.db.api.Mutation;
@@ -8,8 +9,12 @@ import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.exception.storage.RetriableExecutionException;
+import com.scalar.db.storage.common.AsyncUtils;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +29,7 @@ public class BatchHandler {
   private static final Logger logger = LoggerFactory.getLogger(BatchHandler.class);
   private static final String MUTATION_STORED_PROCEDURE = "mutate.js";
   private final CosmosClient client;
+  private final Supplier<CosmosAsyncClient> asyncClient;
   private final TableMetadataManager metadataManager;
 
   /**
@@ -31,10 +37,16 @@ public class BatchHandler {
    * TableMetadataManager}
    *
    * @param client {@code CosmosClient} to create a statement with
+   * @param asyncClient a supplier of {@code CosmosAsyncClient} to execute a statement
+   *     asynchronously with
    * @param metadataManager {@code TableMetadataManager}
    */
-  public BatchHandler(CosmosClient client, TableMetadataManager metadataManager) {
+  public BatchHandler(
+      CosmosClient client,
+      Supplier<CosmosAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
     this.client = client;
+    this.asyncClient = asyncClient;
     this.metadataManager = metadataManager;
   }
 
@@ -47,16 +59,67 @@ public class BatchHandler {
    *     didn't meet the condition
    */
   public void handle(List<? extends Mutation> mutations) throws ExecutionException {
+    StatementHandler.checkDeadline(mutations);
     TableMetadata tableMetadata = metadataManager.getTableMetadata(mutations.get(0));
     try {
-      executeStoredProcedure(mutations, tableMetadata);
+      CosmosMutation cosmosMutation = new CosmosMutation(mutations.get(0), tableMetadata);
+      client
+          .getDatabase(mutations.get(0).forNamespace().get())
+          .getContainer(mutations.get(0).forTable().get())
+          .getScripts()
+          .getStoredProcedure(MUTATION_STORED_PROCEDURE)
+          .execute(
+              makeStoredProcedureArgs(mutations, tableMetadata),
+              cosmosMutation.getStoredProcedureOptions());
     } catch (CosmosException e) {
-      throwException(e);
+      throw toExecutionException(e);
     }
   }
 
-  private void executeStoredProcedure(
-      List<? extends Mutation> mutations, TableMetadata tableMetadata) throws CosmosException {
+  /**
+   * Execute the specified list of {@link Mutation}s in batch asynchronously. All the {@link
+   * Mutation}s in the list must be for the same partition.
+   *
+   * @param mutations a list of {@code Mutation}s to execute
+   * @return a {@code CompletableFuture} which completes exceptionally with {@link
+   *     NoMutationException} if at least one of conditional {@code Mutation}s failed because it
+   *     didn't meet the condition
+   */
+  public CompletableFuture<Void> handleAsync(List<? extends Mutation> mutations) {
+    CompletableFuture<?> future;
+    try {
+      StatementHandler.checkDeadline(mutations);
+      TableMetadata tableMetadata = metadataManager.getTableMetadata(mutations.get(0));
+      CosmosMutation cosmosMutation = new CosmosMutation(mutations.get(0), tableMetadata);
+      future =
+          asyncClient
+              .get()
+              .getDatabase(mutations.get(0).forNamespace().get())
+              .getContainer(mutations.get(0).forTable().get())
+              .getScripts()
+              .getStoredProcedure(MUTATION_STORED_PROCEDURE)
+              .execute(
+                  makeStoredProcedureArgs(mutations, tableMetadata),
+                  cosmosMutation.getStoredProcedureOptions())
+              .toFuture();
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+    return future.handle(
+        (response, t) -> {
+          if (t != null) {
+            Throwable cause = AsyncUtils.unwrap(t);
+            if (cause instanceof CosmosException) {
+              throw new CompletionException(toExecutionException((CosmosException) cause));
+            }
+            throw new CompletionException(new ExecutionException(cause.getMessage(), cause));
+          }
+          return null;
+        });
+  }
+
+  private List<Object> makeStoredProcedureArgs(
+      List<? extends Mutation> mutations, TableMetadata tableMetadata) {
     List<Integer> types = new ArrayList<>();
     List<Record> records = new ArrayList<>();
     List<String> queries = new ArrayList<>();
@@ -73,26 +136,19 @@ public class BatchHandler {
     args.addAll(types);
     args.addAll(records);
     args.addAll(queries);
-
-    CosmosMutation cosmosMutation = new CosmosMutation(mutations.get(0), tableMetadata);
-    client
-        .getDatabase(mutations.get(0).forNamespace().get())
-        .getContainer(mutations.get(0).forTable().get())
-        .getScripts()
-        .getStoredProcedure(MUTATION_STORED_PROCEDURE)
-        .execute(args, cosmosMutation.getStoredProcedureOptions());
+    return args;
   }
 
-  private void throwException(CosmosException exception) throws ExecutionException {
+  private ExecutionException toExecutionException(CosmosException exception) {
     logger.error(exception.getMessage(), exception);
     int statusCode = exception.getSubStatusCode();
 
     if (statusCode == CosmosErrorCode.PRECONDITION_FAILED.get()) {
-      throw new NoMutationException("no mutation was applied.");
+      return new NoMutationException("no mutation was applied.");
     } else if (statusCode == CosmosErrorCode.RETRY_WITH.get()) {
-      throw new RetriableExecutionException(exception.getMessage(), exception);
+      return new RetriableExecutionException(exception.getMessage(), exception);
     }
 
-    throw new ExecutionException(exception.getMessage(), exception);
+    return new ExecutionException(exception.getMessage(), exception);
   }
 }
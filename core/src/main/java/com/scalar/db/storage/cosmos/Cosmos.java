@@ -3,6 +3,7 @@ package com.scalar.db.storage.cosmos;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.azure.cosmos.ConsistencyLevel;
+import com.azure.cosmos.CosmosAsyncClient;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosClientBuilder;
 import com.google.inject.Inject;
@@ -18,9 +19,13 @@ import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.config.DatabaseConfig;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.storage.common.AbstractDistributedStorage;
+import com.scalar.db.storage.common.AsyncUtils;
+import com.scalar.db.storage.common.LazyClient;
 import com.scalar.db.storage.common.checker.OperationChecker;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
@@ -36,6 +41,7 @@ public class Cosmos extends AbstractDistributedStorage {
   private static final Logger logger = LoggerFactory.getLogger(Cosmos.class);
 
   private final CosmosClient client;
+  private final LazyClient<CosmosAsyncClient> asyncClient;
   private final SelectStatementHandler selectStatementHandler;
   private final PutStatementHandler putStatementHandler;
   private final DeleteStatementHandler deleteStatementHandler;
@@ -46,23 +52,26 @@ public class Cosmos extends AbstractDistributedStorage {
   public Cosmos(DatabaseConfig databaseConfig) {
     CosmosConfig config = new CosmosConfig(databaseConfig);
 
-    client =
+    CosmosClientBuilder builder =
         new CosmosClientBuilder()
             .endpoint(config.getEndpoint())
             .key(config.getKey())
             .directMode()
-            .consistencyLevel(ConsistencyLevel.STRONG)
-            .buildClient();
+            .consistencyLevel(ConsistencyLevel.STRONG);
+    client = builder.buildClient();
+    // the synchronous client doesn't expose its underlying asynchronous client, so another one is
+    // built with the same settings when an asynchronous operation is called for the first time
+    asyncClient = new LazyClient<>(builder::buildAsyncClient);
 
     TableMetadataManager metadataManager =
         new TableMetadataManager(
             new CosmosAdmin(client, config), databaseConfig.getMetadataCacheExpirationTimeSecs());
     operationChecker = new OperationChecker(metadataManager);
 
-    selectStatementHandler = new SelectStatementHandler(client, metadataManager);
-    putStatementHandler = new PutStatementHandler(client, metadataManager);
-    deleteStatementHandler = new DeleteStatementHandler(client, metadataManager);
-    batchHandler = new BatchHandler(client, metadataManager);
+    selectStatementHandler = new SelectStatementHandler(client, asyncClient, metadataManager);
+    putStatementHandler = new PutStatementHandler(client, asyncClient, metadataManager);
+    deleteStatementHandler = new DeleteStatementHandler(client, asyncClient, metadataManager);
+    batchHandler = new BatchHandler(client, asyncClient, metadataManager);
 
     logger.info("Cosmos DB object is created properly.");
   }
@@ -137,8 +146,59 @@ public class Cosmos extends AbstractDistributedStorage {
     batchHandler.handle(mutations);
   }
 
+  @Override
+  public CompletableFuture<Optional<Result>> getAsync(Get get) {
+    Get copied = copyAndSetTargetToIfNot(get);
+    try {
+      operationChecker.check(copied);
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    return selectStatementHandler
+        .handleAsync(copied)
+        .thenApply(
+            scanner -> {
+              try {
+                Optional<Result> ret = scanner.one();
+                if (scanner.one().isPresent()) {
+                  throw new IllegalArgumentException(
+                      "please use scan() for non-exact match selection");
+                }
+                return ret;
+              } catch (ExecutionException e) {
+                throw new CompletionException(e);
+              }
+            });
+  }
+
+  @Override
+  public CompletableFuture<Void> mutateAsync(List<? extends Mutation> mutations) {
+    checkArgument(mutations.size() != 0);
+    List<? extends Mutation> copied = copyAndSetTargetToIfNot(mutations);
+    try {
+      operationChecker.check(copied);
+      for (Mutation mutation : copied) {
+        operationChecker.check(mutation);
+      }
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    if (copied.size() == 1) {
+      Mutation mutation = copied.get(0);
+      if (mutation instanceof Put) {
+        return putStatementHandler.handleAsync(mutation);
+      } else {
+        return deleteStatementHandler.handleAsync(mutation);
+      }
+    }
+    return batchHandler.handleAsync(copied);
+  }
+
   @Override
   public void close() {
     client.close();
+    asyncClient.close();
   }
 }
@@ -1,5 +1,6 @@
 package com.scalar.db.storage.cosmos;
 
+import com.azure.cosmos.CosmosAsyncClient;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.models.CosmosItemRequestOptions;
@@ -9,6 +10,8 @@ import com.scalar.db.api.Mutation;
 import com.scalar.db.api.TableMetadata;
 import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -19,8 +22,11 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public class DeleteStatementHandler extends MutateStatementHandler {
 
-  public DeleteStatementHandler(CosmosClient client, TableMetadataManager metadataManager) {
-    super(client, metadataManager);
+  public DeleteStatementHandler(
+      CosmosClient client,
+      Supplier<CosmosAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
+    super(client, asyncClient, metadataManager);
   }
 
   @Override
@@ -33,6 +39,23 @@ public class DeleteStatementHandler extends MutateStatementHandler {
     }
   }
 
+  @Override
+  protected CompletableFuture<?> executeAsync(Mutation mutation) throws ExecutionException {
+    TableMetadata tableMetadata = metadataManager.getTableMetadata(mutation);
+    CosmosMutation cosmosMutation = new CosmosMutation(mutation, tableMetadata);
+    cosmosMutation.checkArgument(Delete.class);
+
+    if (!mutation.getCondition().isPresent() && cosmosMutation.isPrimaryKeySpecified()) {
+      return getAsyncContainer(mutation)
+          .deleteItem(
+              cosmosMutation.getId(),
+              cosmosMutation.getCosmosPartitionKey(),
+              new CosmosItemRequestOptions())
+          .toFuture();
+    }
+    return executeStoredProcedureAsync(mutation, tableMetadata);
+  }
+
   private void execute(Mutation mutation, TableMetadata tableMetadata) throws CosmosException {
     CosmosMutation cosmosMutation = new CosmosMutation(mutation, tableMetadata);
     cosmosMutation.checkArgument(Delete.class);
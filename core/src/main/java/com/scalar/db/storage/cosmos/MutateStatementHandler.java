@@ -1,5 +1,6 @@
 package com.scalar.db.storage.cosmos;
 
+import com.azure.cosmos.CosmosAsyncClient;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosException;
 import com.scalar.db.api.Mutation;
@@ -8,8 +9,13 @@ import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.exception.storage.RetriableExecutionException;
+import com.scalar.db.storage.common.AsyncUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,9 +26,13 @@ public abstract class MutateStatementHandler extends StatementHandler {
   private static final Logger logger = LoggerFactory.getLogger(MutateStatementHandler.class);
   private static final String MUTATION_STORED_PROCEDURE = "mutate.js";
 
-  public MutateStatementHandler(CosmosClient client, TableMetadataManager metadataManager) {
-    super(client, metadataManager);
+  public MutateStatementHandler(
+      CosmosClient client,
+      Supplier<CosmosAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
+    super(client, asyncClient, metadataManager);
   }
+
   /**
    * Executes the specified {@code Mutation}
    *
@@ -30,42 +40,89 @@ public abstract class MutateStatementHandler extends StatementHandler {
    * @throws ExecutionException if the execution failed
    */
   public void handle(Mutation mutation) throws ExecutionException {
+    checkDeadline(Collections.singletonList(mutation));
     try {
       execute(mutation);
-    } catch (CosmosException e) {
-      throwException(e);
     } catch (RuntimeException e) {
-      throw new ExecutionException(e.getMessage(), e);
+      throw toExecutionException(e);
+    }
+  }
+
+  /**
+   * Executes the specified {@code Mutation} asynchronously
+   *
+   * @param mutation a {@code Mutation} to execute
+   * @return a {@code CompletableFuture} which completes exceptionally with {@link
+   *     ExecutionException} if the execution failed
+   */
+  public CompletableFuture<Void> handleAsync(Mutation mutation) {
+    CompletableFuture<?> future;
+    try {
+      checkDeadline(Collections.singletonList(mutation));
+      future = executeAsync(mutation);
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    } catch (RuntimeException e) {
+      return AsyncUtils.failedFuture(toExecutionException(e));
     }
+    return future.handle(
+        (response, t) -> {
+          if (t != null) {
+            throw new CompletionException(toExecutionException(AsyncUtils.unwrap(t)));
+          }
+          return null;
+        });
   }
 
   abstract void execute(Mutation mutation) throws CosmosException, ExecutionException;
 
+  abstract CompletableFuture<?> executeAsync(Mutation mutation) throws ExecutionException;
+
   protected void executeStoredProcedure(Mutation mutation, TableMetadata tableMetadata)
       throws CosmosException {
     CosmosMutation cosmosMutation = new CosmosMutation(mutation, tableMetadata);
+    getContainer(mutation)
+        .getScripts()
+        .getStoredProcedure(MUTATION_STORED_PROCEDURE)
+        .execute(
+            makeStoredProcedureArgs(cosmosMutation), cosmosMutation.getStoredProcedureOptions());
+  }
+
+  protected CompletableFuture<?> executeStoredProcedureAsync(
+      Mutation mutation, TableMetadata tableMetadata) {
+    CosmosMutation cosmosMutation = new CosmosMutation(mutation, tableMetadata);
+    return getAsyncContainer(mutation)
+        .getScripts()
+        .getStoredProcedure(MUTATION_STORED_PROCEDURE)
+        .execute(
+            makeStoredProcedureArgs(cosmosMutation), cosmosMutation.getStoredProcedureOptions())
+        .toFuture();
+  }
+
+  private List<Object> makeStoredProcedureArgs(CosmosMutation cosmosMutation) {
     List<Object> args = new ArrayList<>();
     args.add(1);
     args.add(cosmosMutation.getMutationType().ordinal());
     args.add(cosmosMutation.makeRecord());
     args.add(cosmosMutation.makeConditionalQuery());
-
-    getContainer(mutation)
-        .getScripts()
-        .getStoredProcedure(MUTATION_STORED_PROCEDURE)
-        .execute(args, cosmosMutation.getStoredProcedureOptions());
+    return args;
   }
 
-  private void throwException(CosmosException exception) throws ExecutionException {
+  private ExecutionException toExecutionException(Throwable t) {
+    if (!(t instanceof CosmosException)) {
+      return new ExecutionException(t.getMessage(), t);
+    }
+
+    CosmosException exception = (CosmosException) t;
     logger.error(exception.getMessage());
     int statusCode = exception.getSubStatusCode();
 
     if (statusCode == CosmosErrorCode.PRECONDITION_FAILED.get()) {
-      throw new NoMutationException("no mutation was applied.");
+      return new NoMutationException("no mutation was applied.");
     } else if (statusCode == CosmosErrorCode.RETRY_WITH.get()) {
-      throw new RetriableExecutionException(exception.getMessage(), exception);
+      return new RetriableExecutionException(exception.getMessage(), exception);
     }
 
-    throw new ExecutionException(exception.getMessage(), exception);
+    return new ExecutionException(exception.getMessage(), exception);
   }
 }
@@ -1,11 +1,14 @@
 package com.scalar.db.storage.cosmos;
 
+import com.azure.cosmos.CosmosAsyncClient;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosException;
 import com.scalar.db.api.Mutation;
 import com.scalar.db.api.TableMetadata;
 import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -16,8 +19,11 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public class PutStatementHandler extends MutateStatementHandler {
 
-  public PutStatementHandler(CosmosClient client, TableMetadataManager metadataManager) {
-    super(client, metadataManager);
+  public PutStatementHandler(
+      CosmosClient client,
+      Supplier<CosmosAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
+    super(client, asyncClient, metadataManager);
   }
 
   @Override
@@ -25,4 +31,10 @@ public class PutStatementHandler extends MutateStatementHandler {
     TableMetadata tableMetadata = metadataManager.getTableMetadata(mutation);
     executeStoredProcedure(mutation, tableMetadata);
   }
+
+  @Override
+  protected CompletableFuture<?> executeAsync(Mutation mutation) throws ExecutionException {
+    TableMetadata tableMetadata = metadataManager.getTableMetadata(mutation);
+    return executeStoredProcedureAsync(mutation, tableMetadata);
+  }
 }
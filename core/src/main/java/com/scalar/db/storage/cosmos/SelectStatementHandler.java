@@ -2,6 +2,7 @@ package com.scalar.db.storage.cosmos;
 
 import static com.scalar.db.storage.cosmos.CosmosUtils.quoteKeyword;
 
+import com.azure.cosmos.CosmosAsyncClient;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.models.CosmosQueryRequestOptions;
@@ -17,11 +18,16 @@ import com.scalar.db.api.TableMetadata;
 import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.io.Column;
+import com.scalar.db.storage.common.AsyncUtils;
 import com.scalar.db.storage.common.EmptyScanner;
 import com.scalar.db.util.ScalarDbUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -43,8 +49,11 @@ import org.jooq.impl.DSL;
 @ThreadSafe
 public class SelectStatementHandler extends StatementHandler {
 
-  public SelectStatementHandler(CosmosClient client, TableMetadataManager metadataManager) {
-    super(client, metadataManager);
+  public SelectStatementHandler(
+      CosmosClient client,
+      Supplier<CosmosAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
+    super(client, asyncClient, metadataManager);
   }
 
   /**
@@ -56,6 +65,7 @@ public class SelectStatementHandler extends StatementHandler {
    */
   @Nonnull
   protected Scanner handle(Selection selection) throws ExecutionException {
+    checkDeadline(Collections.singletonList(selection));
     TableMetadata tableMetadata = metadataManager.getTableMetadata(selection);
     try {
       if (selection instanceof Get) {
@@ -74,6 +84,50 @@ public class SelectStatementHandler extends StatementHandler {
     }
   }
 
+  /**
+   * Executes the specified {@code Get} asynchronously. Only a point read, i.e., a {@code Get}
+   * without projections and a secondary index, is executed asynchronously, and the other ones are
+   * executed synchronously since their results are fetched by paging through a query.
+   *
+   * @param get a {@code Get} to execute
+   * @return a {@code CompletableFuture} of a {@code Scanner}, which completes exceptionally with
+   *     {@link ExecutionException} if the execution failed
+   */
+  @Nonnull
+  protected CompletableFuture<Scanner> handleAsync(Get get) {
+    TableMetadata tableMetadata;
+    try {
+      checkDeadline(Collections.singletonList(get));
+      tableMetadata = metadataManager.getTableMetadata(get);
+      if (!get.getProjections().isEmpty()
+          || ScalarDbUtils.isSecondaryIndexSpecified(get, tableMetadata)) {
+        return CompletableFuture.completedFuture(handle(get));
+      }
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    CosmosOperation cosmosOperation = new CosmosOperation(get, tableMetadata);
+    cosmosOperation.checkArgument(Get.class);
+    ResultInterpreter interpreter = new ResultInterpreter(get.getProjections(), tableMetadata);
+    return getAsyncContainer(get)
+        .readItem(cosmosOperation.getId(), cosmosOperation.getCosmosPartitionKey(), Record.class)
+        .toFuture()
+        .handle(
+            (response, t) -> {
+              if (t != null) {
+                Throwable cause = AsyncUtils.unwrap(t);
+                if (cause instanceof CosmosException
+                    && ((CosmosException) cause).getStatusCode()
+                        == CosmosErrorCode.NOT_FOUND.get()) {
+                  return new EmptyScanner();
+                }
+                throw new CompletionException(new ExecutionException(cause.getMessage(), cause));
+              }
+              return new SingleRecordScanner(response.getItem(), interpreter);
+            });
+  }
+
   private Scanner executeRead(Get get, TableMetadata tableMetadata) throws CosmosException {
     CosmosOperation cosmosOperation = new CosmosOperation(get, tableMetadata);
     cosmosOperation.checkArgument(Get.class);
@@ -2,10 +2,17 @@ package com.scalar.db.storage.cosmos;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosContainer;
 import com.scalar.db.api.Operation;
 import com.scalar.db.common.TableMetadataManager;
+import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.util.ScalarDbUtils;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -13,23 +20,53 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public abstract class StatementHandler {
   protected final CosmosClient client;
+  protected final Supplier<CosmosAsyncClient> asyncClient;
   protected final TableMetadataManager metadataManager;
 
   /**
-   * Constructs a {@code StatementHandler} with the specified {@link CosmosClient}
+   * Constructs a {@code StatementHandler} with the specified {@link CosmosClient} and {@link
+   * CosmosAsyncClient}
    *
    * @param client {@code CosmosClient}
+   * @param asyncClient a supplier of {@code CosmosAsyncClient}, which is called by the asynchronous
+   *     operations only
    * @param metadataManager {@code TableMetadataManager}
    */
-  protected StatementHandler(CosmosClient client, TableMetadataManager metadataManager) {
+  protected StatementHandler(
+      CosmosClient client,
+      Supplier<CosmosAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
     this.client = checkNotNull(client);
+    this.asyncClient = checkNotNull(asyncClient);
     this.metadataManager = checkNotNull(metadataManager);
   }
 
+  /**
+   * Fails the specified operations if their deadline has already passed. The Cosmos DB SDK doesn't
+   * support a timeout per request, so the deadline is only checked before a request is sent.
+   *
+   * @param operations operations to execute
+   * @throws ExecutionException if the deadline has already passed
+   */
+  static void checkDeadline(List<? extends Operation> operations) throws ExecutionException {
+    OptionalLong remaining = ScalarDbUtils.getRemainingTimeMillis(operations);
+    if (remaining.isPresent() && remaining.getAsLong() <= 0) {
+      throw new ExecutionException("the deadline of the operation has already passed");
+    }
+  }
+
   @Nonnull
   protected CosmosContainer getContainer(Operation operation) {
     return client
         .getDatabase(operation.forNamespace().get())
         .getContainer(operation.forTable().get());
   }
+
+  @Nonnull
+  protected CosmosAsyncContainer getAsyncContainer(Operation operation) {
+    return asyncClient
+        .get()
+        .getDatabase(operation.forNamespace().get())
+        .getContainer(operation.forTable().get());
+  }
 }
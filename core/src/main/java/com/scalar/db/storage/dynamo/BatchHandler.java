@@ -9,10 +9,15 @@ import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.exception.storage.RetriableExecutionException;
+import com.scalar.db.storage.common.AsyncUtils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
@@ -31,6 +36,7 @@ import software.amazon.awssdk.services.dynamodb.model.Update;
 @ThreadSafe
 public class BatchHandler {
   private final DynamoDbClient client;
+  private final Supplier<DynamoDbAsyncClient> asyncClient;
   private final TableMetadataManager metadataManager;
 
   /**
@@ -38,10 +44,16 @@ public class BatchHandler {
    * TableMetadataManager}
    *
    * @param client {@code DynamoDbClient} to create a statement with
+   * @param asyncClient a supplier of {@code DynamoDbAsyncClient} to execute a statement
+   *     asynchronously with
    * @param metadataManager {@code TableMetadataManager}
    */
-  public BatchHandler(DynamoDbClient client, TableMetadataManager metadataManager) {
+  public BatchHandler(
+      DynamoDbClient client,
+      Supplier<DynamoDbAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
     this.client = client;
+    this.asyncClient = asyncClient;
     this.metadataManager = metadataManager;
   }
 
@@ -54,6 +66,44 @@ public class BatchHandler {
    *     didn't meet the condition
    */
   public void handle(List<? extends Mutation> mutations) throws ExecutionException {
+    TransactWriteItemsRequest request = makeRequest(mutations);
+    try {
+      client.transactWriteItems(request);
+    } catch (DynamoDbException e) {
+      throw toExecutionException(e);
+    }
+  }
+
+  /**
+   * Execute the specified list of {@link Mutation}s in batch asynchronously. All the {@link
+   * Mutation}s in the list must be for the same partition.
+   *
+   * @param mutations a list of {@code Mutation}s to execute
+   * @return a {@code CompletableFuture} which completes exceptionally with {@link
+   *     NoMutationException} if at least one of conditional {@code Mutation}s failed because it
+   *     didn't meet the condition
+   */
+  public CompletableFuture<Void> handleAsync(List<? extends Mutation> mutations) {
+    TransactWriteItemsRequest request;
+    try {
+      request = makeRequest(mutations);
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+    return asyncClient
+        .get()
+        .transactWriteItems(request)
+        .handle(
+            (response, t) -> {
+              if (t != null) {
+                throw new CompletionException(toExecutionException(AsyncUtils.unwrap(t)));
+              }
+              return null;
+            });
+  }
+
+  private TransactWriteItemsRequest makeRequest(List<? extends Mutation> mutations)
+      throws ExecutionException {
     if (mutations.size() > 25) {
       throw new IllegalArgumentException("DynamoDB cannot batch more than 25 mutations at once.");
     }
@@ -64,14 +114,17 @@ public class BatchHandler {
     List<TransactWriteItem> transactItems = new ArrayList<>();
     mutations.forEach(m -> transactItems.add(makeWriteItem(m, tableMetadata)));
     builder.transactItems(transactItems);
+    DynamoOperation.setApiCallTimeout(builder, mutations);
+    return builder.build();
+  }
 
-    try {
-      client.transactWriteItems(builder.build());
-    } catch (TransactionCanceledException e) {
+  private ExecutionException toExecutionException(Throwable t) {
+    if (t instanceof TransactionCanceledException) {
+      TransactionCanceledException e = (TransactionCanceledException) t;
       boolean allReasonsAreTransactionConflicts = true;
       for (CancellationReason reason : e.cancellationReasons()) {
         if (reason.code().equals("ConditionalCheckFailed")) {
-          throw new NoMutationException("no mutation was applied.", e);
+          return new NoMutationException("no mutation was applied.", e);
         }
         if (!reason.code().equals("TransactionConflict") && !reason.code().equals("None")) {
           allReasonsAreTransactionConflicts = false;
@@ -80,12 +133,10 @@ public class BatchHandler {
       if (allReasonsAreTransactionConflicts) {
         // If all the reasons of the cancellation are "TransactionConflict", throw
         // RetriableExecutionException
-        throw new RetriableExecutionException(e.getMessage(), e);
+        return new RetriableExecutionException(e.getMessage(), e);
       }
-      throw new ExecutionException(e.getMessage(), e);
-    } catch (DynamoDbException e) {
-      throw new ExecutionException(e.getMessage(), e);
     }
+    return new ExecutionException(t.getMessage(), t);
   }
 
   private TransactWriteItem makeWriteItem(Mutation mutation, TableMetadata tableMetadata) {
@@ -7,16 +7,18 @@ import com.scalar.db.api.DeleteIfExists;
 import com.scalar.db.api.TableMetadata;
 import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
-import com.scalar.db.exception.storage.NoMutationException;
-import com.scalar.db.exception.storage.RetriableExecutionException;
+import com.scalar.db.storage.common.AsyncUtils;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
-import software.amazon.awssdk.services.dynamodb.model.TransactionConflictException;
 
 /**
  * A handler class for delete statements
@@ -26,27 +28,56 @@ import software.amazon.awssdk.services.dynamodb.model.TransactionConflictExcepti
 @ThreadSafe
 public class DeleteStatementHandler {
   private final DynamoDbClient client;
+  private final Supplier<DynamoDbAsyncClient> asyncClient;
   private final TableMetadataManager metadataManager;
 
-  public DeleteStatementHandler(DynamoDbClient client, TableMetadataManager metadataManager) {
+  public DeleteStatementHandler(
+      DynamoDbClient client,
+      Supplier<DynamoDbAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
     this.client = checkNotNull(client);
+    this.asyncClient = checkNotNull(asyncClient);
     this.metadataManager = checkNotNull(metadataManager);
   }
 
   public void handle(Delete delete) throws ExecutionException {
     TableMetadata tableMetadata = metadataManager.getTableMetadata(delete);
     try {
-      delete(delete, tableMetadata);
-    } catch (ConditionalCheckFailedException e) {
-      throw new NoMutationException("no mutation was applied.", e);
-    } catch (TransactionConflictException e) {
-      throw new RetriableExecutionException(e.getMessage(), e);
+      client.deleteItem(makeRequest(delete, tableMetadata));
     } catch (DynamoDbException e) {
-      throw new ExecutionException(e.getMessage(), e);
+      throw PutStatementHandler.toExecutionException(e);
     }
   }
 
-  private void delete(Delete delete, TableMetadata tableMetadata) {
+  /**
+   * Executes the specified {@link Delete} asynchronously
+   *
+   * @param delete a {@code Delete} to execute
+   * @return a {@code CompletableFuture} which completes exceptionally with {@link
+   *     ExecutionException} if the execution failed
+   */
+  public CompletableFuture<Void> handleAsync(Delete delete) {
+    DeleteItemRequest request;
+    try {
+      request = makeRequest(delete, metadataManager.getTableMetadata(delete));
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+    return asyncClient
+        .get()
+        .deleteItem(request)
+        .handle(
+            (response, t) -> {
+              if (t != null) {
+                throw new CompletionException(
+                    PutStatementHandler.toExecutionException(AsyncUtils.unwrap(t)));
+              }
+              return null;
+            });
+  }
+
+  private DeleteItemRequest makeRequest(Delete delete, TableMetadata tableMetadata)
+      throws ExecutionException {
     DynamoMutation dynamoMutation = new DynamoMutation(delete, tableMetadata);
 
     DeleteItemRequest.Builder builder =
@@ -69,6 +100,7 @@ public class DeleteStatementHandler {
       builder.conditionExpression(condition);
     }
 
-    client.deleteItem(builder.build());
+    DynamoOperation.setApiCallTimeout(builder, Collections.singletonList(delete));
+    return builder.build();
   }
 }
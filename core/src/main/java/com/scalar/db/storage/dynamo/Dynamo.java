@@ -15,11 +15,15 @@ import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.config.DatabaseConfig;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.storage.common.AbstractDistributedStorage;
+import com.scalar.db.storage.common.AsyncUtils;
+import com.scalar.db.storage.common.LazyClient;
 import com.scalar.db.storage.common.checker.OperationChecker;
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
@@ -27,6 +31,8 @@ import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 
@@ -40,6 +46,7 @@ public class Dynamo extends AbstractDistributedStorage {
   private static final Logger logger = LoggerFactory.getLogger(Dynamo.class);
 
   private final DynamoDbClient client;
+  private final LazyClient<DynamoDbAsyncClient> asyncClient;
   private final SelectStatementHandler selectStatementHandler;
   private final PutStatementHandler putStatementHandler;
   private final DeleteStatementHandler deleteStatementHandler;
@@ -50,26 +57,42 @@ public class Dynamo extends AbstractDistributedStorage {
   public Dynamo(DatabaseConfig databaseConfig) {
     DynamoConfig config = new DynamoConfig(databaseConfig);
 
+    StaticCredentialsProvider credentialsProvider =
+        StaticCredentialsProvider.create(
+            AwsBasicCredentials.create(config.getAccessKeyId(), config.getSecretAccessKey()));
+
     DynamoDbClientBuilder builder = DynamoDbClient.builder();
     config.getEndpointOverride().ifPresent(e -> builder.endpointOverride(URI.create(e)));
     client =
         builder
-            .credentialsProvider(
-                StaticCredentialsProvider.create(
-                    AwsBasicCredentials.create(
-                        config.getAccessKeyId(), config.getSecretAccessKey())))
+            .credentialsProvider(credentialsProvider)
             .region(Region.of(config.getRegion()))
             .build();
 
+    // the asynchronous client has its own connections, so it's built when an asynchronous
+    // operation is called for the first time
+    asyncClient =
+        new LazyClient<>(
+            () -> {
+              DynamoDbAsyncClientBuilder asyncBuilder = DynamoDbAsyncClient.builder();
+              config
+                  .getEndpointOverride()
+                  .ifPresent(e -> asyncBuilder.endpointOverride(URI.create(e)));
+              return asyncBuilder
+                  .credentialsProvider(credentialsProvider)
+                  .region(Region.of(config.getRegion()))
+                  .build();
+            });
+
     TableMetadataManager metadataManager =
         new TableMetadataManager(
             new DynamoAdmin(client, config), databaseConfig.getMetadataCacheExpirationTimeSecs());
     operationChecker = new DynamoOperationChecker(metadataManager);
 
-    selectStatementHandler = new SelectStatementHandler(client, metadataManager);
-    putStatementHandler = new PutStatementHandler(client, metadataManager);
-    deleteStatementHandler = new DeleteStatementHandler(client, metadataManager);
-    batchHandler = new BatchHandler(client, metadataManager);
+    selectStatementHandler = new SelectStatementHandler(client, asyncClient, metadataManager);
+    putStatementHandler = new PutStatementHandler(client, asyncClient, metadataManager);
+    deleteStatementHandler = new DeleteStatementHandler(client, asyncClient, metadataManager);
+    batchHandler = new BatchHandler(client, asyncClient, metadataManager);
 
     logger.info("DynamoDB object is created properly.");
   }
@@ -154,8 +177,65 @@ public class Dynamo extends AbstractDistributedStorage {
     batchHandler.handle(mutations);
   }
 
+  @Override
+  public CompletableFuture<Optional<Result>> getAsync(Get get) {
+    Get copied = copyAndSetTargetToIfNot(get);
+    try {
+      operationChecker.check(copied);
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    return selectStatementHandler
+        .handleAsync(copied)
+        .thenApply(
+            scanner -> {
+              try {
+                Optional<Result> ret = scanner.one();
+                if (scanner.one().isPresent()) {
+                  throw new IllegalArgumentException(
+                      "please use scan() for non-exact match selection");
+                }
+                return ret;
+              } catch (ExecutionException e) {
+                throw new CompletionException(e);
+              } finally {
+                try {
+                  scanner.close();
+                } catch (IOException e) {
+                  logger.warn("failed to close the scanner", e);
+                }
+              }
+            });
+  }
+
+  @Override
+  public CompletableFuture<Void> mutateAsync(List<? extends Mutation> mutations) {
+    checkArgument(mutations.size() != 0);
+    List<? extends Mutation> copied = copyAndSetTargetToIfNot(mutations);
+    try {
+      operationChecker.check(copied);
+      for (Mutation mutation : copied) {
+        operationChecker.check(mutation);
+      }
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    if (copied.size() == 1) {
+      Mutation mutation = copied.get(0);
+      if (mutation instanceof Put) {
+        return putStatementHandler.handleAsync((Put) mutation);
+      } else {
+        return deleteStatementHandler.handleAsync((Delete) mutation);
+      }
+    }
+    return batchHandler.handleAsync(copied);
+  }
+
   @Override
   public void close() {
     client.close();
+    asyncClient.close();
   }
 }
@@ -2,13 +2,20 @@ package com.scalar.db.storage.dynamo;
 
 import com.scalar.db.api.Operation;
 import com.scalar.db.api.TableMetadata;
+import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.storage.dynamo.bytes.KeyBytesEncoder;
+import com.scalar.db.util.ScalarDbUtils;
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
@@ -35,6 +42,30 @@ public class DynamoOperation {
     this.metadata = metadata;
   }
 
+  /**
+   * Sets the time remaining until the earliest deadline of the specified operations as the API call
+   * timeout of the request, so that the SDK gives up the request including its retries at the
+   * deadline.
+   *
+   * @param builder a builder of the request
+   * @param operations operations executed by the request
+   * @throws ExecutionException if the deadline has already passed
+   */
+  static void setApiCallTimeout(AwsRequest.Builder builder, List<? extends Operation> operations)
+      throws ExecutionException {
+    OptionalLong remaining = ScalarDbUtils.getRemainingTimeMillis(operations);
+    if (!remaining.isPresent()) {
+      return;
+    }
+    if (remaining.getAsLong() <= 0) {
+      throw new ExecutionException("the deadline of the operation has already passed");
+    }
+    builder.overrideConfiguration(
+        AwsRequestOverrideConfiguration.builder()
+            .apiCallTimeout(Duration.ofMillis(remaining.getAsLong()))
+            .build());
+  }
+
   @Nonnull
   public Operation getOperation() {
     return operation;
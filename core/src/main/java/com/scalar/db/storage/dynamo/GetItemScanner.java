@@ -25,7 +25,10 @@ public final class GetItemScanner implements Scanner {
 
   public GetItemScanner(
       DynamoDbClient client, GetItemRequest request, ResultInterpreter resultInterpreter) {
-    GetItemResponse response = client.getItem(request);
+    this(client.getItem(request), resultInterpreter);
+  }
+
+  public GetItemScanner(GetItemResponse response, ResultInterpreter resultInterpreter) {
     if (response.hasItem()) {
       item = response.item();
       hasNext = true;
@@ -10,8 +10,14 @@ import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.exception.storage.RetriableExecutionException;
+import com.scalar.db.storage.common.AsyncUtils;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
@@ -27,27 +33,65 @@ import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 @ThreadSafe
 public class PutStatementHandler {
   private final DynamoDbClient client;
+  private final Supplier<DynamoDbAsyncClient> asyncClient;
   private final TableMetadataManager metadataManager;
 
-  public PutStatementHandler(DynamoDbClient client, TableMetadataManager metadataManager) {
+  public PutStatementHandler(
+      DynamoDbClient client,
+      Supplier<DynamoDbAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
     this.client = checkNotNull(client);
+    this.asyncClient = checkNotNull(asyncClient);
     this.metadataManager = checkNotNull(metadataManager);
   }
 
   public void handle(Put put) throws ExecutionException {
     TableMetadata tableMetadata = metadataManager.getTableMetadata(put);
     try {
-      execute(put, tableMetadata);
-    } catch (ConditionalCheckFailedException e) {
-      throw new NoMutationException("no mutation was applied.", e);
-    } catch (TransactionConflictException e) {
-      throw new RetriableExecutionException(e.getMessage(), e);
+      client.updateItem(makeRequest(put, tableMetadata));
     } catch (DynamoDbException e) {
-      throw new ExecutionException(e.getMessage(), e);
+      throw toExecutionException(e);
     }
   }
 
-  private void execute(Put put, TableMetadata tableMetadata) {
+  /**
+   * Executes the specified {@link Put} asynchronously
+   *
+   * @param put a {@code Put} to execute
+   * @return a {@code CompletableFuture} which completes exceptionally with {@link
+   *     ExecutionException} if the execution failed
+   */
+  public CompletableFuture<Void> handleAsync(Put put) {
+    UpdateItemRequest request;
+    try {
+      request = makeRequest(put, metadataManager.getTableMetadata(put));
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+    return asyncClient
+        .get()
+        .updateItem(request)
+        .handle(
+            (response, t) -> {
+              if (t != null) {
+                throw new CompletionException(toExecutionException(AsyncUtils.unwrap(t)));
+              }
+              return null;
+            });
+  }
+
+  static ExecutionException toExecutionException(Throwable t) {
+    if (t instanceof ConditionalCheckFailedException) {
+      return new NoMutationException("no mutation was applied.", t);
+    }
+    if (t instanceof TransactionConflictException) {
+      return new RetriableExecutionException(t.getMessage(), t);
+    }
+    return new ExecutionException(t.getMessage(), t);
+  }
+
+  private UpdateItemRequest makeRequest(Put put, TableMetadata tableMetadata)
+      throws ExecutionException {
     DynamoMutation dynamoMutation = new DynamoMutation(put, tableMetadata);
     String expression;
     String condition = null;
@@ -77,14 +121,15 @@ public class PutStatementHandler {
       bindMap.putAll(dynamoMutation.getValueBindMap());
     }
 
-    client.updateItem(
+    UpdateItemRequest.Builder builder =
         UpdateItemRequest.builder()
             .tableName(dynamoMutation.getTableName())
             .key(dynamoMutation.getKeyMap())
             .updateExpression(expression)
             .conditionExpression(condition)
             .expressionAttributeValues(bindMap)
-            .expressionAttributeNames(expressionAttributeNameMap)
-            .build());
+            .expressionAttributeNames(expressionAttributeNameMap);
+    DynamoOperation.setApiCallTimeout(builder, Collections.singletonList(put));
+    return builder.build();
   }
 }
@@ -16,19 +16,25 @@ import com.scalar.db.common.TableMetadataManager;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.io.Column;
 import com.scalar.db.io.Key;
+import com.scalar.db.storage.common.AsyncUtils;
 import com.scalar.db.storage.common.EmptyScanner;
 import com.scalar.db.storage.dynamo.bytes.BytesUtils;
 import com.scalar.db.storage.dynamo.bytes.KeyBytesEncoder;
 import com.scalar.db.util.ScalarDbUtils;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
@@ -45,17 +51,24 @@ import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 @ThreadSafe
 public class SelectStatementHandler {
   private final DynamoDbClient client;
+  private final Supplier<DynamoDbAsyncClient> asyncClient;
   private final TableMetadataManager metadataManager;
 
   /**
-   * Constructs a {@code SelectStatementHandler} with the specified {@link DynamoDbClient} and a new
-   * {@link TableMetadataManager}
+   * Constructs a {@code SelectStatementHandler} with the specified {@link DynamoDbClient}, {@link
+   * DynamoDbAsyncClient} and a new {@link TableMetadataManager}
    *
    * @param client {@code DynamoDbClient}
+   * @param asyncClient a supplier of {@code DynamoDbAsyncClient}, which is called by the
+   *     asynchronous operations only
    * @param metadataManager {@code TableMetadataManager}
    */
-  public SelectStatementHandler(DynamoDbClient client, TableMetadataManager metadataManager) {
+  public SelectStatementHandler(
+      DynamoDbClient client,
+      Supplier<DynamoDbAsyncClient> asyncClient,
+      TableMetadataManager metadataManager) {
     this.client = checkNotNull(client);
+    this.asyncClient = checkNotNull(asyncClient);
     this.metadataManager = checkNotNull(metadataManager);
   }
 
@@ -81,7 +94,51 @@ public class SelectStatementHandler {
     }
   }
 
-  private Scanner executeGet(Get get, TableMetadata tableMetadata) {
+  /**
+   * Executes the specified {@link Get} asynchronously. A {@code Get} with a secondary index is
+   * executed synchronously since its results are fetched by paging through a query.
+   *
+   * @param get a {@code Get} to execute
+   * @return a {@code CompletableFuture} of a {@code Scanner}, which completes exceptionally with
+   *     {@link ExecutionException} if the execution failed
+   */
+  @Nonnull
+  public CompletableFuture<Scanner> handleAsync(Get get) {
+    TableMetadata tableMetadata;
+    GetItemRequest request;
+    try {
+      tableMetadata = metadataManager.getTableMetadata(get);
+      if (ScalarDbUtils.isSecondaryIndexSpecified(get, tableMetadata)) {
+        return CompletableFuture.completedFuture(handle(get));
+      }
+      request = makeGetItemRequest(get, tableMetadata);
+    } catch (ExecutionException e) {
+      return AsyncUtils.failedFuture(e);
+    }
+
+    ResultInterpreter interpreter = new ResultInterpreter(get.getProjections(), tableMetadata);
+    return asyncClient
+        .get()
+        .getItem(request)
+        .handle(
+            (response, t) -> {
+              if (t != null) {
+                Throwable cause = AsyncUtils.unwrap(t);
+                throw new CompletionException(new ExecutionException(cause.getMessage(), cause));
+              }
+              return new GetItemScanner(response, interpreter);
+            });
+  }
+
+  private Scanner executeGet(Get get, TableMetadata tableMetadata) throws ExecutionException {
+    return new GetItemScanner(
+        client,
+        makeGetItemRequest(get, tableMetadata),
+        new ResultInterpreter(get.getProjections(), tableMetadata));
+  }
+
+  private GetItemRequest makeGetItemRequest(Get get, TableMetadata tableMetadata)
+      throws ExecutionException {
     DynamoOperation dynamoOperation = new DynamoOperation(get, tableMetadata);
 
     GetItemRequest.Builder builder =
@@ -99,11 +156,12 @@ public class SelectStatementHandler {
       builder.consistentRead(true);
     }
 
-    return new GetItemScanner(
-        client, builder.build(), new ResultInterpreter(get.getProjections(), tableMetadata));
+    DynamoOperation.setApiCallTimeout(builder, Collections.singletonList(get));
+    return builder.build();
   }
 
-  private Scanner executeScanWithIndex(Selection selection, TableMetadata tableMetadata) {
+  private Scanner executeScanWithIndex(Selection selection, TableMetadata tableMetadata)
+      throws ExecutionException {
     DynamoOperation dynamoOperation = new DynamoOperation(selection, tableMetadata);
     Column<?> keyColumn = selection.getPartitionKey().getColumns().get(0);
     String column = keyColumn.getName();
@@ -133,13 +191,14 @@ public class SelectStatementHandler {
         builder.limit(scan.getLimit());
       }
     }
+    DynamoOperation.setApiCallTimeout(builder, Collections.singletonList(selection));
     com.scalar.db.storage.dynamo.request.QueryRequest request =
         new com.scalar.db.storage.dynamo.request.QueryRequest(client, builder.build());
     return new QueryScanner(
         request, new ResultInterpreter(selection.getProjections(), tableMetadata));
   }
 
-  private Scanner executeScan(Scan scan, TableMetadata tableMetadata) {
+  private Scanner executeScan(Scan scan, TableMetadata tableMetadata) throws ExecutionException {
     DynamoOperation dynamoOperation = new DynamoOperation(scan, tableMetadata);
     QueryRequest.Builder builder = QueryRequest.builder().tableName(dynamoOperation.getTableName());
 
@@ -169,13 +228,15 @@ public class SelectStatementHandler {
     if (scan.getConsistency() != Consistency.EVENTUAL) {
       builder.consistentRead(true);
     }
+    DynamoOperation.setApiCallTimeout(builder, Collections.singletonList(scan));
     com.scalar.db.storage.dynamo.request.QueryRequest queryRequest =
         new com.scalar.db.storage.dynamo.request.QueryRequest(client, builder.build());
     return new QueryScanner(
         queryRequest, new ResultInterpreter(scan.getProjections(), tableMetadata));
   }
 
-  private Scanner executeFullScan(ScanAll scan, TableMetadata tableMetadata) {
+  private Scanner executeFullScan(ScanAll scan, TableMetadata tableMetadata)
+      throws ExecutionException {
     DynamoOperation dynamoOperation = new DynamoOperation(scan, tableMetadata);
     ScanRequest.Builder builder = ScanRequest.builder().tableName(dynamoOperation.getTableName());
 
@@ -192,6 +253,7 @@ public class SelectStatementHandler {
     if (scan.getConsistency() != Consistency.EVENTUAL) {
       builder.consistentRead(true);
     }
+    DynamoOperation.setApiCallTimeout(builder, Collections.singletonList(scan));
     com.scalar.db.storage.dynamo.request.ScanRequest requestWrapper =
         new com.scalar.db.storage.dynamo.request.ScanRequest(client, builder.build());
     return new QueryScanner(
@@ -96,6 +96,7 @@ public class ConditionalMutator implements MutationConditionVisitor {
             .build();
     try (PreparedStatement preparedStatement = connection.prepareStatement(insertQuery.sql())) {
       insertQuery.bind(preparedStatement);
+      JdbcUtils.setQueryTimeout(preparedStatement, mutation);
       preparedStatement.executeUpdate();
       isMutated = true;
     } catch (SQLException e) {
@@ -132,6 +133,7 @@ public class ConditionalMutator implements MutationConditionVisitor {
   private void executeMutate(Query query) {
     try (PreparedStatement preparedStatement = connection.prepareStatement(query.sql())) {
       query.bind(preparedStatement);
+      JdbcUtils.setQueryTimeout(preparedStatement, mutation);
       int res = preparedStatement.executeUpdate();
       if (res > 0) {
         isMutated = true;
@@ -36,6 +36,7 @@ public class JdbcConfig {
       PREFIX + "admin.connection_pool.max_idle";
   public static final String ADMIN_CONNECTION_POOL_MAX_TOTAL =
       PREFIX + "admin.connection_pool.max_total";
+  public static final String ASYNC_EXECUTOR_COUNT = PREFIX + "async_executor_count";
 
   public static final int DEFAULT_CONNECTION_POOL_MIN_IDLE = 20;
   public static final int DEFAULT_CONNECTION_POOL_MAX_IDLE = 50;
@@ -51,6 +52,8 @@ public class JdbcConfig {
   public static final int DEFAULT_ADMIN_CONNECTION_POOL_MAX_IDLE = 10;
   public static final int DEFAULT_ADMIN_CONNECTION_POOL_MAX_TOTAL = 25;
 
+  public static final int DEFAULT_ASYNC_EXECUTOR_COUNT = 20;
+
   private final String jdbcUrl;
   @Nullable private final String username;
   @Nullable private final String password;
@@ -72,6 +75,8 @@ public class JdbcConfig {
   private final int adminConnectionPoolMaxIdle;
   private final int adminConnectionPoolMaxTotal;
 
+  private final int asyncExecutorCount;
+
   public JdbcConfig(DatabaseConfig databaseConfig) {
     String storage = databaseConfig.getProperties().getProperty(DatabaseConfig.STORAGE);
     if (storage == null || !storage.equals("jdbc")) {
@@ -147,6 +152,9 @@ public class JdbcConfig {
             databaseConfig.getProperties(),
             ADMIN_CONNECTION_POOL_MAX_TOTAL,
             DEFAULT_ADMIN_CONNECTION_POOL_MAX_TOTAL);
+
+    asyncExecutorCount =
+        getInt(databaseConfig.getProperties(), ASYNC_EXECUTOR_COUNT, DEFAULT_ASYNC_EXECUTOR_COUNT);
   }
 
   public String getJdbcUrl() {
@@ -212,4 +220,8 @@ public class JdbcConfig {
   public int getAdminConnectionPoolMaxTotal() {
     return adminConnectionPoolMaxTotal;
   }
+
+  public int getAsyncExecutorCount() {
+    return asyncExecutorCount;
+  }
 }
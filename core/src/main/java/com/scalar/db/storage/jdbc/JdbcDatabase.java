@@ -1,6 +1,8 @@
 package com.scalar.db.storage.jdbc;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.inject.Inject;
 import com.scalar.db.api.Delete;
 import com.scalar.db.api.DistributedStorage;
@@ -22,6 +24,11 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.slf4j.Logger;
@@ -43,6 +50,7 @@ public class JdbcDatabase extends AbstractDistributedStorage {
   private final BasicDataSource tableMetadataDataSource;
   private final RdbEngine rdbEngine;
   private final JdbcService jdbcService;
+  private final ExecutorService asyncExecutorService;
 
   @Inject
   public JdbcDatabase(DatabaseConfig databaseConfig) {
@@ -60,6 +68,12 @@ public class JdbcDatabase extends AbstractDistributedStorage {
     OperationChecker operationChecker = new OperationChecker(tableMetadataManager);
     QueryBuilder queryBuilder = new QueryBuilder(rdbEngine);
     jdbcService = new JdbcService(tableMetadataManager, operationChecker, queryBuilder);
+
+    // JDBC has no non-blocking API, so the asynchronous operations are executed in this pool
+    asyncExecutorService =
+        Executors.newFixedThreadPool(
+            config.getAsyncExecutorCount(),
+            new ThreadFactoryBuilder().setNameFormat("jdbc-async-%d").setDaemon(true).build());
   }
 
   @VisibleForTesting
@@ -67,11 +81,13 @@ public class JdbcDatabase extends AbstractDistributedStorage {
       BasicDataSource dataSource,
       BasicDataSource tableMetadataDataSource,
       RdbEngine rdbEngine,
-      JdbcService jdbcService) {
+      JdbcService jdbcService,
+      ExecutorService asyncExecutorService) {
     this.dataSource = dataSource;
     this.tableMetadataDataSource = tableMetadataDataSource;
     this.jdbcService = jdbcService;
     this.rdbEngine = rdbEngine;
+    this.asyncExecutorService = asyncExecutorService;
   }
 
   @Override
@@ -193,6 +209,42 @@ public class JdbcDatabase extends AbstractDistributedStorage {
     }
   }
 
+  @Override
+  public CompletableFuture<Optional<Result>> getAsync(Get get) {
+    return supplyAsync(() -> get(get));
+  }
+
+  @Override
+  public CompletableFuture<Scanner> scanAsync(Scan scan) {
+    return supplyAsync(() -> scan(scan));
+  }
+
+  @Override
+  public CompletableFuture<Void> mutateAsync(List<? extends Mutation> mutations) {
+    return supplyAsync(
+        () -> {
+          mutate(mutations);
+          return null;
+        });
+  }
+
+  private <T> CompletableFuture<T> supplyAsync(Callable<T> callable) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      asyncExecutorService.execute(
+          () -> {
+            try {
+              future.complete(callable.call());
+            } catch (Exception e) {
+              future.completeExceptionally(e);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   private void close(Connection connection) {
     try {
       if (connection != null) {
@@ -203,8 +255,11 @@ public class JdbcDatabase extends AbstractDistributedStorage {
     }
   }
 
+  @SuppressWarnings("UnstableApiUsage")
   @Override
   public void close() {
+    asyncExecutorService.shutdown();
+    Uninterruptibles.awaitTerminationUninterruptibly(asyncExecutorService);
     try {
       dataSource.close();
     } catch (SQLException e) {
@@ -65,6 +65,7 @@ public class JdbcService {
 
     try (PreparedStatement preparedStatement = connection.prepareStatement(selectQuery.sql())) {
       selectQuery.bind(preparedStatement);
+      JdbcUtils.setQueryTimeout(preparedStatement, get);
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         if (resultSet.next()) {
           Optional<Result> ret =
@@ -93,6 +94,7 @@ public class JdbcService {
             : buildSelectQueryForScan(scan, tableMetadata);
     PreparedStatement preparedStatement = connection.prepareStatement(selectQuery.sql());
     selectQuery.bind(preparedStatement);
+    JdbcUtils.setQueryTimeout(preparedStatement, scan);
     ResultSet resultSet = preparedStatement.executeQuery();
     return new ScannerImpl(
         new ResultInterpreter(scan.getProjections(), tableMetadata),
@@ -113,6 +115,7 @@ public class JdbcService {
             : buildSelectQueryForScan(scan, tableMetadata);
     try (PreparedStatement preparedStatement = connection.prepareStatement(selectQuery.sql())) {
       selectQuery.bind(preparedStatement);
+      JdbcUtils.setQueryTimeout(preparedStatement, scan);
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
         List<Result> ret = new ArrayList<>();
         ResultInterpreter resultInterpreter =
@@ -160,6 +163,7 @@ public class JdbcService {
               .build();
       try (PreparedStatement preparedStatement = connection.prepareStatement(upsertQuery.sql())) {
         upsertQuery.bind(preparedStatement);
+        JdbcUtils.setQueryTimeout(preparedStatement, put);
         preparedStatement.executeUpdate();
         return true;
       }
@@ -181,6 +185,7 @@ public class JdbcService {
               .build();
       try (PreparedStatement preparedStatement = connection.prepareStatement(deleteQuery.sql())) {
         deleteQuery.bind(preparedStatement);
+        JdbcUtils.setQueryTimeout(preparedStatement, delete);
         preparedStatement.executeUpdate();
         return true;
       }
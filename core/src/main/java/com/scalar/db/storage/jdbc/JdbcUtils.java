@@ -1,9 +1,15 @@
 package com.scalar.db.storage.jdbc;
 
 import com.microsoft.sqlserver.jdbc.SQLServerDriver;
+import com.scalar.db.api.Operation;
+import com.scalar.db.util.ScalarDbUtils;
 import java.sql.Connection;
 import java.sql.Driver;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
 import oracle.jdbc.OracleDriver;
 import org.apache.commons.dbcp2.BasicDataSource;
 
@@ -178,4 +184,28 @@ public final class JdbcUtils {
     }
     return false;
   }
+
+  /**
+   * Sets the time remaining until the deadline of the specified operation as the query timeout of
+   * the statement. The query timeout of JDBC is in seconds, so the remaining time is rounded up.
+   *
+   * @param statement a statement to execute the operation
+   * @param operation an operation
+   * @throws SQLTimeoutException if the deadline of the operation has already passed
+   */
+  public static void setQueryTimeout(PreparedStatement statement, Operation operation)
+      throws SQLException {
+    OptionalLong remaining = ScalarDbUtils.getRemainingTimeMillis(operation);
+    if (!remaining.isPresent()) {
+      return;
+    }
+    if (remaining.getAsLong() <= 0) {
+      // "HYT00" is the SQLSTATE for a timeout
+      throw new SQLTimeoutException("the deadline of the operation has already passed", "HYT00");
+    }
+    statement.setQueryTimeout(
+        (int)
+            Math.min(
+                TimeUnit.MILLISECONDS.toSeconds(remaining.getAsLong() + 999), Integer.MAX_VALUE));
+  }
 }
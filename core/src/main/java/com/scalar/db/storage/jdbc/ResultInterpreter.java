@@ -2,21 +2,11 @@ package com.scalar.db.storage.jdbc;
 
 import com.scalar.db.api.Result;
 import com.scalar.db.api.TableMetadata;
-import com.scalar.db.common.ResultImpl;
-import com.scalar.db.io.BigIntColumn;
-import com.scalar.db.io.BlobColumn;
-import com.scalar.db.io.BooleanColumn;
-import com.scalar.db.io.Column;
+import com.scalar.db.common.ColumnarResult;
 import com.scalar.db.io.DataType;
-import com.scalar.db.io.DoubleColumn;
-import com.scalar.db.io.FloatColumn;
-import com.scalar.db.io.IntColumn;
-import com.scalar.db.io.TextColumn;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -32,71 +22,51 @@ public class ResultInterpreter {
   }
 
   public Result interpret(ResultSet resultSet) throws SQLException {
-    Map<String, Column<?>> ret = new HashMap<>();
+    ColumnarResult.Builder builder = ColumnarResult.newBuilder(metadata);
     if (projections.isEmpty()) {
       for (String projection : metadata.getColumnNames()) {
-        ret.put(projection, convert(projection, resultSet));
+        set(builder, projection, resultSet);
       }
     } else {
       for (String projection : projections) {
-        ret.put(projection, convert(projection, resultSet));
+        set(builder, projection, resultSet);
       }
     }
-    return new ResultImpl(ret, metadata);
+    return builder.build();
   }
 
-  private Column<?> convert(String name, ResultSet resultSet) throws SQLException {
-    Column<?> ret;
-
+  private void set(ColumnarResult.Builder builder, String name, ResultSet resultSet)
+      throws SQLException {
     DataType dataType = metadata.getColumnDataType(name);
     switch (dataType) {
       case BOOLEAN:
-        ret = BooleanColumn.of(name, resultSet.getBoolean(name));
-        if (resultSet.wasNull()) {
-          ret = BooleanColumn.ofNull(name);
-        }
+        builder.setBoolean(name, resultSet.getBoolean(name));
         break;
       case INT:
-        ret = IntColumn.of(name, resultSet.getInt(name));
-        if (resultSet.wasNull()) {
-          ret = IntColumn.ofNull(name);
-        }
+        builder.setInt(name, resultSet.getInt(name));
         break;
       case BIGINT:
-        ret = BigIntColumn.of(name, resultSet.getLong(name));
-        if (resultSet.wasNull()) {
-          ret = BigIntColumn.ofNull(name);
-        }
+        builder.setBigInt(name, resultSet.getLong(name));
         break;
       case FLOAT:
         // To handle Float.MAX_VALUE in MySQL, we need to get the value as double, then cast it to
         // float
-        ret = FloatColumn.of(name, (float) resultSet.getDouble(name));
-        if (resultSet.wasNull()) {
-          ret = FloatColumn.ofNull(name);
-        }
+        builder.setFloat(name, (float) resultSet.getDouble(name));
         break;
       case DOUBLE:
-        ret = DoubleColumn.of(name, resultSet.getDouble(name));
-        if (resultSet.wasNull()) {
-          ret = DoubleColumn.ofNull(name);
-        }
+        builder.setDouble(name, resultSet.getDouble(name));
         break;
       case TEXT:
-        ret = TextColumn.of(name, resultSet.getString(name));
-        if (resultSet.wasNull()) {
-          ret = TextColumn.ofNull(name);
-        }
+        builder.setText(name, resultSet.getString(name));
         break;
       case BLOB:
-        ret = BlobColumn.of(name, resultSet.getBytes(name));
-        if (resultSet.wasNull()) {
-          ret = BlobColumn.ofNull(name);
-        }
+        builder.setBlob(name, resultSet.getBytes(name));
         break;
       default:
         throw new AssertionError();
     }
-    return ret;
+    if (resultSet.wasNull()) {
+      builder.setNull(name);
+    }
   }
 }
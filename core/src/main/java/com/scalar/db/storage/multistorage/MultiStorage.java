@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -134,6 +135,25 @@ public class MultiStorage extends AbstractDistributedStorage {
     getStorage(mutations.get(0)).mutate(mutations);
   }
 
+  @Override
+  public CompletableFuture<Optional<Result>> getAsync(Get get) {
+    get = copyAndSetTargetToIfNot(get);
+    return getStorage(get).getAsync(get);
+  }
+
+  @Override
+  public CompletableFuture<Scanner> scanAsync(Scan scan) {
+    scan = copyAndSetTargetToIfNot(scan);
+    return getStorage(scan).scanAsync(scan);
+  }
+
+  @Override
+  public CompletableFuture<Void> mutateAsync(List<? extends Mutation> mutations) {
+    checkArgument(mutations.size() != 0);
+    mutations = copyAndSetTargetToIfNot(mutations);
+    return getStorage(mutations.get(0)).mutateAsync(mutations);
+  }
+
   private DistributedStorage getStorage(Operation operation) {
     String fullTaleName = operation.forFullTableName().get();
     DistributedStorage storage = tableStorageMap.get(fullTaleName);
@@ -1,6 +1,11 @@
 package com.scalar.db.transaction.common;
 
+import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.TransactionFunction;
+import com.scalar.db.exception.transaction.TransactionException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
 
 public abstract class AbstractDistributedTransactionManager
@@ -8,10 +13,41 @@ public abstract class AbstractDistributedTransactionManager
 
   private Optional<String> namespace;
   private Optional<String> tableName;
+  private final TransactionRetryExecutor retryExecutor;
 
   public AbstractDistributedTransactionManager() {
+    this(
+        TransactionRetryExecutor.DEFAULT_MAX_RETRIES,
+        TransactionRetryExecutor.DEFAULT_BASE_BACKOFF_MILLIS,
+        TransactionRetryExecutor.DEFAULT_MAX_BACKOFF_MILLIS,
+        TransactionRetryExecutor.DEFAULT_CONTENTION_HALF_LIFE_MILLIS,
+        TransactionRetryExecutor.DEFAULT_MAX_CONTENTION_FACTOR);
+  }
+
+  /**
+   * @param maxRetries the maximum number of retries of {@link #execute(TransactionFunction)}
+   * @param baseBackoffMillis the bound of the backoff before the first retry without contention
+   * @param maxBackoffMillis the maximum backoff before a retry
+   * @param contentionHalfLifeMillis the time in which the contention of a key decays by half
+   * @param maxContentionFactor the maximum factor that the contention multiplies the backoff by
+   */
+  protected AbstractDistributedTransactionManager(
+      int maxRetries,
+      long baseBackoffMillis,
+      long maxBackoffMillis,
+      long contentionHalfLifeMillis,
+      int maxContentionFactor) {
     namespace = Optional.empty();
     tableName = Optional.empty();
+    retryExecutor =
+        new TransactionRetryExecutor(
+            this,
+            this::getContentionKeys,
+            maxRetries,
+            baseBackoffMillis,
+            maxBackoffMillis,
+            contentionHalfLifeMillis,
+            maxContentionFactor);
   }
 
   /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
@@ -49,4 +85,35 @@ public abstract class AbstractDistributedTransactionManager
   public Optional<String> getTable() {
     return tableName;
   }
+
+  /**
+   * Executes the specified function with the {@link TransactionRetryExecutor} of this manager,
+   * which backs off before retrying a conflicting transaction, and longer for the transactions that
+   * conflict on the keys that have recently caused conflicts.
+   */
+  @Override
+  public <T> T execute(TransactionFunction<T> function) throws TransactionException {
+    return retryExecutor.execute(function);
+  }
+
+  /**
+   * Returns the executor of {@link #execute(TransactionFunction)}, which exposes the retry metrics
+   * and the contention of the keys.
+   */
+  public TransactionRetryExecutor getRetryExecutor() {
+    return retryExecutor;
+  }
+
+  /**
+   * Returns the keys of the records or the partitions that the specified transaction conflicted on,
+   * which are used to adapt the backoff before retrying the transaction to their contention.
+   *
+   * @param transaction a transaction that conflicted
+   * @param exception the exception of the conflict
+   * @return the keys. empty if they are unknown
+   */
+  protected Collection<String> getContentionKeys(
+      DistributedTransaction transaction, TransactionException exception) {
+    return Collections.emptyList();
+  }
 }
@@ -0,0 +1,42 @@
+package com.scalar.db.transaction.common;
+
+import com.scalar.db.api.Result;
+import com.scalar.db.api.TransactionCrudOperable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/** A transactional scanner over results that have already been fetched. */
+@NotThreadSafe
+public class ListTransactionScanner implements TransactionCrudOperable.Scanner {
+
+  private final Iterator<Result> results;
+
+  public ListTransactionScanner(List<Result> results) {
+    this.results = results.iterator();
+  }
+
+  @Override
+  public Optional<Result> one() {
+    return results.hasNext() ? Optional.of(results.next()) : Optional.empty();
+  }
+
+  @Override
+  public List<Result> all() {
+    List<Result> ret = new ArrayList<>();
+    results.forEachRemaining(ret::add);
+    return ret;
+  }
+
+  @Override
+  @Nonnull
+  public Iterator<Result> iterator() {
+    return results;
+  }
+
+  @Override
+  public void close() {}
+}
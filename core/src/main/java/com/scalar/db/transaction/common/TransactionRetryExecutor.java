@@ -0,0 +1,314 @@
+package com.scalar.db.transaction.common;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.TransactionFunction;
+import com.scalar.db.exception.transaction.AbortException;
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
+import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes functions in transactions and retries the transactions that conflict with others. The
+ * backoff before a retry is randomized between half and all of an exponentially growing bound, and
+ * the bound is multiplied by the contention of the keys that the transaction conflicted on. The
+ * contention of a key is the number of the recent conflicts on it, which decays by half every
+ * half-life (a second by default), so the transactions contending for hot keys back off longer and
+ * spread out their retries while the transactions conflicting on cold keys retry quickly.
+ *
+ * <p>The keys that a transaction conflicted on are extracted from the transaction and the exception
+ * by the transaction manager. The conflicts whose keys are unknown are counted on a single shared
+ * key, so the backoff then adapts to the overall contention.
+ */
+@ThreadSafe
+public class TransactionRetryExecutor {
+  private static final Logger logger = LoggerFactory.getLogger(TransactionRetryExecutor.class);
+
+  public static final int DEFAULT_MAX_RETRIES = 10;
+  public static final long DEFAULT_BASE_BACKOFF_MILLIS = 10;
+  public static final long DEFAULT_MAX_BACKOFF_MILLIS = 1000;
+  public static final long DEFAULT_CONTENTION_HALF_LIFE_MILLIS = 1000;
+  public static final int DEFAULT_MAX_CONTENTION_FACTOR = 16;
+
+  private static final long MAX_TRACKED_KEYS = 10000;
+  private static final String UNKNOWN_KEY = "";
+
+  private final DistributedTransactionManager manager;
+  private final BiFunction<DistributedTransaction, TransactionException, Collection<String>>
+      contentionKeyExtractor;
+  private final int maxRetries;
+  private final long baseBackoffMillis;
+  private final long maxBackoffMillis;
+  private final long contentionHalfLifeNanos;
+  private final int maxContentionFactor;
+  private final Cache<String, Contention> contentions;
+
+  private final AtomicLong executedCount = new AtomicLong();
+  private final AtomicLong succeededCount = new AtomicLong();
+  private final AtomicLong succeededAfterRetryCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private final AtomicLong conflictCount = new AtomicLong();
+  private final AtomicLong retriedCount = new AtomicLong();
+  private final AtomicLong totalBackoffMillis = new AtomicLong();
+
+  public TransactionRetryExecutor(DistributedTransactionManager manager) {
+    this(manager, (t, e) -> Collections.emptyList());
+  }
+
+  public TransactionRetryExecutor(
+      DistributedTransactionManager manager,
+      BiFunction<DistributedTransaction, TransactionException, Collection<String>>
+          contentionKeyExtractor) {
+    this(
+        manager,
+        contentionKeyExtractor,
+        DEFAULT_MAX_RETRIES,
+        DEFAULT_BASE_BACKOFF_MILLIS,
+        DEFAULT_MAX_BACKOFF_MILLIS,
+        DEFAULT_CONTENTION_HALF_LIFE_MILLIS,
+        DEFAULT_MAX_CONTENTION_FACTOR);
+  }
+
+  /**
+   * @param manager a transaction manager to begin the transactions with
+   * @param contentionKeyExtractor a function that returns the keys that the specified transaction
+   *     conflicted on with the specified exception. it may return an empty collection if they are
+   *     unknown
+   * @param maxRetries the maximum number of retries of a function
+   * @param baseBackoffMillis the bound of the backoff before the first retry without contention
+   * @param maxBackoffMillis the maximum backoff before a retry
+   * @param contentionHalfLifeMillis the time in which the contention of a key decays by half
+   * @param maxContentionFactor the maximum factor that the contention multiplies the backoff by
+   */
+  public TransactionRetryExecutor(
+      DistributedTransactionManager manager,
+      BiFunction<DistributedTransaction, TransactionException, Collection<String>>
+          contentionKeyExtractor,
+      int maxRetries,
+      long baseBackoffMillis,
+      long maxBackoffMillis,
+      long contentionHalfLifeMillis,
+      int maxContentionFactor) {
+    checkArgument(maxRetries >= 0, "the maximum number of retries must not be negative");
+    checkArgument(baseBackoffMillis > 0, "the base backoff must be positive");
+    checkArgument(
+        maxBackoffMillis >= baseBackoffMillis,
+        "the maximum backoff must not be less than the base backoff");
+    checkArgument(contentionHalfLifeMillis > 0, "the contention half-life must be positive");
+    checkArgument(maxContentionFactor >= 1, "the maximum contention factor must be at least 1");
+    this.manager = manager;
+    this.contentionKeyExtractor = contentionKeyExtractor;
+    this.maxRetries = maxRetries;
+    this.baseBackoffMillis = baseBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    contentionHalfLifeNanos = TimeUnit.MILLISECONDS.toNanos(contentionHalfLifeMillis);
+    this.maxContentionFactor = maxContentionFactor;
+    contentions = CacheBuilder.newBuilder().maximumSize(MAX_TRACKED_KEYS).build();
+  }
+
+  /**
+   * Executes the specified function in a new transaction and commits it. The transaction is retried
+   * when it conflicts with other transactions.
+   *
+   * @param function a function that performs the operations of the transaction
+   * @param <T> the type of the result of the function
+   * @return the result of the function
+   * @throws TransactionException if the function or the commit failed, or the transaction kept
+   *     conflicting until the maximum number of retries
+   */
+  public <T> T execute(TransactionFunction<T> function) throws TransactionException {
+    executedCount.incrementAndGet();
+    int retries = 0;
+    while (true) {
+      DistributedTransaction transaction;
+      try {
+        transaction = manager.begin();
+      } catch (TransactionException | RuntimeException e) {
+        failedCount.incrementAndGet();
+        throw e;
+      }
+
+      try {
+        T result = function.apply(transaction);
+        transaction.commit();
+        succeededCount.incrementAndGet();
+        if (retries > 0) {
+          succeededAfterRetryCount.incrementAndGet();
+        }
+        return result;
+      } catch (CrudConflictException | CommitConflictException e) {
+        abort(transaction);
+        conflictCount.incrementAndGet();
+        double contention = recordConflict(contentionKeyExtractor.apply(transaction, e));
+        if (retries >= maxRetries) {
+          failedCount.incrementAndGet();
+          throw e;
+        }
+        long backoffMillis = computeBackoffMillis(retries, contention);
+        logger.debug(
+            "transaction {} conflicted. retrying in {} ms. retries: {}, contention: {}",
+            transaction.getId(),
+            backoffMillis,
+            retries,
+            contention);
+        retries++;
+        retriedCount.incrementAndGet();
+        totalBackoffMillis.addAndGet(backoffMillis);
+        sleep(backoffMillis);
+      } catch (UnknownTransactionStatusException e) {
+        // the transaction might have been committed, so it's neither aborted nor retried
+        failedCount.incrementAndGet();
+        throw e;
+      } catch (TransactionException | RuntimeException e) {
+        abort(transaction);
+        failedCount.incrementAndGet();
+        throw e;
+      }
+    }
+  }
+
+  private void abort(DistributedTransaction transaction) {
+    try {
+      transaction.abort();
+    } catch (AbortException e) {
+      logger.warn("aborting transaction {} failed", transaction.getId(), e);
+    }
+  }
+
+  /**
+   * Records a conflict on the specified keys and returns the highest contention of them including
+   * the conflict.
+   */
+  private double recordConflict(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      keys = Collections.singletonList(UNKNOWN_KEY);
+    }
+    long now = System.nanoTime();
+    double max = 0;
+    for (String key : keys) {
+      Contention contention;
+      try {
+        contention = contentions.get(key, () -> new Contention(contentionHalfLifeNanos));
+      } catch (ExecutionException e) {
+        // never happens since creating a contention doesn't throw any checked exception
+        throw new AssertionError(e);
+      }
+      max = Math.max(max, contention.increment(now));
+    }
+    return max;
+  }
+
+  /**
+   * Returns a random backoff between half and all of the bound, which doubles with every retry and
+   * is multiplied by the contention.
+   */
+  @VisibleForTesting
+  long computeBackoffMillis(int retries, double contention) {
+    double factor = Math.min(Math.max(contention, 1), maxContentionFactor);
+    double bound = baseBackoffMillis * Math.pow(2, Math.min(retries, 30)) * factor;
+    long boundMillis = (long) Math.min(bound, maxBackoffMillis);
+    long half = boundMillis / 2;
+    return half + ThreadLocalRandom.current().nextLong(boundMillis - half + 1);
+  }
+
+  @VisibleForTesting
+  void sleep(long millis) {
+    Uninterruptibles.sleepUninterruptibly(millis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Returns the current contention of the specified key, i.e., the number of the recent conflicts
+   * on it decayed by the time passed since them.
+   *
+   * @param key a key
+   * @return the contention of the key. zero if no conflict has been recorded on it
+   */
+  public double getContention(String key) {
+    Contention contention = contentions.getIfPresent(key);
+    return contention == null ? 0 : contention.get(System.nanoTime());
+  }
+
+  /** Returns the number of the functions executed. */
+  public long getExecutedCount() {
+    return executedCount.get();
+  }
+
+  /** Returns the number of the functions whose transactions have been committed eventually. */
+  public long getSucceededCount() {
+    return succeededCount.get();
+  }
+
+  /** Returns the number of the functions whose transactions have been committed after retries. */
+  public long getSucceededAfterRetryCount() {
+    return succeededAfterRetryCount.get();
+  }
+
+  /** Returns the number of the functions that have failed, including the ones out of retries. */
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+
+  /** Returns the number of the conflicts that the transactions have encountered. */
+  public long getConflictCount() {
+    return conflictCount.get();
+  }
+
+  /** Returns the number of the retries of the transactions. */
+  public long getRetriedCount() {
+    return retriedCount.get();
+  }
+
+  /** Returns the total time in milliseconds that the executor has backed off before retries. */
+  public long getTotalBackoffMillis() {
+    return totalBackoffMillis.get();
+  }
+
+  @ThreadSafe
+  private static class Contention {
+    private final long halfLifeNanos;
+
+    @GuardedBy("this")
+    private double value;
+
+    @GuardedBy("this")
+    private long updatedAtNanos = System.nanoTime();
+
+    Contention(long halfLifeNanos) {
+      this.halfLifeNanos = halfLifeNanos;
+    }
+
+    synchronized double increment(long nowNanos) {
+      value = decay(nowNanos) + 1;
+      updatedAtNanos = nowNanos;
+      return value;
+    }
+
+    synchronized double get(long nowNanos) {
+      return decay(nowNanos);
+    }
+
+    @GuardedBy("this")
+    private double decay(long nowNanos) {
+      long elapsed = Math.max(nowNanos - updatedAtNanos, 0);
+      return value * Math.pow(0.5, (double) elapsed / halfLifeNanos);
+    }
+  }
+}
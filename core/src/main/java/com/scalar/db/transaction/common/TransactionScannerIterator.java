@@ -0,0 +1,44 @@
+package com.scalar.db.transaction.common;
+
+import com.scalar.db.api.Result;
+import com.scalar.db.api.TransactionCrudOperable;
+import com.scalar.db.exception.transaction.CrudException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import javax.annotation.concurrent.NotThreadSafe;
+
+@NotThreadSafe
+public class TransactionScannerIterator implements Iterator<Result> {
+
+  private final TransactionCrudOperable.Scanner scanner;
+  private Result next;
+
+  public TransactionScannerIterator(TransactionCrudOperable.Scanner scanner) {
+    this.scanner = Objects.requireNonNull(scanner);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null) {
+      return true;
+    }
+
+    try {
+      return (next = scanner.one().orElse(null)) != null;
+    } catch (CrudException e) {
+      throw new RuntimeException(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public Result next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    Result ret = next;
+    next = null;
+    return ret;
+  }
+}
@@ -36,6 +36,21 @@ public abstract class AbstractMutationComposer implements MutationComposer {
     return ImmutableList.copyOf(mutations);
   }
 
+  /** Returns the number of the mutations composed and not drained yet. */
+  int size() {
+    return mutations.size();
+  }
+
+  /**
+   * Returns the mutations composed so far and removes them from this composer, so that the
+   * mutations can be emitted in chunks while the others are being composed.
+   */
+  List<Mutation> drain() {
+    List<Mutation> drained = new ArrayList<>(mutations);
+    mutations.clear();
+    return drained;
+  }
+
   protected Optional<Key> getClusteringKey(Operation base, TransactionResult result) {
     if (base instanceof Scan) {
       return result.getClusteringKey();
@@ -4,6 +4,8 @@ import com.scalar.db.api.TransactionState;
 import com.scalar.db.io.BigIntValue;
 import com.scalar.db.io.IntValue;
 import com.scalar.db.io.TextValue;
+import java.util.Collection;
+import javax.annotation.Nullable;
 
 public final class Attribute {
   public static final String ID = "tx_id";
@@ -18,6 +20,7 @@ public final class Attribute {
   public static final String BEFORE_VERSION = BEFORE_PREFIX + VERSION;
   public static final String BEFORE_PREPARED_AT = BEFORE_PREFIX + PREPARED_AT;
   public static final String BEFORE_COMMITTED_AT = BEFORE_PREFIX + COMMITTED_AT;
+  public static final String BEFORE_IMAGE_COLUMNS = "tx_before_image_columns";
 
   public static TextValue toIdValue(String transactionId) {
     return new TextValue(Attribute.ID, transactionId);
@@ -62,4 +65,26 @@ public final class Attribute {
   public static BigIntValue toBeforeCommittedAtValue(long committedAt) {
     return new BigIntValue(Attribute.BEFORE_COMMITTED_AT, committedAt);
   }
+
+  /**
+   * Returns the marker of the columns whose before images are stored in a record. The other columns
+   * are untouched by the transaction that prepared the record, so their current values are their
+   * before images. Each name is enclosed in commas so that an empty marker is distinguishable from
+   * null, which means that the before images of all the columns are stored.
+   *
+   * @param columnNames the names of the columns whose before images are stored, or null for all
+   * @return the marker value
+   */
+  public static TextValue toBeforeImageColumnsValue(@Nullable Collection<String> columnNames) {
+    if (columnNames == null) {
+      return new TextValue(Attribute.BEFORE_IMAGE_COLUMNS, (String) null);
+    }
+    StringBuilder builder = new StringBuilder(",");
+    columnNames.forEach(c -> builder.append(c).append(','));
+    return new TextValue(Attribute.BEFORE_IMAGE_COLUMNS, builder.toString());
+  }
+
+  public static boolean isInBeforeImageColumns(String beforeImageColumns, String columnName) {
+    return beforeImageColumns.contains("," + columnName + ",");
+  }
 }
@@ -2,8 +2,10 @@ package com.scalar.db.transaction.consensuscommit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Mutation;
 import com.scalar.db.api.TransactionState;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.storage.NoMutationException;
@@ -15,6 +17,7 @@ import com.scalar.db.transaction.consensuscommit.ParallelExecutor.ParallelExecut
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,28 +29,117 @@ public class CommitHandler {
   private final Coordinator coordinator;
   private final TransactionTableMetadataManager tableMetadataManager;
   private final ParallelExecutor parallelExecutor;
+  private final boolean onePhaseCommitEnabled;
+  private final boolean deltaBeforeImageEnabled;
+  @Nullable private final CommitRecordBatcher commitRecordBatcher;
 
   public CommitHandler(
       DistributedStorage storage,
       Coordinator coordinator,
       TransactionTableMetadataManager tableMetadataManager,
       ParallelExecutor parallelExecutor) {
+    this(storage, coordinator, tableMetadataManager, parallelExecutor, false, false, null);
+  }
+
+  /**
+   * Creates a handler with the commit options of the specified config. The batcher of the commit
+   * records is created if the batching is enabled, and it's closed by {@link #close()}.
+   */
+  public CommitHandler(
+      DistributedStorage storage,
+      Coordinator coordinator,
+      TransactionTableMetadataManager tableMetadataManager,
+      ParallelExecutor parallelExecutor,
+      ConsensusCommitConfig config) {
+    this(
+        storage,
+        coordinator,
+        tableMetadataManager,
+        parallelExecutor,
+        config.isOnePhaseCommitEnabled(),
+        config.isDeltaBeforeImageEnabled(),
+        CommitRecordBatcher.create(config, storage));
+  }
+
+  @VisibleForTesting
+  CommitHandler(
+      DistributedStorage storage,
+      Coordinator coordinator,
+      TransactionTableMetadataManager tableMetadataManager,
+      ParallelExecutor parallelExecutor,
+      boolean onePhaseCommitEnabled,
+      boolean deltaBeforeImageEnabled,
+      @Nullable CommitRecordBatcher commitRecordBatcher) {
     this.storage = checkNotNull(storage);
     this.coordinator = checkNotNull(coordinator);
     this.tableMetadataManager = checkNotNull(tableMetadataManager);
     this.parallelExecutor = checkNotNull(parallelExecutor);
+    this.onePhaseCommitEnabled = onePhaseCommitEnabled;
+    this.deltaBeforeImageEnabled = deltaBeforeImageEnabled;
+    this.commitRecordBatcher = commitRecordBatcher;
   }
 
   public void commit(Snapshot snapshot) throws CommitException, UnknownTransactionStatusException {
+    if (onePhaseCommitEnabled && snapshot.isOnePhaseCommitApplicable()) {
+      onePhaseCommit(snapshot);
+      return;
+    }
+
     prepare(snapshot, true);
     preCommitValidation(snapshot, true);
     commitState(snapshot);
     commitRecords(snapshot);
   }
 
+  /**
+   * Commits a read-only transaction. Nothing is written to the storage or the coordinator since
+   * there are no writes to make durable. In SERIALIZABLE, the reads are validated to check that
+   * they haven't been changed by other transactions.
+   */
+  public void commitReadOnly(Snapshot snapshot) throws CommitException {
+    checkDeadline(snapshot);
+    try {
+      snapshot.toSerializableForReadOnly(storage);
+    } catch (CommitConflictException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CommitException("validating the reads of a read-only transaction failed", e);
+    }
+    logger.debug(
+        "read-only transaction {} is committed successfully at {}",
+        snapshot.getId(),
+        System.currentTimeMillis());
+  }
+
+  @VisibleForTesting
+  void onePhaseCommit(Snapshot snapshot) throws CommitException, UnknownTransactionStatusException {
+    String id = snapshot.getId();
+    checkDeadline(snapshot);
+    try {
+      OnePhaseCommitMutationComposer composer = new OnePhaseCommitMutationComposer(id);
+      snapshot.to(composer);
+
+      // All the mutations are for a single partition, so the storage applies them atomically and
+      // no coordinator state is needed
+      storage.mutate(withDeadline(composer.get(), snapshot));
+    } catch (NoMutationException e) {
+      throw new CommitConflictException("conflict happened when committing records", e);
+    } catch (RetriableExecutionException e) {
+      throw new CommitConflictException("conflict happened when committing records", e);
+    } catch (ExecutionException e) {
+      // the mutations might have been applied
+      throw new UnknownTransactionStatusException("committing records failed", e, id);
+    }
+    logger.debug(
+        "transaction {} is committed successfully in one phase at {}",
+        id,
+        System.currentTimeMillis());
+  }
+
   public void prepare(Snapshot snapshot, boolean abortIfError)
       throws CommitException, UnknownTransactionStatusException {
     String id = snapshot.getId();
+    checkDeadline(snapshot);
     try {
       prepareRecords(snapshot);
     } catch (Exception e) {
@@ -71,22 +163,22 @@ public class CommitHandler {
 
   private void prepareRecords(Snapshot snapshot)
       throws ExecutionException, CommitConflictException {
-    PrepareMutationComposer composer = new PrepareMutationComposer(snapshot.getId());
-    snapshot.to(composer);
-    PartitionedMutations mutations = new PartitionedMutations(composer.get());
-
-    ImmutableList<PartitionedMutations.Key> orderedKeys = mutations.getOrderedKeys();
-    List<ParallelExecutorTask> tasks = new ArrayList<>(orderedKeys.size());
-    for (PartitionedMutations.Key key : orderedKeys) {
-      tasks.add(() -> storage.mutate(mutations.get(key)));
-    }
-    parallelExecutor.prepare(tasks);
+    PrepareMutationComposer composer =
+        new PrepareMutationComposer(snapshot.getId(), deltaBeforeImageEnabled);
+    // the mutations are flushed in chunks as they are composed, so that the mutations of a large
+    // write set aren't held on the heap all at once
+    snapshot.to(
+        composer,
+        chunk ->
+            parallelExecutor.prepare(
+                toTasks(new PartitionedMutations(withDeadline(chunk, snapshot)))));
   }
 
   public void preCommitValidation(Snapshot snapshot, boolean abortIfError)
       throws CommitException, UnknownTransactionStatusException {
     // pre-commit validation is executed when SERIALIZABLE with EXTRA_READ strategy is chosen.
     try {
+      checkDeadline(snapshot);
       snapshot.toSerializableWithExtraRead(storage);
     } catch (Exception e) {
       logger.warn("pre-commit validation failed", e);
@@ -105,7 +197,7 @@ public class CommitHandler {
       throws CommitException, UnknownTransactionStatusException {
     String id = snapshot.getId();
     try {
-      commitState(snapshot.getId());
+      putCommittedState(snapshot);
     } catch (CoordinatorException e) {
       TransactionState state = abort(id);
       if (state.equals(TransactionState.ABORTED)) {
@@ -117,29 +209,82 @@ public class CommitHandler {
     logger.debug("transaction {} is committed successfully at {}", id, System.currentTimeMillis());
   }
 
-  private void commitState(String id) throws CoordinatorException {
-    Coordinator.State state = new Coordinator.State(id, TransactionState.COMMITTED);
-    coordinator.putState(state);
+  private void putCommittedState(Snapshot snapshot) throws CoordinatorException {
+    // the commit time is after the commit times of the records read by this transaction, so that
+    // the time order of the versions follows the causal order even if the clocks are skewed
+    long committedAt =
+        Math.max(System.currentTimeMillis(), snapshot.getLatestReadCommittedAt() + 1);
+    Coordinator.State state =
+        new Coordinator.State(snapshot.getId(), TransactionState.COMMITTED, committedAt);
+    // the records are committed with the time of the state, so that the recovery that rolls them
+    // forward from the state commits them with the same time
+    snapshot.setCommittedAt(state.getCreatedAt());
+    coordinator.putState(state, snapshot.getDeadlineMillis());
+  }
+
+  /**
+   * Fails fast if the deadline of the transaction has been exceeded, since the storage calls issued
+   * after it can't complete in time.
+   */
+  private void checkDeadline(Snapshot snapshot) throws CommitException {
+    if (snapshot.isDeadlineExceeded()) {
+      throw new CommitException("the transaction deadline has been exceeded");
+    }
+  }
+
+  /**
+   * Sets the deadline of the transaction to the mutations that decide its outcome. The mutations to
+   * commit and roll back the records are not bound by the deadline since the outcome has already
+   * been decided when they are issued.
+   */
+  private List<Mutation> withDeadline(List<Mutation> mutations, Snapshot snapshot) {
+    mutations.forEach(m -> m.withDeadlineMillis(snapshot.getDeadlineMillis()));
+    return mutations;
   }
 
   public void commitRecords(Snapshot snapshot) {
     try {
-      CommitMutationComposer composer = new CommitMutationComposer(snapshot.getId());
-      snapshot.to(composer);
-      PartitionedMutations mutations = new PartitionedMutations(composer.get());
-
-      ImmutableList<PartitionedMutations.Key> orderedKeys = mutations.getOrderedKeys();
-      List<ParallelExecutorTask> tasks = new ArrayList<>(orderedKeys.size());
-      for (PartitionedMutations.Key key : orderedKeys) {
-        tasks.add(() -> storage.mutate(mutations.get(key)));
-      }
-      parallelExecutor.commit(tasks);
+      CommitMutationComposer composer =
+          new CommitMutationComposer(
+              snapshot.getId(), getCommittedAt(snapshot), tableMetadataManager);
+      snapshot.to(
+          composer,
+          chunk -> {
+            PartitionedMutations mutations = new PartitionedMutations(chunk);
+            if (commitRecordBatcher != null) {
+              commitRecordBatcher.commit(mutations);
+            } else {
+              parallelExecutor.commit(toTasks(mutations));
+            }
+          });
     } catch (Exception e) {
       logger.warn("committing records failed", e);
       // ignore since records are recovered lazily
     }
   }
 
+  /**
+   * Returns the commit time of the transaction. A participant of a two-phase commit transaction
+   * doesn't put the state, so it reads the time from the state when the multi-versioning needs it,
+   * and falls back to the current time if the state can't be read.
+   */
+  private long getCommittedAt(Snapshot snapshot) {
+    if (snapshot.getCommittedAt() > 0) {
+      return snapshot.getCommittedAt();
+    }
+    if (tableMetadataManager != null && tableMetadataManager.isMultiVersionEnabled()) {
+      try {
+        Optional<Coordinator.State> state = coordinator.getState(snapshot.getId());
+        if (state.isPresent() && state.get().getState() == TransactionState.COMMITTED) {
+          return state.get().getCreatedAt();
+        }
+      } catch (CoordinatorException e) {
+        logger.warn("reading the commit time failed. the current time is used instead", e);
+      }
+    }
+    return System.currentTimeMillis();
+  }
+
   public TransactionState abort(String id) throws UnknownTransactionStatusException {
     try {
       abortState(id);
@@ -169,18 +314,27 @@ public class CommitHandler {
     try {
       RollbackMutationComposer composer =
           new RollbackMutationComposer(snapshot.getId(), storage, tableMetadataManager);
-      snapshot.to(composer);
-      PartitionedMutations mutations = new PartitionedMutations(composer.get());
-
-      ImmutableList<PartitionedMutations.Key> orderedKeys = mutations.getOrderedKeys();
-      List<ParallelExecutorTask> tasks = new ArrayList<>(orderedKeys.size());
-      for (PartitionedMutations.Key key : orderedKeys) {
-        tasks.add(() -> storage.mutate(mutations.get(key)));
-      }
-      parallelExecutor.rollback(tasks);
+      snapshot.to(
+          composer, chunk -> parallelExecutor.rollback(toTasks(new PartitionedMutations(chunk))));
     } catch (Exception e) {
       logger.warn("rolling back records failed", e);
       // ignore since records are recovered lazily
     }
   }
+
+  private List<ParallelExecutorTask> toTasks(PartitionedMutations mutations) {
+    ImmutableList<PartitionedMutations.Key> orderedKeys = mutations.getOrderedKeys();
+    List<ParallelExecutorTask> tasks = new ArrayList<>(orderedKeys.size());
+    for (PartitionedMutations.Key key : orderedKeys) {
+      tasks.add(() -> storage.mutate(mutations.get(key)));
+    }
+    return tasks;
+  }
+
+  /** Closes the batcher of the commit records, emitting the pending mutations. */
+  public void close() {
+    if (commitRecordBatcher != null) {
+      commitRecordBatcher.close();
+    }
+  }
 }
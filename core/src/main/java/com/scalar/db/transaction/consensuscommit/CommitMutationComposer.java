@@ -15,9 +15,19 @@ import com.scalar.db.api.Mutation;
 import com.scalar.db.api.Operation;
 import com.scalar.db.api.Put;
 import com.scalar.db.api.PutIf;
+import com.scalar.db.api.Result;
 import com.scalar.db.api.Selection;
 import com.scalar.db.api.TransactionState;
+import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.io.BigIntColumn;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.Key;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,18 +35,42 @@ import org.slf4j.LoggerFactory;
 @NotThreadSafe
 public class CommitMutationComposer extends AbstractMutationComposer {
   private static final Logger logger = LoggerFactory.getLogger(CommitMutationComposer.class);
+  @Nullable private final TransactionTableMetadataManager tableMetadataManager;
 
   public CommitMutationComposer(String id) {
-    super(id);
+    this(id, System.currentTimeMillis(), null);
+  }
+
+  /**
+   * Creates a composer that also puts the committed versions of the records into the version tables
+   * of the multi-versioned tables.
+   *
+   * @param committedAt the commit time of the transaction, which is the creation time of its
+   *     COMMITTED state. the records and their versions committed by the transaction and by the
+   *     recovery get this time, or a later one if the overwritten version was committed after it
+   */
+  public CommitMutationComposer(
+      String id, long committedAt, @Nullable TransactionTableMetadataManager tableMetadataManager) {
+    this(id, new ArrayList<>(), committedAt, tableMetadataManager);
   }
 
   @VisibleForTesting
   CommitMutationComposer(String id, List<Mutation> mutations, long current) {
+    this(id, mutations, current, null);
+  }
+
+  @VisibleForTesting
+  CommitMutationComposer(
+      String id,
+      List<Mutation> mutations,
+      long current,
+      @Nullable TransactionTableMetadataManager tableMetadataManager) {
     super(id, mutations, current);
+    this.tableMetadataManager = tableMetadataManager;
   }
 
   @Override
-  public void add(Operation base, TransactionResult result) {
+  public void add(Operation base, TransactionResult result) throws ExecutionException {
     if (base instanceof Put) {
       // for usual commit
       add((Put) base, result);
@@ -49,23 +83,86 @@ public class CommitMutationComposer extends AbstractMutationComposer {
     }
   }
 
-  private void add(Put base, TransactionResult result) {
-    mutations.add(composePut(base, result));
+  private void add(Put base, TransactionResult result) throws ExecutionException {
+    long committedAt = getCommittedAt(getPreviousCommittedAt(result));
+    mutations.add(composePut(base, result, committedAt));
+
+    Optional<TransactionTableMetadata> metadata = getMultiVersionedTableMetadata(base);
+    if (metadata.isPresent()) {
+      // the prepared record is the read record merged with the put
+      Result afterImage =
+          new MergedResult(Optional.ofNullable(result), base, metadata.get().getTableMetadata());
+      int version = result == null ? 1 : result.getVersion() + 1;
+      mutations.add(
+          composeVersionPut(
+              base,
+              result,
+              metadata.get(),
+              afterImage,
+              version,
+              committedAt,
+              TransactionState.COMMITTED));
+    }
   }
 
-  private void add(Delete base, TransactionResult result) {
+  private void add(Delete base, TransactionResult result) throws ExecutionException {
     mutations.add(composeDelete(base, result));
+
+    Optional<TransactionTableMetadata> metadata = getMultiVersionedTableMetadata(base);
+    if (metadata.isPresent()) {
+      int version = result == null ? 1 : result.getVersion() + 1;
+      long committedAt = getCommittedAt(getPreviousCommittedAt(result));
+      mutations.add(
+          composeVersionPut(
+              base, result, metadata.get(), null, version, committedAt, TransactionState.DELETED));
+    }
   }
 
   // for rollforward
-  private void add(Selection base, TransactionResult result) {
+  private void add(Selection base, TransactionResult result) throws ExecutionException {
     if (result == null) {
       // delete non-existing record that was prepared with DELETED for Serializable with Extra-write
       mutations.add(composeDelete(base, null));
     } else if (result.getState().equals(TransactionState.PREPARED)) {
-      mutations.add(composePut(base, result));
+      // the commit time is derived from the before image as in the commit of the transaction, so
+      // the record and its version get the same time whichever of them commits the record
+      long committedAt = getCommittedAt(getBeforeCommittedAt(result));
+      mutations.add(composePut(base, result, committedAt));
+
+      Optional<TransactionTableMetadata> metadata = getMultiVersionedTableMetadata(base);
+      if (metadata.isPresent()) {
+        if (result
+            .getContainedColumnNames()
+            .containsAll(metadata.get().getAfterImageColumnNames())) {
+          mutations.add(
+              composeVersionPut(
+                  base,
+                  result,
+                  metadata.get(),
+                  result,
+                  result.getVersion(),
+                  committedAt,
+                  TransactionState.COMMITTED));
+        } else {
+          // the readers treat the missing version as not retained
+          logger.debug("the version of the partially read record is not kept: {}", result);
+        }
+      }
     } else if (result.getState().equals(TransactionState.DELETED)) {
       mutations.add(composeDelete(base, result));
+
+      Optional<TransactionTableMetadata> metadata = getMultiVersionedTableMetadata(base);
+      if (metadata.isPresent()) {
+        mutations.add(
+            composeVersionPut(
+                base,
+                result,
+                metadata.get(),
+                null,
+                result.getVersion(),
+                getCommittedAt(getBeforeCommittedAt(result)),
+                TransactionState.DELETED));
+      }
     } else {
       logger.debug(
           "the record was committed by the originated one "
@@ -74,7 +171,30 @@ public class CommitMutationComposer extends AbstractMutationComposer {
     }
   }
 
-  private Put composePut(Operation base, TransactionResult result) {
+  /**
+   * Returns the commit time of a record. It's the commit time of the transaction, which is after
+   * the commit times of the records read by the transaction, but it's also kept after the commit
+   * time of the overwritten version for the records that the transaction didn't choose the time
+   * with, e.g., the records of a participant of a two-phase commit transaction. So the versions of
+   * a record are always ordered by their commit times even if the clocks are skewed.
+   *
+   * @param previousCommittedAt the commit time of the overwritten version, or 0 if it's absent
+   */
+  private long getCommittedAt(long previousCommittedAt) {
+    return Math.max(current, previousCommittedAt + 1);
+  }
+
+  private long getPreviousCommittedAt(@Nullable TransactionResult result) {
+    return result != null && result.contains(Attribute.COMMITTED_AT) ? result.getCommittedAt() : 0;
+  }
+
+  private long getBeforeCommittedAt(TransactionResult result) {
+    return result.contains(Attribute.BEFORE_COMMITTED_AT)
+        ? result.getBigInt(Attribute.BEFORE_COMMITTED_AT)
+        : 0;
+  }
+
+  private Put composePut(Operation base, TransactionResult result, long committedAt) {
     return new Put(getPartitionKey(base, result), getClusteringKey(base, result).orElse(null))
         .forNamespace(base.forNamespace().get())
         .forTable(base.forTable().get())
@@ -84,7 +204,7 @@ public class CommitMutationComposer extends AbstractMutationComposer {
                 new ConditionalExpression(ID, toIdValue(id), Operator.EQ),
                 new ConditionalExpression(
                     STATE, toStateValue(TransactionState.PREPARED), Operator.EQ)))
-        .withValue(Attribute.toCommittedAtValue(current))
+        .withValue(Attribute.toCommittedAtValue(committedAt))
         .withValue(Attribute.toStateValue(TransactionState.COMMITTED));
   }
 
@@ -99,4 +219,59 @@ public class CommitMutationComposer extends AbstractMutationComposer {
                 new ConditionalExpression(
                     STATE, toStateValue(TransactionState.DELETED), Operator.EQ)));
   }
+
+  private Optional<TransactionTableMetadata> getMultiVersionedTableMetadata(Operation base)
+      throws ExecutionException {
+    if (tableMetadataManager == null) {
+      return Optional.empty();
+    }
+    TransactionTableMetadata metadata = tableMetadataManager.getTransactionTableMetadata(base);
+    if (metadata == null || !metadata.getVersionTableMetadata().isPresent()) {
+      return Optional.empty();
+    }
+    return Optional.of(metadata);
+  }
+
+  /**
+   * Composes a put of the committed version of the record into the version table. The version is
+   * keyed by the commit time written to the record, so the versions can be looked up by time.
+   *
+   * @param afterImage the committed image of the record, or null if the record is deleted
+   */
+  private Put composeVersionPut(
+      Operation base,
+      TransactionResult result,
+      TransactionTableMetadata metadata,
+      @Nullable Result afterImage,
+      int version,
+      long committedAt,
+      TransactionState state) {
+    Key.Builder clusteringKey = Key.newBuilder();
+    getClusteringKey(base, result).ifPresent(k -> k.getColumns().forEach(clusteringKey::add));
+    clusteringKey.add(BigIntColumn.of(Attribute.COMMITTED_AT, committedAt));
+    clusteringKey.add(IntColumn.of(Attribute.VERSION, version));
+
+    Put put =
+        new Put(getPartitionKey(base, result), clusteringKey.build())
+            .forNamespace(base.forNamespace().get())
+            .forTable(ConsensusCommitUtils.getVersionTableName(base.forTable().get()))
+            .withConsistency(Consistency.LINEARIZABLE)
+            .withValue(Attribute.toIdValue(id))
+            .withValue(Attribute.toStateValue(state));
+    if (afterImage != null) {
+      Map<String, Column<?>> columns = afterImage.getColumns();
+      for (String name : metadata.getAfterImageColumnNames()) {
+        if (metadata.getPartitionKeyNames().contains(name)
+            || metadata.getClusteringKeyNames().contains(name)
+            || ConsensusCommitUtils.isTransactionMetaColumn(name, metadata.getTableMetadata())) {
+          continue;
+        }
+        Column<?> column = columns.get(name);
+        if (column != null) {
+          put.withValue(column);
+        }
+      }
+    }
+    return put;
+  }
 }
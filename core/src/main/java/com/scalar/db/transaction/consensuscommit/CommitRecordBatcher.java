@@ -0,0 +1,249 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Mutation;
+import com.scalar.db.exception.storage.ExecutionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A batcher for the mutations that commit the records of the transactions whose states have been
+ * committed. It gathers the mutations of concurrent transactions within a bounded delay and emits
+ * the ones for the same storage partition as one batched mutation, so that the transactions writing
+ * to the same partitions share the round trips to the storage. A batch doesn't exceed the maximum
+ * number of mutations that the storage can apply at once, and the mutations of a transaction for a
+ * partition are never split across batches.
+ *
+ * <p>Since a batched mutation is applied atomically, a mutation whose condition fails, e.g.,
+ * because the record has already been committed by the lazy recovery, fails the others in the
+ * batch. The mutations of the transactions in a failed batch are emitted again separately, and the
+ * records that still fail to be committed are recovered lazily as when they aren't batched.
+ */
+@ThreadSafe
+public class CommitRecordBatcher {
+  private static final Logger logger = LoggerFactory.getLogger(CommitRecordBatcher.class);
+
+  @FunctionalInterface
+  public interface Emitter {
+    void emit(List<Mutation> mutations) throws ExecutionException;
+  }
+
+  private final Emitter emitter;
+  private final int maxMutationsPerBatch;
+  private final boolean async;
+  private final ScheduledExecutorService flushExecutorService;
+  private final ExecutorService emitExecutorService;
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private Map<PartitionedMutations.Key, List<PendingMutations>> pendingMutations =
+      new LinkedHashMap<>();
+
+  @GuardedBy("lock")
+  private boolean closed;
+
+  /**
+   * @param delayMillis the maximum time in milliseconds that the mutations wait to be emitted
+   * @param maxMutationsPerBatch the maximum number of mutations in a batch
+   * @param emitThreadCount the number of the threads to emit the batches
+   * @param async whether or not the callers return without waiting for their mutations to be
+   *     emitted
+   * @param emitter an emitter of the batches
+   */
+  public CommitRecordBatcher(
+      long delayMillis,
+      int maxMutationsPerBatch,
+      int emitThreadCount,
+      boolean async,
+      Emitter emitter) {
+    this.emitter = emitter;
+    this.maxMutationsPerBatch = maxMutationsPerBatch;
+    this.async = async;
+    flushExecutorService =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("commit-record-batch-flush-%d")
+                .setDaemon(true)
+                .build());
+    emitExecutorService =
+        Executors.newFixedThreadPool(
+            emitThreadCount,
+            new ThreadFactoryBuilder()
+                .setNameFormat("commit-record-batch-emit-%d")
+                .setDaemon(true)
+                .build());
+    flushExecutorService.scheduleWithFixedDelay(
+        this::flush, delayMillis, delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /** Creates a batcher that emits the batches to the specified storage if batching is enabled. */
+  @Nullable
+  static CommitRecordBatcher create(ConsensusCommitConfig config, DistributedStorage storage) {
+    if (!config.isCommitBatchingEnabled()) {
+      return null;
+    }
+    return new CommitRecordBatcher(
+        config.getCommitBatchingDelayMillis(),
+        config.getCommitBatchingMaxMutations(),
+        config.getCommitBatchingEmitThreadCount(),
+        config.isAsyncCommitEnabled(),
+        storage::mutate);
+  }
+
+  @VisibleForTesting
+  CommitRecordBatcher(
+      int maxMutationsPerBatch,
+      boolean async,
+      Emitter emitter,
+      ScheduledExecutorService flushExecutorService,
+      ExecutorService emitExecutorService) {
+    this.emitter = emitter;
+    this.maxMutationsPerBatch = maxMutationsPerBatch;
+    this.async = async;
+    this.flushExecutorService = flushExecutorService;
+    this.emitExecutorService = emitExecutorService;
+  }
+
+  /**
+   * Adds the mutations that commit the records of a transaction to the batches. Unless the batcher
+   * is asynchronous, the caller is blocked until the mutations are emitted. The failures of the
+   * mutations aren't thrown since the records are recovered lazily. After the batcher is closed,
+   * the mutations are emitted by the caller without being batched.
+   *
+   * @param mutations the mutations that commit the records of a transaction
+   */
+  public void commit(PartitionedMutations mutations) {
+    List<PendingMutations> added = new ArrayList<>();
+    boolean closed;
+    synchronized (lock) {
+      closed = this.closed;
+      for (PartitionedMutations.Key key : mutations.getOrderedKeys()) {
+        PendingMutations pending = new PendingMutations(mutations.get(key));
+        if (!closed) {
+          pendingMutations.computeIfAbsent(key, k -> new ArrayList<>()).add(pending);
+        }
+        added.add(pending);
+      }
+    }
+    if (closed) {
+      // no flush is left to emit the mutations, so they are emitted for each partition here
+      added.forEach(p -> emit(Collections.singletonList(p)));
+      return;
+    }
+    if (!async) {
+      added.forEach(PendingMutations::await);
+    }
+  }
+
+  @VisibleForTesting
+  void flush() {
+    Map<PartitionedMutations.Key, List<PendingMutations>> groups;
+    synchronized (lock) {
+      if (pendingMutations.isEmpty()) {
+        return;
+      }
+      groups = pendingMutations;
+      pendingMutations = new LinkedHashMap<>();
+    }
+    logger.debug("flushing the commit mutations for {} partitions", groups.size());
+
+    for (List<PendingMutations> group : groups.values()) {
+      for (List<PendingMutations> batch : split(group)) {
+        emitExecutorService.execute(() -> emit(batch));
+      }
+    }
+  }
+
+  private List<List<PendingMutations>> split(List<PendingMutations> group) {
+    List<List<PendingMutations>> batches = new ArrayList<>();
+    List<PendingMutations> batch = new ArrayList<>();
+    int size = 0;
+    for (PendingMutations pending : group) {
+      if (!batch.isEmpty() && size + pending.mutations.size() > maxMutationsPerBatch) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+        size = 0;
+      }
+      batch.add(pending);
+      size += pending.mutations.size();
+    }
+    batches.add(batch);
+    return batches;
+  }
+
+  private void emit(List<PendingMutations> batch) {
+    if (batch.size() > 1) {
+      try {
+        emitter.emit(
+            batch.stream().flatMap(p -> p.mutations.stream()).collect(Collectors.toList()));
+        batch.forEach(PendingMutations::complete);
+        return;
+      } catch (ExecutionException | RuntimeException e) {
+        logger.debug("committing records in a batch failed. committing them separately", e);
+      }
+    }
+
+    for (PendingMutations pending : batch) {
+      try {
+        emitter.emit(pending.mutations);
+      } catch (ExecutionException | RuntimeException e) {
+        logger.warn("committing records failed", e);
+        // ignore since records are recovered lazily
+      }
+      pending.complete();
+    }
+  }
+
+  @SuppressWarnings("UnstableApiUsage")
+  public void close() {
+    synchronized (lock) {
+      closed = true;
+    }
+    flushExecutorService.shutdown();
+    Uninterruptibles.awaitTerminationUninterruptibly(flushExecutorService);
+    // flush the remaining mutations so that no caller is left blocked
+    flush();
+    emitExecutorService.shutdown();
+    Uninterruptibles.awaitTerminationUninterruptibly(emitExecutorService);
+  }
+
+  private static class PendingMutations {
+    private final List<Mutation> mutations;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private PendingMutations(List<Mutation> mutations) {
+      this.mutations = mutations;
+    }
+
+    private void complete() {
+      future.complete(null);
+    }
+
+    private void await() {
+      try {
+        Uninterruptibles.getUninterruptibly(future);
+      } catch (java.util.concurrent.ExecutionException e) {
+        // never happens since the future is always completed normally
+        throw new AssertionError(e);
+      }
+    }
+  }
+}
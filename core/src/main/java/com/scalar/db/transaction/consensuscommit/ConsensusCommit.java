@@ -2,6 +2,7 @@ package com.scalar.db.transaction.consensuscommit;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.scalar.db.api.Delete;
@@ -11,12 +12,16 @@ import com.scalar.db.api.Put;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.Scan;
 import com.scalar.db.api.Selection;
+import com.scalar.db.api.TransactionCrudOperable;
+import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CommitException;
+import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.CrudException;
 import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
 import com.scalar.db.transaction.common.AbstractDistributedTransaction;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,13 +45,24 @@ public class ConsensusCommit extends AbstractDistributedTransaction {
   private final CrudHandler crud;
   private final CommitHandler commit;
   private final RecoveryHandler recovery;
+  private final boolean readOnly;
   private Runnable beforeRecoveryHook;
   private Runnable beforeCommitHook;
 
   public ConsensusCommit(CrudHandler crud, CommitHandler commit, RecoveryHandler recovery) {
+    this(crud, commit, recovery, false);
+  }
+
+  /**
+   * Creates a transaction. A read-only transaction doesn't accept any mutations, and it's committed
+   * without preparing records or writing the coordinator state.
+   */
+  public ConsensusCommit(
+      CrudHandler crud, CommitHandler commit, RecoveryHandler recovery, boolean readOnly) {
     this.crud = checkNotNull(crud);
     this.commit = checkNotNull(commit);
     this.recovery = checkNotNull(recovery);
+    this.readOnly = readOnly;
     this.beforeRecoveryHook = () -> {};
     this.beforeCommitHook = () -> {};
   }
@@ -78,8 +94,20 @@ public class ConsensusCommit extends AbstractDistributedTransaction {
     }
   }
 
+  @Override
+  public TransactionCrudOperable.Scanner getScanner(Scan scan) throws CrudException {
+    Scan target = copyAndSetTargetToIfNot(scan);
+    try {
+      return crud.getScanner(target, e -> lazyRecovery(target, e.getResults()));
+    } catch (UncommittedRecordException e) {
+      lazyRecovery(target, e.getResults());
+      throw e;
+    }
+  }
+
   @Override
   public void put(Put put) {
+    checkNotReadOnly();
     put = copyAndSetTargetToIfNot(put);
     crud.put(put);
   }
@@ -92,6 +120,7 @@ public class ConsensusCommit extends AbstractDistributedTransaction {
 
   @Override
   public void delete(Delete delete) {
+    checkNotReadOnly();
     delete = copyAndSetTargetToIfNot(delete);
     crud.delete(delete);
   }
@@ -118,12 +147,51 @@ public class ConsensusCommit extends AbstractDistributedTransaction {
   @Override
   public void commit() throws CommitException, UnknownTransactionStatusException {
     beforeCommitHook.run();
-    commit.commit(crud.getSnapshot());
+    crud.closeScanners();
+    try {
+      if (readOnly) {
+        commit.commitReadOnly(crud.getSnapshot());
+        return;
+      }
+      crud.lockWrittenRecords();
+      readRecordsToWrite();
+      commit.commit(crud.getSnapshot());
+    } finally {
+      crud.unlock();
+      crud.getSnapshot().close();
+    }
   }
 
   @Override
   public void rollback() {
-    // do nothing for this implementation
+    // nothing is written before commit, so only the scanners, the local locks, and the spilled
+    // write set need to be released
+    crud.closeScanners();
+    crud.unlock();
+    crud.getSnapshot().close();
+  }
+
+  private void readRecordsToWrite() throws CommitException {
+    try {
+      crud.readRecordsToWrite();
+    } catch (CrudConflictException e) {
+      throw new CommitConflictException("the records to write have been updated", e);
+    } catch (CrudException e) {
+      throw new CommitException("reading the records to write failed", e);
+    }
+  }
+
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  private void checkNotReadOnly() {
+    checkState(!readOnly, "mutations are not allowed in a read-only transaction");
+  }
+
+  /** Returns the keys of the records that this transaction writes. */
+  Set<Snapshot.Key> getWrittenKeys() {
+    return crud.getSnapshot().getWrittenKeys();
   }
 
   @VisibleForTesting
@@ -1,11 +1,15 @@
 package com.scalar.db.transaction.consensuscommit;
 
 import static com.scalar.db.transaction.consensuscommit.ConsensusCommitUtils.buildTransactionTableMetadata;
+import static com.scalar.db.transaction.consensuscommit.ConsensusCommitUtils.buildVersionTableMetadata;
 import static com.scalar.db.transaction.consensuscommit.ConsensusCommitUtils.getBeforeImageColumnName;
+import static com.scalar.db.transaction.consensuscommit.ConsensusCommitUtils.getVersionTableName;
+import static com.scalar.db.transaction.consensuscommit.ConsensusCommitUtils.isVersionTableName;
 import static com.scalar.db.transaction.consensuscommit.ConsensusCommitUtils.removeTransactionMetaColumns;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
+import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.DistributedStorageAdmin;
 import com.scalar.db.api.DistributedTransactionAdmin;
 import com.scalar.db.api.TableMetadata;
@@ -14,24 +18,27 @@ import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.io.DataType;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.concurrent.ThreadSafe;
 
 @ThreadSafe
 public class ConsensusCommitAdmin implements DistributedTransactionAdmin {
 
   private final DistributedStorageAdmin admin;
+  private final ConsensusCommitConfig config;
   private final String coordinatorNamespace;
 
   @Inject
   public ConsensusCommitAdmin(DistributedStorageAdmin admin, DatabaseConfig databaseConfig) {
     this.admin = admin;
-    ConsensusCommitConfig config = new ConsensusCommitConfig(databaseConfig);
+    config = new ConsensusCommitConfig(databaseConfig);
     coordinatorNamespace = config.getCoordinatorNamespace().orElse(Coordinator.NAMESPACE);
   }
 
   @VisibleForTesting
   ConsensusCommitAdmin(DistributedStorageAdmin admin, ConsensusCommitConfig config) {
     this.admin = admin;
+    this.config = config;
     coordinatorNamespace = config.getCoordinatorNamespace().orElse(Coordinator.NAMESPACE);
   }
 
@@ -57,6 +64,34 @@ public class ConsensusCommitAdmin implements DistributedTransactionAdmin {
     return admin.tableExists(coordinatorNamespace, Coordinator.TABLE);
   }
 
+  /**
+   * Deletes the coordinator states that are older than the horizon specified in {@link
+   * ConsensusCommitConfig#COORDINATOR_GC_HORIZON_MILLIS} and are not referenced by any PREPARED or
+   * DELETED records in the transactional tables of the namespaces specified in {@link
+   * ConsensusCommitConfig#COORDINATOR_GC_NAMESPACES}.
+   *
+   * @param storage a storage to access the coordinator table and the transactional tables
+   * @return the number of the deleted states
+   * @throws ExecutionException if the operation failed
+   */
+  public long collectCoordinatorGarbage(DistributedStorage storage) throws ExecutionException {
+    return new CoordinatorGarbageCollector(storage, admin, config).collect();
+  }
+
+  /**
+   * Deletes the versions that are no longer retained from the version tables of the tables
+   * specified in {@link ConsensusCommitConfig#MULTI_VERSION_GC_TABLES}.
+   *
+   * @param storage a storage to access the version tables
+   * @return the number of the deleted versions
+   * @throws ExecutionException if the operation failed
+   */
+  public long collectVersionGarbage(DistributedStorage storage) throws ExecutionException {
+    return new VersionGarbageCollector(
+            storage, new TransactionTableMetadataManager(admin, -1, true), config)
+        .collect();
+  }
+
   @Override
   public void createNamespace(String namespace, Map<String, String> options)
       throws ExecutionException {
@@ -67,12 +102,30 @@ public class ConsensusCommitAdmin implements DistributedTransactionAdmin {
   public void createTable(
       String namespace, String table, TableMetadata metadata, Map<String, String> options)
       throws ExecutionException {
-    admin.createTable(namespace, table, buildTransactionTableMetadata(metadata), options);
+    if (isVersionTableName(table)) {
+      throw new IllegalArgumentException(
+          "the table name suffix \""
+              + ConsensusCommitUtils.VERSION_TABLE_SUFFIX
+              + "\" is reserved for the version tables: "
+              + table);
+    }
+    admin.createTable(
+        namespace,
+        table,
+        buildTransactionTableMetadata(metadata, config.isDeltaBeforeImageEnabled()),
+        options);
+    if (config.isMultiVersionEnabled()) {
+      admin.createTable(
+          namespace, getVersionTableName(table), buildVersionTableMetadata(metadata), options);
+    }
   }
 
   @Override
   public void dropTable(String namespace, String table) throws ExecutionException {
     admin.dropTable(namespace, table);
+    if (admin.tableExists(namespace, getVersionTableName(table))) {
+      admin.dropTable(namespace, getVersionTableName(table));
+    }
   }
 
   @Override
@@ -83,6 +136,9 @@ public class ConsensusCommitAdmin implements DistributedTransactionAdmin {
   @Override
   public void truncateTable(String namespace, String table) throws ExecutionException {
     admin.truncateTable(namespace, table);
+    if (admin.tableExists(namespace, getVersionTableName(table))) {
+      admin.truncateTable(namespace, getVersionTableName(table));
+    }
   }
 
   @Override
@@ -106,7 +162,10 @@ public class ConsensusCommitAdmin implements DistributedTransactionAdmin {
 
   @Override
   public Set<String> getNamespaceTableNames(String namespace) throws ExecutionException {
-    return admin.getNamespaceTableNames(namespace);
+    // the version tables are internal to the multi-versioned tables
+    return admin.getNamespaceTableNames(namespace).stream()
+        .filter(t -> !isVersionTableName(t))
+        .collect(Collectors.toSet());
   }
 
   @Override
@@ -118,7 +177,15 @@ public class ConsensusCommitAdmin implements DistributedTransactionAdmin {
   public void repairTable(
       String namespace, String table, TableMetadata metadata, Map<String, String> options)
       throws ExecutionException {
-    admin.repairTable(namespace, table, buildTransactionTableMetadata(metadata), options);
+    admin.repairTable(
+        namespace,
+        table,
+        buildTransactionTableMetadata(metadata, config.isDeltaBeforeImageEnabled()),
+        options);
+    if (config.isMultiVersionEnabled()) {
+      admin.repairTable(
+          namespace, getVersionTableName(table), buildVersionTableMetadata(metadata), options);
+    }
   }
 
   @Override
@@ -135,6 +202,9 @@ public class ConsensusCommitAdmin implements DistributedTransactionAdmin {
 
     admin.addNewColumnToTable(namespace, table, columnName, columnType);
     admin.addNewColumnToTable(namespace, table, beforeColumnName, columnType);
+    if (admin.tableExists(namespace, getVersionTableName(table))) {
+      admin.addNewColumnToTable(namespace, getVersionTableName(table), columnName, columnType);
+    }
   }
 
   @Override
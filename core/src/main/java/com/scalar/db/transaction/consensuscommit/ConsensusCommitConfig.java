@@ -2,9 +2,14 @@ package com.scalar.db.transaction.consensuscommit;
 
 import static com.scalar.db.config.ConfigUtils.getBoolean;
 import static com.scalar.db.config.ConfigUtils.getInt;
+import static com.scalar.db.config.ConfigUtils.getLong;
 import static com.scalar.db.config.ConfigUtils.getString;
+import static com.scalar.db.config.ConfigUtils.getStringArray;
 
 import com.scalar.db.config.DatabaseConfig;
+import com.scalar.db.transaction.common.TransactionRetryExecutor;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
@@ -15,12 +20,20 @@ import org.slf4j.LoggerFactory;
 public class ConsensusCommitConfig {
   private static final Logger logger = LoggerFactory.getLogger(ConsensusCommitConfig.class);
 
+  // the number of the transaction lifetimes that the coordinator GC horizon must span at least.
+  // a state must outlive every transaction that might still try to commit against it, including
+  // the ones that are slow to notice their expiration, and the records that the recovery sweeper
+  // hasn't reached yet
+  private static final int COORDINATOR_GC_MIN_HORIZON_LIFETIMES = 4;
+
   public static final String PREFIX = DatabaseConfig.PREFIX + "consensus_commit.";
   public static final String ISOLATION_LEVEL = PREFIX + "isolation_level";
   public static final String SERIALIZABLE_STRATEGY = PREFIX + "serializable_strategy";
   public static final String COORDINATOR_NAMESPACE = PREFIX + "coordinator.namespace";
 
   public static final String PARALLEL_EXECUTOR_COUNT = PREFIX + "parallel_executor_count";
+  public static final String PARALLEL_EXECUTOR_TYPE = PREFIX + "parallel_executor_type";
+  public static final String PARALLEL_EXECUTOR_QUEUE_SIZE = PREFIX + "parallel_executor_queue_size";
   public static final String PARALLEL_PREPARATION_ENABLED = PREFIX + "parallel_preparation.enabled";
   public static final String PARALLEL_VALIDATION_ENABLED = PREFIX + "parallel_validation.enabled";
   public static final String PARALLEL_COMMIT_ENABLED = PREFIX + "parallel_commit.enabled";
@@ -29,13 +42,117 @@ public class ConsensusCommitConfig {
   public static final String ASYNC_COMMIT_ENABLED = PREFIX + "async_commit.enabled";
   public static final String ASYNC_ROLLBACK_ENABLED = PREFIX + "async_rollback.enabled";
 
+  public static final String BATCH_VALIDATION_ENABLED = PREFIX + "batch_validation.enabled";
+
+  public static final String ONE_PHASE_COMMIT_ENABLED = PREFIX + "one_phase_commit.enabled";
+
+  public static final String BEFORE_IMAGE_READ_ENABLED = PREFIX + "before_image_read.enabled";
+
+  public static final String DELTA_BEFORE_IMAGE_ENABLED = PREFIX + "delta_before_image.enabled";
+
+  public static final String COORDINATOR_STATE_CACHE_ENABLED =
+      PREFIX + "coordinator.state_cache.enabled";
+  public static final String COORDINATOR_STATE_CACHE_MAX_SIZE =
+      PREFIX + "coordinator.state_cache.max_size";
+  public static final String COORDINATOR_STATE_CACHE_EXPIRATION_TIME_MILLIS =
+      PREFIX + "coordinator.state_cache.expiration_time_millis";
+
+  public static final String RECOVERY_SWEEPER_ENABLED = PREFIX + "recovery_sweeper.enabled";
+  public static final String RECOVERY_SWEEPER_TABLES = PREFIX + "recovery_sweeper.tables";
+  public static final String RECOVERY_SWEEPER_INTERVAL_MILLIS =
+      PREFIX + "recovery_sweeper.interval_millis";
+  public static final String RECOVERY_SWEEPER_MAX_RECORDS_PER_SECOND =
+      PREFIX + "recovery_sweeper.max_records_per_second";
+  public static final String RECOVERY_SWEEPER_BATCH_SIZE = PREFIX + "recovery_sweeper.batch_size";
+
+  public static final String COORDINATOR_GC_ENABLED = PREFIX + "coordinator.gc.enabled";
+  public static final String COORDINATOR_GC_NAMESPACES = PREFIX + "coordinator.gc.namespaces";
+  public static final String COORDINATOR_GC_INTERVAL_MILLIS =
+      PREFIX + "coordinator.gc.interval_millis";
+  public static final String COORDINATOR_GC_HORIZON_MILLIS =
+      PREFIX + "coordinator.gc.horizon_millis";
+  public static final String COORDINATOR_GC_MAX_DELETIONS_PER_SECOND =
+      PREFIX + "coordinator.gc.max_deletions_per_second";
+
+  public static final String LOCK_TABLE_ENABLED = PREFIX + "lock_table.enabled";
+  public static final String LOCK_TABLE_STRIPES = PREFIX + "lock_table.stripes";
+  public static final String LOCK_TABLE_TIMEOUT_MILLIS = PREFIX + "lock_table.timeout_millis";
+
+  public static final String MULTI_VERSION_ENABLED = PREFIX + "multi_version.enabled";
+  public static final String MULTI_VERSION_RETAINED_VERSIONS =
+      PREFIX + "multi_version.retained_versions";
+  public static final String MULTI_VERSION_RETENTION_MILLIS =
+      PREFIX + "multi_version.retention_millis";
+  public static final String MULTI_VERSION_GC_ENABLED = PREFIX + "multi_version.gc.enabled";
+  public static final String MULTI_VERSION_GC_TABLES = PREFIX + "multi_version.gc.tables";
+  public static final String MULTI_VERSION_GC_INTERVAL_MILLIS =
+      PREFIX + "multi_version.gc.interval_millis";
+
+  public static final String TRANSACTION_ID_GENERATOR = PREFIX + "transaction_id_generator";
+  public static final String TRANSACTION_ID_GENERATOR_NODE_ID =
+      PREFIX + "transaction_id_generator.node_id";
+
+  public static final String TRANSACTION_TIMEOUT_MILLIS = PREFIX + "transaction_timeout_millis";
+
+  public static final String COMMIT_BATCHING_ENABLED = PREFIX + "commit_batching.enabled";
+  public static final String COMMIT_BATCHING_DELAY_MILLIS = PREFIX + "commit_batching.delay_millis";
+  public static final String COMMIT_BATCHING_MAX_MUTATIONS =
+      PREFIX + "commit_batching.max_mutations";
+  public static final String COMMIT_BATCHING_EMIT_THREAD_COUNT =
+      PREFIX + "commit_batching.emit_thread_count";
+
+  public static final String LARGE_TRANSACTION_SPILL_THRESHOLD =
+      PREFIX + "large_transaction.spill_threshold";
+  public static final String LARGE_TRANSACTION_SPILL_DIRECTORY =
+      PREFIX + "large_transaction.spill_directory";
+
+  public static final String RETRY_MAX_RETRIES = PREFIX + "retry.max_retries";
+  public static final String RETRY_BASE_BACKOFF_MILLIS = PREFIX + "retry.base_backoff_millis";
+  public static final String RETRY_MAX_BACKOFF_MILLIS = PREFIX + "retry.max_backoff_millis";
+  public static final String RETRY_CONTENTION_HALF_LIFE_MILLIS =
+      PREFIX + "retry.contention_half_life_millis";
+  public static final String RETRY_MAX_CONTENTION_FACTOR = PREFIX + "retry.max_contention_factor";
+
   public static final int DEFAULT_PARALLEL_EXECUTOR_COUNT = 30;
+  public static final int DEFAULT_PARALLEL_EXECUTOR_QUEUE_SIZE = 1000;
+  public static final long DEFAULT_COORDINATOR_STATE_CACHE_MAX_SIZE = 10000;
+  public static final long DEFAULT_COORDINATOR_STATE_CACHE_EXPIRATION_TIME_MILLIS = 60000;
+  public static final long DEFAULT_RECOVERY_SWEEPER_INTERVAL_MILLIS = 60000;
+  public static final int DEFAULT_RECOVERY_SWEEPER_MAX_RECORDS_PER_SECOND = 1000;
+  public static final int DEFAULT_RECOVERY_SWEEPER_BATCH_SIZE = 100;
+  public static final long DEFAULT_COORDINATOR_GC_INTERVAL_MILLIS = 3600000;
+  public static final long DEFAULT_COORDINATOR_GC_HORIZON_MILLIS = 86400000;
+  public static final int DEFAULT_COORDINATOR_GC_MAX_DELETIONS_PER_SECOND = 100;
+  public static final int DEFAULT_LOCK_TABLE_STRIPES = 1024;
+  public static final long DEFAULT_LOCK_TABLE_TIMEOUT_MILLIS = 1000;
+  public static final int DEFAULT_MULTI_VERSION_RETAINED_VERSIONS = 1;
+  public static final long DEFAULT_MULTI_VERSION_RETENTION_MILLIS = 3600000;
+  public static final long DEFAULT_MULTI_VERSION_GC_INTERVAL_MILLIS = 600000;
+  public static final String DEFAULT_TRANSACTION_ID_GENERATOR = "time_ordered";
+  public static final long DEFAULT_TRANSACTION_TIMEOUT_MILLIS = 0;
+  public static final long DEFAULT_COMMIT_BATCHING_DELAY_MILLIS = 5;
+  // DynamoDB can't apply more than 25 mutations in a transaction
+  public static final int DEFAULT_COMMIT_BATCHING_MAX_MUTATIONS_FOR_DYNAMO = 25;
+  public static final int DEFAULT_COMMIT_BATCHING_MAX_MUTATIONS = 100;
+  public static final int DEFAULT_COMMIT_BATCHING_EMIT_THREAD_COUNT = 4;
+  public static final int DEFAULT_LARGE_TRANSACTION_SPILL_THRESHOLD = 0;
+  public static final int DEFAULT_RETRY_MAX_RETRIES = TransactionRetryExecutor.DEFAULT_MAX_RETRIES;
+  public static final long DEFAULT_RETRY_BASE_BACKOFF_MILLIS =
+      TransactionRetryExecutor.DEFAULT_BASE_BACKOFF_MILLIS;
+  public static final long DEFAULT_RETRY_MAX_BACKOFF_MILLIS =
+      TransactionRetryExecutor.DEFAULT_MAX_BACKOFF_MILLIS;
+  public static final long DEFAULT_RETRY_CONTENTION_HALF_LIFE_MILLIS =
+      TransactionRetryExecutor.DEFAULT_CONTENTION_HALF_LIFE_MILLIS;
+  public static final int DEFAULT_RETRY_MAX_CONTENTION_FACTOR =
+      TransactionRetryExecutor.DEFAULT_MAX_CONTENTION_FACTOR;
 
   private final Isolation isolation;
   private final SerializableStrategy strategy;
   @Nullable private final String coordinatorNamespace;
 
   private final int parallelExecutorCount;
+  private final ParallelExecutorType parallelExecutorType;
+  private final int parallelExecutorQueueSize;
   private final boolean parallelPreparationEnabled;
   private final boolean parallelValidationEnabled;
   private final boolean parallelCommitEnabled;
@@ -43,6 +160,60 @@ public class ConsensusCommitConfig {
   private final boolean asyncCommitEnabled;
   private final boolean asyncRollbackEnabled;
 
+  private final boolean batchValidationEnabled;
+
+  private final boolean onePhaseCommitEnabled;
+
+  private final boolean beforeImageReadEnabled;
+
+  private final boolean deltaBeforeImageEnabled;
+
+  private final boolean coordinatorStateCacheEnabled;
+  private final long coordinatorStateCacheMaxSize;
+  private final long coordinatorStateCacheExpirationTimeMillis;
+
+  private final boolean recoverySweeperEnabled;
+  private final String[] recoverySweeperTables;
+  private final long recoverySweeperIntervalMillis;
+  private final int recoverySweeperMaxRecordsPerSecond;
+  private final int recoverySweeperBatchSize;
+
+  private final boolean coordinatorGcEnabled;
+  private final String[] coordinatorGcNamespaces;
+  private final long coordinatorGcIntervalMillis;
+  private final long coordinatorGcHorizonMillis;
+  private final int coordinatorGcMaxDeletionsPerSecond;
+
+  private final boolean lockTableEnabled;
+  private final int lockTableStripes;
+  private final long lockTableTimeoutMillis;
+
+  private final boolean multiVersionEnabled;
+  private final int multiVersionRetainedVersions;
+  private final long multiVersionRetentionMillis;
+  private final boolean multiVersionGcEnabled;
+  private final String[] multiVersionGcTables;
+  private final long multiVersionGcIntervalMillis;
+
+  private final String transactionIdGenerator;
+  @Nullable private final Integer transactionIdGeneratorNodeId;
+
+  private final long transactionTimeoutMillis;
+
+  private final boolean commitBatchingEnabled;
+  private final long commitBatchingDelayMillis;
+  private final int commitBatchingMaxMutations;
+  private final int commitBatchingEmitThreadCount;
+
+  private final int largeTransactionSpillThreshold;
+  @Nullable private final String largeTransactionSpillDirectory;
+
+  private final int retryMaxRetries;
+  private final long retryBaseBackoffMillis;
+  private final long retryMaxBackoffMillis;
+  private final long retryContentionHalfLifeMillis;
+  private final int retryMaxContentionFactor;
+
   public ConsensusCommitConfig(DatabaseConfig databaseConfig) {
     if (databaseConfig.getProperties().containsValue("scalar.db.isolation_level")) {
       logger.warn(
@@ -76,6 +247,18 @@ public class ConsensusCommitConfig {
             databaseConfig.getProperties(),
             PARALLEL_EXECUTOR_COUNT,
             DEFAULT_PARALLEL_EXECUTOR_COUNT);
+    parallelExecutorType =
+        ParallelExecutorType.valueOf(
+            getString(
+                    databaseConfig.getProperties(),
+                    PARALLEL_EXECUTOR_TYPE,
+                    ParallelExecutorType.FIXED.toString())
+                .toUpperCase());
+    parallelExecutorQueueSize =
+        getInt(
+            databaseConfig.getProperties(),
+            PARALLEL_EXECUTOR_QUEUE_SIZE,
+            DEFAULT_PARALLEL_EXECUTOR_QUEUE_SIZE);
     parallelPreparationEnabled =
         getBoolean(databaseConfig.getProperties(), PARALLEL_PREPARATION_ENABLED, false);
     parallelCommitEnabled =
@@ -93,6 +276,274 @@ public class ConsensusCommitConfig {
     asyncCommitEnabled = getBoolean(databaseConfig.getProperties(), ASYNC_COMMIT_ENABLED, false);
     asyncRollbackEnabled =
         getBoolean(databaseConfig.getProperties(), ASYNC_ROLLBACK_ENABLED, asyncCommitEnabled);
+
+    batchValidationEnabled =
+        getBoolean(databaseConfig.getProperties(), BATCH_VALIDATION_ENABLED, false);
+
+    boolean onePhaseCommitRequested =
+        getBoolean(databaseConfig.getProperties(), ONE_PHASE_COMMIT_ENABLED, false);
+
+    beforeImageReadEnabled =
+        getBoolean(databaseConfig.getProperties(), BEFORE_IMAGE_READ_ENABLED, false);
+
+    deltaBeforeImageEnabled =
+        getBoolean(databaseConfig.getProperties(), DELTA_BEFORE_IMAGE_ENABLED, false);
+
+    coordinatorStateCacheEnabled =
+        getBoolean(databaseConfig.getProperties(), COORDINATOR_STATE_CACHE_ENABLED, false);
+    coordinatorStateCacheMaxSize =
+        getLong(
+            databaseConfig.getProperties(),
+            COORDINATOR_STATE_CACHE_MAX_SIZE,
+            DEFAULT_COORDINATOR_STATE_CACHE_MAX_SIZE);
+    coordinatorStateCacheExpirationTimeMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            COORDINATOR_STATE_CACHE_EXPIRATION_TIME_MILLIS,
+            DEFAULT_COORDINATOR_STATE_CACHE_EXPIRATION_TIME_MILLIS);
+
+    recoverySweeperEnabled =
+        getBoolean(databaseConfig.getProperties(), RECOVERY_SWEEPER_ENABLED, false);
+    recoverySweeperTables =
+        getStringArray(databaseConfig.getProperties(), RECOVERY_SWEEPER_TABLES, new String[0]);
+    checkTables(recoverySweeperTables, "recovery sweeper");
+    recoverySweeperIntervalMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            RECOVERY_SWEEPER_INTERVAL_MILLIS,
+            DEFAULT_RECOVERY_SWEEPER_INTERVAL_MILLIS);
+    recoverySweeperMaxRecordsPerSecond =
+        getInt(
+            databaseConfig.getProperties(),
+            RECOVERY_SWEEPER_MAX_RECORDS_PER_SECOND,
+            DEFAULT_RECOVERY_SWEEPER_MAX_RECORDS_PER_SECOND);
+    recoverySweeperBatchSize =
+        getInt(
+            databaseConfig.getProperties(),
+            RECOVERY_SWEEPER_BATCH_SIZE,
+            DEFAULT_RECOVERY_SWEEPER_BATCH_SIZE);
+
+    coordinatorGcEnabled =
+        getBoolean(databaseConfig.getProperties(), COORDINATOR_GC_ENABLED, false);
+    coordinatorGcNamespaces =
+        getStringArray(databaseConfig.getProperties(), COORDINATOR_GC_NAMESPACES, new String[0]);
+    if (coordinatorGcEnabled && coordinatorGcNamespaces.length == 0) {
+      throw new IllegalArgumentException(
+          "all the namespaces that have transactional tables must be specified in "
+              + COORDINATOR_GC_NAMESPACES
+              + " to enable the coordinator GC");
+    }
+    coordinatorGcIntervalMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            COORDINATOR_GC_INTERVAL_MILLIS,
+            DEFAULT_COORDINATOR_GC_INTERVAL_MILLIS);
+    coordinatorGcHorizonMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            COORDINATOR_GC_HORIZON_MILLIS,
+            DEFAULT_COORDINATOR_GC_HORIZON_MILLIS);
+    long minCoordinatorGcHorizonMillis = getMinCoordinatorGcHorizonMillis();
+    if (coordinatorGcHorizonMillis < minCoordinatorGcHorizonMillis) {
+      throw new IllegalArgumentException(
+          "the horizon of the coordinator GC must be at least "
+              + COORDINATOR_GC_MIN_HORIZON_LIFETIMES
+              + " transaction lifetimes plus the recovery sweeper interval ("
+              + minCoordinatorGcHorizonMillis
+              + " ms)");
+    }
+    coordinatorGcMaxDeletionsPerSecond =
+        getInt(
+            databaseConfig.getProperties(),
+            COORDINATOR_GC_MAX_DELETIONS_PER_SECOND,
+            DEFAULT_COORDINATOR_GC_MAX_DELETIONS_PER_SECOND);
+
+    lockTableEnabled = getBoolean(databaseConfig.getProperties(), LOCK_TABLE_ENABLED, false);
+    lockTableStripes =
+        getInt(databaseConfig.getProperties(), LOCK_TABLE_STRIPES, DEFAULT_LOCK_TABLE_STRIPES);
+    if (lockTableStripes <= 0) {
+      throw new IllegalArgumentException(
+          LOCK_TABLE_STRIPES + " must be positive: " + lockTableStripes);
+    }
+    lockTableTimeoutMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            LOCK_TABLE_TIMEOUT_MILLIS,
+            DEFAULT_LOCK_TABLE_TIMEOUT_MILLIS);
+
+    multiVersionEnabled = getBoolean(databaseConfig.getProperties(), MULTI_VERSION_ENABLED, false);
+    // the versions are put into the separate version tables, so a transaction that writes them
+    // can't
+    // be committed with a single atomic mutation of the records
+    if (onePhaseCommitRequested && multiVersionEnabled) {
+      logger.warn(
+          ONE_PHASE_COMMIT_ENABLED
+              + " is ignored since it can't be used together with "
+              + MULTI_VERSION_ENABLED);
+    }
+    onePhaseCommitEnabled = onePhaseCommitRequested && !multiVersionEnabled;
+    multiVersionRetainedVersions =
+        getInt(
+            databaseConfig.getProperties(),
+            MULTI_VERSION_RETAINED_VERSIONS,
+            DEFAULT_MULTI_VERSION_RETAINED_VERSIONS);
+    if (multiVersionRetainedVersions <= 0) {
+      throw new IllegalArgumentException(
+          MULTI_VERSION_RETAINED_VERSIONS + " must be positive: " + multiVersionRetainedVersions);
+    }
+    multiVersionRetentionMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            MULTI_VERSION_RETENTION_MILLIS,
+            DEFAULT_MULTI_VERSION_RETENTION_MILLIS);
+    multiVersionGcEnabled =
+        getBoolean(databaseConfig.getProperties(), MULTI_VERSION_GC_ENABLED, false);
+    multiVersionGcTables =
+        getStringArray(databaseConfig.getProperties(), MULTI_VERSION_GC_TABLES, new String[0]);
+    checkTables(multiVersionGcTables, "version GC");
+    if (multiVersionGcEnabled && multiVersionGcTables.length == 0) {
+      throw new IllegalArgumentException(
+          "the multi-versioned tables must be specified in "
+              + MULTI_VERSION_GC_TABLES
+              + " to enable the version GC");
+    }
+    multiVersionGcIntervalMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            MULTI_VERSION_GC_INTERVAL_MILLIS,
+            DEFAULT_MULTI_VERSION_GC_INTERVAL_MILLIS);
+
+    transactionIdGenerator =
+        getString(
+            databaseConfig.getProperties(),
+            TRANSACTION_ID_GENERATOR,
+            DEFAULT_TRANSACTION_ID_GENERATOR);
+    String nodeId =
+        getString(databaseConfig.getProperties(), TRANSACTION_ID_GENERATOR_NODE_ID, null);
+    transactionIdGeneratorNodeId = nodeId == null ? null : Integer.parseUnsignedInt(nodeId);
+
+    transactionTimeoutMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            TRANSACTION_TIMEOUT_MILLIS,
+            DEFAULT_TRANSACTION_TIMEOUT_MILLIS);
+
+    commitBatchingEnabled =
+        getBoolean(databaseConfig.getProperties(), COMMIT_BATCHING_ENABLED, false);
+    commitBatchingDelayMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            COMMIT_BATCHING_DELAY_MILLIS,
+            DEFAULT_COMMIT_BATCHING_DELAY_MILLIS);
+    if (commitBatchingDelayMillis <= 0) {
+      throw new IllegalArgumentException(
+          COMMIT_BATCHING_DELAY_MILLIS + " must be positive: " + commitBatchingDelayMillis);
+    }
+    commitBatchingMaxMutations =
+        getInt(
+            databaseConfig.getProperties(),
+            COMMIT_BATCHING_MAX_MUTATIONS,
+            getDefaultCommitBatchingMaxMutations(databaseConfig));
+    if (commitBatchingMaxMutations <= 0) {
+      throw new IllegalArgumentException(
+          COMMIT_BATCHING_MAX_MUTATIONS + " must be positive: " + commitBatchingMaxMutations);
+    }
+    commitBatchingEmitThreadCount =
+        getInt(
+            databaseConfig.getProperties(),
+            COMMIT_BATCHING_EMIT_THREAD_COUNT,
+            DEFAULT_COMMIT_BATCHING_EMIT_THREAD_COUNT);
+    if (commitBatchingEmitThreadCount <= 0) {
+      throw new IllegalArgumentException(
+          COMMIT_BATCHING_EMIT_THREAD_COUNT
+              + " must be positive: "
+              + commitBatchingEmitThreadCount);
+    }
+
+    largeTransactionSpillThreshold =
+        getInt(
+            databaseConfig.getProperties(),
+            LARGE_TRANSACTION_SPILL_THRESHOLD,
+            DEFAULT_LARGE_TRANSACTION_SPILL_THRESHOLD);
+    if (largeTransactionSpillThreshold < 0) {
+      throw new IllegalArgumentException(
+          LARGE_TRANSACTION_SPILL_THRESHOLD
+              + " must not be negative: "
+              + largeTransactionSpillThreshold);
+    }
+    largeTransactionSpillDirectory =
+        getString(databaseConfig.getProperties(), LARGE_TRANSACTION_SPILL_DIRECTORY, null);
+
+    retryMaxRetries =
+        getInt(databaseConfig.getProperties(), RETRY_MAX_RETRIES, DEFAULT_RETRY_MAX_RETRIES);
+    if (retryMaxRetries < 0) {
+      throw new IllegalArgumentException(
+          RETRY_MAX_RETRIES + " must not be negative: " + retryMaxRetries);
+    }
+    retryBaseBackoffMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            RETRY_BASE_BACKOFF_MILLIS,
+            DEFAULT_RETRY_BASE_BACKOFF_MILLIS);
+    if (retryBaseBackoffMillis <= 0) {
+      throw new IllegalArgumentException(
+          RETRY_BASE_BACKOFF_MILLIS + " must be positive: " + retryBaseBackoffMillis);
+    }
+    retryMaxBackoffMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            RETRY_MAX_BACKOFF_MILLIS,
+            Math.max(DEFAULT_RETRY_MAX_BACKOFF_MILLIS, retryBaseBackoffMillis));
+    if (retryMaxBackoffMillis < retryBaseBackoffMillis) {
+      throw new IllegalArgumentException(
+          RETRY_MAX_BACKOFF_MILLIS
+              + " must not be less than "
+              + RETRY_BASE_BACKOFF_MILLIS
+              + ": "
+              + retryMaxBackoffMillis);
+    }
+    retryContentionHalfLifeMillis =
+        getLong(
+            databaseConfig.getProperties(),
+            RETRY_CONTENTION_HALF_LIFE_MILLIS,
+            DEFAULT_RETRY_CONTENTION_HALF_LIFE_MILLIS);
+    if (retryContentionHalfLifeMillis <= 0) {
+      throw new IllegalArgumentException(
+          RETRY_CONTENTION_HALF_LIFE_MILLIS
+              + " must be positive: "
+              + retryContentionHalfLifeMillis);
+    }
+    retryMaxContentionFactor =
+        getInt(
+            databaseConfig.getProperties(),
+            RETRY_MAX_CONTENTION_FACTOR,
+            DEFAULT_RETRY_MAX_CONTENTION_FACTOR);
+    if (retryMaxContentionFactor < 1) {
+      throw new IllegalArgumentException(
+          RETRY_MAX_CONTENTION_FACTOR + " must be at least 1: " + retryMaxContentionFactor);
+    }
+  }
+
+  private static int getDefaultCommitBatchingMaxMutations(DatabaseConfig databaseConfig) {
+    String storage = getString(databaseConfig.getProperties(), DatabaseConfig.STORAGE, "cassandra");
+    switch (storage.toLowerCase()) {
+      case "cassandra":
+      case "cosmos":
+      case "jdbc":
+        return DEFAULT_COMMIT_BATCHING_MAX_MUTATIONS;
+      default:
+        // the underlying storages of multi-storage and gRPC may be DynamoDB
+        return DEFAULT_COMMIT_BATCHING_MAX_MUTATIONS_FOR_DYNAMO;
+    }
+  }
+
+  private static void checkTables(String[] tables, String target) {
+    for (String table : tables) {
+      if (table.split("\\.", -1).length != 2) {
+        throw new IllegalArgumentException(
+            "the table of the " + target + " must be specified as <namespace>.<table>: " + table);
+      }
+    }
   }
 
   public Isolation getIsolation() {
@@ -111,6 +562,14 @@ public class ConsensusCommitConfig {
     return parallelExecutorCount;
   }
 
+  public ParallelExecutorType getParallelExecutorType() {
+    return parallelExecutorType;
+  }
+
+  public int getParallelExecutorQueueSize() {
+    return parallelExecutorQueueSize;
+  }
+
   public boolean isParallelPreparationEnabled() {
     return parallelPreparationEnabled;
   }
@@ -134,4 +593,172 @@ public class ConsensusCommitConfig {
   public boolean isAsyncRollbackEnabled() {
     return asyncRollbackEnabled;
   }
+
+  public boolean isBatchValidationEnabled() {
+    return batchValidationEnabled;
+  }
+
+  public boolean isOnePhaseCommitEnabled() {
+    return onePhaseCommitEnabled;
+  }
+
+  public boolean isBeforeImageReadEnabled() {
+    return beforeImageReadEnabled;
+  }
+
+  public boolean isDeltaBeforeImageEnabled() {
+    return deltaBeforeImageEnabled;
+  }
+
+  public boolean isCoordinatorStateCacheEnabled() {
+    return coordinatorStateCacheEnabled;
+  }
+
+  public long getCoordinatorStateCacheMaxSize() {
+    return coordinatorStateCacheMaxSize;
+  }
+
+  public long getCoordinatorStateCacheExpirationTimeMillis() {
+    return coordinatorStateCacheExpirationTimeMillis;
+  }
+
+  public boolean isRecoverySweeperEnabled() {
+    return recoverySweeperEnabled;
+  }
+
+  public List<String> getRecoverySweeperTables() {
+    return Arrays.asList(recoverySweeperTables);
+  }
+
+  public long getRecoverySweeperIntervalMillis() {
+    return recoverySweeperIntervalMillis;
+  }
+
+  public int getRecoverySweeperMaxRecordsPerSecond() {
+    return recoverySweeperMaxRecordsPerSecond;
+  }
+
+  public int getRecoverySweeperBatchSize() {
+    return recoverySweeperBatchSize;
+  }
+
+  public boolean isCoordinatorGcEnabled() {
+    return coordinatorGcEnabled;
+  }
+
+  public List<String> getCoordinatorGcNamespaces() {
+    return Arrays.asList(coordinatorGcNamespaces);
+  }
+
+  public long getCoordinatorGcIntervalMillis() {
+    return coordinatorGcIntervalMillis;
+  }
+
+  private long getMinCoordinatorGcHorizonMillis() {
+    long lifetimeMillis =
+        Math.max(
+            RecoveryHandler.TRANSACTION_LIFETIME_MILLIS,
+            TwoPhaseConsensusCommitManager.TRANSACTION_LIFETIME_MILLIS);
+    return COORDINATOR_GC_MIN_HORIZON_LIFETIMES * lifetimeMillis + recoverySweeperIntervalMillis;
+  }
+
+  public long getCoordinatorGcHorizonMillis() {
+    return coordinatorGcHorizonMillis;
+  }
+
+  public int getCoordinatorGcMaxDeletionsPerSecond() {
+    return coordinatorGcMaxDeletionsPerSecond;
+  }
+
+  public boolean isLockTableEnabled() {
+    return lockTableEnabled;
+  }
+
+  public int getLockTableStripes() {
+    return lockTableStripes;
+  }
+
+  public long getLockTableTimeoutMillis() {
+    return lockTableTimeoutMillis;
+  }
+
+  public boolean isMultiVersionEnabled() {
+    return multiVersionEnabled;
+  }
+
+  public int getMultiVersionRetainedVersions() {
+    return multiVersionRetainedVersions;
+  }
+
+  public long getMultiVersionRetentionMillis() {
+    return multiVersionRetentionMillis;
+  }
+
+  public boolean isMultiVersionGcEnabled() {
+    return multiVersionGcEnabled;
+  }
+
+  public List<String> getMultiVersionGcTables() {
+    return Arrays.asList(multiVersionGcTables);
+  }
+
+  public long getMultiVersionGcIntervalMillis() {
+    return multiVersionGcIntervalMillis;
+  }
+
+  public String getTransactionIdGenerator() {
+    return transactionIdGenerator;
+  }
+
+  public Optional<Integer> getTransactionIdGeneratorNodeId() {
+    return Optional.ofNullable(transactionIdGeneratorNodeId);
+  }
+
+  public long getTransactionTimeoutMillis() {
+    return transactionTimeoutMillis;
+  }
+
+  public boolean isCommitBatchingEnabled() {
+    return commitBatchingEnabled;
+  }
+
+  public long getCommitBatchingDelayMillis() {
+    return commitBatchingDelayMillis;
+  }
+
+  public int getCommitBatchingMaxMutations() {
+    return commitBatchingMaxMutations;
+  }
+
+  public int getCommitBatchingEmitThreadCount() {
+    return commitBatchingEmitThreadCount;
+  }
+
+  public int getLargeTransactionSpillThreshold() {
+    return largeTransactionSpillThreshold;
+  }
+
+  public Optional<String> getLargeTransactionSpillDirectory() {
+    return Optional.ofNullable(largeTransactionSpillDirectory);
+  }
+
+  public int getRetryMaxRetries() {
+    return retryMaxRetries;
+  }
+
+  public long getRetryBaseBackoffMillis() {
+    return retryBaseBackoffMillis;
+  }
+
+  public long getRetryMaxBackoffMillis() {
+    return retryMaxBackoffMillis;
+  }
+
+  public long getRetryContentionHalfLifeMillis() {
+    return retryContentionHalfLifeMillis;
+  }
+
+  public int getRetryMaxContentionFactor() {
+    return retryMaxContentionFactor;
+  }
 }
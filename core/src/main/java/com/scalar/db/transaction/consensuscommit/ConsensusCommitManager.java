@@ -8,14 +8,19 @@ import com.google.common.base.Strings;
 import com.google.inject.Inject;
 import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.DistributedStorageAdmin;
+import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.TransactionState;
 import com.scalar.db.config.DatabaseConfig;
 import com.scalar.db.exception.transaction.TransactionException;
 import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
+import com.scalar.db.io.Key;
 import com.scalar.db.transaction.common.AbstractDistributedTransactionManager;
 import com.scalar.db.transaction.consensuscommit.Coordinator.State;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,20 +36,62 @@ public class ConsensusCommitManager extends AbstractDistributedTransactionManage
   private final ParallelExecutor parallelExecutor;
   private final RecoveryHandler recovery;
   private final CommitHandler commit;
+  @Nullable private final RecoverySweeper recoverySweeper;
+  @Nullable private final CoordinatorGarbageCollector coordinatorGarbageCollector;
+  @Nullable private final VersionGarbageCollector versionGarbageCollector;
+  @Nullable private final SnapshotRegistry snapshotRegistry;
+  @Nullable private final LockTable lockTable;
+  private final TransactionIdGenerator transactionIdGenerator;
 
   @Inject
   public ConsensusCommitManager(
       DistributedStorage storage, DistributedStorageAdmin admin, DatabaseConfig databaseConfig) {
+    this(storage, admin, databaseConfig, new ConsensusCommitConfig(databaseConfig));
+  }
+
+  private ConsensusCommitManager(
+      DistributedStorage storage,
+      DistributedStorageAdmin admin,
+      DatabaseConfig databaseConfig,
+      ConsensusCommitConfig config) {
+    super(
+        config.getRetryMaxRetries(),
+        config.getRetryBaseBackoffMillis(),
+        config.getRetryMaxBackoffMillis(),
+        config.getRetryContentionHalfLifeMillis(),
+        config.getRetryMaxContentionFactor());
     this.storage = storage;
     this.admin = admin;
-    config = new ConsensusCommitConfig(databaseConfig);
+    this.config = config;
     this.coordinator = new Coordinator(storage, config);
     this.parallelExecutor = new ParallelExecutor(config);
     tableMetadataManager =
         new TransactionTableMetadataManager(
-            admin, databaseConfig.getMetadataCacheExpirationTimeSecs());
-    recovery = new RecoveryHandler(storage, coordinator, tableMetadataManager);
-    commit = new CommitHandler(storage, coordinator, tableMetadataManager, parallelExecutor);
+            admin,
+            databaseConfig.getMetadataCacheExpirationTimeSecs(),
+            config.isMultiVersionEnabled());
+    recovery = new RecoveryHandler(storage, coordinator, tableMetadataManager, config);
+    transactionIdGenerator = ConsensusCommitUtils.createTransactionIdGenerator(config);
+    recoverySweeper =
+        config.isRecoverySweeperEnabled()
+            ? new RecoverySweeper(storage, coordinator, tableMetadataManager, config)
+            : null;
+    if (config.isCoordinatorGcEnabled()) {
+      coordinatorGarbageCollector = new CoordinatorGarbageCollector(storage, admin, config);
+      coordinatorGarbageCollector.start();
+    } else {
+      coordinatorGarbageCollector = null;
+    }
+    if (config.isMultiVersionGcEnabled()) {
+      versionGarbageCollector = new VersionGarbageCollector(storage, tableMetadataManager, config);
+      versionGarbageCollector.start();
+    } else {
+      versionGarbageCollector = null;
+    }
+    lockTable = config.isLockTableEnabled() ? new LockTable(config) : null;
+    snapshotRegistry = SnapshotRegistry.create(config);
+    commit =
+        new CommitHandler(storage, coordinator, tableMetadataManager, parallelExecutor, config);
   }
 
   @VisibleForTesting
@@ -62,10 +109,18 @@ public class ConsensusCommitManager extends AbstractDistributedTransactionManage
     this.config = config;
     tableMetadataManager =
         new TransactionTableMetadataManager(
-            admin, databaseConfig.getMetadataCacheExpirationTimeSecs());
+            admin,
+            databaseConfig.getMetadataCacheExpirationTimeSecs(),
+            config.isMultiVersionEnabled());
     this.coordinator = coordinator;
     this.parallelExecutor = parallelExecutor;
     this.recovery = recovery;
+    transactionIdGenerator = ConsensusCommitUtils.createTransactionIdGenerator(config);
+    recoverySweeper = null;
+    coordinatorGarbageCollector = null;
+    versionGarbageCollector = null;
+    snapshotRegistry = null;
+    lockTable = config.isLockTableEnabled() ? new LockTable(config) : null;
     this.commit = commit;
   }
 
@@ -79,6 +134,20 @@ public class ConsensusCommitManager extends AbstractDistributedTransactionManage
     return begin(txId, config.getIsolation(), config.getSerializableStrategy());
   }
 
+  @Override
+  public ConsensusCommit beginReadOnly() {
+    return begin(
+        transactionIdGenerator.generate(),
+        config.getIsolation(),
+        config.getSerializableStrategy(),
+        true);
+  }
+
+  @Override
+  public ConsensusCommit beginReadOnly(String txId) {
+    return begin(txId, config.getIsolation(), config.getSerializableStrategy(), true);
+  }
+
   @Override
   public ConsensusCommit start() throws TransactionException {
     return (ConsensusCommit) super.start();
@@ -137,12 +206,17 @@ public class ConsensusCommitManager extends AbstractDistributedTransactionManage
 
   @VisibleForTesting
   ConsensusCommit begin(Isolation isolation, SerializableStrategy strategy) {
-    String txId = UUID.randomUUID().toString();
+    String txId = transactionIdGenerator.generate();
     return begin(txId, isolation, strategy);
   }
 
   @VisibleForTesting
   ConsensusCommit begin(String txId, Isolation isolation, SerializableStrategy strategy) {
+    return begin(txId, isolation, strategy, false);
+  }
+
+  private ConsensusCommit begin(
+      String txId, Isolation isolation, SerializableStrategy strategy, boolean readOnly) {
     checkArgument(!Strings.isNullOrEmpty(txId));
     checkNotNull(isolation);
     if (!config.getIsolation().equals(isolation)
@@ -152,9 +226,25 @@ public class ConsensusCommitManager extends AbstractDistributedTransactionManage
               + "in DatabaseConfig might cause unexpected anomalies.");
     }
     Snapshot snapshot =
-        new Snapshot(txId, isolation, strategy, tableMetadataManager, parallelExecutor);
-    CrudHandler crud = new CrudHandler(storage, snapshot, tableMetadataManager);
-    ConsensusCommit consensus = new ConsensusCommit(crud, commit, recovery);
+        new Snapshot(
+            txId,
+            isolation,
+            strategy,
+            tableMetadataManager,
+            parallelExecutor,
+            config.isBatchValidationEnabled(),
+            config.getLargeTransactionSpillThreshold(),
+            config.getLargeTransactionSpillDirectory().orElse(null));
+    if (config.getTransactionTimeoutMillis() > 0) {
+      snapshot.setDeadlineMillis(System.currentTimeMillis() + config.getTransactionTimeoutMillis());
+    }
+    if (snapshotRegistry != null) {
+      snapshotRegistry.register(snapshot);
+    }
+    CrudHandler crud =
+        new CrudHandler(
+            storage, snapshot, tableMetadataManager, config, recovery, lockTable, readOnly);
+    ConsensusCommit consensus = new ConsensusCommit(crud, commit, recovery, readOnly);
     getNamespace().ifPresent(consensus::withNamespace);
     getTable().ifPresent(consensus::withTable);
     return consensus;
@@ -185,8 +275,55 @@ public class ConsensusCommitManager extends AbstractDistributedTransactionManage
     }
   }
 
+  /**
+   * Returns the partition keys of the uncommitted records that the transaction encountered, or the
+   * partition keys of the records that the transaction writes for the other conflicts, which are
+   * detected when the written records are prepared or validated. The keys are prefixed with the
+   * full table names, so the same partition keys in different tables are tracked separately.
+   */
+  @Override
+  protected Collection<String> getContentionKeys(
+      DistributedTransaction transaction, TransactionException exception) {
+    Set<String> keys = new HashSet<>();
+    if (exception instanceof UncommittedRecordException) {
+      UncommittedRecordException e = (UncommittedRecordException) exception;
+      String fullTableName = e.getFullTableName().orElse("");
+      for (TransactionResult result : e.getResults()) {
+        result.getPartitionKey().ifPresent(k -> keys.add(toContentionKey(fullTableName, k)));
+      }
+    } else if (transaction instanceof ConsensusCommit) {
+      for (Snapshot.Key key : ((ConsensusCommit) transaction).getWrittenKeys()) {
+        keys.add(toContentionKey(key.getNamespace() + "." + key.getTable(), key.getPartitionKey()));
+      }
+    }
+    return keys;
+  }
+
+  private static String toContentionKey(String fullTableName, Key partitionKey) {
+    return fullTableName + ":" + partitionKey;
+  }
+
+  /** Returns the in-process lock table if it's enabled, which exposes the lock wait metrics. */
+  public Optional<LockTable> getLockTable() {
+    return Optional.ofNullable(lockTable);
+  }
+
   @Override
   public void close() {
+    if (recoverySweeper != null) {
+      recoverySweeper.close();
+    }
+    if (coordinatorGarbageCollector != null) {
+      coordinatorGarbageCollector.close();
+    }
+    if (versionGarbageCollector != null) {
+      versionGarbageCollector.close();
+    }
+    commit.close();
+    if (snapshotRegistry != null) {
+      snapshotRegistry.close();
+    }
+    recovery.close();
     storage.close();
     admin.close();
     parallelExecutor.close();
@@ -1,10 +1,15 @@
 package com.scalar.db.transaction.consensuscommit;
 
 import com.google.common.collect.ImmutableMap;
+import com.scalar.db.api.Scan;
 import com.scalar.db.api.TableMetadata;
+import com.scalar.db.io.Column;
 import com.scalar.db.io.DataType;
+import com.scalar.db.io.Key;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -34,8 +39,32 @@ public final class ConsensusCommitUtils {
           .putAll(BEFORE_IMAGE_META_COLUMNS)
           .build();
 
+  /**
+   * The suffix of the names of the version tables. A version table keeps the committed versions of
+   * the records of the table whose name it's suffixed to.
+   */
+  public static final String VERSION_TABLE_SUFFIX = "_tx_versions";
+
   private ConsensusCommitUtils() {}
 
+  /**
+   * Builds a transaction table metadata based on the specified table metadata.
+   *
+   * @param tableMetadata the base table metadata to build a transaction table metadata
+   * @param deltaBeforeImageEnabled whether to add the marker column of delta before images
+   * @return a transaction table metadata based on the table metadata
+   */
+  public static TableMetadata buildTransactionTableMetadata(
+      TableMetadata tableMetadata, boolean deltaBeforeImageEnabled) {
+    TableMetadata transactionTableMetadata = buildTransactionTableMetadata(tableMetadata);
+    if (!deltaBeforeImageEnabled) {
+      return transactionTableMetadata;
+    }
+    return TableMetadata.newBuilder(transactionTableMetadata)
+        .addColumn(Attribute.BEFORE_IMAGE_COLUMNS, DataType.TEXT)
+        .build();
+  }
+
   /**
    * Builds a transaction table metadata based on the specified table metadata.
    *
@@ -55,16 +84,66 @@ public final class ConsensusCommitUtils {
     return builder.build();
   }
 
+  /**
+   * Returns the name of the version table of the specified table.
+   *
+   * @param table a table name
+   * @return the name of the version table
+   */
+  public static String getVersionTableName(String table) {
+    return table + VERSION_TABLE_SUFFIX;
+  }
+
+  /**
+   * Returns whether the specified table name is the name of a version table.
+   *
+   * @param table a table name
+   * @return whether the table name is the name of a version table
+   */
+  public static boolean isVersionTableName(String table) {
+    return table.endsWith(VERSION_TABLE_SUFFIX);
+  }
+
+  /**
+   * Builds the metadata of the version table of the specified table. A version table has the same
+   * partition key as the table, and its clustering key is the clustering key of the table followed
+   * by the commit time and the version in descending order, so the versions of a record are stored
+   * together from the newest one. Besides the columns of the table, it has the transaction ID and
+   * the state of each version. A version in the DELETED state marks that the record was deleted.
+   *
+   * @param tableMetadata the base table metadata without the transaction meta columns
+   * @return the metadata of the version table
+   */
+  public static TableMetadata buildVersionTableMetadata(TableMetadata tableMetadata) {
+    checkIsNotTransactionMetaColumn(tableMetadata.getColumnNames());
+
+    TableMetadata.Builder builder = TableMetadata.newBuilder();
+    tableMetadata.getPartitionKeyNames().forEach(builder::addPartitionKey);
+    tableMetadata
+        .getClusteringKeyNames()
+        .forEach(c -> builder.addClusteringKey(c, tableMetadata.getClusteringOrder(c)));
+    builder.addClusteringKey(Attribute.COMMITTED_AT, Scan.Ordering.Order.DESC);
+    builder.addClusteringKey(Attribute.VERSION, Scan.Ordering.Order.DESC);
+    tableMetadata
+        .getColumnNames()
+        .forEach(c -> builder.addColumn(c, tableMetadata.getColumnDataType(c)));
+    builder.addColumn(Attribute.ID, DataType.TEXT);
+    builder.addColumn(Attribute.STATE, DataType.INT);
+    builder.addColumn(Attribute.VERSION, DataType.INT);
+    builder.addColumn(Attribute.COMMITTED_AT, DataType.BIGINT);
+    return builder.build();
+  }
+
   private static void checkIsNotTransactionMetaColumn(Set<String> columnNames) {
-    TRANSACTION_META_COLUMNS
-        .keySet()
-        .forEach(
-            c -> {
-              if (columnNames.contains(c)) {
-                throw new IllegalArgumentException(
-                    "column \"" + c + "\" is reserved as transaction metadata");
-              }
-            });
+    Set<String> reservedColumns = new HashSet<>(TRANSACTION_META_COLUMNS.keySet());
+    reservedColumns.add(Attribute.BEFORE_IMAGE_COLUMNS);
+    reservedColumns.forEach(
+        c -> {
+          if (columnNames.contains(c)) {
+            throw new IllegalArgumentException(
+                "column \"" + c + "\" is reserved as transaction metadata");
+          }
+        });
   }
 
   private static void checkBeforeColumnsDoNotAlreadyExist(
@@ -109,7 +188,8 @@ public final class ConsensusCommitUtils {
 
     // if the table metadata doesn't have the before prefix columns, it's not transactional
     for (String nonPrimaryKeyColumn : getNonPrimaryKeyColumns(tableMetadata)) {
-      if (TRANSACTION_META_COLUMNS.containsKey(nonPrimaryKeyColumn)) {
+      if (TRANSACTION_META_COLUMNS.containsKey(nonPrimaryKeyColumn)
+          || nonPrimaryKeyColumn.equals(Attribute.BEFORE_IMAGE_COLUMNS)) {
         continue;
       }
       // check if a column that has either the following name exists or not:
@@ -142,6 +222,7 @@ public final class ConsensusCommitUtils {
    */
   public static TableMetadata removeTransactionMetaColumns(TableMetadata tableMetadata) {
     Set<String> transactionMetaColumns = new HashSet<>(TRANSACTION_META_COLUMNS.keySet());
+    transactionMetaColumns.add(Attribute.BEFORE_IMAGE_COLUMNS);
     transactionMetaColumns.addAll(
         tableMetadata.getColumnNames().stream()
             .filter(c -> c.startsWith(Attribute.BEFORE_PREFIX))
@@ -173,9 +254,21 @@ public final class ConsensusCommitUtils {
    */
   public static boolean isTransactionMetaColumn(String columnName, TableMetadata tableMetadata) {
     return AFTER_IMAGE_META_COLUMNS.containsKey(columnName)
+        || columnName.equals(Attribute.BEFORE_IMAGE_COLUMNS)
         || isBeforeImageColumn(columnName, tableMetadata);
   }
 
+  /**
+   * Returns whether the specified column is a transaction meta column of the after image, such as
+   * the transaction ID and state, or not.
+   *
+   * @param columnName a column name
+   * @return whether the specified column is a transaction meta column of the after image
+   */
+  public static boolean isAfterImageMetaColumn(String columnName) {
+    return AFTER_IMAGE_META_COLUMNS.containsKey(columnName);
+  }
+
   /**
    * Returns whether the specified column is a part of the before image columns or not.
    *
@@ -216,4 +309,73 @@ public final class ConsensusCommitUtils {
     }
     return !isBeforeImageColumn(columnName, tableMetadata);
   }
+
+  /**
+   * Creates the transaction ID generator specified in the config. The generator is specified as
+   * "time_ordered", "uuid", or the class name of a {@code TransactionIdGenerator} implementation.
+   *
+   * @param config a config
+   * @return a transaction ID generator
+   */
+  public static TransactionIdGenerator createTransactionIdGenerator(ConsensusCommitConfig config) {
+    String generator = config.getTransactionIdGenerator();
+    switch (generator.toLowerCase()) {
+      case "time_ordered":
+        return config
+            .getTransactionIdGeneratorNodeId()
+            .map(TimeOrderedTransactionIdGenerator::new)
+            .orElseGet(TimeOrderedTransactionIdGenerator::new);
+      case "uuid":
+        return new UuidTransactionIdGenerator();
+      default:
+        try {
+          return Class.forName(generator)
+              .asSubclass(TransactionIdGenerator.class)
+              .getDeclaredConstructor()
+              .newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+          throw new IllegalArgumentException(
+              "failed to create the transaction ID generator: " + generator, e);
+        }
+    }
+  }
+
+  /**
+   * Returns a comparator of the clustering keys that follows the clustering orders of the table, or
+   * the reverse of them if the scan specifies the reverse ordering.
+   *
+   * @param scan a scan
+   * @param metadata the metadata of the table of the scan
+   * @return the comparator of the clustering keys
+   */
+  public static Comparator<Key> getClusteringKeyComparator(Scan scan, TableMetadata metadata) {
+    Comparator<Key> comparator =
+        (k1, k2) -> {
+          List<Column<?>> columns1 = k1.getColumns();
+          List<Column<?>> columns2 = k2.getColumns();
+          for (int i = 0; i < Math.min(columns1.size(), columns2.size()); i++) {
+            int compared = compareColumns(columns1.get(i), columns2.get(i));
+            if (compared != 0) {
+              return metadata.getClusteringOrder(columns1.get(i).getName())
+                      == Scan.Ordering.Order.ASC
+                  ? compared
+                  : -compared;
+            }
+          }
+          return Integer.compare(columns1.size(), columns2.size());
+        };
+
+    if (!scan.getOrderings().isEmpty()) {
+      Scan.Ordering ordering = scan.getOrderings().get(0);
+      if (ordering.getOrder() != metadata.getClusteringOrder(ordering.getColumnName())) {
+        return comparator.reversed();
+      }
+    }
+    return comparator;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static int compareColumns(Column<?> column1, Column<?> column2) {
+    return ((Column) column1).compareTo(column2);
+  }
 }
@@ -3,6 +3,9 @@ package com.scalar.db.transaction.consensuscommit;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.scalar.db.api.Consistency;
 import com.scalar.db.api.DistributedStorage;
@@ -20,6 +23,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +45,8 @@ public class Coordinator {
   private static final Logger logger = LoggerFactory.getLogger(Coordinator.class);
   private final DistributedStorage storage;
   private final String coordinatorNamespace;
+  // COMMITTED and ABORTED are final states, so they can be cached safely
+  @Nullable private final Cache<String, State> stateCache;
 
   /**
    * @param storage a storage
@@ -50,21 +56,91 @@ public class Coordinator {
   public Coordinator(DistributedStorage storage) {
     this.storage = storage;
     coordinatorNamespace = NAMESPACE;
+    stateCache = null;
   }
 
   public Coordinator(DistributedStorage storage, ConsensusCommitConfig config) {
     this.storage = storage;
     coordinatorNamespace = config.getCoordinatorNamespace().orElse(NAMESPACE);
+    stateCache = createStateCache(config);
+  }
+
+  @Nullable
+  private static Cache<String, State> createStateCache(ConsensusCommitConfig config) {
+    if (!config.isCoordinatorStateCacheEnabled()) {
+      return null;
+    }
+    return CacheBuilder.newBuilder()
+        .maximumSize(config.getCoordinatorStateCacheMaxSize())
+        .expireAfterWrite(
+            config.getCoordinatorStateCacheExpirationTimeMillis(), TimeUnit.MILLISECONDS)
+        .recordStats()
+        .build();
   }
 
   public Optional<Coordinator.State> getState(String id) throws CoordinatorException {
+    return getState(id, Long.MAX_VALUE);
+  }
+
+  /**
+   * Returns the state of the specified transaction. The retries of the read are given up when they
+   * can't complete by the specified deadline.
+   *
+   * @param id a transaction ID
+   * @param deadlineMillis the epoch milliseconds by which the state must be read
+   * @return the state of the transaction. empty if it doesn't exist
+   * @throws CoordinatorException if the state can't be read by the deadline
+   */
+  public Optional<Coordinator.State> getState(String id, long deadlineMillis)
+      throws CoordinatorException {
+    if (stateCache != null) {
+      State cached = stateCache.getIfPresent(id);
+      if (cached != null) {
+        return Optional.of(cached);
+      }
+    }
+
     Get get = createGetWith(id);
-    return get(get);
+    get.withDeadlineMillis(deadlineMillis);
+    Optional<Coordinator.State> state = get(get);
+    state.ifPresent(this::cacheIfFinal);
+    return state;
   }
 
   public void putState(Coordinator.State state) throws CoordinatorException {
+    putState(state, Long.MAX_VALUE);
+  }
+
+  /**
+   * Puts the specified state. The retries of the write are given up when they can't complete by the
+   * specified deadline.
+   *
+   * @param state a state
+   * @param deadlineMillis the epoch milliseconds by which the state must be put
+   * @throws CoordinatorException if the state can't be put by the deadline
+   */
+  public void putState(Coordinator.State state, long deadlineMillis) throws CoordinatorException {
     Put put = createPutWith(state);
+    put.withDeadlineMillis(deadlineMillis);
     put(put);
+    cacheIfFinal(state);
+  }
+
+  private void cacheIfFinal(Coordinator.State state) {
+    if (stateCache != null
+        && (state.getState() == TransactionState.COMMITTED
+            || state.getState() == TransactionState.ABORTED)) {
+      stateCache.put(state.getId(), state);
+    }
+  }
+
+  /**
+   * Returns the statistics of the coordinator state cache such as the hit count and the miss count.
+   *
+   * @return the statistics of the cache. empty if the cache is disabled
+   */
+  public Optional<CacheStats> getStateCacheStats() {
+    return stateCache == null ? Optional.empty() : Optional.of(stateCache.stats());
   }
 
   private Get createGetWith(String id) {
@@ -80,6 +156,7 @@ public class Coordinator {
       if (counter >= MAX_RETRY_COUNT) {
         throw new CoordinatorException("can't get coordinator state.");
       }
+      checkDeadline(get.getDeadlineMillis(), "can't get coordinator state");
       try {
         Optional<Result> result = storage.get(get);
         if (result.isPresent()) {
@@ -90,7 +167,7 @@ public class Coordinator {
       } catch (ExecutionException e) {
         logger.warn("can't get coordinator state.", e);
       }
-      exponentialBackoff(counter++);
+      exponentialBackoff(counter++, get.getDeadlineMillis(), "can't get coordinator state");
     }
   }
 
@@ -111,6 +188,7 @@ public class Coordinator {
       if (counter >= MAX_RETRY_COUNT) {
         throw new CoordinatorException("couldn't put coordinator state.");
       }
+      checkDeadline(put.getDeadlineMillis(), "couldn't put coordinator state");
       try {
         storage.put(put);
         break;
@@ -120,13 +198,23 @@ public class Coordinator {
       } catch (ExecutionException e) {
         logger.warn("putting state in coordinator failed.", e);
       }
-      exponentialBackoff(counter++);
+      exponentialBackoff(counter++, put.getDeadlineMillis(), "couldn't put coordinator state");
+    }
+  }
+
+  private void exponentialBackoff(int counter, long deadlineMillis, String message)
+      throws CoordinatorException {
+    long sleepMillis = (long) Math.pow(2, counter) * SLEEP_BASE_MILLIS;
+    if (deadlineMillis - System.currentTimeMillis() <= sleepMillis) {
+      throw new CoordinatorException(message + " by the deadline.");
     }
+    Uninterruptibles.sleepUninterruptibly(sleepMillis, TimeUnit.MILLISECONDS);
   }
 
-  private void exponentialBackoff(int counter) {
-    Uninterruptibles.sleepUninterruptibly(
-        (long) Math.pow(2, counter) * SLEEP_BASE_MILLIS, TimeUnit.MILLISECONDS);
+  private void checkDeadline(long deadlineMillis, String message) throws CoordinatorException {
+    if (System.currentTimeMillis() >= deadlineMillis) {
+      throw new CoordinatorException(message + " by the deadline.");
+    }
   }
 
   @ThreadSafe
@@ -146,7 +234,6 @@ public class Coordinator {
       this(id, state, System.currentTimeMillis());
     }
 
-    @VisibleForTesting
     State(String id, TransactionState state, long createdAt) {
       this.id = checkNotNull(id);
       this.state = checkNotNull(state);
@@ -0,0 +1,266 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.Delete;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.DistributedStorageAdmin;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.ScanAll;
+import com.scalar.db.api.Scanner;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.io.Key;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A garbage collector of the coordinator table. Every commit and abort adds a state to the
+ * coordinator table, and the states are never removed by the transactions. This collector deletes
+ * the COMMITTED and ABORTED states that were created before the safety horizon, skipping the ones
+ * that are still referenced by PREPARED or DELETED records since such records need the states to be
+ * recovered correctly.
+ *
+ * <p>The transactional tables to look for the references in are derived from the storage admin at
+ * every run: every table in the specified namespaces that has the transaction metadata columns,
+ * except for the version tables. So a table created later is covered without changing the
+ * configuration, but all the namespaces that have transactional tables must be specified. A run is
+ * refused if a specified namespace doesn't exist.
+ *
+ * <p>Every run scans all the records of the transactional tables and all the states in the
+ * coordinator table without a rate limit; only the deletions are rate-limited. The run interval
+ * should be chosen with the size of the tables in mind.
+ *
+ * <p>The horizon must be long enough that no transaction created before it is still running;
+ * otherwise, a transaction aborted by a lazy recovery might be able to commit after its ABORTED
+ * state is deleted.
+ */
+@ThreadSafe
+public class CoordinatorGarbageCollector {
+  private static final Logger logger = LoggerFactory.getLogger(CoordinatorGarbageCollector.class);
+  private final DistributedStorage storage;
+  private final DistributedStorageAdmin admin;
+  private final String coordinatorNamespace;
+  private final List<String> namespaces;
+  private final long horizonMillis;
+  private final long intervalMillis;
+  private final RateLimiter rateLimiter;
+  @Nullable private ScheduledExecutorService executorService;
+
+  private final AtomicLong scannedStateCount = new AtomicLong();
+  private final AtomicLong deletedStateCount = new AtomicLong();
+  private final AtomicLong referencedStateCount = new AtomicLong();
+  private final AtomicLong completedRunCount = new AtomicLong();
+
+  @SuppressWarnings("UnstableApiUsage")
+  public CoordinatorGarbageCollector(
+      DistributedStorage storage, DistributedStorageAdmin admin, ConsensusCommitConfig config) {
+    this(
+        storage,
+        admin,
+        config.getCoordinatorNamespace().orElse(Coordinator.NAMESPACE),
+        config.getCoordinatorGcNamespaces(),
+        config.getCoordinatorGcHorizonMillis(),
+        config.getCoordinatorGcIntervalMillis(),
+        RateLimiter.create(config.getCoordinatorGcMaxDeletionsPerSecond()));
+  }
+
+  @VisibleForTesting
+  CoordinatorGarbageCollector(
+      DistributedStorage storage,
+      DistributedStorageAdmin admin,
+      String coordinatorNamespace,
+      List<String> namespaces,
+      long horizonMillis,
+      long intervalMillis,
+      RateLimiter rateLimiter) {
+    this.storage = storage;
+    this.admin = admin;
+    this.coordinatorNamespace = coordinatorNamespace;
+    this.namespaces = namespaces;
+    this.horizonMillis = horizonMillis;
+    this.intervalMillis = intervalMillis;
+    this.rateLimiter = rateLimiter;
+  }
+
+  /** Starts collecting the garbage periodically in the background. */
+  public synchronized void start() {
+    checkState(executorService == null, "the coordinator GC has already been started");
+    executorService =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("coordinator-gc-%d").setDaemon(true).build());
+    executorService.scheduleWithFixedDelay(
+        () -> {
+          try {
+            collect();
+          } catch (Exception e) {
+            logger.warn("collecting coordinator states failed. it will be retried later", e);
+          }
+        },
+        intervalMillis,
+        intervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Deletes the coordinator states that are older than the horizon and are not referenced by any
+   * PREPARED or DELETED records.
+   *
+   * @return the number of the deleted states
+   * @throws ExecutionException if scanning the tables or deleting the states failed
+   * @throws IllegalStateException if a specified namespace doesn't exist
+   */
+  @SuppressWarnings("UnstableApiUsage")
+  public long collect() throws ExecutionException {
+    checkState(!namespaces.isEmpty(), "the namespaces must be specified for the GC");
+
+    // the horizon is determined before scanning the tables. the records prepared during the scan
+    // belong to transactions newer than the horizon, so their states are never deleted
+    long horizon = System.currentTimeMillis() - horizonMillis;
+    Set<String> referencedIds = getReferencedIds();
+
+    Scan scan =
+        new ScanAll()
+            .withProjection(Attribute.ID)
+            .withProjection(Attribute.STATE)
+            .withProjection(Attribute.CREATED_AT)
+            .withConsistency(Consistency.LINEARIZABLE)
+            .forNamespace(coordinatorNamespace)
+            .forTable(Coordinator.TABLE);
+
+    long deleted = 0;
+    try (Scanner scanner = storage.scan(scan)) {
+      Optional<Result> result;
+      while ((result = scanner.one()).isPresent()) {
+        scannedStateCount.incrementAndGet();
+        Coordinator.State state;
+        try {
+          state = new Coordinator.State(result.get());
+        } catch (CoordinatorException e) {
+          logger.warn("skipping an invalid coordinator state: {}", result.get(), e);
+          continue;
+        }
+        if (state.getCreatedAt() >= horizon
+            || (state.getState() != TransactionState.COMMITTED
+                && state.getState() != TransactionState.ABORTED)) {
+          continue;
+        }
+        if (referencedIds.contains(state.getId())) {
+          referencedStateCount.incrementAndGet();
+          continue;
+        }
+
+        rateLimiter.acquire();
+        storage.delete(
+            new Delete(new Key(Attribute.toIdValue(state.getId())))
+                .withConsistency(Consistency.LINEARIZABLE)
+                .forNamespace(coordinatorNamespace)
+                .forTable(Coordinator.TABLE));
+        deletedStateCount.incrementAndGet();
+        deleted++;
+      }
+    } catch (IOException e) {
+      logger.warn("closing the scanner failed", e);
+    }
+
+    completedRunCount.incrementAndGet();
+    logger.debug("{} coordinator states older than {} are deleted", deleted, horizon);
+    return deleted;
+  }
+
+  /**
+   * Returns the transactional tables in the specified namespaces. A missing namespace refuses the
+   * run, since the references in its tables would be missed and their states would be deleted.
+   */
+  @VisibleForTesting
+  List<String[]> getTransactionalTables() throws ExecutionException {
+    List<String[]> tables = new ArrayList<>();
+    for (String namespace : namespaces) {
+      checkState(
+          admin.namespaceExists(namespace),
+          "the namespace specified for the coordinator GC doesn't exist: %s",
+          namespace);
+      for (String table : admin.getNamespaceTableNames(namespace)) {
+        if (ConsensusCommitUtils.isVersionTableName(table)) {
+          continue;
+        }
+        TableMetadata metadata = admin.getTableMetadata(namespace, table);
+        if (metadata != null && ConsensusCommitUtils.isTransactionTableMetadata(metadata)) {
+          tables.add(new String[] {namespace, table});
+        }
+      }
+    }
+    return tables;
+  }
+
+  private Set<String> getReferencedIds() throws ExecutionException {
+    Set<String> ids = new HashSet<>();
+    for (String[] names : getTransactionalTables()) {
+      Scan scan =
+          new ScanAll()
+              .withProjection(Attribute.ID)
+              .withProjection(Attribute.STATE)
+              .withConsistency(Consistency.LINEARIZABLE)
+              .forNamespace(names[0])
+              .forTable(names[1]);
+      try (Scanner scanner = storage.scan(scan)) {
+        Optional<Result> result;
+        while ((result = scanner.one()).isPresent()) {
+          TransactionResult record = new TransactionResult(result.get());
+          if (record.getId() != null
+              && (record.getState() == TransactionState.PREPARED
+                  || record.getState() == TransactionState.DELETED)) {
+            ids.add(record.getId());
+          }
+        }
+      } catch (IOException e) {
+        logger.warn("closing the scanner failed", e);
+      }
+    }
+    return ids;
+  }
+
+  public long getScannedStateCount() {
+    return scannedStateCount.get();
+  }
+
+  public long getDeletedStateCount() {
+    return deletedStateCount.get();
+  }
+
+  /** Returns the number of the states that were old enough but kept since they were referenced. */
+  public long getReferencedStateCount() {
+    return referencedStateCount.get();
+  }
+
+  public long getCompletedRunCount() {
+    return completedRunCount.get();
+  }
+
+  @SuppressWarnings("UnstableApiUsage")
+  public synchronized void close() {
+    if (executorService != null) {
+      executorService.shutdownNow();
+      Uninterruptibles.awaitTerminationUninterruptibly(executorService);
+    }
+  }
+}
@@ -2,24 +2,50 @@ package com.scalar.db.transaction.consensuscommit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.scalar.db.api.Consistency;
 import com.scalar.db.api.Delete;
 import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.Get;
+import com.scalar.db.api.GetWithIndex;
 import com.scalar.db.api.Put;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.Scan;
+import com.scalar.db.api.ScanAll;
+import com.scalar.db.api.ScanWithIndex;
 import com.scalar.db.api.Scanner;
+import com.scalar.db.api.Selection;
 import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionCrudOperable;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.common.ResultImpl;
 import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.CrudException;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.TextColumn;
+import com.scalar.db.transaction.common.ListTransactionScanner;
+import com.scalar.db.transaction.common.TransactionScannerIterator;
 import com.scalar.db.util.ScalarDbUtils;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,32 +56,145 @@ public class CrudHandler {
   private final DistributedStorage storage;
   private final Snapshot snapshot;
   private final TransactionTableMetadataManager tableMetadataManager;
+  @Nullable private final RecoveryHandler recovery;
+  @Nullable private final LockTable lockTable;
+  @Nullable private final LockTable.Owner lockOwner;
+  @Nullable private final VersionReader versionReader;
+  // the keys of the records that are read with projections and might not have all the columns
+  private final Set<Snapshot.Key> projectedKeys = new HashSet<>();
+  private final List<StreamingScanner> openScanners = new ArrayList<>();
 
   public CrudHandler(
       DistributedStorage storage,
       Snapshot snapshot,
       TransactionTableMetadataManager tableMetadataManager) {
+    this(storage, snapshot, tableMetadataManager, null, null, null);
+  }
+
+  /**
+   * Creates a handler with the read options of the specified config.
+   *
+   * <p>If the before image read is enabled, the handler reads the before images of uncommitted
+   * records in SNAPSHOT isolation instead of failing on them, and the given recovery handler
+   * recovers such records in the background.
+   *
+   * <p>If a lock table is given and the transaction isn't read-only, the handler locks the records
+   * on it, so that transactions in the same process wait for each other instead of conflicting in
+   * the preparation. A record read by a get is locked before it's read, so the transaction reads
+   * the version written by the previous holder of the lock. The other records that the transaction
+   * writes are locked when it commits. The locks are held until {@link #unlock()} is called, or
+   * until the lock table expires them if the transaction is abandoned.
+   *
+   * <p>If the multi-versioning is enabled and the transaction is read-only, the handler reads the
+   * records of multi-versioned tables as of the time it's created. Such reads don't go into the
+   * snapshot since they can't conflict with the transactions that write the records after the
+   * timestamp.
+   */
+  public CrudHandler(
+      DistributedStorage storage,
+      Snapshot snapshot,
+      TransactionTableMetadataManager tableMetadataManager,
+      ConsensusCommitConfig config,
+      RecoveryHandler recovery,
+      @Nullable LockTable lockTable,
+      boolean readOnly) {
+    this(
+        storage,
+        snapshot,
+        tableMetadataManager,
+        config.isBeforeImageReadEnabled() ? recovery : null,
+        readOnly ? null : lockTable,
+        readOnly && config.isMultiVersionEnabled()
+            ? new VersionReader(storage, System.currentTimeMillis())
+            : null);
+  }
+
+  @VisibleForTesting
+  CrudHandler(
+      DistributedStorage storage,
+      Snapshot snapshot,
+      TransactionTableMetadataManager tableMetadataManager,
+      @Nullable RecoveryHandler recovery,
+      @Nullable LockTable lockTable,
+      @Nullable VersionReader versionReader) {
     this.storage = checkNotNull(storage);
     this.snapshot = checkNotNull(snapshot);
     this.tableMetadataManager = tableMetadataManager;
+    this.recovery = recovery;
+    this.lockTable = lockTable;
+    this.lockOwner = lockTable != null ? lockTable.newOwner() : null;
+    this.versionReader = versionReader;
   }
 
   public Optional<Result> get(Get get) throws CrudException {
+    checkDeadline();
     List<String> originalProjections = new ArrayList<>(get.getProjections());
 
     Optional<TransactionResult> result;
     Snapshot.Key key = new Snapshot.Key(get);
 
+    Optional<TransactionTableMetadata> multiVersioned = getMultiVersionedTableMetadata(get);
+    if (multiVersioned.isPresent()) {
+      return versionReader
+          .get(get, getFromStorage(get), multiVersioned.get())
+          .map(
+              r ->
+                  new FilteredResult(
+                      r, originalProjections, multiVersioned.get().getTableMetadata()));
+    }
+
+    if (isReadCommitted()) {
+      return getReadCommitted(get, key, originalProjections);
+    }
+
     if (snapshot.containsKeyInReadSet(key)) {
+      readUnreadColumns(key, originalProjections);
       return createGetResult(key, originalProjections);
     }
 
+    if (!(get instanceof GetWithIndex)) {
+      // the record of an index get isn't known before it's read, so it's locked at the commit
+      lock(key);
+    }
     result = getFromStorage(get);
     if (!result.isPresent() || result.get().isCommitted()) {
       snapshot.put(key, result);
+      if (isProjectionPushedDown(originalProjections)) {
+        projectedKeys.add(key);
+      }
+      return createGetResult(key, originalProjections);
+    }
+    if (isBeforeImageReadable()) {
+      snapshot.put(key, getCommittedImage(get, result.get()));
       return createGetResult(key, originalProjections);
     }
-    throw new UncommittedRecordException(result.get(), "this record needs recovery");
+    throw new UncommittedRecordException(get, result.get(), "this record needs recovery");
+  }
+
+  /**
+   * Reads the latest committed record in READ_COMMITTED isolation. The record isn't put into the
+   * read set, so only the writes of this transaction are merged into it.
+   */
+  private Optional<Result> getReadCommitted(Get get, Snapshot.Key key, List<String> projections)
+      throws CrudException {
+    Optional<TransactionResult> result = toCommitted(get, getFromStorage(get));
+    TableMetadata metadata = getTableMetadata(key.getNamespace(), key.getTable());
+    return snapshot.mergeWrites(key, result).map(r -> new FilteredResult(r, projections, metadata));
+  }
+
+  /**
+   * Returns the committed image of the specified record read in READ_COMMITTED isolation. If the
+   * record is uncommitted, its before image is returned when it's readable.
+   */
+  private Optional<TransactionResult> toCommitted(
+      Selection selection, Optional<TransactionResult> result) throws CrudException {
+    if (!result.isPresent() || result.get().isCommitted()) {
+      return result;
+    }
+    if (isBeforeImageReadable()) {
+      return getCommittedImage(selection, result.get());
+    }
+    throw new UncommittedRecordException(selection, result.get(), "this record needs recovery");
   }
 
   private Optional<Result> createGetResult(Snapshot.Key key, List<String> projections)
@@ -65,36 +204,139 @@ public class CrudHandler {
   }
 
   public List<Result> scan(Scan scan) throws CrudException {
+    checkDeadline();
     List<String> originalProjections = new ArrayList<>(scan.getProjections());
 
+    Optional<TransactionTableMetadata> multiVersioned = getMultiVersionedTableMetadata(scan);
+    if (multiVersioned.isPresent()) {
+      return scanAsOf(scan, originalProjections, multiVersioned.get());
+    }
+
+    if (isReadCommitted()) {
+      return scanReadCommitted(scan, originalProjections);
+    }
+
+    Scan scanForStorage = prepareScanForStorage(scan);
+    Optional<List<Snapshot.Key>> keysInSnapshot = snapshot.get(scanForStorage);
+    List<Snapshot.Key> keys =
+        keysInSnapshot.isPresent()
+            ? keysInSnapshot.get()
+            : scanFromStorage(scanForStorage, isProjectionPushedDown(originalProjections));
+
     List<Result> results = new ArrayList<>();
+    for (Snapshot.Key key : keys) {
+      readUnreadColumns(key, originalProjections);
+      snapshot.get(key).ifPresent(results::add);
+    }
+    mergeWrittenRecords(scan, scanForStorage, keys, results);
 
-    Optional<List<Snapshot.Key>> keysInSnapshot = snapshot.get(scan);
-    if (keysInSnapshot.isPresent()) {
-      for (Snapshot.Key key : keysInSnapshot.get()) {
-        snapshot.get(key).ifPresent(results::add);
-      }
-      return createScanResults(scan, originalProjections, results);
+    if (scan.getLimit() > 0 && results.size() > scan.getLimit()) {
+      results = results.subList(0, scan.getLimit());
     }
+    return createScanResults(scan, originalProjections, results);
+  }
 
+  /**
+   * Scans the latest committed records in READ_COMMITTED isolation. Neither the records nor the
+   * scan are put into the snapshot, so only the writes of this transaction are merged into them.
+   */
+  private List<Result> scanReadCommitted(Scan scan, List<String> projections) throws CrudException {
+    Scan scanForStorage = prepareScanForStorage(scan);
     List<Snapshot.Key> keys = new ArrayList<>();
+    List<Result> results = new ArrayList<>();
     Scanner scanner = null;
     try {
-      scanner = getFromStorage(scan);
+      scanner = getFromStorage(scanForStorage);
       for (Result r : scanner) {
-        TransactionResult result = new TransactionResult(r);
-        if (!result.isCommitted()) {
-          throw new UncommittedRecordException(result, "the record needs recovery");
+        Snapshot.Key key = new Snapshot.Key(scanForStorage, r);
+        keys.add(key);
+        readCommitted(scanForStorage, key, r).ifPresent(results::add);
+      }
+    } finally {
+      if (scanner != null) {
+        try {
+          scanner.close();
+        } catch (IOException e) {
+          logger.warn("failed to close the scanner", e);
         }
+      }
+    }
+    mergeWrittenRecords(scan, scanForStorage, keys, results);
 
-        Snapshot.Key key = new Snapshot.Key(scan, r);
+    if (scan.getLimit() > 0 && results.size() > scan.getLimit()) {
+      results = results.subList(0, scan.getLimit());
+    }
+    return createScanResults(scan, projections, results);
+  }
 
-        if (!snapshot.containsKeyInReadSet(key)) {
-          snapshot.put(key, Optional.of(result));
+  /**
+   * Returns the metadata of the table of the specified selection if it's read as of the read
+   * timestamp, i.e., this handler has a version reader and the table is multi-versioned. Scans with
+   * an index are not read as of the timestamp since the version tables don't have the indexes.
+   */
+  private Optional<TransactionTableMetadata> getMultiVersionedTableMetadata(Selection selection)
+      throws CrudException {
+    if (versionReader == null || selection instanceof ScanWithIndex) {
+      return Optional.empty();
+    }
+    TransactionTableMetadata metadata = getTransactionTableMetadata(selection);
+    return metadata.getVersionTableMetadata().isPresent()
+        ? Optional.of(metadata)
+        : Optional.empty();
+  }
+
+  /**
+   * Scans the records as of the read timestamp. The latest records in the range are scanned without
+   * the limit since some of them might not exist at the timestamp, but they are fetched only until
+   * the version reader has resolved the limit of the records.
+   */
+  private List<Result> scanAsOf(
+      Scan scan, List<String> projections, TransactionTableMetadata metadata) throws CrudException {
+    assert versionReader != null;
+    Scan scanForStorage =
+        (scan instanceof ScanAll ? new ScanAll((ScanAll) scan) : new Scan(scan)).withLimit(0);
+    List<Result> results;
+    Scanner scanner = null;
+    try {
+      scanner = getFromStorage(scanForStorage);
+      results = new ArrayList<>(versionReader.scan(scan, scanner.iterator(), metadata));
+    } finally {
+      if (scanner != null) {
+        try {
+          scanner.close();
+        } catch (IOException e) {
+          logger.warn("failed to close the scanner", e);
         }
+      }
+    }
+    return createScanResults(scan, projections, results);
+  }
 
-        keys.add(key);
-        snapshot.get(key).ifPresent(results::add);
+  private Optional<TransactionResult> readCommitted(Scan scan, Snapshot.Key key, Result r)
+      throws CrudException {
+    return snapshot.mergeWrites(key, toCommitted(scan, Optional.of(new TransactionResult(r))));
+  }
+
+  /**
+   * Returns the scan to be issued to the storage. When the scan has a limit, the records deleted by
+   * this transaction are filtered out of the results, so the limit is increased by the number of
+   * them to return enough records.
+   */
+  private Scan prepareScanForStorage(Scan scan) {
+    if (scan.getLimit() <= 0 || snapshot.getDeleteSetSize() == 0) {
+      return scan;
+    }
+    Scan copied = scan instanceof ScanAll ? new ScanAll((ScanAll) scan) : new Scan(scan);
+    return copied.withLimit(scan.getLimit() + snapshot.getDeleteSetSize());
+  }
+
+  private List<Snapshot.Key> scanFromStorage(Scan scan, boolean projected) throws CrudException {
+    List<Snapshot.Key> keys = new ArrayList<>();
+    Scanner scanner = null;
+    try {
+      scanner = getFromStorage(scan);
+      for (Result r : scanner) {
+        keys.add(putScannedRecord(scan, r, projected));
       }
     } finally {
       if (scanner != null) {
@@ -106,8 +348,124 @@ public class CrudHandler {
       }
     }
     snapshot.put(scan, keys);
+    return keys;
+  }
 
-    return createScanResults(scan, originalProjections, results);
+  /** Puts the scanned record into the read set unless it's already read, and returns its key. */
+  private Snapshot.Key putScannedRecord(Scan scan, Result r, boolean projected)
+      throws CrudException {
+    TransactionResult result = new TransactionResult(r);
+    Snapshot.Key key = new Snapshot.Key(scan, r);
+
+    if (!result.isCommitted()) {
+      if (!isBeforeImageReadable()) {
+        throw new UncommittedRecordException(scan, result, "the record needs recovery");
+      }
+      if (!snapshot.containsKeyInReadSet(key)) {
+        snapshot.put(key, getCommittedImage(scan, result));
+      }
+    } else if (!snapshot.containsKeyInReadSet(key)) {
+      snapshot.put(key, Optional.of(result));
+      if (projected) {
+        projectedKeys.add(key);
+      }
+    }
+    return key;
+  }
+
+  /**
+   * Returns a scanner that fetches the results of the specified scan from the storage one by one
+   * and puts them into the read set as they are fetched. When the results are already in the
+   * snapshot or need to be merged with the records written by this transaction, they are fetched at
+   * once as in {@link #scan(Scan)}. The scanner is closed by {@link #closeScanners()} if it's not
+   * closed by the caller.
+   *
+   * @param scan a scan
+   * @param uncommittedRecordHandler a handler called when an uncommitted record is fetched
+   * @return a scanner of the results
+   * @throws CrudException if the operation failed
+   */
+  public TransactionCrudOperable.Scanner getScanner(
+      Scan scan, Consumer<UncommittedRecordException> uncommittedRecordHandler)
+      throws CrudException {
+    checkDeadline();
+    Scan scanForStorage = prepareScanForStorage(scan);
+    if (snapshot.get(scanForStorage).isPresent()
+        || !snapshot.getWrittenKeys(scan).isEmpty()
+        || getMultiVersionedTableMetadata(scan).isPresent()) {
+      return new ListTransactionScanner(scan(scan));
+    }
+
+    StreamingScanner scanner = new StreamingScanner(scan, scanForStorage, uncommittedRecordHandler);
+    openScanners.add(scanner);
+    return scanner;
+  }
+
+  /**
+   * Closes the scanners that are still open, so that the scans are put into the scan set with the
+   * results fetched so far before the transaction is validated.
+   */
+  public void closeScanners() {
+    // copy the list since closing a scanner removes it from the list
+    for (StreamingScanner scanner : new ArrayList<>(openScanners)) {
+      scanner.close();
+    }
+  }
+
+  /**
+   * Merges the records that this transaction has written in the range of the scan but that are not
+   * in the scanned records, i.e., the records inserted by this transaction, into the results in the
+   * clustering order of the scan. The records that are updated by this transaction are already
+   * merged with the puts in the snapshot.
+   */
+  private void mergeWrittenRecords(
+      Scan scan, Scan scanForStorage, List<Snapshot.Key> scannedKeys, List<Result> results)
+      throws CrudException {
+    List<Snapshot.Key> writtenKeys = snapshot.getWrittenKeys(scan);
+    if (writtenKeys.isEmpty()) {
+      return;
+    }
+
+    // If the scan is cut off by the limit, the records after the last scanned record might not be
+    // read from the storage, so the written records after it can't be merged
+    boolean isCutOff =
+        scanForStorage.getLimit() > 0 && scannedKeys.size() >= scanForStorage.getLimit();
+    if (isCutOff && scan instanceof ScanAll) {
+      // the records of a scan all are not ordered
+      return;
+    }
+
+    TableMetadata metadata = getTableMetadata(scan.forNamespace().get(), scan.forTable().get());
+    Comparator<com.scalar.db.io.Key> comparator =
+        ConsensusCommitUtils.getClusteringKeyComparator(scan, metadata);
+    Set<Snapshot.Key> scannedKeySet = new HashSet<>(scannedKeys);
+    Optional<com.scalar.db.io.Key> lastClusteringKey =
+        isCutOff ? scannedKeys.get(scannedKeys.size() - 1).getClusteringKey() : Optional.empty();
+
+    boolean merged = false;
+    for (Snapshot.Key key : writtenKeys) {
+      if (scannedKeySet.contains(key)) {
+        continue;
+      }
+      if (lastClusteringKey.isPresent()
+          && key.getClusteringKey().isPresent()
+          && comparator.compare(key.getClusteringKey().get(), lastClusteringKey.get()) > 0) {
+        continue;
+      }
+      Optional<TransactionResult> result = snapshot.get(key);
+      if (result.isPresent()) {
+        results.add(result.get());
+        merged = true;
+      }
+    }
+
+    if (merged && !(scan instanceof ScanAll)) {
+      results.sort(
+          (r1, r2) ->
+              r1.getClusteringKey().isPresent() && r2.getClusteringKey().isPresent()
+                  ? comparator.compare(r1.getClusteringKey().get(), r2.getClusteringKey().get())
+                  : 0);
+    }
   }
 
   private List<Result> createScanResults(Scan scan, List<String> projections, List<Result> results)
@@ -118,6 +476,146 @@ public class CrudHandler {
         .collect(Collectors.toList());
   }
 
+  private boolean isBeforeImageReadable() {
+    // the before image is a consistent snapshot only in SNAPSHOT isolation since it's not
+    // validated, and it's the latest committed image that READ_COMMITTED isolation reads. note
+    // that READ_COMMITTED re-reads only the records to write at commit time, so an update computed
+    // from an earlier stale read of the same record is not detected as a lost update
+    return recovery != null && (snapshot.getIsolation() == Isolation.SNAPSHOT || isReadCommitted());
+  }
+
+  private boolean isReadCommitted() {
+    return snapshot.getIsolation() == Isolation.READ_COMMITTED;
+  }
+
+  /**
+   * Returns the latest committed image of the specified uncommitted record. The state of the
+   * transaction that wrote the record is looked up first: if it's committed, the record itself is
+   * the committed image, and if it's aborted, the image that the record was prepared from is
+   * carried in its before image columns. In both cases, the image is returned without waiting for
+   * the record to be recovered, and the recovery is scheduled in the background. If the writer
+   * isn't finished yet, it may still commit, so the record needs recovery as usual.
+   */
+  private Optional<TransactionResult> getCommittedImage(
+      Selection selection, TransactionResult result) throws CrudException {
+    assert recovery != null;
+
+    // read the record again with the before image columns
+    Optional<TransactionResult> latest;
+    try {
+      Get get =
+          selection instanceof Get
+              ? new Get(selection.getPartitionKey(), selection.getClusteringKey().orElse(null))
+              : new Get(result.getPartitionKey().get(), result.getClusteringKey().orElse(null));
+      get.withConsistency(Consistency.LINEARIZABLE)
+          .forNamespace(selection.forNamespace().get())
+          .forTable(selection.forTable().get());
+      get.withDeadlineMillis(snapshot.getDeadlineMillis());
+      latest = storage.get(get).map(TransactionResult::new);
+    } catch (ExecutionException e) {
+      throw new CrudException("get failed.", e);
+    }
+    if (!latest.isPresent() || latest.get().isCommitted()) {
+      // the record has been recovered in the meantime
+      return latest;
+    }
+
+    TransactionResult uncommitted = latest.get();
+    Optional<Coordinator.State> state;
+    try {
+      state = recovery.getCoordinatorState(uncommitted.getId(), snapshot.getDeadlineMillis());
+    } catch (CoordinatorException e) {
+      throw new CrudException("can't get the coordinator state", e);
+    }
+    if (!state.isPresent()) {
+      throw new UncommittedRecordException(selection, uncommitted, "this record needs recovery");
+    }
+
+    recovery.recoverAsync(selection, uncommitted);
+
+    if (state.get().getState() == TransactionState.COMMITTED) {
+      if (uncommitted.getState() == TransactionState.DELETED) {
+        return Optional.empty();
+      }
+      return Optional.of(createAfterImage(selection, uncommitted, state.get()));
+    }
+    if (uncommitted.getText(Attribute.BEFORE_ID) == null) {
+      // the record didn't exist before the aborted transaction
+      return Optional.empty();
+    }
+    if (uncommitted.isNull(Attribute.BEFORE_STATE)
+        || TransactionState.getInstance(uncommitted.getInt(Attribute.BEFORE_STATE))
+            != TransactionState.COMMITTED) {
+      throw new UncommittedRecordException(selection, uncommitted, "this record needs recovery");
+    }
+    return Optional.of(createBeforeImage(selection, uncommitted));
+  }
+
+  /**
+   * Creates the image that the specified record has once its committed writer is rolled forward, so
+   * that preparing the record again doesn't carry the uncommitted state into its before image.
+   */
+  private TransactionResult createAfterImage(
+      Selection selection, TransactionResult result, Coordinator.State state) throws CrudException {
+    TransactionTableMetadata metadata = getTransactionTableMetadata(selection);
+    Map<String, Column<?>> columns = new HashMap<>();
+    for (Map.Entry<String, Column<?>> entry : result.getColumns().entrySet()) {
+      String name = entry.getKey();
+      if (metadata.getBeforeImageColumnNames().contains(name)) {
+        continue;
+      }
+      if (name.equals(Attribute.BEFORE_IMAGE_COLUMNS)) {
+        // keep the marker so that preparing this record overwrites it
+        columns.put(name, TextColumn.ofNull(name));
+      } else {
+        columns.put(name, entry.getValue());
+      }
+    }
+    columns.put(
+        Attribute.STATE,
+        ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.COMMITTED)));
+    columns.put(
+        Attribute.COMMITTED_AT,
+        ScalarDbUtils.toColumn(Attribute.toCommittedAtValue(state.getCreatedAt())));
+    return new TransactionResult(new ResultImpl(columns, metadata.getTableMetadata()));
+  }
+
+  private TransactionResult createBeforeImage(Selection selection, TransactionResult result)
+      throws CrudException {
+    TransactionTableMetadata metadata = getTransactionTableMetadata(selection);
+    Set<String> beforeImageColumnNames = metadata.getBeforeImageColumnNames(result);
+    Map<String, Column<?>> columns = new HashMap<>();
+    for (Map.Entry<String, Column<?>> entry : result.getColumns().entrySet()) {
+      String name = entry.getKey();
+      if (metadata.getPartitionKeyNames().contains(name)
+          || metadata.getClusteringKeyNames().contains(name)) {
+        columns.put(name, entry.getValue());
+      } else if (beforeImageColumnNames.contains(name)) {
+        String afterName = name.substring(Attribute.BEFORE_PREFIX.length());
+        columns.put(afterName, entry.getValue().copyWith(afterName));
+      } else if (metadata.getAfterImageColumnNames().contains(name)
+          && !ConsensusCommitUtils.isTransactionMetaColumn(name, metadata.getTableMetadata())
+          && !beforeImageColumnNames.contains(Attribute.BEFORE_PREFIX + name)) {
+        // the column is untouched by the uncommitted transaction (delta before image), so the
+        // current value is the committed one
+        columns.put(name, entry.getValue());
+      } else if (name.equals(Attribute.BEFORE_IMAGE_COLUMNS)) {
+        // keep the marker so that preparing this record overwrites it
+        columns.put(name, TextColumn.ofNull(name));
+      }
+    }
+    return new TransactionResult(new ResultImpl(columns, metadata.getTableMetadata()));
+  }
+
+  private TransactionTableMetadata getTransactionTableMetadata(Selection selection)
+      throws CrudException {
+    try {
+      return tableMetadataManager.getTransactionTableMetadata(selection);
+    } catch (ExecutionException e) {
+      throw new CrudException("getting a table metadata failed", e);
+    }
+  }
+
   public void put(Put put) {
     snapshot.put(new Snapshot.Key(put), put);
   }
@@ -126,15 +624,141 @@ public class CrudHandler {
     snapshot.put(new Snapshot.Key(delete), delete);
   }
 
+  /**
+   * Locks the records in the write and delete sets that aren't locked yet. The locks are acquired
+   * in a fixed order to avoid deadlocks with other transactions committing at the same time.
+   *
+   * @throws CommitConflictException if waiting for the locks timed out
+   */
+  public void lockWrittenRecords() throws CommitConflictException {
+    if (lockTable != null && !lockTable.acquire(lockOwner, snapshot.getWrittenKeys())) {
+      throw new CommitConflictException("waiting for the locks of the written records timed out");
+    }
+  }
+
+  private void lock(Snapshot.Key key) throws CrudConflictException {
+    if (lockTable != null && !lockTable.acquire(lockOwner, Collections.singletonList(key))) {
+      throw new CrudConflictException("waiting for the lock of the record timed out");
+    }
+  }
+
+  /** Releases all the locks acquired by this handler. */
+  public void unlock() {
+    if (lockTable != null) {
+      lockTable.release(lockOwner);
+    }
+  }
+
+  /**
+   * Reads the records that this transaction writes, since preparing a record needs its whole after
+   * image. The columns of the records that have been read only partially with projections are read.
+   * In READ_COMMITTED isolation, where the records read are not kept, the latest committed records
+   * are read and put into the read set, so the preparation detects write-write conflicts with the
+   * transactions that commit after this.
+   *
+   * @throws CrudConflictException if a record has been updated since this transaction read it, or
+   *     it's being written by another transaction
+   * @throws CrudException if reading a record failed
+   */
+  public void readRecordsToWrite() throws CrudException {
+    checkDeadline();
+    for (Snapshot.Key key : snapshot.getWrittenKeys()) {
+      if (snapshot.containsKeyInReadSet(key)) {
+        readUnreadColumns(key, Collections.emptyList());
+      } else if (isReadCommitted()) {
+        Get get =
+            new Get(key.getPartitionKey(), key.getClusteringKey().orElse(null))
+                .forNamespace(key.getNamespace())
+                .forTable(key.getTable());
+        Optional<TransactionResult> result = getFromStorage(get);
+        if (result.isPresent() && !result.get().isCommitted()) {
+          throw new UncommittedRecordException(
+              get, result.get(), "the record is being written by another transaction");
+        }
+        snapshot.put(key, result);
+      }
+    }
+  }
+
+  /**
+   * Reads the whole record of the specified key again if the record in the read set doesn't have
+   * all the specified columns (or all the columns if no projection is specified) since it was read
+   * with projections. The record must not be updated in the meantime, otherwise the columns read at
+   * the different times could mix different versions.
+   */
+  private void readUnreadColumns(Snapshot.Key key, List<String> projections) throws CrudException {
+    if (!projectedKeys.contains(key)) {
+      return;
+    }
+    Optional<TransactionResult> result = snapshot.getFromReadSet(key);
+    if (!result.isPresent()) {
+      return;
+    }
+    TransactionTableMetadata metadata =
+        getTransactionTableMetadata(key.getNamespace(), key.getTable());
+    Collection<String> required =
+        projections.isEmpty() ? metadata.getAfterImageColumnNames() : projections;
+    if (result.get().getContainedColumnNames().containsAll(required)) {
+      return;
+    }
+
+    Get get =
+        new Get(key.getPartitionKey(), key.getClusteringKey().orElse(null))
+            .forNamespace(key.getNamespace())
+            .forTable(key.getTable());
+    Optional<TransactionResult> latest = getFromStorage(get);
+    if (!latest.isPresent()
+        || !latest.get().getId().equals(result.get().getId())
+        || latest.get().getVersion() != result.get().getVersion()) {
+      throw new CrudConflictException(
+          "the record has been updated since this transaction read it: " + key);
+    }
+    snapshot.put(key, latest);
+    projectedKeys.remove(key);
+  }
+
+  /**
+   * Returns whether the specified projections are pushed down to the storage. They aren't when the
+   * records read are written back at commit, since a record read partially would be prepared with a
+   * partial before image, and rolling it back would lose the columns that weren't read.
+   */
+  private boolean isProjectionPushedDown(List<String> projections) {
+    return !projections.isEmpty() && !snapshot.isReadSetWrittenBack();
+  }
+
+  /**
+   * Returns the columns to read from the storage for the specified projections. The projections are
+   * pushed down to the storage with the primary key columns and the transaction metadata columns
+   * that are needed to validate and recover the record. The rest of the columns are read on demand
+   * when they are needed later.
+   */
+  private Collection<String> getProjectionsForStorage(
+      List<String> projections, TransactionTableMetadata metadata) {
+    if (!isProjectionPushedDown(projections)) {
+      return metadata.getAfterImageColumnNames();
+    }
+    Set<String> columns = new LinkedHashSet<>(metadata.getPartitionKeyNames());
+    columns.addAll(metadata.getClusteringKeyNames());
+    columns.addAll(projections);
+    for (String column : metadata.getAfterImageColumnNames()) {
+      if (ConsensusCommitUtils.isTransactionMetaColumn(column, metadata.getTableMetadata())) {
+        columns.add(column);
+      }
+    }
+    return columns;
+  }
+
   private Optional<TransactionResult> getFromStorage(Get get) throws CrudException {
     try {
-      // get only after image columns
+      // get only the projected after image columns
+      TransactionTableMetadata metadata = tableMetadataManager.getTransactionTableMetadata(get);
+      Collection<String> projections =
+          getProjectionsForStorage(new ArrayList<>(get.getProjections()), metadata);
       get.clearProjections();
-      LinkedHashSet<String> afterImageColumnNames =
-          tableMetadataManager.getTransactionTableMetadata(get).getAfterImageColumnNames();
-      get.withProjections(afterImageColumnNames);
+      get.withProjections(projections);
 
       get.withConsistency(Consistency.LINEARIZABLE);
+      get.withDeadlineMillis(snapshot.getDeadlineMillis());
       return storage.get(get).map(TransactionResult::new);
     } catch (ExecutionException e) {
       throw new CrudException("get failed.", e);
@@ -143,20 +767,37 @@ public class CrudHandler {
 
   private Scanner getFromStorage(Scan scan) throws CrudException {
     try {
-      // get only after image columns
+      // get only the projected after image columns
+      TransactionTableMetadata metadata = tableMetadataManager.getTransactionTableMetadata(scan);
+      Collection<String> projections =
+          getProjectionsForStorage(new ArrayList<>(scan.getProjections()), metadata);
       scan.clearProjections();
-      LinkedHashSet<String> afterImageColumnNames =
-          tableMetadataManager.getTransactionTableMetadata(scan).getAfterImageColumnNames();
-      scan.withProjections(afterImageColumnNames);
+      scan.withProjections(projections);
 
       scan.withConsistency(Consistency.LINEARIZABLE);
+      scan.withDeadlineMillis(snapshot.getDeadlineMillis());
       return storage.scan(scan);
     } catch (ExecutionException e) {
       throw new CrudException("scan failed.", e);
     }
   }
 
+  /**
+   * Fails fast if the deadline of the transaction has been exceeded, since the storage calls issued
+   * after it can't complete in time.
+   */
+  private void checkDeadline() throws CrudException {
+    if (snapshot.isDeadlineExceeded()) {
+      throw new CrudException("the transaction deadline has been exceeded");
+    }
+  }
+
   private TableMetadata getTableMetadata(String namespace, String table) throws CrudException {
+    return getTransactionTableMetadata(namespace, table).getTableMetadata();
+  }
+
+  private TransactionTableMetadata getTransactionTableMetadata(String namespace, String table)
+      throws CrudException {
     try {
       TransactionTableMetadata metadata =
           tableMetadataManager.getTransactionTableMetadata(namespace, table);
@@ -165,7 +806,7 @@ public class CrudHandler {
             "The specified table is not found: "
                 + ScalarDbUtils.getFullTableName(namespace, table));
       }
-      return metadata.getTableMetadata();
+      return metadata;
     } catch (ExecutionException e) {
       throw new CrudException("getting a table metadata failed", e);
     }
@@ -174,4 +815,129 @@ public class CrudHandler {
   public Snapshot getSnapshot() {
     return snapshot;
   }
+
+  /**
+   * A scanner that fetches the results from the storage scanner one by one. The scanned records are
+   * put into the read set as they are fetched, and the scan is put into the scan set when the
+   * scanner is closed. If the scanner is closed before all the results are fetched, the scan is put
+   * with the limit of the number of the fetched records, so only the fetched records are validated
+   * as the range of the scan.
+   */
+  @NotThreadSafe
+  private class StreamingScanner implements TransactionCrudOperable.Scanner {
+    private final Scan scan;
+    private final Scan scanForStorage;
+    private final List<String> originalProjections;
+    private final TableMetadata metadata;
+    private final Consumer<UncommittedRecordException> uncommittedRecordHandler;
+    private final Scanner scanner;
+    private final List<Snapshot.Key> keys = new ArrayList<>();
+    private int resultCount;
+    private boolean exhausted;
+    private boolean closed;
+    private TransactionScannerIterator scannerIterator;
+
+    private StreamingScanner(
+        Scan scan,
+        Scan scanForStorage,
+        Consumer<UncommittedRecordException> uncommittedRecordHandler)
+        throws CrudException {
+      this.scan = scan;
+      this.scanForStorage = scanForStorage;
+      originalProjections = new ArrayList<>(scan.getProjections());
+      metadata = getTableMetadata(scan.forNamespace().get(), scan.forTable().get());
+      this.uncommittedRecordHandler = uncommittedRecordHandler;
+      scanner = getFromStorage(scanForStorage);
+    }
+
+    @Override
+    public Optional<Result> one() throws CrudException {
+      try {
+        while (!closed && !exhausted) {
+          if (scan.getLimit() > 0 && resultCount >= scan.getLimit()) {
+            break;
+          }
+          Optional<Result> r;
+          try {
+            r = scanner.one();
+          } catch (ExecutionException e) {
+            throw new CrudException("scan failed.", e);
+          }
+          if (!r.isPresent()) {
+            exhausted = true;
+            break;
+          }
+
+          Optional<TransactionResult> result;
+          if (isReadCommitted()) {
+            // nothing is kept so that the memory doesn't grow with the fetched records
+            result =
+                readCommitted(scanForStorage, new Snapshot.Key(scanForStorage, r.get()), r.get());
+          } else {
+            Snapshot.Key key =
+                putScannedRecord(
+                    scanForStorage, r.get(), isProjectionPushedDown(originalProjections));
+            keys.add(key);
+            readUnreadColumns(key, originalProjections);
+            result = snapshot.get(key);
+          }
+          if (result.isPresent()) {
+            resultCount++;
+            return Optional.of(new FilteredResult(result.get(), originalProjections, metadata));
+          }
+          // the record is deleted by this transaction
+        }
+        return Optional.empty();
+      } catch (UncommittedRecordException e) {
+        uncommittedRecordHandler.accept(e);
+        throw e;
+      }
+    }
+
+    @Override
+    public List<Result> all() throws CrudException {
+      List<Result> results = new ArrayList<>();
+      Optional<Result> result;
+      while ((result = one()).isPresent()) {
+        results.add(result.get());
+      }
+      return results;
+    }
+
+    @Override
+    @Nonnull
+    public Iterator<Result> iterator() {
+      if (scannerIterator == null) {
+        scannerIterator = new TransactionScannerIterator(this);
+      }
+      return scannerIterator;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      openScanners.remove(this);
+      try {
+        scanner.close();
+      } catch (IOException e) {
+        logger.warn("failed to close the scanner", e);
+      }
+
+      if (isReadCommitted()) {
+        return;
+      }
+      if (exhausted) {
+        snapshot.put(scanForStorage, keys);
+      } else if (!keys.isEmpty()) {
+        Scan fetched =
+            scanForStorage instanceof ScanAll
+                ? new ScanAll((ScanAll) scanForStorage)
+                : new Scan(scanForStorage);
+        snapshot.put(fetched.withLimit(keys.size()), keys);
+      }
+    }
+  }
 }
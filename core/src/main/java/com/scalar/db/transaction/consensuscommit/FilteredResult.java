@@ -1,6 +1,8 @@
 package com.scalar.db.transaction.consensuscommit;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.TableMetadata;
@@ -11,11 +13,10 @@ import com.scalar.db.io.Value;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import org.slf4j.Logger;
@@ -30,6 +31,7 @@ public class FilteredResult extends AbstractResult {
 
   private final Result original;
   private final ImmutableSet<String> containedColumnNames;
+  private final Supplier<Map<String, Column<?>>> columns;
 
   public FilteredResult(Result original, List<String> projections, TableMetadata metadata) {
     this.original = Objects.requireNonNull(original);
@@ -40,6 +42,7 @@ public class FilteredResult extends AbstractResult {
         .filter(c -> !ConsensusCommitUtils.isTransactionMetaColumn(c, metadata))
         .forEach(builder::add);
     containedColumnNames = builder.build();
+    columns = Suppliers.memoize(this::createColumns);
   }
 
   @Override
@@ -146,8 +149,14 @@ public class FilteredResult extends AbstractResult {
 
   @Override
   public Map<String, Column<?>> getColumns() {
-    return original.getColumns().entrySet().stream()
+    return columns.get();
+  }
+
+  private Map<String, Column<?>> createColumns() {
+    ImmutableMap.Builder<String, Column<?>> builder = ImmutableMap.builder();
+    original.getColumns().entrySet().stream()
         .filter(e -> containedColumnNames.contains(e.getKey()))
-        .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+        .forEach(builder::put);
+    return builder.build();
   }
 }
@@ -3,4 +3,13 @@ package com.scalar.db.transaction.consensuscommit;
 public enum Isolation {
   SNAPSHOT,
   SERIALIZABLE,
+  /**
+   * Reads the latest committed records without keeping them in the snapshot, so the memory used by
+   * a transaction doesn't grow with the records it reads. The reads are not repeatable, and the
+   * records to write are read again at commit time, where write-write conflicts are detected. Since
+   * the conflicts are detected against the records read at commit time, a transaction that computes
+   * an update from an earlier read of the same record can overwrite an update committed in between
+   * without noticing it (a lost update).
+   */
+  READ_COMMITTED,
 }
@@ -0,0 +1,231 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.scalar.db.util.ActiveExpiringMap;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-process lock table of records. Transactions in the same process that read and write the
+ * same record wait for each other on this table instead of racing in the preparation phase, where
+ * all but one of them would fail with a conflict after paying the round trips to the storage. The
+ * locks are exclusive. A transaction takes the lock of a record before it reads the record, so that
+ * it reads the version written by the transaction that held the lock before it, and takes the locks
+ * of the rest of its write set when it commits. The locks are released when the transaction is
+ * committed or rolled back.
+ *
+ * <p>A transaction can be dropped without being committed or rolled back, so the locks of an owner
+ * that hasn't acquired a lock for the owner lifetime are released in the background.
+ *
+ * <p>The table is striped, so different records can share a lock. The locks are semaphores rather
+ * than reentrant locks since a transaction can be committed by a different thread from the one that
+ * read the records. The locks that are acquired at once are taken in the order of the stripes to
+ * avoid deadlocks between such acquisitions, and every acquisition is bounded by the timeout to
+ * break the deadlocks between locks acquired one by one.
+ */
+@ThreadSafe
+public class LockTable {
+  private static final Logger logger = LoggerFactory.getLogger(LockTable.class);
+  private static final long OWNER_EXPIRATION_INTERVAL_MILLIS = 1000;
+
+  private final Semaphore[] stripes;
+  private final long timeoutMillis;
+  @Nullable private final ActiveExpiringMap<Owner, Owner> owners;
+
+  private final AtomicLong acquiredCount = new AtomicLong();
+  private final AtomicLong timedOutCount = new AtomicLong();
+  private final AtomicLong expiredOwnerCount = new AtomicLong();
+  private final AtomicLong totalWaitTimeNanos = new AtomicLong();
+  private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+
+  /**
+   * Creates a lock table whose owners expire after the transaction timeout, or after the lifetime
+   * of a two-phase commit transaction if the timeout is disabled.
+   */
+  public LockTable(ConsensusCommitConfig config) {
+    this(
+        config.getLockTableStripes(),
+        config.getLockTableTimeoutMillis(),
+        config.getTransactionTimeoutMillis() > 0
+            ? config.getTransactionTimeoutMillis()
+            : TwoPhaseConsensusCommitManager.TRANSACTION_LIFETIME_MILLIS);
+  }
+
+  /** Creates a lock table whose owners never expire. */
+  public LockTable(int stripes, long timeoutMillis) {
+    this(stripes, timeoutMillis, Long.MAX_VALUE);
+  }
+
+  public LockTable(int stripes, long timeoutMillis, long ownerLifetimeMillis) {
+    this(stripes, timeoutMillis, ownerLifetimeMillis, OWNER_EXPIRATION_INTERVAL_MILLIS);
+  }
+
+  @VisibleForTesting
+  LockTable(
+      int stripes,
+      long timeoutMillis,
+      long ownerLifetimeMillis,
+      long ownerExpirationIntervalMillis) {
+    checkArgument(stripes > 0, "the number of the stripes must be positive");
+    this.stripes = new Semaphore[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new Semaphore(1, true);
+    }
+    this.timeoutMillis = timeoutMillis;
+    owners =
+        ownerLifetimeMillis == Long.MAX_VALUE
+            ? null
+            : new ActiveExpiringMap<>(
+                ownerLifetimeMillis, ownerExpirationIntervalMillis, this::releaseExpired);
+  }
+
+  /** Creates an owner of locks, which is expected to be used by a single transaction. */
+  public Owner newOwner() {
+    return new Owner();
+  }
+
+  /**
+   * Acquires the locks of the specified records for the owner. The locks that the owner already
+   * holds are skipped. If any of the locks can't be acquired within the timeout, the locks acquired
+   * in this call are released.
+   *
+   * @param owner the owner of the locks
+   * @param keys the keys of the records
+   * @return whether all the locks are acquired
+   */
+  public boolean acquire(Owner owner, Collection<Snapshot.Key> keys) {
+    touch(owner);
+    Set<Integer> indexes = new TreeSet<>();
+    synchronized (owner) {
+      for (Snapshot.Key key : keys) {
+        int index = indexOf(key);
+        if (!owner.indexes.contains(index)) {
+          indexes.add(index);
+        }
+      }
+    }
+    if (indexes.isEmpty()) {
+      return true;
+    }
+
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    Set<Integer> acquired = new HashSet<>();
+    try {
+      for (int index : indexes) {
+        if (!stripes[index].tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+          release(acquired);
+          timedOutCount.incrementAndGet();
+          return false;
+        }
+        acquired.add(index);
+      }
+    } catch (InterruptedException e) {
+      release(acquired);
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      recordWaitTime(System.nanoTime() - start);
+    }
+
+    synchronized (owner) {
+      owner.indexes.addAll(acquired);
+    }
+    // registered again in case the owner expired while waiting, so that the locks don't leak
+    touch(owner);
+    acquiredCount.addAndGet(acquired.size());
+    return true;
+  }
+
+  /**
+   * Releases all the locks held by the owner.
+   *
+   * @param owner the owner of the locks
+   */
+  public void release(Owner owner) {
+    if (owners != null) {
+      owners.remove(owner);
+    }
+    synchronized (owner) {
+      release(owner.indexes);
+      owner.indexes.clear();
+    }
+  }
+
+  private void release(Set<Integer> indexes) {
+    indexes.forEach(i -> stripes[i].release());
+  }
+
+  private void touch(Owner owner) {
+    if (owners != null && owners.putIfAbsent(owner, owner) != null) {
+      owners.updateExpirationTime(owner);
+    }
+  }
+
+  private void releaseExpired(Owner owner) {
+    synchronized (owner) {
+      if (owner.indexes.isEmpty()) {
+        return;
+      }
+      logger.warn("releasing the locks of a transaction that hasn't been committed or rolled back");
+      release(owner.indexes);
+      owner.indexes.clear();
+    }
+    expiredOwnerCount.incrementAndGet();
+  }
+
+  private int indexOf(Snapshot.Key key) {
+    return Math.floorMod(key.hashCode(), stripes.length);
+  }
+
+  private void recordWaitTime(long nanos) {
+    totalWaitTimeNanos.addAndGet(nanos);
+    maxWaitTimeNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  public long getAcquiredCount() {
+    return acquiredCount.get();
+  }
+
+  public long getTimedOutCount() {
+    return timedOutCount.get();
+  }
+
+  /** Returns the number of the owners whose locks were released since they expired. */
+  public long getExpiredOwnerCount() {
+    return expiredOwnerCount.get();
+  }
+
+  public long getTotalWaitTimeNanos() {
+    return totalWaitTimeNanos.get();
+  }
+
+  public long getMaxWaitTimeNanos() {
+    return maxWaitTimeNanos.get();
+  }
+
+  /** The locks held by a transaction. */
+  @ThreadSafe
+  public static class Owner {
+    @GuardedBy("this")
+    private final Set<Integer> indexes = new HashSet<>();
+
+    private Owner() {}
+
+    public synchronized boolean holdsAny() {
+      return !indexes.isEmpty();
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.scalar.db.transaction.consensuscommit;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.scalar.db.api.Put;
 import com.scalar.db.api.TableMetadata;
@@ -17,6 +18,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
@@ -26,6 +28,7 @@ public class MergedResult extends AbstractResult {
   private final Put put;
   private final Map<String, Column<?>> putColumns;
   private final TableMetadata metadata;
+  private final Supplier<Map<String, Column<?>>> columns;
 
   public MergedResult(Optional<TransactionResult> result, Put put, TableMetadata metadata) {
     // assume that all the columns are projected to the result
@@ -39,6 +42,7 @@ public class MergedResult extends AbstractResult {
         .ifPresent(k -> k.getColumns().forEach(c -> putColumns.put(c.getName(), c)));
 
     this.metadata = metadata;
+    columns = Suppliers.memoize(this::createColumns);
   }
 
   @Override
@@ -54,8 +58,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public boolean isNull(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).hasNullValue();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.hasNullValue();
     }
     return result.map(transactionResult -> transactionResult.isNull(columnName)).orElse(true);
   }
@@ -63,8 +68,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public boolean getBoolean(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).getBooleanValue();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.getBooleanValue();
     }
     return result.map(r -> r.getBoolean(columnName)).orElse(false);
   }
@@ -72,8 +78,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public int getInt(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).getIntValue();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.getIntValue();
     }
     return result.map(r -> r.getInt(columnName)).orElse(0);
   }
@@ -81,8 +88,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public long getBigInt(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).getBigIntValue();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.getBigIntValue();
     }
     return result.map(r -> r.getBigInt(columnName)).orElse(0L);
   }
@@ -90,8 +98,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public float getFloat(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).getFloatValue();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.getFloatValue();
     }
     return result.map(r -> r.getFloat(columnName)).orElse(0.0F);
   }
@@ -99,8 +108,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public double getDouble(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).getDoubleValue();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.getDoubleValue();
     }
     return result.map(r -> r.getDouble(columnName)).orElse(0.0D);
   }
@@ -109,8 +119,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public String getText(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).getTextValue();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.getTextValue();
     }
     return result.map(r -> r.getText(columnName)).orElse(null);
   }
@@ -119,8 +130,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public ByteBuffer getBlobAsByteBuffer(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).getBlobValueAsByteBuffer();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.getBlobValueAsByteBuffer();
     }
     return result.map(r -> r.getBlobAsByteBuffer(columnName)).orElse(null);
   }
@@ -129,8 +141,9 @@ public class MergedResult extends AbstractResult {
   @Override
   public byte[] getBlobAsBytes(String columnName) {
     checkIfExists(columnName);
-    if (putColumns.containsKey(columnName)) {
-      return putColumns.get(columnName).getBlobValueAsBytes();
+    Column<?> column = putColumns.get(columnName);
+    if (column != null) {
+      return column.getBlobValueAsBytes();
     }
     return result.map(r -> r.getBlobAsBytes(columnName)).orElse(null);
   }
@@ -177,16 +190,17 @@ public class MergedResult extends AbstractResult {
 
   @Override
   public Map<String, Column<?>> getColumns() {
+    return columns.get();
+  }
+
+  private Map<String, Column<?>> createColumns() {
     ImmutableMap.Builder<String, Column<?>> builder = ImmutableMap.builder();
     if (result.isPresent()) {
       result.get().getColumns().forEach((k, v) -> builder.put(k, putColumns.getOrDefault(k, v)));
     } else {
       for (String columnName : metadata.getColumnNames()) {
-        if (putColumns.containsKey(columnName)) {
-          builder.put(columnName, putColumns.get(columnName));
-        } else {
-          builder.put(columnName, getNullColumn(columnName));
-        }
+        Column<?> column = putColumns.get(columnName);
+        builder.put(columnName, column != null ? column : getNullColumn(columnName));
       }
     }
     return builder.build();
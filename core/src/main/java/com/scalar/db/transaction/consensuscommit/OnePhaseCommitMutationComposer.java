@@ -0,0 +1,105 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static com.scalar.db.api.ConditionalExpression.Operator;
+import static com.scalar.db.transaction.consensuscommit.Attribute.ID;
+import static com.scalar.db.transaction.consensuscommit.Attribute.VERSION;
+import static com.scalar.db.transaction.consensuscommit.Attribute.toIdValue;
+import static com.scalar.db.transaction.consensuscommit.Attribute.toVersionValue;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.scalar.db.api.ConditionalExpression;
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.Delete;
+import com.scalar.db.api.DeleteIf;
+import com.scalar.db.api.Mutation;
+import com.scalar.db.api.Operation;
+import com.scalar.db.api.Put;
+import com.scalar.db.api.PutIf;
+import com.scalar.db.api.PutIfNotExists;
+import com.scalar.db.api.TransactionState;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A mutation composer for one-phase commit. It composes the final committed images with the same
+ * conditions as the ones in the prepare phase, so that conflicts are detected when the mutations
+ * are applied in a single atomic batch.
+ */
+@NotThreadSafe
+public class OnePhaseCommitMutationComposer extends AbstractMutationComposer {
+
+  public OnePhaseCommitMutationComposer(String id) {
+    super(id);
+  }
+
+  @VisibleForTesting
+  OnePhaseCommitMutationComposer(String id, List<Mutation> mutations, long current) {
+    super(id, mutations, current);
+  }
+
+  @Override
+  public void add(Operation base, TransactionResult result) {
+    if (base instanceof Put) {
+      add((Put) base, result);
+    } else if (base instanceof Delete) {
+      add((Delete) base, result);
+    } else {
+      throw new IllegalArgumentException(
+          "OnePhaseCommitMutationComposer.add only accepts Put or Delete");
+    }
+  }
+
+  private void add(Put base, TransactionResult result) {
+    Put put =
+        new Put(base.getPartitionKey(), getClusteringKey(base, result).orElse(null))
+            .forNamespace(base.forNamespace().get())
+            .forTable(base.forTable().get())
+            .withConsistency(Consistency.LINEARIZABLE);
+
+    put.withValue(Attribute.toIdValue(id));
+    put.withValue(Attribute.toStateValue(TransactionState.COMMITTED));
+    put.withValue(Attribute.toPreparedAtValue(current));
+    put.withValue(Attribute.toCommittedAtValue(current));
+    base.getColumns().values().forEach(put::withValue);
+
+    if (result != null) { // overwrite existing record
+      int version = result.getVersion();
+      put.withValue(Attribute.toVersionValue(version + 1));
+
+      // check if the record is not interrupted by other conflicting transactions
+      put.withCondition(
+          new PutIf(
+              new ConditionalExpression(VERSION, toVersionValue(version), Operator.EQ),
+              new ConditionalExpression(ID, toIdValue(result.getId()), Operator.EQ)));
+    } else { // initial record
+      put.withValue(Attribute.toVersionValue(1));
+
+      // check if the record is not created by other conflicting transactions
+      put.withCondition(new PutIfNotExists());
+    }
+
+    mutations.add(put);
+  }
+
+  private void add(Delete base, TransactionResult result) {
+    if (result == null) {
+      // a storage can't check if a record doesn't exist when deleting it
+      throw new IllegalArgumentException(
+          "deleting a non-existing record can't be committed in one phase");
+    }
+
+    int version = result.getVersion();
+    Delete delete =
+        new Delete(base.getPartitionKey(), getClusteringKey(base, result).orElse(null))
+            .forNamespace(base.forNamespace().get())
+            .forTable(base.forTable().get())
+            .withConsistency(Consistency.LINEARIZABLE)
+            // check if the record is not interrupted by other conflicting transactions
+            .withCondition(
+                new DeleteIf(
+                    new ConditionalExpression(VERSION, toVersionValue(version), Operator.EQ),
+                    new ConditionalExpression(ID, toIdValue(result.getId()), Operator.EQ)));
+
+    mutations.add(delete);
+  }
+}
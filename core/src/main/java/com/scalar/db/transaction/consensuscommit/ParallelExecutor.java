@@ -5,38 +5,81 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.transaction.CommitConflictException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @ThreadSafe
 public class ParallelExecutor {
+  private static final Logger logger = LoggerFactory.getLogger(ParallelExecutor.class);
 
   @FunctionalInterface
   public interface ParallelExecutorTask {
     void run() throws ExecutionException, CommitConflictException;
   }
 
+  public enum Phase {
+    PREPARE,
+    VALIDATION,
+    COMMIT,
+    ROLLBACK,
+  }
+
   private final ConsensusCommitConfig config;
-  @Nullable private final ExecutorService parallelExecutorService;
+  private final Map<Phase, ExecutorService> executorServices = new EnumMap<>(Phase.class);
+  private final Map<Phase, PhaseMetrics> metrics = new EnumMap<>(Phase.class);
 
   public ParallelExecutor(ConsensusCommitConfig config) {
     this.config = config;
-    if (config.isParallelPreparationEnabled()
-        || config.isParallelValidationEnabled()
-        || config.isParallelCommitEnabled()
-        || config.isParallelRollbackEnabled()) {
-      parallelExecutorService =
-          Executors.newFixedThreadPool(
-              config.getParallelExecutorCount(),
-              new ThreadFactoryBuilder().setNameFormat("parallel-executor-%d").build());
-    } else {
-      parallelExecutorService = null;
+    initMetrics();
+    if (!isParallelEnabled(config)) {
+      return;
+    }
+
+    switch (config.getParallelExecutorType()) {
+      case VIRTUAL:
+        ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+        if (virtualThreadExecutor != null) {
+          setExecutorServiceForAllPhases(virtualThreadExecutor);
+          break;
+        }
+        setExecutorServiceForAllPhases(createFixedThreadPool(config.getParallelExecutorCount()));
+        break;
+      case BOUNDED:
+        // the phases share the thread budget instead of getting the whole budget each
+        int phaseCount =
+            (int) Arrays.stream(Phase.values()).filter(this::isParallelEnabled).count();
+        int threadCount = Math.max(1, config.getParallelExecutorCount() / phaseCount);
+        for (Phase phase : Phase.values()) {
+          if (isParallelEnabled(phase)) {
+            executorServices.put(
+                phase,
+                createBoundedThreadPool(phase, threadCount, config.getParallelExecutorQueueSize()));
+          }
+        }
+        break;
+      case FIXED:
+      default:
+        setExecutorServiceForAllPhases(createFixedThreadPool(config.getParallelExecutorCount()));
+        break;
     }
   }
 
@@ -44,12 +87,114 @@ public class ParallelExecutor {
   ParallelExecutor(
       ConsensusCommitConfig config, @Nullable ExecutorService parallelExecutorService) {
     this.config = config;
-    this.parallelExecutorService = parallelExecutorService;
+    initMetrics();
+    if (parallelExecutorService != null) {
+      setExecutorServiceForAllPhases(parallelExecutorService);
+    }
+  }
+
+  private void initMetrics() {
+    for (Phase phase : Phase.values()) {
+      metrics.put(phase, new PhaseMetrics());
+    }
+  }
+
+  private void setExecutorServiceForAllPhases(ExecutorService executorService) {
+    for (Phase phase : Phase.values()) {
+      executorServices.put(phase, executorService);
+    }
+  }
+
+  private static boolean isParallelEnabled(ConsensusCommitConfig config) {
+    return config.isParallelPreparationEnabled()
+        || config.isParallelValidationEnabled()
+        || config.isParallelCommitEnabled()
+        || config.isParallelRollbackEnabled();
+  }
+
+  private boolean isParallelEnabled(Phase phase) {
+    switch (phase) {
+      case PREPARE:
+        return config.isParallelPreparationEnabled();
+      case VALIDATION:
+        return config.isParallelValidationEnabled();
+      case COMMIT:
+        return config.isParallelCommitEnabled();
+      case ROLLBACK:
+        return config.isParallelRollbackEnabled();
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  private static ExecutorService createFixedThreadPool(int count) {
+    return Executors.newFixedThreadPool(
+        count, new ThreadFactoryBuilder().setNameFormat("parallel-executor-%d").build());
+  }
+
+  /**
+   * Creates an executor that starts a new virtual thread for each task. Since the virtual threads
+   * are available only on JDK 21 or later and this module is built for Java 8, the executor is
+   * created reflectively.
+   *
+   * @return the executor, or null if the running JDK doesn't support virtual threads
+   */
+  @Nullable
+  private static ExecutorService createVirtualThreadExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      logger.warn(
+          "virtual threads are not supported by the running JDK ({}). falling back to the fixed"
+              + " thread pool",
+          System.getProperty("java.version"));
+      return null;
+    }
+  }
+
+  /**
+   * Creates a thread pool with a bounded queue for the specified phase. When the queue is full, the
+   * submitting thread runs the task itself, which throttles the transactions submitting the tasks
+   * instead of queueing them without limit. That would make an asynchronous phase synchronous, so
+   * the tasks of an asynchronous commit or rollback are rejected instead; the records that they
+   * leave behind are recovered lazily like the ones of a crashed client.
+   */
+  private ExecutorService createBoundedThreadPool(Phase phase, int count, int queueSize) {
+    RejectedExecutionHandler handler;
+    if (isAsync(phase)) {
+      PhaseMetrics phaseMetrics = metrics.get(phase);
+      handler =
+          (r, e) -> {
+            phaseMetrics.rejectedTaskCount.incrementAndGet();
+            logger.warn(
+                "the queue of the {} phase is full. the task is rejected and its records will be"
+                    + " recovered lazily",
+                phase.name().toLowerCase());
+          };
+    } else {
+      handler = new ThreadPoolExecutor.CallerRunsPolicy();
+    }
+    return new ThreadPoolExecutor(
+        count,
+        count,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueSize),
+        new ThreadFactoryBuilder()
+            .setNameFormat("parallel-executor-" + phase.name().toLowerCase() + "-%d")
+            .build(),
+        handler);
+  }
+
+  private boolean isAsync(Phase phase) {
+    return (phase == Phase.COMMIT && config.isAsyncCommitEnabled())
+        || (phase == Phase.ROLLBACK && config.isAsyncRollbackEnabled());
   }
 
   public void prepare(List<ParallelExecutorTask> tasks) throws ExecutionException {
     try {
-      executeTasks(tasks, config.isParallelPreparationEnabled(), false);
+      executeTasks(Phase.PREPARE, tasks, config.isParallelPreparationEnabled(), false);
     } catch (CommitConflictException ignored) {
       // tasks for preparation should not throw CommitConflictException
     }
@@ -57,12 +202,13 @@ public class ParallelExecutor {
 
   public void validate(List<ParallelExecutorTask> tasks)
       throws ExecutionException, CommitConflictException {
-    executeTasks(tasks, config.isParallelValidationEnabled(), false);
+    executeTasks(Phase.VALIDATION, tasks, config.isParallelValidationEnabled(), false);
   }
 
   public void commit(List<ParallelExecutorTask> tasks) throws ExecutionException {
     try {
-      executeTasks(tasks, config.isParallelCommitEnabled(), config.isAsyncCommitEnabled());
+      executeTasks(
+          Phase.COMMIT, tasks, config.isParallelCommitEnabled(), config.isAsyncCommitEnabled());
     } catch (CommitConflictException ignored) {
       // tasks for commit should not throw CommitConflictException
     }
@@ -70,26 +216,39 @@ public class ParallelExecutor {
 
   public void rollback(List<ParallelExecutorTask> tasks) throws ExecutionException {
     try {
-      executeTasks(tasks, config.isParallelRollbackEnabled(), config.isAsyncRollbackEnabled());
+      executeTasks(
+          Phase.ROLLBACK,
+          tasks,
+          config.isParallelRollbackEnabled(),
+          config.isAsyncRollbackEnabled());
     } catch (CommitConflictException ignored) {
       // tasks for rollback should not throw CommitConflictException
     }
   }
 
-  private void executeTasks(List<ParallelExecutorTask> tasks, boolean parallel, boolean noWait)
+  private void executeTasks(
+      Phase phase, List<ParallelExecutorTask> tasks, boolean parallel, boolean noWait)
       throws ExecutionException, CommitConflictException {
     List<Future<?>> futures;
     if (parallel) {
-      assert parallelExecutorService != null;
+      ExecutorService executorService = executorServices.get(phase);
+      assert executorService != null;
+      PhaseMetrics phaseMetrics = metrics.get(phase);
       futures =
           tasks.stream()
               .map(
-                  t ->
-                      parallelExecutorService.submit(
-                          () -> {
-                            t.run();
-                            return null;
-                          }))
+                  t -> {
+                    long submittedAt = System.nanoTime();
+                    Future<?> future =
+                        executorService.submit(
+                            () -> {
+                              phaseMetrics.recordWait(System.nanoTime() - submittedAt);
+                              t.run();
+                              return null;
+                            });
+                    phaseMetrics.recordQueueDepth(getQueueDepth(phase));
+                    return future;
+                  })
               .collect(Collectors.toList());
     } else {
       futures = Collections.emptyList();
@@ -121,11 +280,77 @@ public class ParallelExecutor {
     }
   }
 
+  /**
+   * Returns the number of the tasks waiting in the queue of the specified phase. It's always 0
+   * unless the executor has a queue, i.e., the executor type is FIXED or BOUNDED.
+   */
+  public int getQueueDepth(Phase phase) {
+    ExecutorService executorService = executorServices.get(phase);
+    if (executorService instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) executorService).getQueue().size();
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the largest number of the tasks that have waited in the queue of the specified phase.
+   */
+  public int getMaxQueueDepth(Phase phase) {
+    return metrics.get(phase).maxQueueDepth.get();
+  }
+
+  /**
+   * Returns the number of the tasks of the specified phase that were rejected because the queue was
+   * full. Only the tasks of an asynchronous commit or rollback are rejected.
+   */
+  public long getRejectedTaskCount(Phase phase) {
+    return metrics.get(phase).rejectedTaskCount.get();
+  }
+
+  /** Returns the number of the tasks of the specified phase that were executed in parallel. */
+  public long getExecutedTaskCount(Phase phase) {
+    return metrics.get(phase).executedTaskCount.get();
+  }
+
+  /** Returns the total time in nanoseconds the tasks of the specified phase waited to be run. */
+  public long getTotalWaitTimeNanos(Phase phase) {
+    return metrics.get(phase).totalWaitTimeNanos.get();
+  }
+
+  /** Returns the longest time in nanoseconds a task of the specified phase waited to be run. */
+  public long getMaxWaitTimeNanos(Phase phase) {
+    return metrics.get(phase).maxWaitTimeNanos.get();
+  }
+
   @SuppressWarnings("UnstableApiUsage")
   public void close() {
-    if (parallelExecutorService != null) {
-      parallelExecutorService.shutdown();
-      Uninterruptibles.awaitTerminationUninterruptibly(parallelExecutorService);
+    // the same executor can be shared by the phases, so shut down each executor only once
+    Set<ExecutorService> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+    distinct.addAll(executorServices.values());
+    for (ExecutorService executorService : distinct) {
+      executorService.shutdown();
+    }
+    for (ExecutorService executorService : distinct) {
+      Uninterruptibles.awaitTerminationUninterruptibly(executorService);
+    }
+  }
+
+  @ThreadSafe
+  private static class PhaseMetrics {
+    private final AtomicLong executedTaskCount = new AtomicLong();
+    private final AtomicLong totalWaitTimeNanos = new AtomicLong();
+    private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong rejectedTaskCount = new AtomicLong();
+
+    private void recordWait(long waitTimeNanos) {
+      executedTaskCount.incrementAndGet();
+      totalWaitTimeNanos.addAndGet(waitTimeNanos);
+      maxWaitTimeNanos.accumulateAndGet(waitTimeNanos, Math::max);
+    }
+
+    private void recordQueueDepth(int queueDepth) {
+      maxQueueDepth.accumulateAndGet(queueDepth, Math::max);
     }
   }
 }
@@ -0,0 +1,10 @@
+package com.scalar.db.transaction.consensuscommit;
+
+public enum ParallelExecutorType {
+  /** A fixed thread pool shared by all the phases. */
+  FIXED,
+  /** A virtual-thread-per-task executor. It falls back to FIXED on JDKs older than 21. */
+  VIRTUAL,
+  /** A fixed thread pool with a bounded queue for each phase. */
+  BOUNDED,
+}
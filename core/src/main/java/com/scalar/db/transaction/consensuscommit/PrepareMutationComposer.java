@@ -20,20 +20,40 @@ import com.scalar.db.api.TransactionState;
 import com.scalar.db.io.Key;
 import com.scalar.db.io.Value;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.concurrent.NotThreadSafe;
 
 @NotThreadSafe
 public class PrepareMutationComposer extends AbstractMutationComposer {
+  private final boolean deltaBeforeImageEnabled;
 
   public PrepareMutationComposer(String id) {
+    this(id, false);
+  }
+
+  /**
+   * Creates a composer. With delta before images, only the columns that the transaction changes are
+   * copied to their before image columns in the tables that have the marker column, and the marker
+   * records which columns they are.
+   */
+  public PrepareMutationComposer(String id, boolean deltaBeforeImageEnabled) {
     super(id);
+    this.deltaBeforeImageEnabled = deltaBeforeImageEnabled;
   }
 
   @VisibleForTesting
   PrepareMutationComposer(String id, List<Mutation> mutations, long current) {
+    this(id, mutations, current, false);
+  }
+
+  @VisibleForTesting
+  PrepareMutationComposer(
+      String id, List<Mutation> mutations, long current, boolean deltaBeforeImageEnabled) {
     super(id, mutations, current);
+    this.deltaBeforeImageEnabled = deltaBeforeImageEnabled;
   }
 
   @Override
@@ -140,21 +160,40 @@ public class PrepareMutationComposer extends AbstractMutationComposer {
     Key partitionKey = base.getPartitionKey();
     Optional<Key> clusteringKey = getClusteringKey(base, result);
 
+    // the marker is written only for the tables that have it. without delta before images, it's
+    // cleared so that a stale marker doesn't hide the before images of the untouched columns
+    boolean hasMarker = result.contains(Attribute.BEFORE_IMAGE_COLUMNS);
+    boolean delta = deltaBeforeImageEnabled && hasMarker;
+    // a delete doesn't change the columns of the record, so only the metadata is needed
+    Set<String> touchedColumns =
+        base instanceof Put ? ((Put) base).getColumns().keySet() : Collections.emptySet();
+
     List<Value<?>> values = new ArrayList<>();
+    List<String> beforeImageColumns = new ArrayList<>();
     result
         .getValues()
         .values()
         .forEach(
             v -> {
-              if (isBeforeRequired(v, partitionKey, clusteringKey)) {
+              if (!isBeforeRequired(v, partitionKey, clusteringKey)) {
+                return;
+              }
+              if (ConsensusCommitUtils.isAfterImageMetaColumn(v.getName())) {
                 values.add(v.copyWith(Attribute.BEFORE_PREFIX + v.getName()));
+              } else if (!delta || touchedColumns.contains(v.getName())) {
+                values.add(v.copyWith(Attribute.BEFORE_PREFIX + v.getName()));
+                beforeImageColumns.add(v.getName());
               }
             });
+    if (hasMarker) {
+      values.add(Attribute.toBeforeImageColumnsValue(delta ? beforeImageColumns : null));
+    }
     return values;
   }
 
   private boolean isBeforeRequired(Value<?> value, Key primary, Optional<Key> clustering) {
     return !value.getName().startsWith(Attribute.BEFORE_PREFIX)
+        && !value.getName().equals(Attribute.BEFORE_IMAGE_COLUMNS)
         && !isValueInKeys(value, primary, clustering);
   }
 
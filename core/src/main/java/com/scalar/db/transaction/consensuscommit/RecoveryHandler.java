@@ -3,6 +3,8 @@ package com.scalar.db.transaction.consensuscommit;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.scalar.db.api.Consistency;
 import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.Get;
@@ -15,6 +17,12 @@ import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.io.Key;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,14 +34,86 @@ public class RecoveryHandler {
   private final DistributedStorage storage;
   private final Coordinator coordinator;
   private final TransactionTableMetadataManager tableMetadataManager;
+  @Nullable private final ExecutorService recoveryExecutorService;
+  private final Set<Snapshot.Key> recoveringKeys = ConcurrentHashMap.newKeySet();
 
   public RecoveryHandler(
       DistributedStorage storage,
       Coordinator coordinator,
       TransactionTableMetadataManager tableMetadataManager) {
+    this(storage, coordinator, tableMetadataManager, (ExecutorService) null);
+  }
+
+  public RecoveryHandler(
+      DistributedStorage storage,
+      Coordinator coordinator,
+      TransactionTableMetadataManager tableMetadataManager,
+      ConsensusCommitConfig config) {
+    this(
+        storage,
+        coordinator,
+        tableMetadataManager,
+        config.isBeforeImageReadEnabled()
+            ? Executors.newFixedThreadPool(
+                config.getParallelExecutorCount(),
+                new ThreadFactoryBuilder()
+                    .setNameFormat("recovery-executor-%d")
+                    .setDaemon(true)
+                    .build())
+            : null);
+  }
+
+  @VisibleForTesting
+  RecoveryHandler(
+      DistributedStorage storage,
+      Coordinator coordinator,
+      TransactionTableMetadataManager tableMetadataManager,
+      @Nullable ExecutorService recoveryExecutorService) {
     this.storage = checkNotNull(storage);
     this.coordinator = checkNotNull(coordinator);
     this.tableMetadataManager = checkNotNull(tableMetadataManager);
+    this.recoveryExecutorService = recoveryExecutorService;
+  }
+
+  /**
+   * Recovers the record in the background. The recovery of a record that is already being recovered
+   * is skipped, so that the readers of a hot record don't pile up the same recovery.
+   */
+  public void recoverAsync(Selection selection, TransactionResult result) {
+    if (recoveryExecutorService == null) {
+      recover(selection, result);
+      return;
+    }
+
+    Snapshot.Key key =
+        selection instanceof Get
+            ? new Snapshot.Key((Get) selection)
+            : new Snapshot.Key((Scan) selection, result);
+    if (!recoveringKeys.add(key)) {
+      return;
+    }
+    try {
+      recoveryExecutorService.execute(
+          () -> {
+            try {
+              recover(selection, result);
+            } finally {
+              recoveringKeys.remove(key);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      recoveringKeys.remove(key);
+      logger.warn("scheduling a recovery failed. the record will be recovered lazily", e);
+    }
+  }
+
+  /**
+   * Returns the coordinator state of the specified transaction. The finished states are cached by
+   * the coordinator, so looking up the writer of a hot record doesn't hit the storage every time.
+   */
+  public Optional<Coordinator.State> getCoordinatorState(String id, long deadlineMillis)
+      throws CoordinatorException {
+    return coordinator.getState(id, deadlineMillis);
   }
 
   // lazy recovery in read phase
@@ -69,7 +149,7 @@ public class RecoveryHandler {
 
     if (state.isPresent()) {
       if (state.get().getState().equals(TransactionState.COMMITTED)) {
-        rollforwardRecord(selection, latestResult.get());
+        rollforwardRecord(selection, latestResult.get(), state.get().getCreatedAt());
       } else {
         rollbackRecord(selection, latestResult.get());
       }
@@ -125,15 +205,27 @@ public class RecoveryHandler {
     }
   }
 
+  /**
+   * Rolls forward the specified record of a committed transaction.
+   *
+   * @param committedAt the creation time of the COMMITTED state of the transaction, which the
+   *     transaction commits its records with
+   */
   @VisibleForTesting
-  void rollforwardRecord(Selection selection, TransactionResult result) {
+  void rollforwardRecord(Selection selection, TransactionResult result, long committedAt) {
     logger.debug(
         "rollforward for {}, {} mutated by {}",
         selection.getPartitionKey(),
         selection.getClusteringKey(),
         result.getId());
-    CommitMutationComposer composer = new CommitMutationComposer(result.getId());
-    composer.add(selection, result);
+    CommitMutationComposer composer =
+        new CommitMutationComposer(result.getId(), committedAt, tableMetadataManager);
+    try {
+      composer.add(selection, result);
+    } catch (ExecutionException e) {
+      logger.warn("getting a table metadata failed. the record will be eventually recovered", e);
+      return;
+    }
     mutate(composer.get());
   }
 
@@ -158,4 +250,12 @@ public class RecoveryHandler {
       logger.warn("mutation in recovery failed. the record will be eventually recovered", e);
     }
   }
+
+  @SuppressWarnings("UnstableApiUsage")
+  public void close() {
+    if (recoveryExecutorService != null) {
+      recoveryExecutorService.shutdown();
+      Uninterruptibles.awaitTerminationUninterruptibly(recoveryExecutorService);
+    }
+  }
 }
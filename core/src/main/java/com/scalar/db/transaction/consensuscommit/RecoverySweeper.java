@@ -0,0 +1,240 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Mutation;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.ScanAll;
+import com.scalar.db.api.Scanner;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.exception.storage.ExecutionException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A background sweeper that recovers the records left in the PREPARED or DELETED state by crashed
+ * or abandoned transactions. It periodically scans the specified transactional tables at a bounded
+ * rate, resolves the states of the transactions that prepared the records longer than {@link
+ * RecoveryHandler#TRANSACTION_LIFETIME_MILLIS} ago, and rolls the records forward or back in
+ * batches, so that such records don't have to wait to be read to get recovered lazily.
+ */
+@ThreadSafe
+public class RecoverySweeper {
+  private static final Logger logger = LoggerFactory.getLogger(RecoverySweeper.class);
+  private final DistributedStorage storage;
+  private final Coordinator coordinator;
+  private final TransactionTableMetadataManager tableMetadataManager;
+  private final List<String> tables;
+  private final int batchSize;
+  private final RateLimiter rateLimiter;
+  private final ScheduledExecutorService executorService;
+
+  private volatile boolean closed;
+
+  private final AtomicLong scannedRecordCount = new AtomicLong();
+  private final AtomicLong rolledForwardRecordCount = new AtomicLong();
+  private final AtomicLong rolledBackRecordCount = new AtomicLong();
+
+  @SuppressWarnings("UnstableApiUsage")
+  public RecoverySweeper(
+      DistributedStorage storage,
+      Coordinator coordinator,
+      TransactionTableMetadataManager tableMetadataManager,
+      ConsensusCommitConfig config) {
+    this.storage = storage;
+    this.coordinator = coordinator;
+    this.tableMetadataManager = tableMetadataManager;
+    tables = config.getRecoverySweeperTables();
+    batchSize = config.getRecoverySweeperBatchSize();
+    rateLimiter = RateLimiter.create(config.getRecoverySweeperMaxRecordsPerSecond());
+    executorService =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("recovery-sweeper-%d")
+                .setDaemon(true)
+                .build());
+    executorService.scheduleWithFixedDelay(
+        this::sweep,
+        config.getRecoverySweeperIntervalMillis(),
+        config.getRecoverySweeperIntervalMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @VisibleForTesting
+  RecoverySweeper(
+      DistributedStorage storage,
+      Coordinator coordinator,
+      TransactionTableMetadataManager tableMetadataManager,
+      List<String> tables,
+      int batchSize,
+      RateLimiter rateLimiter,
+      ScheduledExecutorService executorService) {
+    this.storage = storage;
+    this.coordinator = coordinator;
+    this.tableMetadataManager = tableMetadataManager;
+    this.tables = tables;
+    this.batchSize = batchSize;
+    this.rateLimiter = rateLimiter;
+    this.executorService = executorService;
+  }
+
+  @VisibleForTesting
+  void sweep() {
+    for (String table : tables) {
+      if (closed) {
+        return;
+      }
+      String[] names = table.split("\\.", -1);
+      try {
+        sweep(names[0], names[1]);
+      } catch (Exception e) {
+        logger.warn("sweeping {} failed. it will be retried in the next round", table, e);
+      }
+    }
+  }
+
+  @SuppressWarnings("UnstableApiUsage")
+  private void sweep(String namespace, String table) throws ExecutionException {
+    logger.debug("sweeping {}.{}", namespace, table);
+
+    // all the columns are needed since the before images are required to roll back the records
+    Scan scan =
+        new ScanAll()
+            .withConsistency(Consistency.LINEARIZABLE)
+            .forNamespace(namespace)
+            .forTable(table);
+
+    List<TransactionResult> batch = new ArrayList<>();
+    try (Scanner scanner = storage.scan(scan)) {
+      Optional<Result> result;
+      while (!closed && (result = scanner.one()).isPresent()) {
+        rateLimiter.acquire();
+        scannedRecordCount.incrementAndGet();
+
+        TransactionResult transactionResult = new TransactionResult(result.get());
+        if (!isStale(transactionResult)) {
+          continue;
+        }
+        batch.add(transactionResult);
+        if (batch.size() >= batchSize) {
+          recover(scan, batch);
+          batch.clear();
+        }
+      }
+    } catch (IOException e) {
+      logger.warn("closing the scanner failed", e);
+    }
+
+    if (!batch.isEmpty()) {
+      recover(scan, batch);
+    }
+  }
+
+  private boolean isStale(TransactionResult result) {
+    if (result.getId() == null) {
+      // the record was loaded without a transaction
+      return false;
+    }
+    TransactionState state = result.getState();
+    if (state != TransactionState.PREPARED && state != TransactionState.DELETED) {
+      return false;
+    }
+    return System.currentTimeMillis()
+        > result.getPreparedAt() + RecoveryHandler.TRANSACTION_LIFETIME_MILLIS;
+  }
+
+  private void recover(Scan scan, List<TransactionResult> batch) {
+    Map<String, List<TransactionResult>> resultsById = new LinkedHashMap<>();
+    batch.forEach(r -> resultsById.computeIfAbsent(r.getId(), k -> new ArrayList<>()).add(r));
+
+    for (Map.Entry<String, List<TransactionResult>> entry : resultsById.entrySet()) {
+      String id = entry.getKey();
+      Optional<Coordinator.State> state = resolveState(id);
+      if (!state.isPresent()) {
+        continue;
+      }
+
+      try {
+        if (state.get().getState() == TransactionState.COMMITTED) {
+          CommitMutationComposer composer =
+              new CommitMutationComposer(id, state.get().getCreatedAt(), tableMetadataManager);
+          for (TransactionResult result : entry.getValue()) {
+            composer.add(scan, result);
+          }
+          mutate(composer.get());
+          rolledForwardRecordCount.addAndGet(entry.getValue().size());
+        } else {
+          RollbackMutationComposer composer =
+              new RollbackMutationComposer(id, storage, tableMetadataManager);
+          for (TransactionResult result : entry.getValue()) {
+            composer.add(scan, result);
+          }
+          mutate(composer.get());
+          rolledBackRecordCount.addAndGet(entry.getValue().size());
+        }
+      } catch (ExecutionException e) {
+        logger.warn("recovering records of {} failed. they will be recovered later", id, e);
+      }
+    }
+  }
+
+  private Optional<Coordinator.State> resolveState(String id) {
+    try {
+      Optional<Coordinator.State> state = coordinator.getState(id);
+      if (state.isPresent()) {
+        return state;
+      }
+
+      // the transaction has expired without writing its state, so abort it
+      Coordinator.State aborted = new Coordinator.State(id, TransactionState.ABORTED);
+      coordinator.putState(aborted);
+      return Optional.of(aborted);
+    } catch (CoordinatorException e) {
+      logger.warn("can't resolve the state of {}. it will be retried later", id, e);
+      return Optional.empty();
+    }
+  }
+
+  private void mutate(List<Mutation> mutations) throws ExecutionException {
+    // the storage can't apply mutations for multiple partitions atomically
+    PartitionedMutations partitionedMutations = new PartitionedMutations(mutations);
+    for (PartitionedMutations.Key key : partitionedMutations.getOrderedKeys()) {
+      storage.mutate(partitionedMutations.get(key));
+    }
+  }
+
+  public long getScannedRecordCount() {
+    return scannedRecordCount.get();
+  }
+
+  public long getRolledForwardRecordCount() {
+    return rolledForwardRecordCount.get();
+  }
+
+  public long getRolledBackRecordCount() {
+    return rolledBackRecordCount.get();
+  }
+
+  @SuppressWarnings("UnstableApiUsage")
+  public void close() {
+    closed = true;
+    executorService.shutdownNow();
+    Uninterruptibles.awaitTerminationUninterruptibly(executorService);
+  }
+}
@@ -22,10 +22,10 @@ import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.io.TextValue;
 import com.scalar.db.io.Value;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,7 +88,7 @@ public class RollbackMutationComposer extends AbstractMutationComposer {
         || result.getState().equals(TransactionState.DELETED);
 
     TransactionTableMetadata metadata = tableMetadataManager.getTransactionTableMetadata(base);
-    LinkedHashSet<String> beforeImageColumnNames = metadata.getBeforeImageColumnNames();
+    Set<String> beforeImageColumnNames = metadata.getBeforeImageColumnNames(result);
 
     Map<String, Value<?>> map = new HashMap<>();
     result
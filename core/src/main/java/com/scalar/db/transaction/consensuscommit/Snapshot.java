@@ -6,6 +6,7 @@ import com.scalar.db.api.Consistency;
 import com.scalar.db.api.Delete;
 import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.Get;
+import com.scalar.db.api.Mutation;
 import com.scalar.db.api.Operation;
 import com.scalar.db.api.Put;
 import com.scalar.db.api.Result;
@@ -16,20 +17,27 @@ import com.scalar.db.api.TableMetadata;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CrudException;
+import com.scalar.db.io.Column;
 import com.scalar.db.transaction.consensuscommit.ParallelExecutor.ParallelExecutorTask;
 import com.scalar.db.util.ScalarDbUtils;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.slf4j.Logger;
@@ -38,15 +46,32 @@ import org.slf4j.LoggerFactory;
 @NotThreadSafe
 public class Snapshot {
   private static final Logger logger = LoggerFactory.getLogger(Snapshot.class);
+
+  /**
+   * The maximum number of records that a validation scan reads per validated record. It bounds the
+   * cost of a scan over a range where the validated records are sparse.
+   */
+  @VisibleForTesting static final int VALIDATION_SCAN_RECORDS_PER_KEY = 4;
+
   private final String id;
   private final Isolation isolation;
   private final SerializableStrategy strategy;
   private final TransactionTableMetadataManager tableMetadataManager;
   private final ParallelExecutor parallelExecutor;
+  private final boolean batchValidationEnabled;
   private final Map<Key, Optional<TransactionResult>> readSet;
   private final Map<Scan, List<Key>> scanSet;
   private final Map<Key, Put> writeSet;
   private final Map<Key, Delete> deleteSet;
+  // An index of the clustering keys in the write set by table and partition key. It's used to check
+  // if a scan overlaps with the write set without walking through the whole write set
+  private final Map<String, Map<com.scalar.db.io.Key, NavigableSet<com.scalar.db.io.Key>>>
+      writeSetIndex = new HashMap<>();
+  // The epoch milliseconds by which this transaction must commit its state
+  private long deadlineMillis = Long.MAX_VALUE;
+  // The commit time of this transaction, which is the creation time of its COMMITTED state
+  private long committedAt;
+  @Nullable private Listener listener;
 
   public Snapshot(
       String id,
@@ -54,14 +79,54 @@ public class Snapshot {
       SerializableStrategy strategy,
       TransactionTableMetadataManager tableMetadataManager,
       ParallelExecutor parallelExecutor) {
+    this(id, isolation, strategy, tableMetadataManager, parallelExecutor, false);
+  }
+
+  public Snapshot(
+      String id,
+      Isolation isolation,
+      SerializableStrategy strategy,
+      TransactionTableMetadataManager tableMetadataManager,
+      ParallelExecutor parallelExecutor,
+      boolean batchValidationEnabled) {
+    this(
+        id,
+        isolation,
+        strategy,
+        tableMetadataManager,
+        parallelExecutor,
+        batchValidationEnabled,
+        0,
+        null);
+  }
+
+  /**
+   * @param writeSetSpillThreshold the number of the puts in the write set kept on the heap. the
+   *     others are spilled to a temporary file. zero if all the puts are kept on the heap
+   * @param writeSetSpillDirectory a directory to create the temporary file in. the default
+   *     temporary-file directory is used if it's null
+   */
+  public Snapshot(
+      String id,
+      Isolation isolation,
+      SerializableStrategy strategy,
+      TransactionTableMetadataManager tableMetadataManager,
+      ParallelExecutor parallelExecutor,
+      boolean batchValidationEnabled,
+      int writeSetSpillThreshold,
+      @Nullable String writeSetSpillDirectory) {
     this.id = id;
     this.isolation = isolation;
     this.strategy = strategy;
     this.tableMetadataManager = tableMetadataManager;
     this.parallelExecutor = parallelExecutor;
+    this.batchValidationEnabled = batchValidationEnabled;
     readSet = new HashMap<>();
     scanSet = new HashMap<>();
-    writeSet = new HashMap<>();
+    writeSet =
+        writeSetSpillThreshold > 0
+            ? new SpillableWriteSet(writeSetSpillThreshold, writeSetSpillDirectory)
+            : new HashMap<>();
     deleteSet = new HashMap<>();
   }
 
@@ -76,15 +141,42 @@ public class Snapshot {
       Map<Scan, List<Key>> scanSet,
       Map<Key, Put> writeSet,
       Map<Key, Delete> deleteSet) {
+    this(
+        id,
+        isolation,
+        strategy,
+        tableMetadataManager,
+        parallelExecutor,
+        false,
+        readSet,
+        scanSet,
+        writeSet,
+        deleteSet);
+  }
+
+  @VisibleForTesting
+  Snapshot(
+      String id,
+      Isolation isolation,
+      SerializableStrategy strategy,
+      TransactionTableMetadataManager tableMetadataManager,
+      ParallelExecutor parallelExecutor,
+      boolean batchValidationEnabled,
+      Map<Key, Optional<TransactionResult>> readSet,
+      Map<Scan, List<Key>> scanSet,
+      Map<Key, Put> writeSet,
+      Map<Key, Delete> deleteSet) {
     this.id = id;
     this.isolation = isolation;
     this.strategy = strategy;
     this.tableMetadataManager = tableMetadataManager;
     this.parallelExecutor = parallelExecutor;
+    this.batchValidationEnabled = batchValidationEnabled;
     this.readSet = readSet;
     this.scanSet = scanSet;
     this.writeSet = writeSet;
     this.deleteSet = deleteSet;
+    writeSet.keySet().forEach(this::addToWriteSetIndex);
   }
 
   @Nonnull
@@ -98,8 +190,54 @@ public class Snapshot {
     return isolation;
   }
 
+  public long getDeadlineMillis() {
+    return deadlineMillis;
+  }
+
+  public void setDeadlineMillis(long deadlineMillis) {
+    this.deadlineMillis = deadlineMillis;
+  }
+
+  /**
+   * Returns the commit time of this transaction. It's the creation time of the COMMITTED state in
+   * the coordinator, so the records committed by the recovery get the same time.
+   */
+  public long getCommittedAt() {
+    return committedAt;
+  }
+
+  public void setCommittedAt(long committedAt) {
+    this.committedAt = committedAt;
+  }
+
+  /**
+   * Returns the latest commit time of the records in the read set. The commit time of this
+   * transaction is chosen after it, so that a transaction is always committed after the
+   * transactions whose records it read even if the clocks of the clients are skewed.
+   *
+   * @return the latest commit time of the read records, or 0 if no committed record is read
+   */
+  public long getLatestReadCommittedAt() {
+    long latest = 0;
+    for (Optional<TransactionResult> result : readSet.values()) {
+      if (result.isPresent()
+          && result.get().isCommitted()
+          && result.get().contains(Attribute.COMMITTED_AT)) {
+        latest = Math.max(latest, result.get().getCommittedAt());
+      }
+    }
+    return latest;
+  }
+
+  public boolean isDeadlineExceeded() {
+    return System.currentTimeMillis() >= deadlineMillis;
+  }
+
   public void put(Key key, Optional<TransactionResult> result) {
     readSet.put(key, result);
+    if (listener != null) {
+      listener.onAccess(this);
+    }
   }
 
   public void put(Scan scan, List<Key> keys) {
@@ -114,20 +252,66 @@ public class Snapshot {
       // merge the previous put in the write set and the new put
       Put originalPut = writeSet.get(key);
       put.getColumns().values().forEach(originalPut::withValue);
+      // put it back since a spilled put is a copy
+      writeSet.put(key, originalPut);
     } else {
       writeSet.put(key, put);
+      addToWriteSetIndex(key);
+    }
+    if (listener != null) {
+      listener.onAccess(this);
     }
   }
 
   public void put(Key key, Delete delete) {
-    writeSet.remove(key);
+    if (writeSet.remove(key) != null) {
+      removeFromWriteSetIndex(key);
+    }
     deleteSet.put(key, delete);
+    if (listener != null) {
+      listener.onAccess(this);
+    }
+  }
+
+  /** Returns the keys of the records in the write and delete sets. */
+  public Set<Key> getWrittenKeys() {
+    Set<Key> keys = new HashSet<>(writeSet.keySet());
+    keys.addAll(deleteSet.keySet());
+    return keys;
+  }
+
+  public int getDeleteSetSize() {
+    return deleteSet.size();
   }
 
   public boolean containsKeyInReadSet(Key key) {
     return readSet.containsKey(key);
   }
 
+  /**
+   * Returns the record in the read set as it was read from the storage, without the writes of this
+   * transaction merged. It might have only some of the columns if it was read with projections.
+   */
+  public Optional<TransactionResult> getFromReadSet(Key key) {
+    return readSet.getOrDefault(key, Optional.empty());
+  }
+
+  /**
+   * Merges the writes of this transaction into the specified record read from the storage. This is
+   * used in READ_COMMITTED isolation, where the records read are not put into the read set.
+   */
+  public Optional<TransactionResult> mergeWrites(Key key, Optional<TransactionResult> result)
+      throws CrudException {
+    if (deleteSet.containsKey(key)) {
+      return Optional.empty();
+    } else if (writeSet.containsKey(key)) {
+      return Optional.of(
+          new TransactionResult(
+              new MergedResult(result, writeSet.get(key), getTableMetadata(key))));
+    }
+    return result;
+  }
+
   public Optional<TransactionResult> get(Key key) throws CrudException {
     if (deleteSet.containsKey(key)) {
       return Optional.empty();
@@ -140,9 +324,14 @@ public class Snapshot {
       } else {
         return readSet.get(key);
       }
+    } else if (writeSet.containsKey(key)) {
+      // the record is inserted by this transaction without being read
+      return Optional.of(
+          new TransactionResult(
+              new MergedResult(Optional.empty(), writeSet.get(key), getTableMetadata(key))));
     }
     throw new IllegalArgumentException(
-        "getting data neither in the read set nor the delete set is not allowed");
+        "getting data neither in the read set, the write set nor the delete set is not allowed");
   }
 
   private TableMetadata getTableMetadata(Key key) throws CrudException {
@@ -177,9 +366,6 @@ public class Snapshot {
   }
 
   public Optional<List<Key>> get(Scan scan) {
-    if (isWriteSetOverlappedWith(scan)) {
-      throw new IllegalArgumentException("reading already written data is not allowed");
-    }
     if (scanSet.containsKey(scan)) {
       return Optional.ofNullable(scanSet.get(scan));
     }
@@ -201,66 +387,162 @@ public class Snapshot {
     }
   }
 
-  private boolean isWriteSetOverlappedWith(Scan scan) {
-    for (Map.Entry<Key, Put> entry : writeSet.entrySet()) {
-      Put put = entry.getValue();
+  /**
+   * Composes the mutations of this transaction like {@link #to(MutationComposer)}, and hands them
+   * to the specified consumer in chunks so that the mutations of a large write set aren't held on
+   * the heap all at once. The write set is iterated in partition order when it spills, and a chunk
+   * is handed at a partition boundary once it has as many mutations as the puts kept on the heap.
+   * The write set that doesn't spill is handed in a single chunk.
+   *
+   * @param composer a composer of the mutations
+   * @param consumer a consumer of the chunks of the composed mutations
+   * @throws ExecutionException if composing or consuming the mutations failed
+   * @throws CommitConflictException if a conflict is detected
+   */
+  public void to(AbstractMutationComposer composer, MutationChunkConsumer consumer)
+      throws ExecutionException, CommitConflictException {
+    toSerializableWithExtraWrite(composer);
 
-      if (scan instanceof ScanAll
-          && put.forNamespace().equals(scan.forNamespace())
-          && put.forTable().equals(scan.forTable())) {
-        return true;
+    int chunkSize =
+        writeSet instanceof SpillableWriteSet
+            ? ((SpillableWriteSet) writeSet).getThreshold()
+            : Integer.MAX_VALUE;
+    Key previousPartition = null;
+    for (Entry<Key, Put> entry : writeSet.entrySet()) {
+      Key partition = toPartitionKey(entry.getKey());
+      if (!partition.equals(previousPartition) && composer.size() >= chunkSize) {
+        consumer.accept(composer.drain());
       }
+      previousPartition = partition;
+      TransactionResult result =
+          readSet.containsKey(entry.getKey()) ? readSet.get(entry.getKey()).orElse(null) : null;
+      composer.add(entry.getValue(), result);
+    }
+    for (Entry<Key, Delete> entry : deleteSet.entrySet()) {
+      TransactionResult result =
+          readSet.containsKey(entry.getKey()) ? readSet.get(entry.getKey()).orElse(null) : null;
+      composer.add(entry.getValue(), result);
+    }
+    if (composer.size() > 0) {
+      consumer.accept(composer.drain());
+    }
+  }
 
-      if (!put.forNamespace().equals(scan.forNamespace())
-          || !put.forTable().equals(scan.forTable())
-          || !put.getPartitionKey().equals(scan.getPartitionKey())) {
-        continue;
-      }
+  /**
+   * Returns the keys of the records that this transaction has written in the range of the specified
+   * scan, so that they can be merged into the scan results. The records deleted by this transaction
+   * are not included since they are removed from the write set.
+   */
+  public List<Key> getWrittenKeys(Scan scan) {
+    String namespace = scan.forNamespace().get();
+    String table = scan.forTable().get();
+    Map<com.scalar.db.io.Key, NavigableSet<com.scalar.db.io.Key>> partitions =
+        writeSetIndex.get(ScalarDbUtils.getFullTableName(namespace, table));
+    if (partitions == null) {
+      return Collections.emptyList();
+    }
 
-      // If partition keys match and a primary key does not have a clustering key
-      if (!put.getClusteringKey().isPresent()) {
-        return true;
+    List<Key> keys = new ArrayList<>();
+    if (scan instanceof ScanAll) {
+      for (Entry<com.scalar.db.io.Key, NavigableSet<com.scalar.db.io.Key>> entry :
+          partitions.entrySet()) {
+        addWrittenKeys(keys, namespace, table, entry.getKey(), entry.getValue());
       }
+      return keys;
+    }
 
-      com.scalar.db.io.Key writtenKey = put.getClusteringKey().get();
-      boolean isStartGiven = scan.getStartClusteringKey().isPresent();
-      boolean isEndGiven = scan.getEndClusteringKey().isPresent();
+    NavigableSet<com.scalar.db.io.Key> writtenKeys = partitions.get(scan.getPartitionKey());
+    if (writtenKeys == null) {
+      return Collections.emptyList();
+    }
+    if (writtenKeys.isEmpty()) {
+      addWrittenKeys(keys, namespace, table, scan.getPartitionKey(), writtenKeys);
+      return keys;
+    }
+    getClusteringKeysInRange(scan, writtenKeys)
+        .forEach(k -> keys.add(new Key(namespace, table, scan.getPartitionKey(), k)));
+    return keys;
+  }
 
-      // If no range is specified, which means it scans the whole partition space
-      if (!isStartGiven && !isEndGiven) {
-        return true;
-      }
+  private void addWrittenKeys(
+      List<Key> keys,
+      String namespace,
+      String table,
+      com.scalar.db.io.Key partitionKey,
+      NavigableSet<com.scalar.db.io.Key> clusteringKeys) {
+    // If a primary key does not have a clustering key
+    if (clusteringKeys.isEmpty()) {
+      keys.add(new Key(namespace, table, partitionKey, null));
+      return;
+    }
+    clusteringKeys.forEach(k -> keys.add(new Key(namespace, table, partitionKey, k)));
+  }
 
-      if (isStartGiven && isEndGiven) {
-        com.scalar.db.io.Key startKey = scan.getStartClusteringKey().get();
-        com.scalar.db.io.Key endKey = scan.getEndClusteringKey().get();
-        // If startKey <= writtenKey <= endKey
-        if ((scan.getStartInclusive() && writtenKey.equals(startKey))
-            || (writtenKey.compareTo(startKey) > 0 && writtenKey.compareTo(endKey) < 0)
-            || (scan.getEndInclusive() && writtenKey.equals(endKey))) {
-          return true;
-        }
-      }
+  private NavigableSet<com.scalar.db.io.Key> getClusteringKeysInRange(
+      Scan scan, NavigableSet<com.scalar.db.io.Key> writtenKeys) {
+    boolean isStartGiven = scan.getStartClusteringKey().isPresent();
+    boolean isEndGiven = scan.getEndClusteringKey().isPresent();
+
+    // If no range is specified, which means it scans the whole partition space
+    if (!isStartGiven && !isEndGiven) {
+      return writtenKeys;
+    }
 
-      if (isStartGiven && !isEndGiven) {
-        com.scalar.db.io.Key startKey = scan.getStartClusteringKey().get();
-        // If startKey <= writtenKey
-        if ((scan.getStartInclusive() && startKey.equals(writtenKey))
-            || writtenKey.compareTo(startKey) > 0) {
-          return true;
+    if (isStartGiven && isEndGiven) {
+      com.scalar.db.io.Key startKey = scan.getStartClusteringKey().get();
+      com.scalar.db.io.Key endKey = scan.getEndClusteringKey().get();
+      int compared = startKey.compareTo(endKey);
+      if (compared > 0) {
+        return Collections.emptyNavigableSet();
+      }
+      if (compared == 0) {
+        if ((scan.getStartInclusive() || scan.getEndInclusive())
+            && writtenKeys.contains(startKey)) {
+          return writtenKeys.subSet(startKey, true, startKey, true);
         }
+        return Collections.emptyNavigableSet();
       }
+      // If startKey <= writtenKey <= endKey
+      return writtenKeys.subSet(startKey, scan.getStartInclusive(), endKey, scan.getEndInclusive());
+    }
 
-      if (!isStartGiven) {
-        com.scalar.db.io.Key endKey = scan.getEndClusteringKey().get();
-        // If writtenKey <= endKey
-        if ((scan.getEndInclusive() && writtenKey.equals(endKey))
-            || writtenKey.compareTo(endKey) < 0) {
-          return true;
-        }
+    if (isStartGiven) {
+      // If startKey <= writtenKey
+      return writtenKeys.tailSet(scan.getStartClusteringKey().get(), scan.getStartInclusive());
+    }
+
+    // If writtenKey <= endKey
+    return writtenKeys.headSet(scan.getEndClusteringKey().get(), scan.getEndInclusive());
+  }
+
+  private void addToWriteSetIndex(Key key) {
+    NavigableSet<com.scalar.db.io.Key> writtenKeys =
+        writeSetIndex
+            .computeIfAbsent(
+                ScalarDbUtils.getFullTableName(key.getNamespace(), key.getTable()),
+                k -> new HashMap<>())
+            .computeIfAbsent(key.getPartitionKey(), k -> new TreeSet<>());
+    key.getClusteringKey().ifPresent(writtenKeys::add);
+  }
+
+  private void removeFromWriteSetIndex(Key key) {
+    String tableName = ScalarDbUtils.getFullTableName(key.getNamespace(), key.getTable());
+    Map<com.scalar.db.io.Key, NavigableSet<com.scalar.db.io.Key>> partitions =
+        writeSetIndex.get(tableName);
+    if (partitions == null) {
+      return;
+    }
+    NavigableSet<com.scalar.db.io.Key> writtenKeys = partitions.get(key.getPartitionKey());
+    if (writtenKeys == null) {
+      return;
+    }
+    key.getClusteringKey().ifPresent(writtenKeys::remove);
+    if (writtenKeys.isEmpty()) {
+      partitions.remove(key.getPartitionKey());
+      if (partitions.isEmpty()) {
+        writeSetIndex.remove(tableName);
       }
     }
-    return false;
   }
 
   @VisibleForTesting
@@ -285,6 +567,7 @@ public class Snapshot {
                 .forNamespace(key.getNamespace())
                 .forTable(key.getTable());
         writeSet.put(entry.getKey(), put);
+        addToWriteSetIndex(entry.getKey());
       } else {
         // For non-existing records, special care is needed to guarantee Serializable. The records
         // are treated as not existed explicitly by preparing DELETED records so that conflicts can
@@ -312,7 +595,24 @@ public class Snapshot {
     if (!isExtraReadEnabled()) {
       return;
     }
+    validateReadSet(storage);
+  }
 
+  /**
+   * Validates the read set of a read-only transaction in SERIALIZABLE regardless of the strategy.
+   * Since it has no writes, checking that all the reads are still the latest makes it serializable
+   * without preparing any records.
+   */
+  public void toSerializableForReadOnly(DistributedStorage storage)
+      throws ExecutionException, CommitConflictException {
+    if (isolation != Isolation.SERIALIZABLE) {
+      return;
+    }
+    validateReadSet(storage);
+  }
+
+  private void validateReadSet(DistributedStorage storage)
+      throws ExecutionException, CommitConflictException {
     List<ParallelExecutorTask> tasks = new ArrayList<>();
 
     // Read set by scan is re-validated to check if there is no anti-dependency
@@ -328,6 +628,7 @@ public class Snapshot {
               scan.clearProjections();
               scan.withProjection(Attribute.ID).withProjection(Attribute.VERSION);
               ScalarDbUtils.addProjectionsForKeys(scan, getTableMetadata(scan));
+              scan.withDeadlineMillis(deadlineMillis);
               scanner = storage.scan(scan);
               for (Result result : scanner) {
                 TransactionResult transactionResult = new TransactionResult(result);
@@ -373,36 +674,152 @@ public class Snapshot {
     }
 
     // Read set by get is re-validated to check if there is no anti-dependency
-    for (Map.Entry<Key, Optional<TransactionResult>> entry : readSet.entrySet()) {
-      Key key = entry.getKey();
+    List<Key> keysToValidate = new ArrayList<>();
+    for (Key key : readSet.keySet()) {
       if (writeSet.containsKey(key)
           || deleteSet.containsKey(key)
           || validatedReadSetByScan.contains(key)) {
         continue;
       }
+      keysToValidate.add(key);
+    }
 
-      tasks.add(
-          () -> {
-            // only get tx_id and tx_version columns because we use only them to compare
-            Get get =
-                new Get(key.getPartitionKey(), key.getClusteringKey().orElse(null))
-                    .withProjection(Attribute.ID)
-                    .withProjection(Attribute.VERSION)
-                    .withConsistency(Consistency.LINEARIZABLE)
-                    .forNamespace(key.getNamespace())
-                    .forTable(key.getTable());
-
-            Optional<TransactionResult> latestResult = storage.get(get).map(TransactionResult::new);
-            // Check if a read record is not changed
-            if (isChanged(latestResult, entry.getValue())) {
-              throwExceptionDueToAntiDependency();
-            }
-          });
+    if (batchValidationEnabled) {
+      // Records in the same partition are validated with a single scan
+      Map<Key, List<Key>> keysByPartition = new LinkedHashMap<>();
+      for (Key key : keysToValidate) {
+        keysByPartition.computeIfAbsent(toPartitionKey(key), k -> new ArrayList<>()).add(key);
+      }
+      for (List<Key> keys : keysByPartition.values()) {
+        if (keys.size() == 1) {
+          tasks.add(() -> validateByGet(storage, keys.get(0)));
+        } else {
+          tasks.add(() -> validateByScan(storage, keys));
+        }
+      }
+    } else {
+      for (Key key : keysToValidate) {
+        tasks.add(() -> validateByGet(storage, key));
+      }
     }
 
     parallelExecutor.validate(tasks);
   }
 
+  private void validateByGet(DistributedStorage storage, Key key)
+      throws ExecutionException, CommitConflictException {
+    // only get tx_id and tx_version columns because we use only them to compare
+    Get get =
+        new Get(key.getPartitionKey(), key.getClusteringKey().orElse(null))
+            .withProjection(Attribute.ID)
+            .withProjection(Attribute.VERSION)
+            .withConsistency(Consistency.LINEARIZABLE)
+            .forNamespace(key.getNamespace())
+            .forTable(key.getTable());
+    get.withDeadlineMillis(deadlineMillis);
+
+    Optional<TransactionResult> latestResult = storage.get(get).map(TransactionResult::new);
+    // Check if a read record is not changed
+    if (isChanged(latestResult, readSet.get(key))) {
+      throwExceptionDueToAntiDependency();
+    }
+  }
+
+  /**
+   * Validates the records in the same partition with a single scan. The scan ranges over the last
+   * clustering key column that the records don't share, so it may return records that are not in
+   * the read set, and they are skipped without being kept. The scan stops once all the records are
+   * seen, and it's bounded by {@link #VALIDATION_SCAN_RECORDS_PER_KEY} records per validated
+   * record, so when the records are sparse in the range, the ones that the scan didn't reach are
+   * validated by gets instead.
+   */
+  private void validateByScan(DistributedStorage storage, List<Key> keys)
+      throws ExecutionException, CommitConflictException {
+    List<List<Column<?>>> clusteringKeys =
+        keys.stream()
+            .map(k -> k.getClusteringKey().get().getColumns())
+            .collect(Collectors.toList());
+
+    // find the prefix of the clustering key that all the records share
+    List<Column<?>> first = clusteringKeys.get(0);
+    int prefixLength = 0;
+    while (prefixLength < first.size() - 1) {
+      Column<?> column = first.get(prefixLength);
+      int index = prefixLength;
+      if (!clusteringKeys.stream().allMatch(k -> k.get(index).equals(column))) {
+        break;
+      }
+      prefixLength++;
+    }
+    int rangeIndex = prefixLength;
+    List<Column<?>> rangeColumns =
+        clusteringKeys.stream().map(k -> k.get(rangeIndex)).collect(Collectors.toList());
+    com.scalar.db.io.Key.Builder start = com.scalar.db.io.Key.newBuilder();
+    com.scalar.db.io.Key.Builder end = com.scalar.db.io.Key.newBuilder();
+    first.subList(0, prefixLength).forEach(start::add);
+    first.subList(0, prefixLength).forEach(end::add);
+    start.add(Collections.min(rangeColumns, ConsensusCommitUtils::compareColumns));
+    end.add(Collections.max(rangeColumns, ConsensusCommitUtils::compareColumns));
+
+    Key key = keys.get(0);
+    int limit = keys.size() * VALIDATION_SCAN_RECORDS_PER_KEY;
+    // only get tx_id and tx_version columns because we use only them to compare
+    Scan scan =
+        new Scan(key.getPartitionKey())
+            .withStart(start.build(), true)
+            .withEnd(end.build(), true)
+            .withProjection(Attribute.ID)
+            .withProjection(Attribute.VERSION)
+            .withConsistency(Consistency.LINEARIZABLE)
+            .withLimit(limit)
+            .forNamespace(key.getNamespace())
+            .forTable(key.getTable());
+    ScalarDbUtils.addProjectionsForKeys(scan, getTableMetadata(scan));
+    scan.withDeadlineMillis(deadlineMillis);
+
+    Set<Key> remainingKeys = new HashSet<>(keys);
+    int scanned = 0;
+    Scanner scanner = null;
+    try {
+      scanner = storage.scan(scan);
+      for (Result result : scanner) {
+        scanned++;
+        Key k = new Key(scan, result);
+        if (remainingKeys.remove(k)) {
+          // Check if read records are not changed
+          if (isChanged(Optional.of(new TransactionResult(result)), readSet.get(k))) {
+            throwExceptionDueToAntiDependency();
+          }
+          if (remainingKeys.isEmpty()) {
+            break;
+          }
+        }
+      }
+    } finally {
+      if (scanner != null) {
+        try {
+          scanner.close();
+        } catch (IOException e) {
+          logger.warn("failed to close the scanner", e);
+        }
+      }
+    }
+
+    for (Key k : remainingKeys) {
+      if (scanned >= limit) {
+        // the scan didn't reach the record
+        validateByGet(storage, k);
+      } else if (isChanged(Optional.empty(), readSet.get(k))) {
+        throwExceptionDueToAntiDependency();
+      }
+    }
+  }
+
+  private static Key toPartitionKey(Key key) {
+    return new Key(
+        new Get(key.getPartitionKey()).forNamespace(key.getNamespace()).forTable(key.getTable()));
+  }
+
   private boolean isChanged(
       Optional<TransactionResult> latestResult, Optional<TransactionResult> result) {
     if (latestResult.isPresent() != result.isPresent()) {
@@ -428,10 +845,90 @@ public class Snapshot {
     return isolation == Isolation.SERIALIZABLE && strategy == SerializableStrategy.EXTRA_READ;
   }
 
+  /**
+   * Returns whether the records read by this transaction are written back when it commits, as in
+   * the EXTRA_WRITE strategy. Such records need to be read entirely, since their before images are
+   * prepared from the records in the read set.
+   */
+  public boolean isReadSetWrittenBack() {
+    return isolation == Isolation.SERIALIZABLE && strategy == SerializableStrategy.EXTRA_WRITE;
+  }
+
   public boolean isPreCommitValidationRequired() {
     return isExtraReadEnabled();
   }
 
+  /**
+   * Returns whether the transaction can be committed in one phase. It's possible when all the
+   * writes and deletes go to a single partition and all the conflicts can be detected by the
+   * conditions of the mutations.
+   *
+   * @return whether the transaction can be committed in one phase
+   */
+  public boolean isOnePhaseCommitApplicable() {
+    if (writeSet.isEmpty() && deleteSet.isEmpty()) {
+      return false;
+    }
+
+    if (isolation == Isolation.SERIALIZABLE) {
+      // Records that are read but not written need to be validated or prepared separately
+      if (!scanSet.isEmpty()) {
+        return false;
+      }
+      for (Key key : readSet.keySet()) {
+        if (!writeSet.containsKey(key) && !deleteSet.containsKey(key)) {
+          return false;
+        }
+      }
+    }
+
+    for (Key key : deleteSet.keySet()) {
+      // Deleting a record that doesn't exist can't be conditioned without preparing it
+      if (!readSet.containsKey(key) || !readSet.get(key).isPresent()) {
+        return false;
+      }
+    }
+
+    // the keys are used instead of the puts so that the spilled puts aren't read back
+    Set<Key> partitions = new HashSet<>();
+    writeSet.keySet().forEach(k -> partitions.add(toPartitionKey(k)));
+    deleteSet.keySet().forEach(k -> partitions.add(toPartitionKey(k)));
+    return partitions.size() == 1;
+  }
+
+  /**
+   * Releases the resources of the write set, i.e., the temporary file of the spilled puts. It must
+   * be called after the records are committed or rolled back.
+   */
+  public void close() {
+    if (writeSet instanceof SpillableWriteSet) {
+      ((SpillableWriteSet) writeSet).close();
+    }
+    if (listener != null) {
+      listener.onClose(this);
+    }
+  }
+
+  /**
+   * Sets the listener of the reads and writes to this snapshot and its closing, which the
+   * transaction manager uses to close the snapshots of the transactions dropped without being
+   * committed or rolled back.
+   */
+  void setListener(@Nullable Listener listener) {
+    this.listener = listener;
+  }
+
+  interface Listener {
+    void onAccess(Snapshot snapshot);
+
+    void onClose(Snapshot snapshot);
+  }
+
+  @FunctionalInterface
+  public interface MutationChunkConsumer {
+    void accept(List<Mutation> mutations) throws ExecutionException, CommitConflictException;
+  }
+
   @Immutable
   public static final class Key implements Comparable<Key> {
     private final String namespace;
@@ -458,6 +955,17 @@ public class Snapshot {
       this.clusteringKey = result.getClusteringKey();
     }
 
+    private Key(
+        String namespace,
+        String table,
+        com.scalar.db.io.Key partitionKey,
+        @Nullable com.scalar.db.io.Key clusteringKey) {
+      this.namespace = namespace;
+      this.table = table;
+      this.partitionKey = partitionKey;
+      this.clusteringKey = Optional.ofNullable(clusteringKey);
+    }
+
     private Key(Operation operation) {
       namespace = operation.forNamespace().get();
       table = operation.forTable().get();
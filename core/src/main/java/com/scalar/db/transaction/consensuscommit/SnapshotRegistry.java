@@ -0,0 +1,84 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.scalar.db.util.ActiveExpiringMap;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A registry of the snapshots whose puts can spill to temporary files. A snapshot is closed, and
+ * its temporary file is deleted, when its transaction is committed or rolled back, but a
+ * transaction can be dropped without either of them. The registry closes the snapshot of such a
+ * transaction when it isn't accessed for its lifetime, and closes the remaining snapshots when the
+ * transaction manager is closed.
+ */
+@ThreadSafe
+class SnapshotRegistry implements Snapshot.Listener {
+  private static final Logger logger = LoggerFactory.getLogger(SnapshotRegistry.class);
+  private static final long SNAPSHOT_EXPIRATION_INTERVAL_MILLIS = 1000;
+
+  private final ActiveExpiringMap<String, Snapshot> snapshots;
+
+  SnapshotRegistry(long snapshotLifetimeMillis) {
+    this(
+        new ActiveExpiringMap<>(
+            snapshotLifetimeMillis,
+            SNAPSHOT_EXPIRATION_INTERVAL_MILLIS,
+            s -> {
+              logger.warn(
+                  "the transaction is dropped without being committed or rolled back. "
+                      + "closing its snapshot. transactionId: {}",
+                  s.getId());
+              s.close();
+            }));
+  }
+
+  /**
+   * Creates a registry if the puts can spill. A snapshot expires after the transaction timeout, or
+   * after the lifetime of a two-phase commit transaction if the timeout is disabled.
+   */
+  @Nullable
+  static SnapshotRegistry create(ConsensusCommitConfig config) {
+    if (config.getLargeTransactionSpillThreshold() <= 0) {
+      return null;
+    }
+    return new SnapshotRegistry(
+        config.getTransactionTimeoutMillis() > 0
+            ? config.getTransactionTimeoutMillis()
+            : TwoPhaseConsensusCommitManager.TRANSACTION_LIFETIME_MILLIS);
+  }
+
+  @VisibleForTesting
+  SnapshotRegistry(ActiveExpiringMap<String, Snapshot> snapshots) {
+    this.snapshots = snapshots;
+  }
+
+  public void register(Snapshot snapshot) {
+    snapshot.setListener(this);
+    snapshots.put(snapshot.getId(), snapshot);
+  }
+
+  @Override
+  public void onAccess(Snapshot snapshot) {
+    snapshots.updateExpirationTime(snapshot.getId());
+  }
+
+  @Override
+  public void onClose(Snapshot snapshot) {
+    snapshots.remove(snapshot.getId());
+  }
+
+  /** Returns the number of the snapshots that are neither committed nor rolled back yet. */
+  public int getActiveCount() {
+    return snapshots.getActiveCount();
+  }
+
+  public void close() {
+    // the values are copied, so closing a snapshot, which removes it from the map, is safe here
+    for (Snapshot snapshot : snapshots.values()) {
+      snapshot.close();
+    }
+  }
+}
@@ -0,0 +1,410 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Sets;
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.Put;
+import com.scalar.db.api.PutBuilder;
+import com.scalar.db.io.BigIntColumn;
+import com.scalar.db.io.BlobColumn;
+import com.scalar.db.io.BooleanColumn;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.DoubleColumn;
+import com.scalar.db.io.FloatColumn;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.TextColumn;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A write set of a snapshot that spills the puts beyond a threshold to a temporary file so that a
+ * transaction writing a large number of records doesn't hold all the puts on the heap. The first
+ * puts up to the threshold are kept on the heap, and the others are appended to the file in a
+ * compact binary encoding and read back when they are needed. Only the keys of the spilled puts and
+ * their offsets in the file are kept on the heap.
+ *
+ * <p>The entries are iterated in the order of the keys, i.e., grouped by partition, so that the
+ * mutations composed from them are streamed in partition order. The puts with conditions are never
+ * spilled since the encoding doesn't cover them.
+ *
+ * <p>The puts returned by this write set may be copies of the stored ones, so they must be put
+ * again after they are modified.
+ */
+@NotThreadSafe
+class SpillableWriteSet extends AbstractMap<Snapshot.Key, Put> implements Closeable {
+  private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+  private final int threshold;
+  @Nullable private final Path directory;
+  private final Map<Snapshot.Key, Put> inMemory = new HashMap<>();
+  // the offsets of the spilled puts in the file
+  private final Map<Snapshot.Key, Long> spilled = new HashMap<>();
+
+  @Nullable private Path path;
+  @Nullable private FileChannel channel;
+  private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+  // the size of the file excluding the entries still in the write buffer
+  private long flushedSize;
+  private boolean closed;
+
+  /**
+   * @param threshold the maximum number of puts kept on the heap
+   * @param directory a directory to create the temporary file in. the default temporary-file
+   *     directory is used if it's null
+   */
+  public SpillableWriteSet(int threshold, @Nullable String directory) {
+    checkArgument(threshold >= 0, "the threshold must not be negative");
+    this.threshold = threshold;
+    this.directory = directory == null ? null : Paths.get(directory);
+  }
+
+  @Override
+  public int size() {
+    return inMemory.size() + spilled.size();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return inMemory.containsKey(key) || spilled.containsKey(key);
+  }
+
+  @Override
+  @Nullable
+  public Put get(Object key) {
+    Put put = inMemory.get(key);
+    if (put != null) {
+      return put;
+    }
+    Long offset = spilled.get(key);
+    return offset == null ? null : read((Snapshot.Key) key, offset);
+  }
+
+  @Override
+  @Nullable
+  public Put put(Snapshot.Key key, Put put) {
+    if (inMemory.containsKey(key)) {
+      return inMemory.put(key, put);
+    }
+    Put previous = remove(key);
+    if (inMemory.size() < threshold || put.getCondition().isPresent()) {
+      inMemory.put(key, put);
+    } else {
+      spilled.put(key, write(put));
+    }
+    return previous;
+  }
+
+  @Override
+  @Nullable
+  public Put remove(Object key) {
+    Put put = inMemory.remove(key);
+    if (put != null) {
+      return put;
+    }
+    // the space of the removed put in the file isn't reused
+    Long offset = spilled.remove(key);
+    return offset == null ? null : read((Snapshot.Key) key, offset);
+  }
+
+  @Override
+  public void clear() {
+    inMemory.clear();
+    spilled.clear();
+  }
+
+  @Override
+  public Set<Snapshot.Key> keySet() {
+    return Collections.unmodifiableSet(Sets.union(inMemory.keySet(), spilled.keySet()));
+  }
+
+  /**
+   * Returns the entries in the order of the keys. The spilled puts are read lazily while iterating,
+   * so only one of them is on the heap at a time unless the caller keeps them.
+   */
+  @Override
+  public Set<Entry<Snapshot.Key, Put>> entrySet() {
+    return new AbstractSet<Entry<Snapshot.Key, Put>>() {
+      @Override
+      public Iterator<Entry<Snapshot.Key, Put>> iterator() {
+        List<Snapshot.Key> keys = new ArrayList<>(size());
+        keys.addAll(inMemory.keySet());
+        keys.addAll(spilled.keySet());
+        Collections.sort(keys);
+        Iterator<Snapshot.Key> iterator = keys.iterator();
+        return new Iterator<Entry<Snapshot.Key, Put>>() {
+          @Override
+          public boolean hasNext() {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public Entry<Snapshot.Key, Put> next() {
+            if (!iterator.hasNext()) {
+              throw new NoSuchElementException();
+            }
+            Snapshot.Key key = iterator.next();
+            return new SimpleImmutableEntry<>(key, get(key));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return SpillableWriteSet.this.size();
+      }
+    };
+  }
+
+  /** Returns the maximum number of puts kept on the heap. */
+  int getThreshold() {
+    return threshold;
+  }
+
+  @VisibleForTesting
+  int getSpilledCount() {
+    return spilled.size();
+  }
+
+  private long write(Put put) {
+    checkState(!closed, "the write set has already been closed");
+    byte[] bytes = encode(put);
+    try {
+      if (channel == null) {
+        path =
+            directory == null
+                ? Files.createTempFile("scalardb-write-set-", ".tmp")
+                : Files.createTempFile(directory, "scalardb-write-set-", ".tmp");
+        channel =
+            FileChannel.open(
+                path,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+      }
+      long offset = flushedSize + writeBuffer.position();
+      if (writeBuffer.remaining() < Integer.BYTES + bytes.length) {
+        flush();
+      }
+      if (writeBuffer.remaining() < Integer.BYTES + bytes.length) {
+        // too large to be buffered
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length).put(bytes).flip();
+        writeFully(buffer);
+      } else {
+        writeBuffer.putInt(bytes.length).put(bytes);
+      }
+      return offset;
+    } catch (IOException e) {
+      throw new UncheckedIOException("spilling the write set failed", e);
+    }
+  }
+
+  private void flush() throws IOException {
+    writeBuffer.flip();
+    writeFully(writeBuffer);
+    writeBuffer.clear();
+  }
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    assert channel != null;
+    while (buffer.hasRemaining()) {
+      flushedSize += channel.write(buffer, flushedSize);
+    }
+  }
+
+  private Put read(Snapshot.Key key, long offset) {
+    checkState(!closed, "the write set has already been closed");
+    assert channel != null;
+    try {
+      if (offset >= flushedSize) {
+        flush();
+      }
+      ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+      readFully(length, offset);
+      ByteBuffer bytes = ByteBuffer.allocate(length.getInt(0));
+      readFully(bytes, offset + Integer.BYTES);
+      return decode(key, bytes.array());
+    } catch (IOException e) {
+      throw new UncheckedIOException("reading the spilled write set failed", e);
+    }
+  }
+
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    assert channel != null;
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position + buffer.position());
+      if (read < 0) {
+        throw new IOException("unexpected end of the spilled write set");
+      }
+    }
+  }
+
+  /**
+   * Releases the temporary file. The keys are still available after closing, but the spilled puts
+   * aren't.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException("closing the spilled write set failed", e);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  @Nullable
+  Path getPath() {
+    return path;
+  }
+
+  /**
+   * Encodes the consistency and the columns of the specified put. The namespace, the table, and the
+   * keys are restored from the key of the write set.
+   */
+  @VisibleForTesting
+  static byte[] encode(Put put) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(put.getConsistency().ordinal());
+      Map<String, Column<?>> columns = put.getColumns();
+      out.writeInt(columns.size());
+      for (Column<?> column : columns.values()) {
+        writeString(out, column.getName());
+        out.writeByte(column.getDataType().ordinal());
+        out.writeBoolean(column.hasNullValue());
+        if (column.hasNullValue()) {
+          continue;
+        }
+        switch (column.getDataType()) {
+          case BOOLEAN:
+            out.writeBoolean(column.getBooleanValue());
+            break;
+          case INT:
+            out.writeInt(column.getIntValue());
+            break;
+          case BIGINT:
+            out.writeLong(column.getBigIntValue());
+            break;
+          case FLOAT:
+            out.writeFloat(column.getFloatValue());
+            break;
+          case DOUBLE:
+            out.writeDouble(column.getDoubleValue());
+            break;
+          case TEXT:
+            writeString(out, column.getTextValue());
+            break;
+          case BLOB:
+            writeBytes(out, column.getBlobValueAsBytes());
+            break;
+          default:
+            throw new AssertionError();
+        }
+      }
+    } catch (IOException e) {
+      // never happens since it's written to a byte array
+      throw new AssertionError(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  @VisibleForTesting
+  static Put decode(Snapshot.Key key, byte[] bytes) {
+    PutBuilder.Buildable builder =
+        Put.newBuilder()
+            .namespace(key.getNamespace())
+            .table(key.getTable())
+            .partitionKey(key.getPartitionKey());
+    key.getClusteringKey().ifPresent(builder::clusteringKey);
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      builder.consistency(Consistency.values()[in.readByte()]);
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        String name = readString(in);
+        DataType dataType = DataType.values()[in.readByte()];
+        boolean isNull = in.readBoolean();
+        builder.value(readColumn(in, name, dataType, isNull));
+      }
+    } catch (IOException e) {
+      // never happens since it's read from a byte array
+      throw new AssertionError(e);
+    }
+    return builder.build();
+  }
+
+  private static Column<?> readColumn(
+      DataInputStream in, String name, DataType dataType, boolean isNull) throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        return isNull ? BooleanColumn.ofNull(name) : BooleanColumn.of(name, in.readBoolean());
+      case INT:
+        return isNull ? IntColumn.ofNull(name) : IntColumn.of(name, in.readInt());
+      case BIGINT:
+        return isNull ? BigIntColumn.ofNull(name) : BigIntColumn.of(name, in.readLong());
+      case FLOAT:
+        return isNull ? FloatColumn.ofNull(name) : FloatColumn.of(name, in.readFloat());
+      case DOUBLE:
+        return isNull ? DoubleColumn.ofNull(name) : DoubleColumn.of(name, in.readDouble());
+      case TEXT:
+        return isNull ? TextColumn.ofNull(name) : TextColumn.of(name, readString(in));
+      case BLOB:
+        return isNull ? BlobColumn.ofNull(name) : BlobColumn.of(name, readBytes(in));
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return new String(readBytes(in), StandardCharsets.UTF_8);
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+    out.writeInt(value.length);
+    out.write(value);
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    byte[] value = new byte[in.readInt()];
+    in.readFully(value);
+    return value;
+  }
+}
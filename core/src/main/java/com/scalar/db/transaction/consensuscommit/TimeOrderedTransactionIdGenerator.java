@@ -0,0 +1,93 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@code TransactionIdGenerator} that generates 26-character IDs that are ordered by the node ID
+ * and the generation time. An ID is the Crockford's Base32 encoding of a 128-bit value that
+ * consists of the following fields:
+ *
+ * <ul>
+ *   <li>a 32-bit node ID that is random by default,
+ *   <li>a 48-bit timestamp in milliseconds, and
+ *   <li>a 48-bit sequence number.
+ * </ul>
+ *
+ * <p>The sequence numbers are unique within a generator since each thread takes a block of them
+ * from a shared counter and increments its own number in the block, so generating an ID doesn't
+ * need a lock or a CAS most of the time. The counter starts at a random number, so the IDs of the
+ * generators that have the same node ID are still unlikely to collide. IDs generated by the clients
+ * of a node are ordered by time, so they are appended to a few regions of the index of the
+ * coordinator table instead of being scattered across it.
+ */
+@ThreadSafe
+public class TimeOrderedTransactionIdGenerator implements TransactionIdGenerator {
+  private static final char[] ENCODING = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+  private static final int ID_LENGTH = 26;
+  private static final long TIMESTAMP_MASK = (1L << 48) - 1;
+  private static final long SEQUENCE_MASK = (1L << 48) - 1;
+  @VisibleForTesting static final int SEQUENCE_BLOCK_SIZE = 1024;
+
+  private final long nodeId;
+  private final LongSupplier clock;
+  private final AtomicLong sequence;
+  private final ThreadLocal<SequenceBlock> sequenceBlock =
+      ThreadLocal.withInitial(SequenceBlock::new);
+
+  public TimeOrderedTransactionIdGenerator() {
+    this(ThreadLocalRandom.current().nextInt());
+  }
+
+  /**
+   * Creates a generator with the specified node ID. The node ID must be unique across the nodes
+   * that run at the same time to guarantee the uniqueness of the IDs.
+   *
+   * @param nodeId a node ID
+   */
+  public TimeOrderedTransactionIdGenerator(int nodeId) {
+    this(nodeId, System::currentTimeMillis, ThreadLocalRandom.current().nextLong());
+  }
+
+  @VisibleForTesting
+  TimeOrderedTransactionIdGenerator(int nodeId, LongSupplier clock, long initialSequence) {
+    this.nodeId = nodeId & 0xFFFFFFFFL;
+    this.clock = clock;
+    sequence = new AtomicLong(initialSequence);
+  }
+
+  @Override
+  public String generate() {
+    long timestamp = clock.getAsLong() & TIMESTAMP_MASK;
+    long seq = sequenceBlock.get().next() & SEQUENCE_MASK;
+    return encode((nodeId << 32) | (timestamp >>> 16), (timestamp << 48) | seq);
+  }
+
+  @VisibleForTesting
+  static String encode(long high, long low) {
+    // 26 characters of 5 bits cover 130 bits, and the highest 2 bits are always zero
+    char[] chars = new char[ID_LENGTH];
+    for (int i = ID_LENGTH - 1; i >= 0; i--) {
+      chars[i] = ENCODING[(int) (low & 0x1F)];
+      low = (low >>> 5) | (high << 59);
+      high >>>= 5;
+    }
+    return new String(chars);
+  }
+
+  private class SequenceBlock {
+    private long next;
+    private long limit;
+
+    private long next() {
+      if (next == limit) {
+        next = sequence.getAndAdd(SEQUENCE_BLOCK_SIZE);
+        limit = next + SEQUENCE_BLOCK_SIZE;
+      }
+      return next++;
+    }
+  }
+}
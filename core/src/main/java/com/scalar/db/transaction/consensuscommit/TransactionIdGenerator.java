@@ -0,0 +1,24 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A generator of the IDs of the transactions that are begun without a specified ID. An
+ * implementation can be plugged in by specifying its class name in {@link
+ * ConsensusCommitConfig#TRANSACTION_ID_GENERATOR}. The class must have a public constructor with no
+ * parameters.
+ *
+ * <p>The generated IDs must be unique across all the clients that share the coordinator table,
+ * including the ones that ran in the past, since the coordinator state of a transaction is
+ * identified by its ID.
+ */
+@ThreadSafe
+public interface TransactionIdGenerator {
+
+  /**
+   * Generates a new transaction ID.
+   *
+   * @return a new transaction ID
+   */
+  String generate();
+}
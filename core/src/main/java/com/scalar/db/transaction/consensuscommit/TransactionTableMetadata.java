@@ -7,8 +7,10 @@ import com.scalar.db.io.DataType;
 import com.scalar.db.util.ImmutableLinkedHashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
 @Immutable
@@ -18,9 +20,20 @@ public class TransactionTableMetadata {
   private final ImmutableLinkedHashSet<String> transactionMetaColumnNames;
   private final ImmutableLinkedHashSet<String> beforeImageColumnNames;
   private final ImmutableLinkedHashSet<String> afterImageColumnNames;
+  @Nullable private final TableMetadata versionTableMetadata;
 
   public TransactionTableMetadata(TableMetadata tableMetadata) {
+    this(tableMetadata, null);
+  }
+
+  /**
+   * Creates a metadata of a multi-versioned table, whose committed versions are kept in the version
+   * table of the specified metadata.
+   */
+  public TransactionTableMetadata(
+      TableMetadata tableMetadata, @Nullable TableMetadata versionTableMetadata) {
     this.tableMetadata = tableMetadata;
+    this.versionTableMetadata = versionTableMetadata;
     transactionMetaColumnNames =
         new ImmutableLinkedHashSet<>(
             tableMetadata.getColumnNames().stream()
@@ -42,6 +55,15 @@ public class TransactionTableMetadata {
     return tableMetadata;
   }
 
+  /**
+   * Returns the metadata of the version table if the table is multi-versioned.
+   *
+   * @return an {@code Optional} with the metadata of the version table
+   */
+  public Optional<TableMetadata> getVersionTableMetadata() {
+    return Optional.ofNullable(versionTableMetadata);
+  }
+
   public LinkedHashSet<String> getColumnNames() {
     return tableMetadata.getColumnNames();
   }
@@ -81,4 +103,29 @@ public class TransactionTableMetadata {
   public LinkedHashSet<String> getAfterImageColumnNames() {
     return afterImageColumnNames;
   }
+
+  /**
+   * Returns the names of the before image columns that hold the before image of the specified
+   * record. When the record is prepared with delta before images, the before image columns of the
+   * columns that the transaction didn't touch are stale, so they are excluded. The current values
+   * of such columns are their before images.
+   *
+   * @param result a record of this table
+   * @return the names of the before image columns that hold the before image of the record
+   */
+  public Set<String> getBeforeImageColumnNames(TransactionResult result) {
+    if (!result.contains(Attribute.BEFORE_IMAGE_COLUMNS)
+        || result.isNull(Attribute.BEFORE_IMAGE_COLUMNS)) {
+      return beforeImageColumnNames;
+    }
+    String beforeImageColumns = result.getText(Attribute.BEFORE_IMAGE_COLUMNS);
+    return beforeImageColumnNames.stream()
+        .filter(
+            c -> {
+              String afterImageColumn = c.substring(Attribute.BEFORE_PREFIX.length());
+              return ConsensusCommitUtils.isAfterImageMetaColumn(afterImageColumn)
+                  || Attribute.isInBeforeImageColumns(beforeImageColumns, afterImageColumn);
+            })
+        .collect(Collectors.toSet());
+  }
 }
@@ -17,9 +17,20 @@ import javax.annotation.concurrent.ThreadSafe;
 public class TransactionTableMetadataManager {
 
   private final LoadingCache<TableKey, Optional<TransactionTableMetadata>> tableMetadataCache;
+  private final boolean multiVersionEnabled;
 
   public TransactionTableMetadataManager(
       DistributedStorageAdmin admin, long cacheExpirationTimeSecs) {
+    this(admin, cacheExpirationTimeSecs, false);
+  }
+
+  /**
+   * Creates a manager. With multi-versioning enabled, the metadata of the version table of each
+   * table is also loaded, and the tables that have a version table are treated as multi-versioned.
+   */
+  public TransactionTableMetadataManager(
+      DistributedStorageAdmin admin, long cacheExpirationTimeSecs, boolean multiVersionEnabled) {
+    this.multiVersionEnabled = multiVersionEnabled;
 
     CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
     if (cacheExpirationTimeSecs >= 0) {
@@ -36,11 +47,21 @@ public class TransactionTableMetadataManager {
                 if (tableMetadata == null) {
                   return Optional.empty();
                 }
-                return Optional.of(new TransactionTableMetadata(tableMetadata));
+                TableMetadata versionTableMetadata =
+                    multiVersionEnabled
+                        ? admin.getTableMetadata(
+                            key.namespace, ConsensusCommitUtils.getVersionTableName(key.table))
+                        : null;
+                return Optional.of(
+                    new TransactionTableMetadata(tableMetadata, versionTableMetadata));
               }
             });
   }
 
+  public boolean isMultiVersionEnabled() {
+    return multiVersionEnabled;
+  }
+
   /**
    * Returns a transaction table metadata corresponding to the specified operation.
    *
@@ -10,8 +10,10 @@ import com.scalar.db.api.Put;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.Scan;
 import com.scalar.db.api.Selection;
+import com.scalar.db.api.TransactionCrudOperable;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CommitException;
+import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.CrudException;
 import com.scalar.db.exception.transaction.PreparationConflictException;
 import com.scalar.db.exception.transaction.PreparationException;
@@ -94,6 +96,18 @@ public class TwoPhaseConsensusCommit extends AbstractTwoPhaseCommitTransaction {
     }
   }
 
+  @Override
+  public TransactionCrudOperable.Scanner getScanner(Scan scan) throws CrudException {
+    checkStatus("The transaction is not active", Status.ACTIVE);
+    Scan target = copyAndSetTargetToIfNot(scan);
+    try {
+      return crud.getScanner(target, e -> lazyRecovery(target, e.getResults()));
+    } catch (UncommittedRecordException e) {
+      lazyRecovery(target, e.getResults());
+      throw e;
+    }
+  }
+
   @Override
   public void put(Put put) {
     checkStatus("The transaction is not active", Status.ACTIVE);
@@ -148,6 +162,17 @@ public class TwoPhaseConsensusCommit extends AbstractTwoPhaseCommitTransaction {
   public void prepare() throws PreparationException {
     checkStatus("The transaction is not active", Status.ACTIVE);
     beforePrepareHook.run();
+    crud.closeScanners();
+
+    try {
+      crud.readRecordsToWrite();
+    } catch (CrudConflictException e) {
+      status = Status.PREPARE_FAILED;
+      throw new PreparationConflictException("prepare failed", e);
+    } catch (CrudException e) {
+      status = Status.PREPARE_FAILED;
+      throw new PreparationException("prepare failed", e);
+    }
 
     try {
       commit.prepare(crud.getSnapshot(), false);
@@ -203,6 +228,7 @@ public class TwoPhaseConsensusCommit extends AbstractTwoPhaseCommitTransaction {
 
       commit.commitRecords(crud.getSnapshot());
       status = Status.COMMITTED;
+      crud.getSnapshot().close();
     } catch (CommitException e) {
       status = Status.COMMIT_FAILED;
       throw e;
@@ -215,6 +241,7 @@ public class TwoPhaseConsensusCommit extends AbstractTwoPhaseCommitTransaction {
       throw new IllegalStateException("The transaction has already been committed or rolled back");
     }
 
+    crud.closeScanners();
     try {
       if (status == Status.COMMIT_FAILED || status == Status.ACTIVE) {
         // If the status is COMMIT_FAILED, the transaction has already been aborted, so do nothing.
@@ -234,6 +261,7 @@ public class TwoPhaseConsensusCommit extends AbstractTwoPhaseCommitTransaction {
       commit.rollbackRecords(crud.getSnapshot());
     } finally {
       status = Status.ROLLED_BACK;
+      crud.getSnapshot().close();
     }
   }
 
@@ -16,7 +16,7 @@ import com.scalar.db.transaction.common.AbstractTwoPhaseCommitTransactionManager
 import com.scalar.db.transaction.consensuscommit.Coordinator.State;
 import com.scalar.db.util.ActiveExpiringMap;
 import java.util.Optional;
-import java.util.UUID;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
 import org.slf4j.Logger;
@@ -27,7 +27,7 @@ public class TwoPhaseConsensusCommitManager extends AbstractTwoPhaseCommitTransa
   private static final Logger logger =
       LoggerFactory.getLogger(TwoPhaseConsensusCommitManager.class);
 
-  private static final long TRANSACTION_LIFETIME_MILLIS = 60000;
+  static final long TRANSACTION_LIFETIME_MILLIS = 60000;
   private static final long TRANSACTION_EXPIRATION_INTERVAL_MILLIS = 1000;
 
   private final DistributedStorage storage;
@@ -38,6 +38,11 @@ public class TwoPhaseConsensusCommitManager extends AbstractTwoPhaseCommitTransa
   private final ParallelExecutor parallelExecutor;
   private final RecoveryHandler recovery;
   private final CommitHandler commit;
+  @Nullable private final RecoverySweeper recoverySweeper;
+  @Nullable private final CoordinatorGarbageCollector coordinatorGarbageCollector;
+  @Nullable private final VersionGarbageCollector versionGarbageCollector;
+  @Nullable private final SnapshotRegistry snapshotRegistry;
+  private final TransactionIdGenerator transactionIdGenerator;
 
   private final ActiveExpiringMap<String, TwoPhaseConsensusCommit> activeTransactions;
 
@@ -49,11 +54,32 @@ public class TwoPhaseConsensusCommitManager extends AbstractTwoPhaseCommitTransa
     config = new ConsensusCommitConfig(databaseConfig);
     tableMetadataManager =
         new TransactionTableMetadataManager(
-            admin, databaseConfig.getMetadataCacheExpirationTimeSecs());
+            admin,
+            databaseConfig.getMetadataCacheExpirationTimeSecs(),
+            config.isMultiVersionEnabled());
     coordinator = new Coordinator(storage, config);
     parallelExecutor = new ParallelExecutor(config);
-    recovery = new RecoveryHandler(storage, coordinator, tableMetadataManager);
-    commit = new CommitHandler(storage, coordinator, tableMetadataManager, parallelExecutor);
+    recovery = new RecoveryHandler(storage, coordinator, tableMetadataManager, config);
+    transactionIdGenerator = ConsensusCommitUtils.createTransactionIdGenerator(config);
+    recoverySweeper =
+        config.isRecoverySweeperEnabled()
+            ? new RecoverySweeper(storage, coordinator, tableMetadataManager, config)
+            : null;
+    if (config.isCoordinatorGcEnabled()) {
+      coordinatorGarbageCollector = new CoordinatorGarbageCollector(storage, admin, config);
+      coordinatorGarbageCollector.start();
+    } else {
+      coordinatorGarbageCollector = null;
+    }
+    if (config.isMultiVersionGcEnabled()) {
+      versionGarbageCollector = new VersionGarbageCollector(storage, tableMetadataManager, config);
+      versionGarbageCollector.start();
+    } else {
+      versionGarbageCollector = null;
+    }
+    snapshotRegistry = SnapshotRegistry.create(config);
+    commit =
+        new CommitHandler(storage, coordinator, tableMetadataManager, parallelExecutor, config);
 
     activeTransactions =
         new ActiveExpiringMap<>(
@@ -84,17 +110,24 @@ public class TwoPhaseConsensusCommitManager extends AbstractTwoPhaseCommitTransa
     this.config = config;
     tableMetadataManager =
         new TransactionTableMetadataManager(
-            admin, databaseConfig.getMetadataCacheExpirationTimeSecs());
+            admin,
+            databaseConfig.getMetadataCacheExpirationTimeSecs(),
+            config.isMultiVersionEnabled());
     this.coordinator = coordinator;
     this.parallelExecutor = parallelExecutor;
     this.recovery = recovery;
+    transactionIdGenerator = ConsensusCommitUtils.createTransactionIdGenerator(config);
+    recoverySweeper = null;
+    coordinatorGarbageCollector = null;
+    versionGarbageCollector = null;
+    snapshotRegistry = null;
     this.commit = commit;
     activeTransactions = new ActiveExpiringMap<>(Long.MAX_VALUE, Long.MAX_VALUE, t -> {});
   }
 
   @Override
   public TwoPhaseConsensusCommit start() {
-    String txId = UUID.randomUUID().toString();
+    String txId = transactionIdGenerator.generate();
     return start(txId, config.getIsolation(), config.getSerializableStrategy());
   }
 
@@ -106,7 +139,7 @@ public class TwoPhaseConsensusCommitManager extends AbstractTwoPhaseCommitTransa
 
   @VisibleForTesting
   TwoPhaseConsensusCommit start(Isolation isolation, SerializableStrategy strategy) {
-    String txId = UUID.randomUUID().toString();
+    String txId = transactionIdGenerator.generate();
     return start(txId, isolation, strategy);
   }
 
@@ -129,8 +162,23 @@ public class TwoPhaseConsensusCommitManager extends AbstractTwoPhaseCommitTransa
   private TwoPhaseConsensusCommit createNewTransaction(
       String txId, boolean isCoordinator, Isolation isolation, SerializableStrategy strategy) {
     Snapshot snapshot =
-        new Snapshot(txId, isolation, strategy, tableMetadataManager, parallelExecutor);
-    CrudHandler crud = new CrudHandler(storage, snapshot, tableMetadataManager);
+        new Snapshot(
+            txId,
+            isolation,
+            strategy,
+            tableMetadataManager,
+            parallelExecutor,
+            config.isBatchValidationEnabled(),
+            config.getLargeTransactionSpillThreshold(),
+            config.getLargeTransactionSpillDirectory().orElse(null));
+    if (config.getTransactionTimeoutMillis() > 0) {
+      snapshot.setDeadlineMillis(System.currentTimeMillis() + config.getTransactionTimeoutMillis());
+    }
+    if (snapshotRegistry != null) {
+      snapshotRegistry.register(snapshot);
+    }
+    CrudHandler crud =
+        new CrudHandler(storage, snapshot, tableMetadataManager, config, recovery, null, false);
 
     TwoPhaseConsensusCommit transaction =
         new TwoPhaseConsensusCommit(crud, commit, recovery, isCoordinator);
@@ -185,8 +233,30 @@ public class TwoPhaseConsensusCommitManager extends AbstractTwoPhaseCommitTransa
     }
   }
 
+  /**
+   * Returns the map of the active transactions, which exposes the number of them and the expiration
+   * metrics.
+   */
+  public ActiveExpiringMap<String, ?> getActiveTransactions() {
+    return activeTransactions;
+  }
+
   @Override
   public void close() {
+    if (recoverySweeper != null) {
+      recoverySweeper.close();
+    }
+    if (coordinatorGarbageCollector != null) {
+      coordinatorGarbageCollector.close();
+    }
+    if (versionGarbageCollector != null) {
+      versionGarbageCollector.close();
+    }
+    commit.close();
+    if (snapshotRegistry != null) {
+      snapshotRegistry.close();
+    }
+    recovery.close();
     storage.close();
     admin.close();
     parallelExecutor.close();
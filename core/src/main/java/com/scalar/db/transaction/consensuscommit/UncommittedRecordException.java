@@ -1,13 +1,17 @@
 package com.scalar.db.transaction.consensuscommit;
 
 import com.google.common.collect.ImmutableList;
+import com.scalar.db.api.Operation;
 import com.scalar.db.exception.transaction.CrudConflictException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
 
 public class UncommittedRecordException extends CrudConflictException {
   private final List<TransactionResult> results;
+  @Nullable private final String fullTableName;
 
   public UncommittedRecordException(TransactionResult result, String message) {
     this(result, message, null);
@@ -16,6 +20,18 @@ public class UncommittedRecordException extends CrudConflictException {
   public UncommittedRecordException(TransactionResult result, String message, Throwable cause) {
     super(message, cause);
     results = Collections.singletonList(result);
+    fullTableName = null;
+  }
+
+  /**
+   * @param operation the operation that encountered the uncommitted record
+   * @param result the uncommitted record
+   * @param message a message
+   */
+  public UncommittedRecordException(Operation operation, TransactionResult result, String message) {
+    super(message);
+    results = Collections.singletonList(result);
+    fullTableName = operation.forFullTableName().orElse(null);
   }
 
   public UncommittedRecordException(List<TransactionResult> results, String message) {
@@ -27,9 +43,19 @@ public class UncommittedRecordException extends CrudConflictException {
     super(message, cause);
     this.results = new ArrayList<>();
     this.results.addAll(results);
+    fullTableName = null;
   }
 
   public List<TransactionResult> getResults() {
     return ImmutableList.copyOf(results);
   }
+
+  /**
+   * Returns the full name of the table of the uncommitted records, i.e., "namespace.table".
+   *
+   * @return the full table name. empty if it's unknown
+   */
+  public Optional<String> getFullTableName() {
+    return Optional.ofNullable(fullTableName);
+  }
 }
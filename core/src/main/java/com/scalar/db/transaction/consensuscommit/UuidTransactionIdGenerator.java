@@ -0,0 +1,14 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import java.util.UUID;
+import javax.annotation.concurrent.ThreadSafe;
+
+/** A {@code TransactionIdGenerator} that generates random (version 4) UUIDs. */
+@ThreadSafe
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+
+  @Override
+  public String generate() {
+    return UUID.randomUUID().toString();
+  }
+}
@@ -0,0 +1,232 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.Delete;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.ScanAll;
+import com.scalar.db.api.Scanner;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.Key;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A garbage collector of the version tables of multi-versioned tables. For each record, the newest
+ * versions up to the number of the retained versions, the versions committed within the retention
+ * period, and the version that was the latest at the beginning of the period are kept, and the
+ * older versions are deleted. A record whose newest version is a deletion committed before the
+ * retention period is removed altogether since it doesn't exist at any timestamp that must be
+ * readable.
+ *
+ * <p>Only the oldest versions of a record are deleted, so a reader that goes back the versions
+ * concurrently either finds the version it reads or detects the gap and fails.
+ */
+@ThreadSafe
+public class VersionGarbageCollector {
+  private static final Logger logger = LoggerFactory.getLogger(VersionGarbageCollector.class);
+  private static final Comparator<Result> NEWEST_FIRST =
+      Comparator.<Result>comparingLong(r -> r.getBigInt(Attribute.COMMITTED_AT))
+          .thenComparingInt(r -> r.getInt(Attribute.VERSION))
+          .reversed();
+
+  private final DistributedStorage storage;
+  private final TransactionTableMetadataManager tableMetadataManager;
+  private final List<String> tables;
+  private final int retainedVersions;
+  private final long retentionMillis;
+  private final long intervalMillis;
+  @Nullable private ScheduledExecutorService executorService;
+
+  private final AtomicLong scannedVersionCount = new AtomicLong();
+  private final AtomicLong deletedVersionCount = new AtomicLong();
+  private final AtomicLong completedRunCount = new AtomicLong();
+
+  public VersionGarbageCollector(
+      DistributedStorage storage,
+      TransactionTableMetadataManager tableMetadataManager,
+      ConsensusCommitConfig config) {
+    this(
+        storage,
+        tableMetadataManager,
+        config.getMultiVersionGcTables(),
+        config.getMultiVersionRetainedVersions(),
+        config.getMultiVersionRetentionMillis(),
+        config.getMultiVersionGcIntervalMillis());
+  }
+
+  @VisibleForTesting
+  VersionGarbageCollector(
+      DistributedStorage storage,
+      TransactionTableMetadataManager tableMetadataManager,
+      List<String> tables,
+      int retainedVersions,
+      long retentionMillis,
+      long intervalMillis) {
+    this.storage = storage;
+    this.tableMetadataManager = tableMetadataManager;
+    this.tables = tables;
+    this.retainedVersions = retainedVersions;
+    this.retentionMillis = retentionMillis;
+    this.intervalMillis = intervalMillis;
+  }
+
+  /** Starts collecting the garbage periodically in the background. */
+  public synchronized void start() {
+    checkState(executorService == null, "the version GC has already been started");
+    executorService =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("version-gc-%d").setDaemon(true).build());
+    executorService.scheduleWithFixedDelay(
+        () -> {
+          try {
+            collect();
+          } catch (Exception e) {
+            logger.warn("collecting versions failed. it will be retried later", e);
+          }
+        },
+        intervalMillis,
+        intervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Deletes the versions that are no longer retained from the version tables of the specified
+   * tables.
+   *
+   * @return the number of the deleted versions
+   * @throws ExecutionException if scanning the version tables or deleting the versions failed
+   */
+  public long collect() throws ExecutionException {
+    checkState(!tables.isEmpty(), "the multi-versioned tables must be specified for the GC");
+
+    long horizon = System.currentTimeMillis() - retentionMillis;
+    long deleted = 0;
+    for (String table : tables) {
+      String[] names = table.split("\\.", -1);
+      deleted += collect(names[0], names[1], horizon);
+    }
+
+    completedRunCount.incrementAndGet();
+    logger.debug("{} versions older than {} are deleted", deleted, horizon);
+    return deleted;
+  }
+
+  private long collect(String namespace, String table, long horizon) throws ExecutionException {
+    TransactionTableMetadata metadata =
+        tableMetadataManager.getTransactionTableMetadata(namespace, table);
+    if (metadata == null || !metadata.getVersionTableMetadata().isPresent()) {
+      logger.warn("{}.{} is not a multi-versioned table", namespace, table);
+      return 0;
+    }
+    TableMetadata versionTableMetadata = metadata.getVersionTableMetadata().get();
+    String versionTable = ConsensusCommitUtils.getVersionTableName(table);
+
+    // group the versions by the primary keys of the records in the table
+    Map<List<Column<?>>, List<Result>> versionsByRecord = new HashMap<>();
+    Scan scan =
+        new ScanAll()
+            .withConsistency(Consistency.LINEARIZABLE)
+            .forNamespace(namespace)
+            .forTable(versionTable);
+    try (Scanner scanner = storage.scan(scan)) {
+      Optional<Result> result;
+      while ((result = scanner.one()).isPresent()) {
+        scannedVersionCount.incrementAndGet();
+        List<Column<?>> recordKey = new ArrayList<>();
+        for (String name : metadata.getPartitionKeyNames()) {
+          recordKey.add(result.get().getColumns().get(name));
+        }
+        for (String name : metadata.getClusteringKeyNames()) {
+          recordKey.add(result.get().getColumns().get(name));
+        }
+        versionsByRecord.computeIfAbsent(recordKey, k -> new ArrayList<>()).add(result.get());
+      }
+    } catch (IOException e) {
+      logger.warn("closing the scanner failed", e);
+    }
+
+    long deleted = 0;
+    for (List<Result> versions : versionsByRecord.values()) {
+      versions.sort(NEWEST_FIRST);
+      for (Result version : versions.subList(countRetained(versions, horizon), versions.size())) {
+        storage.delete(
+            new Delete(
+                    toKey(version, versionTableMetadata.getPartitionKeyNames()),
+                    toKey(version, versionTableMetadata.getClusteringKeyNames()))
+                .withConsistency(Consistency.LINEARIZABLE)
+                .forNamespace(namespace)
+                .forTable(versionTable));
+        deletedVersionCount.incrementAndGet();
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
+  /** Returns the number of the newest versions to retain from the versions of a record. */
+  private int countRetained(List<Result> versions, long horizon) {
+    Result newest = versions.get(0);
+    if (newest.getBigInt(Attribute.COMMITTED_AT) < horizon
+        && TransactionState.getInstance(newest.getInt(Attribute.STATE))
+            == TransactionState.DELETED) {
+      return 0;
+    }
+    int retained = 0;
+    while (retained < versions.size()
+        && versions.get(retained).getBigInt(Attribute.COMMITTED_AT) >= horizon) {
+      retained++;
+    }
+    // the version that was the latest at the horizon
+    retained++;
+    return Math.min(versions.size(), Math.max(retained, retainedVersions));
+  }
+
+  private Key toKey(Result result, Iterable<String> names) {
+    Key.Builder builder = Key.newBuilder();
+    names.forEach(n -> builder.add(result.getColumns().get(n)));
+    return builder.build();
+  }
+
+  public long getScannedVersionCount() {
+    return scannedVersionCount.get();
+  }
+
+  public long getDeletedVersionCount() {
+    return deletedVersionCount.get();
+  }
+
+  public long getCompletedRunCount() {
+    return completedRunCount.get();
+  }
+
+  @SuppressWarnings("UnstableApiUsage")
+  public synchronized void close() {
+    if (executorService != null) {
+      executorService.shutdownNow();
+      Uninterruptibles.awaitTerminationUninterruptibly(executorService);
+    }
+  }
+}
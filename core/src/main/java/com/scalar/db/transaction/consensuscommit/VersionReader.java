@@ -0,0 +1,371 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.ScanAll;
+import com.scalar.db.api.Scanner;
+import com.scalar.db.api.Selection;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.common.ResultImpl;
+import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.exception.transaction.CrudException;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.Key;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A reader of the records of multi-versioned tables as of a timestamp. The latest record in the
+ * table is returned if it was committed before the timestamp. Otherwise, the version that was the
+ * latest at the timestamp is looked up in the version table, so the reader doesn't conflict with
+ * the transactions that have written the record since then.
+ *
+ * <p>The versions of a record are chained by their version numbers, and a version of a record that
+ * was inserted after a deletion follows the DELETED version. If the chain is broken before reaching
+ * the version at the timestamp, because the version has been collected or its write was lost in the
+ * commit phase, the read fails instead of returning a wrong version.
+ */
+@ThreadSafe
+public class VersionReader {
+  private static final Logger logger = LoggerFactory.getLogger(VersionReader.class);
+  // the commit times of the versions of a record are increasing, since a version is committed after
+  // the version it overwrites, so this order follows the chain of the versions
+  private static final Comparator<Result> NEWEST_FIRST =
+      Comparator.<Result>comparingLong(r -> r.getBigInt(Attribute.COMMITTED_AT))
+          .thenComparingInt(r -> r.getInt(Attribute.VERSION))
+          .reversed();
+
+  private final DistributedStorage storage;
+  private final long readTimestamp;
+
+  public VersionReader(DistributedStorage storage, long readTimestamp) {
+    this.storage = storage;
+    this.readTimestamp = readTimestamp;
+  }
+
+  public long getReadTimestamp() {
+    return readTimestamp;
+  }
+
+  /**
+   * Returns the specified record as of the read timestamp.
+   *
+   * @param get the get of the record
+   * @param latest the latest record read from the table
+   * @param metadata the metadata of the table
+   * @return the record as of the read timestamp
+   * @throws CrudException if the version isn't retained or reading the versions failed
+   */
+  public Optional<TransactionResult> get(
+      Get get, Optional<TransactionResult> latest, TransactionTableMetadata metadata)
+      throws CrudException {
+    if (latest.isPresent()) {
+      if (isVisible(latest.get())) {
+        return latest;
+      }
+      checkNotPreparedBefore(get, latest.get());
+    }
+    return resolve(
+        get, latest, readVersions(get.getPartitionKey(), get.getClusteringKey(), get), metadata);
+  }
+
+  /**
+   * Returns the records in the range of the specified scan as of the read timestamp, up to the
+   * limit of the scan. The records of a partition are returned in the clustering order of the scan,
+   * and the records of a scan-all are not ordered.
+   *
+   * <p>The latest records are resolved as they are fetched, and no more of them are fetched once
+   * the limit is reached. The versions of a partition are streamed in the same order alongside
+   * them, since the records deleted after the read timestamp are only in the version table. The
+   * versions of a scan-all are looked up per record for the records that are not visible, and the
+   * version table is scanned for the deleted records only if the table runs out before the limit.
+   *
+   * @param scan the scan of the records
+   * @param latest the latest records scanned from the table with the scan without the limit
+   * @param metadata the metadata of the table
+   * @return the records as of the read timestamp
+   * @throws CrudException if a version isn't retained or reading the versions failed
+   */
+  public List<TransactionResult> scan(
+      Scan scan, Iterator<Result> latest, TransactionTableMetadata metadata) throws CrudException {
+    if (scan instanceof ScanAll) {
+      return scanAll((ScanAll) scan, latest, metadata);
+    }
+
+    Comparator<Key> comparator =
+        ConsensusCommitUtils.getClusteringKeyComparator(scan, metadata.getTableMetadata());
+    Scan versionScan = new Scan(scan.getPartitionKey());
+    scan.getStartClusteringKey().ifPresent(k -> versionScan.withStart(k, scan.getStartInclusive()));
+    scan.getEndClusteringKey().ifPresent(k -> versionScan.withEnd(k, scan.getEndInclusive()));
+    if (isReversed(scan, metadata.getTableMetadata())) {
+      TableMetadata versionTableMetadata = metadata.getVersionTableMetadata().get();
+      for (String name : versionTableMetadata.getClusteringKeyNames()) {
+        versionScan.withOrdering(
+            versionTableMetadata.getClusteringOrder(name) == Scan.Ordering.Order.ASC
+                ? Scan.Ordering.desc(name)
+                : Scan.Ordering.asc(name));
+      }
+    }
+
+    List<TransactionResult> results = new ArrayList<>();
+    Scanner scanner = openVersions(versionScan, scan);
+    try {
+      PeekingIterator<Result> records = Iterators.peekingIterator(latest);
+      PeekingIterator<Result> versions = Iterators.peekingIterator(scanner.iterator());
+      // merges the latest records and the versions, which are both in the clustering order
+      while (!isLimitReached(scan, results) && (records.hasNext() || versions.hasNext())) {
+        Key key;
+        if (!records.hasNext()) {
+          key = getClusteringKey(versions.peek(), metadata);
+        } else if (!versions.hasNext()) {
+          key = getClusteringKey(records.peek(), metadata);
+        } else {
+          Key recordKey = getClusteringKey(records.peek(), metadata);
+          Key versionKey = getClusteringKey(versions.peek(), metadata);
+          key = comparator.compare(recordKey, versionKey) <= 0 ? recordKey : versionKey;
+        }
+
+        Optional<TransactionResult> record = Optional.empty();
+        if (records.hasNext()
+            && comparator.compare(getClusteringKey(records.peek(), metadata), key) == 0) {
+          record = Optional.of(new TransactionResult(records.next()));
+        }
+        List<Result> recordVersions = new ArrayList<>();
+        while (versions.hasNext()
+            && comparator.compare(getClusteringKey(versions.peek(), metadata), key) == 0) {
+          recordVersions.add(versions.next());
+        }
+
+        if (record.isPresent() && isVisible(record.get())) {
+          results.add(record.get());
+          continue;
+        }
+        recordVersions.sort(NEWEST_FIRST);
+        resolve(scan, record, recordVersions, metadata).ifPresent(results::add);
+      }
+    } finally {
+      close(scanner);
+    }
+    return results;
+  }
+
+  private List<TransactionResult> scanAll(
+      ScanAll scan, Iterator<Result> latest, TransactionTableMetadata metadata)
+      throws CrudException {
+    List<TransactionResult> results = new ArrayList<>();
+    Set<Snapshot.Key> keys = new HashSet<>();
+    while (!isLimitReached(scan, results) && latest.hasNext()) {
+      TransactionResult record = new TransactionResult(latest.next());
+      Snapshot.Key key = toKey(record, scan, metadata);
+      keys.add(key);
+      if (isVisible(record)) {
+        results.add(record);
+        continue;
+      }
+      checkNotPreparedBefore(scan, record);
+      resolve(
+              scan,
+              Optional.of(record),
+              readVersions(key.getPartitionKey(), key.getClusteringKey(), scan),
+              metadata)
+          .ifPresent(results::add);
+    }
+    if (isLimitReached(scan, results)) {
+      // the records of a scan-all are not ordered, so the deleted records don't need to be found
+      return results;
+    }
+
+    // the records deleted after the read timestamp are absent from the table, so only the versions
+    // of the records that were not scanned from the table are kept
+    Map<Snapshot.Key, List<Result>> versionsByKey = new LinkedHashMap<>();
+    Scanner scanner = openVersions(new ScanAll(), scan);
+    try {
+      for (Result version : scanner) {
+        Snapshot.Key key = toKey(version, scan, metadata);
+        if (!keys.contains(key)) {
+          versionsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(version);
+        }
+      }
+    } finally {
+      close(scanner);
+    }
+    for (List<Result> versions : versionsByKey.values()) {
+      if (isLimitReached(scan, results)) {
+        break;
+      }
+      versions.sort(NEWEST_FIRST);
+      resolve(scan, Optional.empty(), versions, metadata).ifPresent(results::add);
+    }
+    return results;
+  }
+
+  private boolean isLimitReached(Scan scan, List<TransactionResult> results) {
+    return scan.getLimit() > 0 && results.size() >= scan.getLimit();
+  }
+
+  private boolean isReversed(Scan scan, TableMetadata metadata) {
+    if (scan.getOrderings().isEmpty()) {
+      return false;
+    }
+    Scan.Ordering ordering = scan.getOrderings().get(0);
+    return ordering.getOrder() != metadata.getClusteringOrder(ordering.getColumnName());
+  }
+
+  private boolean isVisible(TransactionResult result) {
+    return result.isCommitted() && result.getCommittedAt() <= readTimestamp;
+  }
+
+  private void checkNotPreparedBefore(Selection selection, TransactionResult result)
+      throws UncommittedRecordException {
+    if (!result.isCommitted() && result.getPreparedAt() <= readTimestamp) {
+      // the transaction that prepared the record might have been committed before the timestamp
+      throw new UncommittedRecordException(
+          selection, result, "the record might have been committed before the read timestamp");
+    }
+  }
+
+  /**
+   * Goes back the versions of a record from the latest one to find the one that was the latest at
+   * the read timestamp.
+   */
+  private Optional<TransactionResult> resolve(
+      Selection selection,
+      Optional<TransactionResult> latest,
+      List<Result> versions,
+      TransactionTableMetadata metadata)
+      throws CrudException {
+    // the version number expected next, or -1 if it's unknown
+    int expected = -1;
+    String latestId = null;
+    if (latest.isPresent()) {
+      TransactionResult record = latest.get();
+      checkNotPreparedBefore(selection, record);
+      expected = record.getVersion() - 1;
+      latestId = record.getId();
+    }
+
+    for (Result version : versions) {
+      String id = version.getText(Attribute.ID);
+      if (id != null && id.equals(latestId)) {
+        // the latest record itself
+        continue;
+      }
+      boolean deleted =
+          TransactionState.getInstance(version.getInt(Attribute.STATE)) == TransactionState.DELETED;
+      if ((expected <= 0 && !deleted)
+          || (expected > 0 && version.getInt(Attribute.VERSION) != expected)) {
+        // a record is absent only after it's deleted, and the versions must be consecutive
+        throw createNotRetainedException(version);
+      }
+      if (version.getBigInt(Attribute.COMMITTED_AT) <= readTimestamp) {
+        return deleted ? Optional.empty() : Optional.of(toTransactionResult(version, metadata));
+      }
+      expected = version.getInt(Attribute.VERSION) - 1;
+    }
+
+    if (expected <= 0) {
+      // the record didn't exist at the read timestamp
+      return Optional.empty();
+    }
+    throw createNotRetainedException(latest.orElse(null));
+  }
+
+  private CrudException createNotRetainedException(Result record) {
+    return new CrudException(
+        "the version of the record as of " + readTimestamp + " is not retained: " + record);
+  }
+
+  /** Reads the versions of the specified record in the order of their commit times. */
+  private List<Result> readVersions(
+      Key partitionKey, Optional<Key> clusteringKey, com.scalar.db.api.Operation base)
+      throws CrudException {
+    Scan scan = new Scan(partitionKey);
+    clusteringKey.ifPresent(k -> scan.withStart(k, true).withEnd(k, true));
+    List<Result> versions = new ArrayList<>();
+    Scanner scanner = openVersions(scan, base);
+    try {
+      for (Result version : scanner) {
+        versions.add(version);
+      }
+    } finally {
+      close(scanner);
+    }
+    versions.sort(NEWEST_FIRST);
+    return versions;
+  }
+
+  private Scanner openVersions(Scan versionScan, com.scalar.db.api.Operation base)
+      throws CrudException {
+    versionScan
+        .withConsistency(Consistency.LINEARIZABLE)
+        .forNamespace(base.forNamespace().get())
+        .forTable(ConsensusCommitUtils.getVersionTableName(base.forTable().get()));
+    try {
+      return storage.scan(versionScan);
+    } catch (ExecutionException e) {
+      throw new CrudException("scanning the versions failed", e);
+    }
+  }
+
+  private void close(Scanner scanner) {
+    try {
+      scanner.close();
+    } catch (IOException e) {
+      logger.warn("failed to close the scanner", e);
+    }
+  }
+
+  /** Returns the clustering key of the record in the table that the specified record belongs to. */
+  private Key getClusteringKey(Result result, TransactionTableMetadata metadata) {
+    Map<String, Column<?>> columns = result.getColumns();
+    Key.Builder builder = Key.newBuilder();
+    metadata.getClusteringKeyNames().forEach(n -> builder.add(columns.get(n)));
+    return builder.build();
+  }
+
+  /** Returns the key of the record in the table that the specified record or version belongs to. */
+  private Snapshot.Key toKey(
+      Result result, com.scalar.db.api.Operation base, TransactionTableMetadata metadata) {
+    Map<String, Column<?>> columns = result.getColumns();
+    Key.Builder partitionKey = Key.newBuilder();
+    metadata.getPartitionKeyNames().forEach(n -> partitionKey.add(columns.get(n)));
+    Key clusteringKey = null;
+    if (!metadata.getClusteringKeyNames().isEmpty()) {
+      Key.Builder builder = Key.newBuilder();
+      metadata.getClusteringKeyNames().forEach(n -> builder.add(columns.get(n)));
+      clusteringKey = builder.build();
+    }
+    return new Snapshot.Key(
+        new Get(partitionKey.build(), clusteringKey)
+            .forNamespace(base.forNamespace().get())
+            .forTable(base.forTable().get()));
+  }
+
+  private TransactionResult toTransactionResult(Result version, TransactionTableMetadata metadata) {
+    Map<String, Column<?>> columns = new HashMap<>();
+    for (Map.Entry<String, Column<?>> entry : version.getColumns().entrySet()) {
+      if (metadata.getColumnNames().contains(entry.getKey())) {
+        columns.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return new TransactionResult(new ResultImpl(columns, metadata.getTableMetadata()));
+  }
+}
@@ -172,6 +172,14 @@ public class GrpcTwoPhaseCommitTransactionManager extends AbstractTwoPhaseCommit
         });
   }
 
+  /**
+   * Returns the map of the active transactions, which exposes the number of them and the expiration
+   * metrics.
+   */
+  public ActiveExpiringMap<String, ?> getActiveTransactions() {
+    return activeTransactions;
+  }
+
   @Override
   public void close() {
     try {
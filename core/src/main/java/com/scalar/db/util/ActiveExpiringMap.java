@@ -1,31 +1,85 @@
 package com.scalar.db.util;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.Uninterruptibles;
-import java.util.Map.Entry;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import javax.annotation.concurrent.ThreadSafe;
 
+/**
+ * A map whose values expire when they are not accessed for their lifetime. The values are expired
+ * by a background thread with a hashed timing wheel, whose slots are ticked at the expiration
+ * interval. A value is put into the slot of the tick at which it expires, and the thread only looks
+ * at the values in the slot of the current tick, so the cost of expiration doesn't grow with the
+ * number of the values in the map.
+ *
+ * <p>Accessing a value only updates its last access time, and the value stays in its slot. When the
+ * slot is ticked, a value that has been accessed in the meantime is moved to the slot of its new
+ * expiration time instead of being expired, so each value is moved at most once per lifetime
+ * however often it's accessed.
+ */
 @ThreadSafe
 public class ActiveExpiringMap<K, V> {
+  private static final int MAX_WHEEL_SIZE = 4096;
+
   private final ConcurrentMap<K, ValueHolder<V>> map;
   private final long valueLifetimeMillis;
   private final long valueExpirationThreadIntervalMillis;
   private final Consumer<V> valueExpirationHandler;
 
+  private final List<Queue<TimerEntry<K, V>>> wheel;
+  private final long startTimeMillis;
+  // the last tick whose slot has been processed
+  private final AtomicLong processedTick = new AtomicLong(-1);
+
+  private final AtomicLong expiredCount = new AtomicLong();
+  private volatile double expirationsPerSecond;
+  private long rateWindowStartMillis;
+  private long rateWindowExpiredCount;
+
   public ActiveExpiringMap(
       long valueLifetimeMillis,
       long valueExpirationThreadIntervalMillis,
       Consumer<V> valueExpirationHandler) {
+    this(valueLifetimeMillis, valueExpirationThreadIntervalMillis, valueExpirationHandler, true);
+  }
+
+  @VisibleForTesting
+  ActiveExpiringMap(
+      long valueLifetimeMillis,
+      long valueExpirationThreadIntervalMillis,
+      Consumer<V> valueExpirationHandler,
+      boolean startsExpirationThread) {
     map = new ConcurrentHashMap<>();
     this.valueLifetimeMillis = valueLifetimeMillis;
     this.valueExpirationThreadIntervalMillis = valueExpirationThreadIntervalMillis;
     this.valueExpirationHandler = valueExpirationHandler;
-    startValueExpirationThread();
+
+    // one rotation of the wheel covers the lifetime, so most values are expired or moved at the
+    // first time their slot is ticked
+    long ticksPerLifetime = valueLifetimeMillis / valueExpirationThreadIntervalMillis + 1;
+    int wheelSize = 1;
+    while (wheelSize < ticksPerLifetime && wheelSize < MAX_WHEEL_SIZE) {
+      wheelSize <<= 1;
+    }
+    wheel = new ArrayList<>(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      wheel.add(new ConcurrentLinkedQueue<>());
+    }
+    startTimeMillis = System.currentTimeMillis();
+    rateWindowStartMillis = startTimeMillis;
+
+    if (startsExpirationThread) {
+      startValueExpirationThread();
+    }
   }
 
   private void startValueExpirationThread() {
@@ -33,16 +87,7 @@ public class ActiveExpiringMap<K, V> {
         new Thread(
             () -> {
               while (true) {
-                map.entrySet().stream()
-                    .filter(e -> e.getValue().isExpired())
-                    .map(Entry::getKey)
-                    .forEach(
-                        key -> {
-                          ValueHolder<V> value = map.remove(key);
-                          if (value != null) {
-                            valueExpirationHandler.accept(value.get());
-                          }
-                        });
+                expire(System.currentTimeMillis());
                 Uninterruptibles.sleepUninterruptibly(
                     valueExpirationThreadIntervalMillis, TimeUnit.MILLISECONDS);
               }
@@ -52,25 +97,100 @@ public class ActiveExpiringMap<K, V> {
     expirationThread.start();
   }
 
+  /** Processes the slots of the ticks that have passed by the specified time. */
+  @VisibleForTesting
+  void expire(long currentTimeMillis) {
+    long currentTick = toTick(currentTimeMillis);
+    for (long tick = processedTick.get() + 1; tick <= currentTick; tick++) {
+      processSlot(tick, currentTimeMillis);
+      processedTick.set(tick);
+    }
+    updateExpirationRate(currentTimeMillis);
+  }
+
+  private void processSlot(long tick, long currentTimeMillis) {
+    Queue<TimerEntry<K, V>> slot = wheel.get((int) (tick & (wheel.size() - 1)));
+    // drain the slot first since the entries for the later rotations are put back into it
+    List<TimerEntry<K, V>> entries = new ArrayList<>();
+    TimerEntry<K, V> entry;
+    while ((entry = slot.poll()) != null) {
+      entries.add(entry);
+    }
+
+    for (TimerEntry<K, V> e : entries) {
+      if (map.get(e.key) != e.holder) {
+        // the value has been removed or replaced
+        continue;
+      }
+      if (e.tick > tick) {
+        // for a later rotation
+        slot.add(e);
+        continue;
+      }
+      if (!e.holder.isExpired(currentTimeMillis)) {
+        // the value has been accessed since it was scheduled
+        schedule(e.key, e.holder);
+        continue;
+      }
+      if (map.remove(e.key, e.holder)) {
+        expiredCount.incrementAndGet();
+        valueExpirationHandler.accept(e.holder.get());
+      }
+    }
+  }
+
+  private void schedule(K key, ValueHolder<V> holder) {
+    long expirationTime = holder.getExpirationTime();
+    if (expirationTime == Long.MAX_VALUE) {
+      // never expires
+      return;
+    }
+    // the value is processed at the first tick after its expiration time, and at the next tick
+    // if the tick has already been processed. in a rare race with the expiration thread, the
+    // value can be put into the slot that was just processed, which only delays the expiration by
+    // a rotation
+    long tick = Math.max(toTick(expirationTime) + 1, processedTick.get() + 1);
+    wheel.get((int) (tick & (wheel.size() - 1))).add(new TimerEntry<>(key, holder, tick));
+  }
+
+  private long toTick(long timeMillis) {
+    return (timeMillis - startTimeMillis) / valueExpirationThreadIntervalMillis;
+  }
+
+  private synchronized void updateExpirationRate(long currentTimeMillis) {
+    long elapsed = currentTimeMillis - rateWindowStartMillis;
+    if (elapsed < 1000) {
+      return;
+    }
+    long expired = expiredCount.get();
+    expirationsPerSecond = (expired - rateWindowExpiredCount) * 1000.0 / elapsed;
+    rateWindowStartMillis = currentTimeMillis;
+    rateWindowExpiredCount = expired;
+  }
+
   public Optional<V> get(K key) {
-    if (!map.containsKey(key)) {
+    ValueHolder<V> value = map.get(key);
+    if (value == null) {
       return Optional.empty();
     }
-    ValueHolder<V> value = map.get(key);
     value.updateExpirationTime();
     return Optional.of(value.get());
   }
 
   public V putIfAbsent(K key, V value) {
-    ValueHolder<V> prev = map.putIfAbsent(key, new ValueHolder<>(value, valueLifetimeMillis));
+    ValueHolder<V> holder = new ValueHolder<>(value, valueLifetimeMillis);
+    ValueHolder<V> prev = map.putIfAbsent(key, holder);
     if (prev == null) {
+      schedule(key, holder);
       return null;
     }
     return prev.get();
   }
 
   public V put(K key, V value) {
-    ValueHolder<V> prev = map.put(key, new ValueHolder<>(value, valueLifetimeMillis));
+    ValueHolder<V> holder = new ValueHolder<>(value, valueLifetimeMillis);
+    ValueHolder<V> prev = map.put(key, holder);
+    schedule(key, holder);
     if (prev == null) {
       return null;
     }
@@ -96,6 +216,28 @@ public class ActiveExpiringMap<K, V> {
     }
   }
 
+  /** Returns a snapshot of the values in the map. */
+  public List<V> values() {
+    List<V> values = new ArrayList<>(map.size());
+    map.values().forEach(h -> values.add(h.get()));
+    return values;
+  }
+
+  /** Returns the number of the values in the map. */
+  public int getActiveCount() {
+    return map.size();
+  }
+
+  /** Returns the number of the values that have expired so far. */
+  public long getExpiredCount() {
+    return expiredCount.get();
+  }
+
+  /** Returns the number of the values that expired per second, measured over about a second. */
+  public double getExpirationsPerSecond() {
+    return expirationsPerSecond;
+  }
+
   private static class ValueHolder<V> {
     private final V value;
     private final long lifetimeMillis;
@@ -111,12 +253,31 @@ public class ActiveExpiringMap<K, V> {
       lastUpdateTime.set(System.currentTimeMillis());
     }
 
-    public boolean isExpired() {
-      return System.currentTimeMillis() - lastUpdateTime.get() >= lifetimeMillis;
+    public long getExpirationTime() {
+      long lastUpdate = lastUpdateTime.get();
+      return lifetimeMillis > Long.MAX_VALUE - lastUpdate
+          ? Long.MAX_VALUE
+          : lastUpdate + lifetimeMillis;
+    }
+
+    public boolean isExpired(long currentTimeMillis) {
+      return currentTimeMillis - lastUpdateTime.get() >= lifetimeMillis;
     }
 
     public V get() {
       return value;
     }
   }
+
+  private static class TimerEntry<K, V> {
+    private final K key;
+    private final ValueHolder<V> holder;
+    private final long tick;
+
+    private TimerEntry(K key, ValueHolder<V> holder, long tick) {
+      this.key = key;
+      this.holder = holder;
+      this.tick = tick;
+    }
+  }
 }
@@ -28,8 +28,10 @@ import com.scalar.db.io.IntValue;
 import com.scalar.db.io.TextColumn;
 import com.scalar.db.io.TextValue;
 import com.scalar.db.io.Value;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -154,6 +156,35 @@ public final class ScalarDbUtils {
     }
   }
 
+  /**
+   * Returns the time remaining until the earliest deadline of the specified operations.
+   *
+   * @param operations operations
+   * @return the remaining time in milliseconds, which is zero or negative if the deadline has
+   *     already passed. empty if none of the operations has a deadline
+   */
+  public static OptionalLong getRemainingTimeMillis(List<? extends Operation> operations) {
+    long deadline = Long.MAX_VALUE;
+    for (Operation operation : operations) {
+      deadline = Math.min(deadline, operation.getDeadlineMillis());
+    }
+    if (deadline == Long.MAX_VALUE) {
+      return OptionalLong.empty();
+    }
+    return OptionalLong.of(deadline - System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the time remaining until the deadline of the specified operation.
+   *
+   * @param operation an operation
+   * @return the remaining time in milliseconds, which is zero or negative if the deadline has
+   *     already passed. empty if the operation doesn't have a deadline
+   */
+  public static OptionalLong getRemainingTimeMillis(Operation operation) {
+    return getRemainingTimeMillis(Collections.singletonList(operation));
+  }
+
   /**
    * Return a fully qualified table name
    *
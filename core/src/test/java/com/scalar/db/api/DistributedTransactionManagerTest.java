@@ -0,0 +1,81 @@
+package com.scalar.db.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
+import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class DistributedTransactionManagerTest {
+
+  private DistributedTransactionManager manager;
+  private DistributedTransaction transaction;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    // Arrange
+    manager =
+        mock(
+            DistributedTransactionManager.class,
+            withSettings().defaultAnswer(Mockito.CALLS_REAL_METHODS));
+    transaction = mock(DistributedTransaction.class);
+    doReturn(transaction).when(manager).begin();
+  }
+
+  @Test
+  public void execute_ConflictThrownOnce_ShouldAbortAndRetryInNewTransaction() throws Exception {
+    // Arrange
+    AtomicInteger calls = new AtomicInteger();
+    TransactionFunction<Integer> function =
+        t -> {
+          if (calls.incrementAndGet() == 1) {
+            throw new CrudConflictException("conflict");
+          }
+          return 1;
+        };
+
+    // Act
+    int actual = manager.execute(function);
+
+    // Assert
+    assertThat(actual).isEqualTo(1);
+    verify(manager, times(2)).begin();
+    verify(transaction).abort();
+    verify(transaction).commit();
+  }
+
+  @Test
+  public void execute_ConflictKeptThrown_ShouldThrowAfterTenRetries() throws Exception {
+    // Arrange
+    doThrow(new CommitConflictException("conflict")).when(transaction).commit();
+
+    // Act Assert
+    assertThatThrownBy(() -> manager.execute(t -> 1)).isInstanceOf(CommitConflictException.class);
+    verify(manager, times(11)).begin();
+  }
+
+  @Test
+  public void execute_UnknownTransactionStatusExceptionThrown_ShouldThrowWithoutAborting()
+      throws Exception {
+    // Arrange
+    doThrow(new UnknownTransactionStatusException("unknown")).when(transaction).commit();
+
+    // Act Assert
+    assertThatThrownBy(() -> manager.execute(t -> 1))
+        .isInstanceOf(UnknownTransactionStatusException.class);
+    verify(manager).begin();
+    verify(transaction, never()).abort();
+  }
+}
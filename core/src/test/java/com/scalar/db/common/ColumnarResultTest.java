@@ -0,0 +1,248 @@
+package com.scalar.db.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableMap;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.io.BigIntColumn;
+import com.scalar.db.io.BlobColumn;
+import com.scalar.db.io.BooleanColumn;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.DoubleColumn;
+import com.scalar.db.io.FloatColumn;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.Key;
+import com.scalar.db.io.TextColumn;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+public class ColumnarResultTest {
+
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_NAME_2 = "name2";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_TEXT_2 = "text2";
+  private static final String ANY_COLUMN_NAME_1 = "col1";
+  private static final String ANY_COLUMN_NAME_2 = "col2";
+  private static final String ANY_COLUMN_NAME_3 = "col3";
+  private static final String ANY_COLUMN_NAME_4 = "col4";
+  private static final String ANY_COLUMN_NAME_5 = "col5";
+  private static final String ANY_COLUMN_NAME_6 = "col6";
+  private static final String ANY_COLUMN_NAME_7 = "col7";
+
+  private static final TableMetadata TABLE_METADATA =
+      TableMetadata.newBuilder()
+          .addColumn(ANY_NAME_1, DataType.TEXT)
+          .addColumn(ANY_NAME_2, DataType.TEXT)
+          .addColumn(ANY_COLUMN_NAME_1, DataType.BOOLEAN)
+          .addColumn(ANY_COLUMN_NAME_2, DataType.INT)
+          .addColumn(ANY_COLUMN_NAME_3, DataType.BIGINT)
+          .addColumn(ANY_COLUMN_NAME_4, DataType.FLOAT)
+          .addColumn(ANY_COLUMN_NAME_5, DataType.DOUBLE)
+          .addColumn(ANY_COLUMN_NAME_6, DataType.TEXT)
+          .addColumn(ANY_COLUMN_NAME_7, DataType.BLOB)
+          .addPartitionKey(ANY_NAME_1)
+          .addClusteringKey(ANY_NAME_2)
+          .build();
+
+  private static final byte[] ANY_BYTES = "bytes".getBytes(StandardCharsets.UTF_8);
+
+  private ColumnarResult buildResult() {
+    return ColumnarResult.newBuilder(TABLE_METADATA)
+        .setText(ANY_NAME_1, ANY_TEXT_1)
+        .setText(ANY_NAME_2, ANY_TEXT_2)
+        .setBoolean(ANY_COLUMN_NAME_1, true)
+        .setInt(ANY_COLUMN_NAME_2, Integer.MAX_VALUE)
+        .setBigInt(ANY_COLUMN_NAME_3, BigIntColumn.MAX_VALUE)
+        .setFloat(ANY_COLUMN_NAME_4, Float.MAX_VALUE)
+        .setDouble(ANY_COLUMN_NAME_5, Double.MAX_VALUE)
+        .setText(ANY_COLUMN_NAME_6, "string")
+        .setBlob(ANY_COLUMN_NAME_7, ANY_BYTES)
+        .build();
+  }
+
+  private Map<String, Column<?>> buildColumns() {
+    return ImmutableMap.<String, Column<?>>builder()
+        .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+        .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+        .put(ANY_COLUMN_NAME_1, BooleanColumn.of(ANY_COLUMN_NAME_1, true))
+        .put(ANY_COLUMN_NAME_2, IntColumn.of(ANY_COLUMN_NAME_2, Integer.MAX_VALUE))
+        .put(ANY_COLUMN_NAME_3, BigIntColumn.of(ANY_COLUMN_NAME_3, BigIntColumn.MAX_VALUE))
+        .put(ANY_COLUMN_NAME_4, FloatColumn.of(ANY_COLUMN_NAME_4, Float.MAX_VALUE))
+        .put(ANY_COLUMN_NAME_5, DoubleColumn.of(ANY_COLUMN_NAME_5, Double.MAX_VALUE))
+        .put(ANY_COLUMN_NAME_6, TextColumn.of(ANY_COLUMN_NAME_6, "string"))
+        .put(ANY_COLUMN_NAME_7, BlobColumn.of(ANY_COLUMN_NAME_7, ANY_BYTES))
+        .build();
+  }
+
+  @Test
+  public void getters_ProperValuesSet_ShouldReturnWhatsSet() {
+    // Arrange
+    ColumnarResult result = buildResult();
+
+    // Act Assert
+    assertThat(result.getText(ANY_NAME_1)).isEqualTo(ANY_TEXT_1);
+    assertThat(result.getText(ANY_NAME_2)).isEqualTo(ANY_TEXT_2);
+    assertThat(result.getBoolean(ANY_COLUMN_NAME_1)).isTrue();
+    assertThat(result.getInt(ANY_COLUMN_NAME_2)).isEqualTo(Integer.MAX_VALUE);
+    assertThat(result.getBigInt(ANY_COLUMN_NAME_3)).isEqualTo(BigIntColumn.MAX_VALUE);
+    assertThat(result.getFloat(ANY_COLUMN_NAME_4)).isEqualTo(Float.MAX_VALUE);
+    assertThat(result.getDouble(ANY_COLUMN_NAME_5)).isEqualTo(Double.MAX_VALUE);
+    assertThat(result.getText(ANY_COLUMN_NAME_6)).isEqualTo("string");
+    assertThat(result.getBlobAsBytes(ANY_COLUMN_NAME_7)).isEqualTo(ANY_BYTES);
+    assertThat(result.getBlobAsByteBuffer(ANY_COLUMN_NAME_7)).isEqualTo(ByteBuffer.wrap(ANY_BYTES));
+
+    assertThat(result.getAsObject(ANY_COLUMN_NAME_1)).isEqualTo(true);
+    assertThat(result.getAsObject(ANY_COLUMN_NAME_2)).isEqualTo(Integer.MAX_VALUE);
+    assertThat(result.getAsObject(ANY_COLUMN_NAME_3)).isEqualTo(BigIntColumn.MAX_VALUE);
+    assertThat(result.getAsObject(ANY_COLUMN_NAME_4)).isEqualTo(Float.MAX_VALUE);
+    assertThat(result.getAsObject(ANY_COLUMN_NAME_5)).isEqualTo(Double.MAX_VALUE);
+    assertThat(result.getAsObject(ANY_COLUMN_NAME_7)).isEqualTo(ByteBuffer.wrap(ANY_BYTES));
+
+    assertThat(result.isNull(ANY_COLUMN_NAME_2)).isFalse();
+    assertThat(result.contains(ANY_COLUMN_NAME_2)).isTrue();
+    assertThat(result.getContainedColumnNames())
+        .containsExactly(
+            ANY_NAME_1,
+            ANY_NAME_2,
+            ANY_COLUMN_NAME_1,
+            ANY_COLUMN_NAME_2,
+            ANY_COLUMN_NAME_3,
+            ANY_COLUMN_NAME_4,
+            ANY_COLUMN_NAME_5,
+            ANY_COLUMN_NAME_6,
+            ANY_COLUMN_NAME_7);
+  }
+
+  @Test
+  public void getters_NullValuesSet_ShouldReturnNullOrDefaultValues() {
+    // Arrange
+    ColumnarResult result =
+        ColumnarResult.newBuilder(TABLE_METADATA)
+            .setInt(ANY_COLUMN_NAME_2, 10)
+            .setNull(ANY_COLUMN_NAME_2)
+            .setNull(ANY_COLUMN_NAME_5)
+            .setText(ANY_COLUMN_NAME_6, null)
+            .setBlob(ANY_COLUMN_NAME_7, null)
+            .build();
+
+    // Act Assert
+    assertThat(result.isNull(ANY_COLUMN_NAME_2)).isTrue();
+    assertThat(result.getAsObject(ANY_COLUMN_NAME_2)).isNull();
+    assertThat(result.isNull(ANY_COLUMN_NAME_5)).isTrue();
+    assertThat(result.getDouble(ANY_COLUMN_NAME_5)).isEqualTo(0.0D);
+    assertThat(result.isNull(ANY_COLUMN_NAME_6)).isTrue();
+    assertThat(result.getText(ANY_COLUMN_NAME_6)).isNull();
+    assertThat(result.isNull(ANY_COLUMN_NAME_7)).isTrue();
+    assertThat(result.getBlobAsBytes(ANY_COLUMN_NAME_7)).isNull();
+    assertThat(result.getColumns())
+        .isEqualTo(
+            ImmutableMap.<String, Column<?>>of(
+                ANY_COLUMN_NAME_2, IntColumn.ofNull(ANY_COLUMN_NAME_2),
+                ANY_COLUMN_NAME_5, DoubleColumn.ofNull(ANY_COLUMN_NAME_5),
+                ANY_COLUMN_NAME_6, TextColumn.ofNull(ANY_COLUMN_NAME_6),
+                ANY_COLUMN_NAME_7, BlobColumn.ofNull(ANY_COLUMN_NAME_7)));
+  }
+
+  @Test
+  public void getters_NotContainedColumnGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    ColumnarResult result =
+        ColumnarResult.newBuilder(TABLE_METADATA).setInt(ANY_COLUMN_NAME_2, 10).build();
+
+    // Act Assert
+    assertThat(result.contains(ANY_COLUMN_NAME_3)).isFalse();
+    assertThat(result.contains("unknown")).isFalse();
+    assertThatThrownBy(() -> result.getBigInt(ANY_COLUMN_NAME_3))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> result.getInt("unknown")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void getters_WrongTypeGiven_ShouldThrowUnsupportedOperationException() {
+    // Arrange
+    ColumnarResult result = buildResult();
+
+    // Act Assert
+    assertThatThrownBy(() -> result.getBigInt(ANY_COLUMN_NAME_2))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> result.getText(ANY_COLUMN_NAME_7))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void getColumns_ProperValuesSet_ShouldReturnSameColumnsAsResultImpl() {
+    // Arrange
+    ColumnarResult result = buildResult();
+    ResultImpl expected = new ResultImpl(buildColumns(), TABLE_METADATA);
+
+    // Act
+    Map<String, Column<?>> columns = result.getColumns();
+
+    // Assert
+    assertThat(columns).isEqualTo(expected.getColumns());
+    assertThat(result.getColumns()).isSameAs(columns);
+    assertThat(result).isEqualTo(expected);
+    assertThat(result.hashCode()).isEqualTo(expected.hashCode());
+  }
+
+  @Test
+  public void set_ColumnsGiven_ShouldBuildSameResultAsSetters() {
+    // Arrange
+    ColumnarResult.Builder builder = ColumnarResult.newBuilder(TABLE_METADATA);
+
+    // Act
+    buildColumns().values().forEach(builder::set);
+    builder.set(IntColumn.ofNull(ANY_COLUMN_NAME_2));
+    ColumnarResult result = builder.build();
+
+    // Assert
+    assertThat(result.getText(ANY_NAME_1)).isEqualTo(ANY_TEXT_1);
+    assertThat(result.getFloat(ANY_COLUMN_NAME_4)).isEqualTo(Float.MAX_VALUE);
+    assertThat(result.isNull(ANY_COLUMN_NAME_2)).isTrue();
+  }
+
+  @Test
+  public void getPartitionKeyAndGetClusteringKey_KeysContained_ShouldReturnKeys() {
+    // Arrange
+    ColumnarResult result = buildResult();
+
+    // Act
+    Optional<Key> partitionKey = result.getPartitionKey();
+    Optional<Key> clusteringKey = result.getClusteringKey();
+
+    // Assert
+    assertThat(partitionKey).hasValue(Key.ofText(ANY_NAME_1, ANY_TEXT_1));
+    assertThat(clusteringKey).hasValue(Key.ofText(ANY_NAME_2, ANY_TEXT_2));
+  }
+
+  @Test
+  public void getPartitionKey_KeyNotContained_ShouldReturnEmpty() {
+    // Arrange
+    ColumnarResult result =
+        ColumnarResult.newBuilder(TABLE_METADATA).setText(ANY_NAME_2, ANY_TEXT_2).build();
+
+    // Act
+    Optional<Key> key = result.getPartitionKey();
+
+    // Assert
+    assertThat(key).isNotPresent();
+  }
+
+  @Test
+  public void set_WrongTypeOrUnknownColumnGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    ColumnarResult.Builder builder = ColumnarResult.newBuilder(TABLE_METADATA);
+
+    // Act Assert
+    assertThatThrownBy(() -> builder.setInt(ANY_COLUMN_NAME_3, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.setInt("unknown", 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
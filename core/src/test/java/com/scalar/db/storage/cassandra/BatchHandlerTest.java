@@ -1,9 +1,12 @@
 package com.scalar.db.storage.cassandra;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -11,6 +14,7 @@ import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.WriteType;
@@ -25,6 +29,9 @@ import com.scalar.db.exception.storage.RetriableExecutionException;
 import com.scalar.db.io.Key;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -267,4 +274,66 @@ public class BatchHandlerTest {
     // Act Assert
     assertThatThrownBy(() -> new BatchHandler(null, null)).isInstanceOf(NullPointerException.class);
   }
+
+  @Test
+  public void handleAsync_CorrectHandlerAndConditionalOperationsGiven_ShouldCompleteProperly() {
+    // Arrange
+    configureBehavior();
+    mutations = prepareConditionalPuts();
+    ResultSetFuture future = prepareResultSetFuture(results, null);
+    when(session.executeAsync(any(Statement.class))).thenReturn(future);
+    when(results.wasApplied()).thenReturn(true);
+
+    // Act
+    CompletableFuture<Void> actual = batch.handleAsync(mutations);
+
+    // Assert
+    assertThat(actual).isCompleted();
+    verify(session, never()).execute(any(Statement.class));
+  }
+
+  @Test
+  public void handleAsync_WTEThrownInLoggingInBatchExecution_ShouldCompleteWithRetriableException()
+      throws Exception {
+    // Arrange
+    configureBehavior();
+    mutations = prepareConditionalPuts();
+    WriteTimeoutException e = mock(WriteTimeoutException.class);
+    when(e.getWriteType()).thenReturn(WriteType.BATCH_LOG);
+    ResultSetFuture future = prepareResultSetFuture(null, e);
+    when(session.executeAsync(any(Statement.class))).thenReturn(future);
+
+    // Act
+    CompletableFuture<Void> actual = batch.handleAsync(mutations);
+
+    // Assert
+    assertThatThrownBy(actual::get)
+        .hasCauseInstanceOf(RetriableExecutionException.class)
+        .hasRootCause(e);
+  }
+
+  private ResultSetFuture prepareResultSetFuture(
+      @Nullable ResultSet resultSet, @Nullable Exception exception) {
+    ResultSetFuture future = mock(ResultSetFuture.class);
+    try {
+      when(future.isDone()).thenReturn(true);
+      if (exception == null) {
+        when(future.get()).thenReturn(resultSet);
+      } else {
+        java.util.concurrent.ExecutionException toThrow =
+            new java.util.concurrent.ExecutionException(exception);
+        when(future.get()).thenThrow(toThrow);
+      }
+    } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+      throw new AssertionError(e);
+    }
+    doAnswer(
+            invocation -> {
+              ((Executor) invocation.getArgument(1)).execute(invocation.getArgument(0));
+              return null;
+            })
+        .when(future)
+        .addListener(any(Runnable.class), any(Executor.class));
+    return future;
+  }
 }
@@ -0,0 +1,65 @@
+package com.scalar.db.storage.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class LazyClientTest {
+
+  @Test
+  public void get_CalledTwice_ShouldCreateClientOnlyOnce() {
+    // Arrange
+    AtomicInteger created = new AtomicInteger();
+    LazyClient<AutoCloseable> lazyClient =
+        new LazyClient<>(
+            () -> {
+              created.incrementAndGet();
+              return mock(AutoCloseable.class);
+            });
+
+    // Act
+    AutoCloseable client1 = lazyClient.get();
+    AutoCloseable client2 = lazyClient.get();
+
+    // Assert
+    assertThat(client1).isSameAs(client2);
+    assertThat(created.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void close_ClientNotCreated_ShouldNotCreateClient() {
+    // Arrange
+    AtomicInteger created = new AtomicInteger();
+    LazyClient<AutoCloseable> lazyClient =
+        new LazyClient<>(
+            () -> {
+              created.incrementAndGet();
+              return mock(AutoCloseable.class);
+            });
+
+    // Act
+    lazyClient.close();
+
+    // Assert
+    assertThat(created.get()).isEqualTo(0);
+    assertThatThrownBy(lazyClient::get).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void close_ClientCreated_ShouldCloseClient() throws Exception {
+    // Arrange
+    AutoCloseable client = mock(AutoCloseable.class);
+    LazyClient<AutoCloseable> lazyClient = new LazyClient<>(() -> client);
+    lazyClient.get();
+
+    // Act
+    lazyClient.close();
+
+    // Assert
+    verify(client).close();
+  }
+}
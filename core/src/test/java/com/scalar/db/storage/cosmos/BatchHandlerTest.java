@@ -11,6 +11,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.azure.cosmos.CosmosAsyncClient;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.CosmosDatabase;
@@ -54,6 +55,7 @@ public class BatchHandlerTest {
 
   private BatchHandler handler;
   @Mock private CosmosClient client;
+  @Mock private CosmosAsyncClient asyncClient;
   @Mock private CosmosDatabase database;
   @Mock private CosmosContainer container;
   @Mock private TableMetadataManager metadataManager;
@@ -68,7 +70,7 @@ public class BatchHandlerTest {
   public void setUp() throws Exception {
     MockitoAnnotations.openMocks(this).close();
 
-    handler = new BatchHandler(client, metadataManager);
+    handler = new BatchHandler(client, () -> asyncClient, metadataManager);
     when(client.getDatabase(anyString())).thenReturn(database);
     when(database.getContainer(anyString())).thenReturn(container);
 
@@ -12,6 +12,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.azure.cosmos.CosmosAsyncClient;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.CosmosDatabase;
@@ -53,6 +54,7 @@ public class DeleteStatementHandlerTest {
   private String id;
   private PartitionKey cosmosPartitionKey;
   @Mock private CosmosClient client;
+  @Mock private CosmosAsyncClient asyncClient;
   @Mock private CosmosDatabase database;
   @Mock private CosmosContainer container;
   @Mock private TableMetadataManager metadataManager;
@@ -68,7 +70,7 @@ public class DeleteStatementHandlerTest {
   public void setUp() throws Exception {
     MockitoAnnotations.openMocks(this).close();
 
-    handler = new DeleteStatementHandler(client, metadataManager);
+    handler = new DeleteStatementHandler(client, () -> asyncClient, metadataManager);
     when(client.getDatabase(anyString())).thenReturn(database);
     when(database.getContainer(anyString())).thenReturn(container);
 
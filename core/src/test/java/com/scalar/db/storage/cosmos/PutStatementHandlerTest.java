@@ -8,9 +8,15 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosAsyncDatabase;
+import com.azure.cosmos.CosmosAsyncScripts;
+import com.azure.cosmos.CosmosAsyncStoredProcedure;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.CosmosDatabase;
@@ -31,12 +37,14 @@ import com.scalar.db.io.Key;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Mono;
 
 public class PutStatementHandlerTest {
   private static final String ANY_NAMESPACE_NAME = "namespace";
@@ -52,6 +60,7 @@ public class PutStatementHandlerTest {
 
   private PutStatementHandler handler;
   @Mock private CosmosClient client;
+  @Mock private CosmosAsyncClient asyncClient;
   @Mock private CosmosDatabase database;
   @Mock private CosmosContainer container;
   @Mock private TableMetadataManager metadataManager;
@@ -66,7 +75,7 @@ public class PutStatementHandlerTest {
   public void setUp() throws Exception {
     MockitoAnnotations.openMocks(this).close();
 
-    handler = new PutStatementHandler(client, metadataManager);
+    handler = new PutStatementHandler(client, () -> asyncClient, metadataManager);
     when(client.getDatabase(anyString())).thenReturn(database);
     when(database.getContainer(anyString())).thenReturn(container);
 
@@ -251,4 +260,54 @@ public class PutStatementHandlerTest {
         .isInstanceOf(RetriableExecutionException.class)
         .hasCause(toThrow);
   }
+
+  @Test
+  public void handleAsync_PutGiven_ShouldCallStoredProcedureOfAsyncClient() {
+    // Arrange
+    CosmosAsyncStoredProcedure asyncStoredProcedure = prepareAsyncStoredProcedure();
+    when(asyncStoredProcedure.execute(anyList(), any(CosmosStoredProcedureRequestOptions.class)))
+        .thenReturn(Mono.just(spResponse));
+    Put put = preparePut();
+    CosmosMutation cosmosMutation = new CosmosMutation(put, metadata);
+
+    // Act
+    CompletableFuture<Void> future = handler.handleAsync(put);
+
+    // Assert
+    assertThat(future).isCompleted();
+    verify(asyncStoredProcedure)
+        .execute(captor.capture(), any(CosmosStoredProcedureRequestOptions.class));
+    assertThat(captor.getValue().get(2)).isEqualTo(cosmosMutation.makeRecord());
+    verify(client, never()).getDatabase(anyString());
+  }
+
+  @Test
+  public void
+      handleAsync_PutWithConditionGivenAndPreconditionFailed_ShouldCompleteWithNoMutationException() {
+    // Arrange
+    CosmosAsyncStoredProcedure asyncStoredProcedure = prepareAsyncStoredProcedure();
+    CosmosException toThrow = mock(CosmosException.class);
+    when(toThrow.getSubStatusCode()).thenReturn(CosmosErrorCode.PRECONDITION_FAILED.get());
+    when(asyncStoredProcedure.execute(anyList(), any(CosmosStoredProcedureRequestOptions.class)))
+        .thenReturn(Mono.error(toThrow));
+    Put put = preparePut().withCondition(new PutIfExists());
+
+    // Act
+    CompletableFuture<Void> future = handler.handleAsync(put);
+
+    // Assert
+    assertThatThrownBy(future::get).hasCauseInstanceOf(NoMutationException.class);
+  }
+
+  private CosmosAsyncStoredProcedure prepareAsyncStoredProcedure() {
+    CosmosAsyncDatabase asyncDatabase = mock(CosmosAsyncDatabase.class);
+    CosmosAsyncContainer asyncContainer = mock(CosmosAsyncContainer.class);
+    CosmosAsyncScripts asyncScripts = mock(CosmosAsyncScripts.class);
+    CosmosAsyncStoredProcedure asyncStoredProcedure = mock(CosmosAsyncStoredProcedure.class);
+    when(asyncClient.getDatabase(anyString())).thenReturn(asyncDatabase);
+    when(asyncDatabase.getContainer(anyString())).thenReturn(asyncContainer);
+    when(asyncContainer.getScripts()).thenReturn(asyncScripts);
+    when(asyncScripts.getStoredProcedure(anyString())).thenReturn(asyncStoredProcedure);
+    return asyncStoredProcedure;
+  }
 }
@@ -19,7 +19,7 @@ public class StatementHandlerTest {
   @Test
   public void constructor_NullGiven_ShouldThrowNullPointerException() {
     // Act Assert
-    assertThatThrownBy(() -> new SelectStatementHandler(null, metadataManager))
+    assertThatThrownBy(() -> new SelectStatementHandler(null, null, metadataManager))
         .isInstanceOf(NullPointerException.class);
   }
 }
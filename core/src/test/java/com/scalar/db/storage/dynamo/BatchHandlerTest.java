@@ -27,6 +27,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
@@ -47,6 +48,7 @@ public class BatchHandlerTest {
 
   private BatchHandler handler;
   @Mock private DynamoDbClient client;
+  @Mock private DynamoDbAsyncClient asyncClient;
   @Mock private TableMetadataManager metadataManager;
   @Mock private TableMetadata metadata;
 
@@ -54,7 +56,7 @@ public class BatchHandlerTest {
   public void setUp() throws Exception {
     MockitoAnnotations.openMocks(this).close();
 
-    handler = new BatchHandler(client, metadataManager);
+    handler = new BatchHandler(client, () -> asyncClient, metadataManager);
 
     when(metadataManager.getTableMetadata(any(Operation.class))).thenReturn(metadata);
     when(metadata.getPartitionKeyNames())
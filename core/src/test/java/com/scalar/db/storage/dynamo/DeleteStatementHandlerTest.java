@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
@@ -40,6 +41,7 @@ public class DeleteStatementHandlerTest {
 
   private DeleteStatementHandler handler;
   @Mock private DynamoDbClient client;
+  @Mock private DynamoDbAsyncClient asyncClient;
   @Mock private TableMetadataManager metadataManager;
   @Mock private TableMetadata metadata;
   @Mock private DeleteItemResponse response;
@@ -48,7 +50,7 @@ public class DeleteStatementHandlerTest {
   public void setUp() throws Exception {
     MockitoAnnotations.openMocks(this).close();
 
-    handler = new DeleteStatementHandler(client, metadataManager);
+    handler = new DeleteStatementHandler(client, () -> asyncClient, metadataManager);
 
     when(metadataManager.getTableMetadata(any(Operation.class))).thenReturn(metadata);
     when(metadata.getPartitionKeyNames())
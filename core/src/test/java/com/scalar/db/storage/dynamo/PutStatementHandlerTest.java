@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -21,11 +22,13 @@ import com.scalar.db.io.Key;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
@@ -47,6 +50,7 @@ public class PutStatementHandlerTest {
 
   private PutStatementHandler handler;
   @Mock private DynamoDbClient client;
+  @Mock private DynamoDbAsyncClient asyncClient;
   @Mock private TableMetadataManager metadataManager;
   @Mock private TableMetadata metadata;
   @Mock private UpdateItemResponse updateResponse;
@@ -55,7 +59,7 @@ public class PutStatementHandlerTest {
   public void setUp() throws Exception {
     MockitoAnnotations.openMocks(this).close();
 
-    handler = new PutStatementHandler(client, metadataManager);
+    handler = new PutStatementHandler(client, () -> asyncClient, metadataManager);
 
     when(metadataManager.getTableMetadata(any(Operation.class))).thenReturn(metadata);
     when(metadata.getPartitionKeyNames())
@@ -198,4 +202,42 @@ public class PutStatementHandlerTest {
     // Act Assert
     assertThatThrownBy(() -> handler.handle(put)).isInstanceOf(NoMutationException.class);
   }
+
+  @Test
+  public void handleAsync_PutWithoutConditionsGiven_ShouldCallUpdateItemOfAsyncClient() {
+    // Arrange
+    when(asyncClient.updateItem(any(UpdateItemRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(updateResponse));
+    Put put = preparePut();
+    DynamoMutation dynamoMutation = new DynamoMutation(put, metadata);
+
+    // Act
+    CompletableFuture<Void> future = handler.handleAsync(put);
+
+    // Assert
+    assertThat(future).isCompleted();
+    ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+    verify(asyncClient).updateItem(captor.capture());
+    assertThat(captor.getValue().key()).isEqualTo(dynamoMutation.getKeyMap());
+    verify(client, never()).updateItem(any(UpdateItemRequest.class));
+  }
+
+  @Test
+  public void
+      handleAsync_PutWithConditionGivenAndConditionalCheckFailed_ShouldCompleteWithNoMutationException() {
+    // Arrange
+    ConditionalCheckFailedException toThrow = mock(ConditionalCheckFailedException.class);
+    CompletableFuture<UpdateItemResponse> failed = new CompletableFuture<>();
+    failed.completeExceptionally(toThrow);
+    when(asyncClient.updateItem(any(UpdateItemRequest.class))).thenReturn(failed);
+    Put put = preparePut().withCondition(new PutIfExists());
+
+    // Act
+    CompletableFuture<Void> future = handler.handleAsync(put);
+
+    // Assert
+    assertThatThrownBy(future::get)
+        .hasCauseInstanceOf(NoMutationException.class)
+        .hasRootCause(toThrow);
+  }
 }
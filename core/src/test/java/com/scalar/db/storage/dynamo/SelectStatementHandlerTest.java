@@ -37,6 +37,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
@@ -63,6 +64,7 @@ public class SelectStatementHandlerTest {
 
   private SelectStatementHandler handler;
   @Mock private DynamoDbClient client;
+  @Mock private DynamoDbAsyncClient asyncClient;
   @Mock private TableMetadataManager metadataManager;
   @Mock private TableMetadata metadata;
   @Mock private GetItemResponse getResponse;
@@ -73,7 +75,7 @@ public class SelectStatementHandlerTest {
   public void setUp() throws Exception {
     MockitoAnnotations.openMocks(this).close();
 
-    handler = new SelectStatementHandler(client, metadataManager);
+    handler = new SelectStatementHandler(client, () -> asyncClient, metadataManager);
 
     when(metadataManager.getTableMetadata(any(Operation.class))).thenReturn(metadata);
     when(metadata.getPartitionKeyNames())
@@ -1,10 +1,12 @@
 package com.scalar.db.storage.jdbc;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.scalar.db.api.Delete;
 import com.scalar.db.api.DeleteIfExists;
 import com.scalar.db.api.Get;
@@ -21,6 +23,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -51,7 +54,12 @@ public class JdbcDatabaseTest {
     // Arrange
     when(dataSource.getConnection()).thenReturn(connection);
     jdbcDatabase =
-        new JdbcDatabase(dataSource, tableMetadataDataSource, RdbEngine.MYSQL, jdbcService);
+        new JdbcDatabase(
+            dataSource,
+            tableMetadataDataSource,
+            RdbEngine.MYSQL,
+            jdbcService,
+            MoreExecutors.newDirectExecutorService());
   }
 
   @Test
@@ -322,4 +330,51 @@ public class JdbcDatabaseTest {
         .isInstanceOf(RetriableExecutionException.class);
     verify(connection).close();
   }
+
+  @Test
+  public void whenMutateAsyncOperationExecuted_shouldCallJdbcServiceAndCompleteFuture()
+      throws Exception {
+    // Arrange
+    when(jdbcService.mutate(any(), any())).thenReturn(true);
+    Put put =
+        new Put(new Key("p1", "val1"))
+            .withValue("v1", "val2")
+            .forNamespace(NAMESPACE)
+            .forTable(TABLE);
+    Delete delete = new Delete(new Key("p1", "val1")).forNamespace(NAMESPACE).forTable(TABLE);
+
+    // Act
+    CompletableFuture<Void> future = jdbcDatabase.mutateAsync(Arrays.asList(put, delete));
+
+    // Assert
+    assertThat(future).isCompleted();
+    verify(jdbcService).mutate(any(), any());
+    verify(connection).close();
+  }
+
+  @Test
+  public void
+      whenMutateAsyncOperationExecutedAndJdbcServiceReturnsFalse_shouldCompleteFutureWithNoMutationException()
+          throws Exception {
+    // Arrange
+    when(jdbcService.mutate(any(), any())).thenReturn(false);
+    Put put =
+        new Put(new Key("p1", "val1"))
+            .withValue("v1", "val2")
+            .withCondition(new PutIfNotExists())
+            .forNamespace(NAMESPACE)
+            .forTable(TABLE);
+    Delete delete =
+        new Delete(new Key("p1", "val1"))
+            .withCondition(new DeleteIfExists())
+            .forNamespace(NAMESPACE)
+            .forTable(TABLE);
+
+    // Act
+    CompletableFuture<Void> future = jdbcDatabase.mutateAsync(Arrays.asList(put, delete));
+
+    // Assert
+    assertThatThrownBy(future::get).hasCauseInstanceOf(NoMutationException.class);
+    verify(connection).close();
+  }
 }
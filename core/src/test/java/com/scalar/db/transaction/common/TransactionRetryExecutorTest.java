@@ -0,0 +1,180 @@
+package com.scalar.db.transaction.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
+import com.scalar.db.exception.transaction.CrudException;
+import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class TransactionRetryExecutorTest {
+  private static final String ANY_KEY = "key";
+  private static final String ANY_RESULT = "result";
+
+  @Mock private DistributedTransactionManager manager;
+  @Mock private DistributedTransaction transaction;
+  private TransactionRetryExecutor executor;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+
+    // Arrange
+    when(manager.begin()).thenReturn(transaction);
+    when(transaction.getId()).thenReturn("id");
+    executor =
+        spy(
+            new TransactionRetryExecutor(
+                manager,
+                (t, e) -> Collections.singletonList(ANY_KEY),
+                3,
+                10,
+                1000,
+                TransactionRetryExecutor.DEFAULT_CONTENTION_HALF_LIFE_MILLIS,
+                TransactionRetryExecutor.DEFAULT_MAX_CONTENTION_FACTOR));
+    doNothing().when(executor).sleep(anyLong());
+  }
+
+  @Test
+  public void execute_FunctionSucceeded_ShouldCommitAndReturnResult() throws TransactionException {
+    // Arrange
+
+    // Act
+    String actual = executor.execute(t -> ANY_RESULT);
+
+    // Assert
+    assertThat(actual).isEqualTo(ANY_RESULT);
+    verify(transaction).commit();
+    verify(transaction, never()).abort();
+    verify(executor, never()).sleep(anyLong());
+    assertThat(executor.getExecutedCount()).isEqualTo(1);
+    assertThat(executor.getSucceededCount()).isEqualTo(1);
+    assertThat(executor.getSucceededAfterRetryCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void execute_ConflictedOnceAndThenSucceeded_ShouldAbortAndRetry()
+      throws TransactionException {
+    // Arrange
+    AtomicInteger calls = new AtomicInteger();
+
+    // Act
+    String actual =
+        executor.execute(
+            t -> {
+              if (calls.getAndIncrement() == 0) {
+                throw new CrudConflictException("conflict");
+              }
+              return ANY_RESULT;
+            });
+
+    // Assert
+    assertThat(actual).isEqualTo(ANY_RESULT);
+    verify(manager, times(2)).begin();
+    verify(transaction).abort();
+    verify(transaction).commit();
+    verify(executor).sleep(anyLong());
+    assertThat(executor.getSucceededCount()).isEqualTo(1);
+    assertThat(executor.getSucceededAfterRetryCount()).isEqualTo(1);
+    assertThat(executor.getConflictCount()).isEqualTo(1);
+    assertThat(executor.getRetriedCount()).isEqualTo(1);
+    assertThat(executor.getContention(ANY_KEY)).isGreaterThan(0);
+  }
+
+  @Test
+  public void execute_KeptConflictingInCommit_ShouldThrowCommitConflictExceptionAfterMaxRetries()
+      throws TransactionException {
+    // Arrange
+    CommitConflictException toThrow = new CommitConflictException("conflict");
+    doThrow(toThrow).when(transaction).commit();
+
+    // Act Assert
+    assertThatThrownBy(() -> executor.execute(t -> ANY_RESULT)).isEqualTo(toThrow);
+    verify(manager, times(4)).begin();
+    verify(executor, times(3)).sleep(anyLong());
+    assertThat(executor.getFailedCount()).isEqualTo(1);
+    assertThat(executor.getConflictCount()).isEqualTo(4);
+    assertThat(executor.getRetriedCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void execute_NonConflictExceptionThrown_ShouldAbortAndThrowWithoutRetrying()
+      throws TransactionException {
+    // Arrange
+    CrudException toThrow = new CrudException("failure");
+
+    // Act Assert
+    assertThatThrownBy(
+            () ->
+                executor.execute(
+                    t -> {
+                      throw toThrow;
+                    }))
+        .isEqualTo(toThrow);
+    verify(manager).begin();
+    verify(transaction).abort();
+    verify(transaction, never()).commit();
+    assertThat(executor.getFailedCount()).isEqualTo(1);
+    assertThat(executor.getContention(ANY_KEY)).isEqualTo(0);
+  }
+
+  @Test
+  public void execute_UnknownTransactionStatusExceptionThrown_ShouldThrowWithoutAborting()
+      throws TransactionException {
+    // Arrange
+    UnknownTransactionStatusException toThrow = new UnknownTransactionStatusException("unknown");
+    doThrow(toThrow).when(transaction).commit();
+
+    // Act Assert
+    assertThatThrownBy(() -> executor.execute(t -> ANY_RESULT)).isEqualTo(toThrow);
+    verify(transaction, never()).abort();
+    verify(manager).begin();
+  }
+
+  @Test
+  public void computeBackoffMillis_HotKeyGiven_ShouldBackOffLongerThanForColdKey() {
+    // Arrange
+
+    // Act
+    long cold = executor.computeBackoffMillis(0, 1);
+    long hot = executor.computeBackoffMillis(0, 8);
+    long capped = executor.computeBackoffMillis(10, 8);
+
+    // Assert
+    assertThat(cold).isBetween(5L, 10L);
+    assertThat(hot).isBetween(40L, 80L);
+    assertThat(capped).isBetween(500L, 1000L);
+  }
+
+  @Test
+  public void computeBackoffMillis_ContentionAboveMaxFactorGiven_ShouldCapFactor() {
+    // Arrange
+    TransactionRetryExecutor executor =
+        new TransactionRetryExecutor(
+            manager, (t, e) -> Collections.singletonList(ANY_KEY), 3, 10, 1000, 1000, 2);
+
+    // Act
+    long actual = executor.computeBackoffMillis(0, 8);
+
+    // Assert
+    assertThat(actual).isBetween(10L, 20L);
+  }
+}
@@ -1,8 +1,10 @@
 package com.scalar.db.transaction.consensuscommit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -12,19 +14,30 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.google.common.collect.ImmutableMap;
 import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Mutation;
 import com.scalar.db.api.Put;
+import com.scalar.db.api.TableMetadata;
 import com.scalar.db.api.TransactionState;
+import com.scalar.db.common.ResultImpl;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.exception.storage.RetriableExecutionException;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CommitException;
 import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
+import com.scalar.db.io.BigIntColumn;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.IntColumn;
 import com.scalar.db.io.Key;
+import com.scalar.db.io.TextColumn;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -42,6 +55,15 @@ public class CommitHandlerTest {
   private static final int ANY_INT_1 = 100;
   private static final int ANY_INT_2 = 200;
 
+  private static final TableMetadata TABLE_METADATA =
+      TableMetadata.newBuilder()
+          .addColumn(ANY_NAME_1, DataType.TEXT)
+          .addColumn(ANY_NAME_2, DataType.TEXT)
+          .addColumn(ANY_NAME_3, DataType.INT)
+          .addPartitionKey(ANY_NAME_1)
+          .addClusteringKey(ANY_NAME_2)
+          .build();
+
   @Mock private DistributedStorage storage;
   @Mock private Coordinator coordinator;
   @Mock private TransactionTableMetadataManager tableMetadataManager;
@@ -123,6 +145,136 @@ public class CommitHandlerTest {
     return snapshot;
   }
 
+  private CommitHandler prepareOnePhaseCommitHandler() {
+    return spy(
+        new CommitHandler(
+            storage,
+            coordinator,
+            tableMetadataManager,
+            new ParallelExecutor(config),
+            true,
+            false,
+            null));
+  }
+
+  @Test
+  public void commit_OnePhaseCommitEnabledAndSamePartitionPutsGiven_ShouldCommitInOnePhase()
+      throws CommitException, UnknownTransactionStatusException, ExecutionException,
+          CoordinatorException {
+    // Arrange
+    handler = prepareOnePhaseCommitHandler();
+    Snapshot snapshot = prepareSnapshotWithSamePartitionPut();
+    doNothing().when(storage).mutate(anyList());
+
+    // Act
+    handler.commit(snapshot);
+
+    // Assert
+    verify(handler).onePhaseCommit(snapshot);
+    verify(storage).mutate(anyList());
+    verify(coordinator, never()).putState(any(Coordinator.State.class));
+    verify(coordinator, never()).putState(any(Coordinator.State.class), anyLong());
+  }
+
+  @Test
+  public void commit_OnePhaseCommitEnabledAndDifferentPartitionPutsGiven_ShouldCommitNormally()
+      throws CommitException, UnknownTransactionStatusException, ExecutionException,
+          CoordinatorException {
+    // Arrange
+    handler = prepareOnePhaseCommitHandler();
+    Snapshot snapshot = prepareSnapshotWithDifferentPartitionPut();
+    doNothing().when(storage).mutate(anyList());
+    doNothing().when(coordinator).putState(any(Coordinator.State.class));
+
+    // Act
+    handler.commit(snapshot);
+
+    // Assert
+    verify(handler, never()).onePhaseCommit(any(Snapshot.class));
+    verify(storage, times(4)).mutate(anyList());
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
+  }
+
+  @Test
+  public void commit_RecordCommittedInFutureRead_ShouldCommitStateAfterIt()
+      throws CommitException, UnknownTransactionStatusException, ExecutionException,
+          CoordinatorException {
+    // Arrange
+    Snapshot snapshot = prepareSnapshotWithDifferentPartitionPut();
+    long futureCommittedAt = System.currentTimeMillis() + 60_000;
+    Put put = preparePut1();
+    snapshot.put(
+        new Snapshot.Key(put),
+        Optional.of(
+            new TransactionResult(
+                new ResultImpl(
+                    ImmutableMap.<String, Column<?>>builder()
+                        .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+                        .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+                        .put(Attribute.ID, TextColumn.of(Attribute.ID, ANY_ID + "x"))
+                        .put(Attribute.VERSION, IntColumn.of(Attribute.VERSION, 1))
+                        .put(
+                            Attribute.STATE,
+                            IntColumn.of(Attribute.STATE, TransactionState.COMMITTED.get()))
+                        .put(
+                            Attribute.COMMITTED_AT,
+                            BigIntColumn.of(Attribute.COMMITTED_AT, futureCommittedAt))
+                        .build(),
+                    TABLE_METADATA))));
+    doNothing().when(storage).mutate(anyList());
+    doNothing().when(coordinator).putState(any(Coordinator.State.class), anyLong());
+
+    // Act
+    handler.commit(snapshot);
+
+    // Assert
+    ArgumentCaptor<Coordinator.State> captor = ArgumentCaptor.forClass(Coordinator.State.class);
+    verify(coordinator).putState(captor.capture(), anyLong());
+    assertThat(captor.getValue().getCreatedAt()).isEqualTo(futureCommittedAt + 1);
+    assertThat(snapshot.getCommittedAt()).isEqualTo(futureCommittedAt + 1);
+  }
+
+  @Test
+  public void commit_NoMutationExceptionThrownInOnePhaseCommit_ShouldThrowCCException()
+      throws ExecutionException, CoordinatorException {
+    // Arrange
+    handler = prepareOnePhaseCommitHandler();
+    Snapshot snapshot = prepareSnapshotWithSamePartitionPut();
+    ExecutionException toThrow = mock(NoMutationException.class);
+    doThrow(toThrow).when(storage).mutate(anyList());
+
+    // Act
+    assertThatThrownBy(() -> handler.commit(snapshot))
+        .isInstanceOf(CommitConflictException.class)
+        .hasCause(toThrow);
+
+    // Assert
+    verify(coordinator, never()).putState(any(Coordinator.State.class));
+    verify(coordinator, never()).putState(any(Coordinator.State.class), anyLong());
+    verify(handler, never()).rollbackRecords(any(Snapshot.class));
+  }
+
+  @Test
+  public void commit_ExecutionExceptionThrownInOnePhaseCommit_ShouldThrowUnknownStatusException()
+      throws ExecutionException, CoordinatorException {
+    // Arrange
+    handler = prepareOnePhaseCommitHandler();
+    Snapshot snapshot = prepareSnapshotWithSamePartitionPut();
+    ExecutionException toThrow = mock(ExecutionException.class);
+    doThrow(toThrow).when(storage).mutate(anyList());
+
+    // Act
+    assertThatThrownBy(() -> handler.commit(snapshot))
+        .isInstanceOf(UnknownTransactionStatusException.class)
+        .hasCause(toThrow);
+
+    // Assert
+    verify(coordinator, never()).putState(any(Coordinator.State.class));
+    verify(coordinator, never()).putState(any(Coordinator.State.class), anyLong());
+    verify(handler, never()).rollbackRecords(any(Snapshot.class));
+  }
+
   @Test
   public void commit_SnapshotWithDifferentPartitionPutsGiven_ShouldCommitRespectively()
       throws CommitException, UnknownTransactionStatusException, ExecutionException,
@@ -137,7 +289,8 @@ public class CommitHandlerTest {
 
     // Assert
     verify(storage, times(4)).mutate(anyList());
-    verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
   }
 
   @Test
@@ -154,7 +307,8 @@ public class CommitHandlerTest {
 
     // Assert
     verify(storage, times(2)).mutate(anyList());
-    verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
   }
 
   @Test
@@ -175,7 +329,7 @@ public class CommitHandlerTest {
     // Assert
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator, never())
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(handler).rollbackRecords(snapshot);
   }
 
@@ -197,7 +351,7 @@ public class CommitHandlerTest {
     // Assert
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator, never())
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(handler).rollbackRecords(snapshot);
   }
 
@@ -219,7 +373,7 @@ public class CommitHandlerTest {
     // Assert
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator, never())
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(handler).rollbackRecords(snapshot);
   }
 
@@ -247,7 +401,7 @@ public class CommitHandlerTest {
     // Assert
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator, never())
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator).getState(ANY_ID);
     verify(handler).rollbackRecords(snapshot);
   }
@@ -274,7 +428,7 @@ public class CommitHandlerTest {
     // Assert
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator, never())
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator).getState(ANY_ID);
     verify(handler, never()).rollbackRecords(snapshot);
   }
@@ -301,7 +455,7 @@ public class CommitHandlerTest {
     // Assert
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator, never())
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator).getState(ANY_ID);
     verify(handler, never()).rollbackRecords(snapshot);
   }
@@ -316,7 +470,7 @@ public class CommitHandlerTest {
     doNothing().when(storage).mutate(anyList());
     doThrow(toThrow)
         .when(coordinator)
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     doNothing().when(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     doNothing().when(handler).rollbackRecords(any(Snapshot.class));
 
@@ -327,7 +481,8 @@ public class CommitHandlerTest {
 
     // Assert
     verify(storage, times(2)).mutate(anyList());
-    verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(handler).rollbackRecords(snapshot);
   }
@@ -343,7 +498,7 @@ public class CommitHandlerTest {
     doNothing().when(storage).mutate(anyList());
     doThrow(toThrow)
         .when(coordinator)
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     doThrow(toThrow)
         .when(coordinator)
         .putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
@@ -357,7 +512,8 @@ public class CommitHandlerTest {
 
     // Assert
     verify(storage, times(4)).mutate(anyList());
-    verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator).getState(ANY_ID);
     verify(handler, never()).rollbackRecords(snapshot);
@@ -373,7 +529,7 @@ public class CommitHandlerTest {
     doNothing().when(storage).mutate(anyList());
     doThrow(toThrow)
         .when(coordinator)
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     doThrow(toThrow)
         .when(coordinator)
         .putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
@@ -388,7 +544,8 @@ public class CommitHandlerTest {
 
     // Assert
     verify(storage, times(2)).mutate(anyList());
-    verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator).getState(ANY_ID);
     verify(handler).rollbackRecords(snapshot);
@@ -404,7 +561,7 @@ public class CommitHandlerTest {
     doNothing().when(storage).mutate(anyList());
     doThrow(toThrow)
         .when(coordinator)
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     doThrow(toThrow)
         .when(coordinator)
         .putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
@@ -417,7 +574,8 @@ public class CommitHandlerTest {
 
     // Assert
     verify(storage, times(2)).mutate(anyList());
-    verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator).getState(ANY_ID);
     verify(handler, never()).rollbackRecords(snapshot);
@@ -433,7 +591,7 @@ public class CommitHandlerTest {
     doNothing().when(storage).mutate(anyList());
     doThrow(toThrow)
         .when(coordinator)
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     doThrow(toThrow)
         .when(coordinator)
         .putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
@@ -446,7 +604,8 @@ public class CommitHandlerTest {
 
     // Assert
     verify(storage, times(2)).mutate(anyList());
-    verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(coordinator).getState(ANY_ID);
     verify(handler, never()).rollbackRecords(snapshot);
@@ -462,15 +621,119 @@ public class CommitHandlerTest {
     doNothing().doNothing().doThrow(toThrow).when(storage).mutate(anyList());
     doNothing()
         .when(coordinator)
-        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
 
     // Act
     handler.commit(snapshot);
 
     // Assert
     verify(storage, times(3)).mutate(anyList());
-    verify(coordinator).putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED));
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
     verify(coordinator, never()).putState(new Coordinator.State(ANY_ID, TransactionState.ABORTED));
     verify(handler, never()).rollbackRecords(snapshot);
   }
+
+  @Test
+  public void commitReadOnly_SnapshotGiven_ShouldValidateWithoutWritingAnything()
+      throws ExecutionException, CommitException, CoordinatorException {
+    // Arrange
+    Snapshot snapshot = mock(Snapshot.class);
+
+    // Act
+    handler.commitReadOnly(snapshot);
+
+    // Assert
+    verify(snapshot).toSerializableForReadOnly(storage);
+    verify(storage, never()).mutate(anyList());
+    verify(coordinator, never()).putState(any());
+  }
+
+  @Test
+  public void commitReadOnly_ValidationConflicted_ShouldThrowCommitConflictException()
+      throws ExecutionException, CommitConflictException, CoordinatorException {
+    // Arrange
+    Snapshot snapshot = mock(Snapshot.class);
+    doThrow(CommitConflictException.class).when(snapshot).toSerializableForReadOnly(storage);
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.commitReadOnly(snapshot))
+        .isInstanceOf(CommitConflictException.class);
+
+    // Assert
+    verify(coordinator, never()).putState(any());
+  }
+
+  @Test
+  public void commit_DeadlineExceeded_ShouldThrowCommitExceptionWithoutPreparing()
+      throws ExecutionException, CoordinatorException {
+    // Arrange
+    Snapshot snapshot = prepareSnapshotWithDifferentPartitionPut();
+    snapshot.setDeadlineMillis(System.currentTimeMillis() - 1);
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.commit(snapshot)).isInstanceOf(CommitException.class);
+    verify(storage, never()).mutate(anyList());
+    verify(coordinator, never()).putState(any(Coordinator.State.class), anyLong());
+  }
+
+  @Test
+  public void commit_DeadlineGiven_ShouldPrepareAndCommitStateWithDeadline()
+      throws CommitException, UnknownTransactionStatusException, ExecutionException,
+          CoordinatorException {
+    // Arrange
+    Snapshot snapshot = prepareSnapshotWithDifferentPartitionPut();
+    long deadline = System.currentTimeMillis() + 60000;
+    snapshot.setDeadlineMillis(deadline);
+    doNothing().when(storage).mutate(anyList());
+
+    // Act
+    handler.commit(snapshot);
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Mutation>> captor = ArgumentCaptor.forClass(List.class);
+    verify(storage, times(4)).mutate(captor.capture());
+    List<List<Mutation>> mutations = captor.getAllValues();
+    // the preparations are bound by the deadline, but the commits of the records are not
+    assertThat(mutations.get(0)).allMatch(m -> m.getDeadlineMillis() == deadline);
+    assertThat(mutations.get(1)).allMatch(m -> m.getDeadlineMillis() == deadline);
+    assertThat(mutations.get(2)).allMatch(m -> m.getDeadlineMillis() == Long.MAX_VALUE);
+    assertThat(mutations.get(3)).allMatch(m -> m.getDeadlineMillis() == Long.MAX_VALUE);
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), deadline);
+  }
+
+  @Test
+  public void commit_CommitRecordBatcherGiven_ShouldCommitRecordsWithBatcher()
+      throws CommitException, UnknownTransactionStatusException, ExecutionException,
+          CoordinatorException {
+    // Arrange
+    CommitRecordBatcher batcher = mock(CommitRecordBatcher.class);
+    handler =
+        spy(
+            new CommitHandler(
+                storage,
+                coordinator,
+                tableMetadataManager,
+                new ParallelExecutor(config),
+                false,
+                false,
+                batcher));
+    Snapshot snapshot = prepareSnapshotWithDifferentPartitionPut();
+    doNothing().when(storage).mutate(anyList());
+
+    // Act
+    handler.commit(snapshot);
+
+    // Assert
+    // only the preparations are mutated directly
+    verify(storage, times(2)).mutate(anyList());
+    ArgumentCaptor<PartitionedMutations> captor =
+        ArgumentCaptor.forClass(PartitionedMutations.class);
+    verify(batcher).commit(captor.capture());
+    assertThat(captor.getValue().getOrderedKeys()).hasSize(2);
+    verify(coordinator)
+        .putState(new Coordinator.State(ANY_ID, TransactionState.COMMITTED), Long.MAX_VALUE);
+  }
 }
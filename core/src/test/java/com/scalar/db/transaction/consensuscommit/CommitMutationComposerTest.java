@@ -6,6 +6,9 @@ import static com.scalar.db.transaction.consensuscommit.Attribute.STATE;
 import static com.scalar.db.transaction.consensuscommit.Attribute.toIdValue;
 import static com.scalar.db.transaction.consensuscommit.Attribute.toStateValue;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableMap;
 import com.scalar.db.api.ConditionalExpression;
@@ -19,6 +22,8 @@ import com.scalar.db.api.PutIf;
 import com.scalar.db.api.TableMetadata;
 import com.scalar.db.api.TransactionState;
 import com.scalar.db.common.ResultImpl;
+import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.io.BigIntColumn;
 import com.scalar.db.io.Column;
 import com.scalar.db.io.DataType;
 import com.scalar.db.io.IntColumn;
@@ -104,7 +109,7 @@ public class CommitMutationComposerTest {
   }
 
   @Test
-  public void add_PutGiven_ShouldComposePutWithPutIfCondition() {
+  public void add_PutGiven_ShouldComposePutWithPutIfCondition() throws ExecutionException {
     // Arrange
     Put put = preparePut();
 
@@ -129,7 +134,7 @@ public class CommitMutationComposerTest {
   }
 
   @Test
-  public void add_DeleteGiven_ShouldComposeDeleteWithDeleteIfCondition() {
+  public void add_DeleteGiven_ShouldComposeDeleteWithDeleteIfCondition() throws ExecutionException {
     // Arrange
     Delete delete = prepareDelete();
 
@@ -147,7 +152,8 @@ public class CommitMutationComposerTest {
   }
 
   @Test
-  public void add_SelectionAndPreparedResultGiven_ShouldComposePutForRollforward() {
+  public void add_SelectionAndPreparedResultGiven_ShouldComposePutForRollforward()
+      throws ExecutionException {
     // Arrange
     Get get = prepareGet();
     TransactionResult result = prepareResult(TransactionState.PREPARED);
@@ -173,7 +179,8 @@ public class CommitMutationComposerTest {
   }
 
   @Test
-  public void add_SelectionAndDeletedResultGiven_ShouldComposePutForRollforward() {
+  public void add_SelectionAndDeletedResultGiven_ShouldComposePutForRollforward()
+      throws ExecutionException {
     // Arrange
     Get get = prepareGet();
     TransactionResult result = prepareResult(TransactionState.DELETED);
@@ -194,4 +201,157 @@ public class CommitMutationComposerTest {
             new ConditionalExpression(STATE, toStateValue(TransactionState.DELETED), Operator.EQ)));
     assertThat(actual).isEqualTo(expected);
   }
+
+  @Test
+  public void add_PutGivenForMultiVersionedTable_ShouldAlsoComposeVersionPut()
+      throws ExecutionException {
+    // Arrange
+    TransactionTableMetadataManager tableMetadataManager =
+        mock(TransactionTableMetadataManager.class);
+    when(tableMetadataManager.getTransactionTableMetadata(any(Put.class)))
+        .thenReturn(
+            new TransactionTableMetadata(
+                ConsensusCommitUtils.buildTransactionTableMetadata(TABLE_METADATA),
+                ConsensusCommitUtils.buildVersionTableMetadata(TABLE_METADATA)));
+    composer = new CommitMutationComposer(ANY_ID, mutations, ANY_TIME_2, tableMetadataManager);
+    Put put = preparePut();
+    TransactionResult result = prepareResult(TransactionState.COMMITTED);
+
+    // Act
+    composer.add(put, result);
+
+    // Assert
+    assertThat(mutations).hasSize(2);
+    Put actual = (Put) mutations.get(1);
+    Put expected =
+        new Put(
+                put.getPartitionKey(),
+                Key.newBuilder()
+                    .addText(ANY_NAME_2, ANY_TEXT_2)
+                    .add(BigIntColumn.of(Attribute.COMMITTED_AT, ANY_TIME_2))
+                    .addInt(Attribute.VERSION, 3)
+                    .build())
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME + ConsensusCommitUtils.VERSION_TABLE_SUFFIX)
+            .withConsistency(Consistency.LINEARIZABLE)
+            .withValue(Attribute.toIdValue(ANY_ID))
+            .withValue(Attribute.toStateValue(TransactionState.COMMITTED))
+            .withValue(ANY_NAME_3, ANY_INT_1);
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void add_DeleteGivenForMultiVersionedTable_ShouldAlsoComposeTombstonePut()
+      throws ExecutionException {
+    // Arrange
+    TransactionTableMetadataManager tableMetadataManager =
+        mock(TransactionTableMetadataManager.class);
+    when(tableMetadataManager.getTransactionTableMetadata(any(Delete.class)))
+        .thenReturn(
+            new TransactionTableMetadata(
+                ConsensusCommitUtils.buildTransactionTableMetadata(TABLE_METADATA),
+                ConsensusCommitUtils.buildVersionTableMetadata(TABLE_METADATA)));
+    composer = new CommitMutationComposer(ANY_ID, mutations, ANY_TIME_2, tableMetadataManager);
+    Delete delete = prepareDelete();
+    TransactionResult result = prepareResult(TransactionState.COMMITTED);
+
+    // Act
+    composer.add(delete, result);
+
+    // Assert
+    assertThat(mutations).hasSize(2);
+    Put actual = (Put) mutations.get(1);
+    Put expected =
+        new Put(
+                delete.getPartitionKey(),
+                Key.newBuilder()
+                    .addText(ANY_NAME_2, ANY_TEXT_2)
+                    .add(BigIntColumn.of(Attribute.COMMITTED_AT, ANY_TIME_2))
+                    .addInt(Attribute.VERSION, 3)
+                    .build())
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME + ConsensusCommitUtils.VERSION_TABLE_SUFFIX)
+            .withConsistency(Consistency.LINEARIZABLE)
+            .withValue(Attribute.toIdValue(ANY_ID))
+            .withValue(Attribute.toStateValue(TransactionState.DELETED));
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void add_PutGivenForRecordCommittedAfterCurrentTime_ShouldCommitItAfterPreviousVersion()
+      throws ExecutionException {
+    // Arrange
+    TransactionTableMetadataManager tableMetadataManager =
+        mock(TransactionTableMetadataManager.class);
+    when(tableMetadataManager.getTransactionTableMetadata(any(Put.class)))
+        .thenReturn(
+            new TransactionTableMetadata(
+                ConsensusCommitUtils.buildTransactionTableMetadata(TABLE_METADATA),
+                ConsensusCommitUtils.buildVersionTableMetadata(TABLE_METADATA)));
+    composer = new CommitMutationComposer(ANY_ID, mutations, ANY_TIME_2, tableMetadataManager);
+    Put put = preparePut();
+    long previousCommittedAt = ANY_TIME_2 + 100;
+    TransactionResult result =
+        new TransactionResult(
+            new ResultImpl(
+                ImmutableMap.<String, Column<?>>builder()
+                    .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+                    .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+                    .put(ANY_NAME_3, IntColumn.of(ANY_NAME_3, ANY_INT_2))
+                    .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID)))
+                    .put(
+                        Attribute.COMMITTED_AT,
+                        ScalarDbUtils.toColumn(Attribute.toCommittedAtValue(previousCommittedAt)))
+                    .put(
+                        Attribute.STATE,
+                        ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.COMMITTED)))
+                    .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(2)))
+                    .build(),
+                TABLE_METADATA));
+
+    // Act
+    composer.add(put, result);
+
+    // Assert
+    assertThat(mutations).hasSize(2);
+    Put actual = (Put) mutations.get(0);
+    assertThat(actual.getValues().get(Attribute.COMMITTED_AT))
+        .isEqualTo(Attribute.toCommittedAtValue(previousCommittedAt + 1));
+    Put version = (Put) mutations.get(1);
+    assertThat(version.getClusteringKey().get().getColumns())
+        .contains(BigIntColumn.of(Attribute.COMMITTED_AT, previousCommittedAt + 1));
+  }
+
+  @Test
+  public void add_SelectionGivenForPreparedRecordWithLaterBeforeImage_ShouldCommitItAfterIt()
+      throws ExecutionException {
+    // Arrange
+    Get get = prepareGet();
+    long beforeCommittedAt = ANY_TIME_2 + 100;
+    TransactionResult result =
+        new TransactionResult(
+            new ResultImpl(
+                ImmutableMap.<String, Column<?>>builder()
+                    .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+                    .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+                    .put(ANY_NAME_3, IntColumn.of(ANY_NAME_3, ANY_INT_2))
+                    .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID)))
+                    .put(
+                        Attribute.STATE,
+                        ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.PREPARED)))
+                    .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(2)))
+                    .put(
+                        Attribute.BEFORE_COMMITTED_AT,
+                        BigIntColumn.of(Attribute.BEFORE_COMMITTED_AT, beforeCommittedAt))
+                    .build(),
+                TABLE_METADATA));
+
+    // Act
+    composer.add(get, result);
+
+    // Assert
+    Put actual = (Put) mutations.get(0);
+    assertThat(actual.getValues().get(Attribute.COMMITTED_AT))
+        .isEqualTo(Attribute.toCommittedAtValue(beforeCommittedAt + 1));
+  }
 }
@@ -0,0 +1,177 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.scalar.db.api.Mutation;
+import com.scalar.db.api.Put;
+import com.scalar.db.exception.storage.NoMutationException;
+import com.scalar.db.io.Key;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class CommitRecordBatcherTest {
+  private static final String ANY_NAMESPACE_NAME = "namespace";
+  private static final String ANY_TABLE_NAME = "table";
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_NAME_2 = "name2";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_TEXT_2 = "text2";
+  private static final int MAX_MUTATIONS_PER_BATCH = 3;
+
+  @Mock private CommitRecordBatcher.Emitter emitter;
+  @Mock private ScheduledExecutorService flushExecutorService;
+  private ExecutorService callerExecutorService;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+    callerExecutorService = Executors.newCachedThreadPool();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    callerExecutorService.shutdownNow();
+  }
+
+  private CommitRecordBatcher prepareBatcher(boolean async) {
+    return new CommitRecordBatcher(
+        MAX_MUTATIONS_PER_BATCH,
+        async,
+        emitter,
+        flushExecutorService,
+        MoreExecutors.newDirectExecutorService());
+  }
+
+  private Put preparePut(String partitionKeyValue, String clusteringKeyValue) {
+    return new Put(new Key(ANY_NAME_1, partitionKeyValue), new Key(ANY_NAME_2, clusteringKeyValue))
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME);
+  }
+
+  @Test
+  public void commit_MutationsForSamePartitionGiven_ShouldEmitThemInOneBatch() throws Exception {
+    // Arrange
+    CommitRecordBatcher batcher = prepareBatcher(true);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2");
+    Put put3 = preparePut(ANY_TEXT_2, "c3");
+
+    // Act
+    batcher.commit(new PartitionedMutations(Collections.singletonList(put1)));
+    batcher.commit(new PartitionedMutations(Arrays.asList(put2, put3)));
+    batcher.flush();
+
+    // Assert
+    verify(emitter).emit(Arrays.asList(put1, put2));
+    verify(emitter).emit(Collections.singletonList(put3));
+    verify(emitter, times(2)).emit(anyList());
+  }
+
+  @Test
+  public void commit_MutationsMoreThanMaxGiven_ShouldSplitBatchesWithoutSplittingTransaction()
+      throws Exception {
+    // Arrange
+    CommitRecordBatcher batcher = prepareBatcher(true);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2");
+    Put put3 = preparePut(ANY_TEXT_1, "c3");
+    Put put4 = preparePut(ANY_TEXT_1, "c4");
+
+    // Act
+    batcher.commit(new PartitionedMutations(Arrays.asList(put1, put2)));
+    batcher.commit(new PartitionedMutations(Arrays.asList(put3, put4)));
+    batcher.flush();
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Mutation>> captor = ArgumentCaptor.forClass(List.class);
+    verify(emitter, times(2)).emit(captor.capture());
+    assertThat(captor.getAllValues())
+        .containsExactly(Arrays.asList(put1, put2), Arrays.asList(put3, put4));
+  }
+
+  @Test
+  public void commit_BatchFailed_ShouldEmitMutationsOfEachTransactionSeparately() throws Exception {
+    // Arrange
+    CommitRecordBatcher batcher = prepareBatcher(true);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2");
+    doThrow(NoMutationException.class).when(emitter).emit(Arrays.asList(put1, put2));
+    doThrow(NoMutationException.class).when(emitter).emit(Collections.singletonList(put1));
+
+    // Act
+    batcher.commit(new PartitionedMutations(Collections.singletonList(put1)));
+    batcher.commit(new PartitionedMutations(Collections.singletonList(put2)));
+    batcher.flush();
+
+    // Assert
+    verify(emitter).emit(Arrays.asList(put1, put2));
+    verify(emitter).emit(Collections.singletonList(put1));
+    verify(emitter).emit(Collections.singletonList(put2));
+  }
+
+  @Test
+  public void commit_NotAsync_ShouldWaitUntilMutationsEmitted() throws Exception {
+    // Arrange
+    CommitRecordBatcher batcher = prepareBatcher(false);
+    Put put = preparePut(ANY_TEXT_1, "c1");
+    doNothing().when(emitter).emit(anyList());
+
+    // Act
+    Future<?> future =
+        callerExecutorService.submit(
+            () -> batcher.commit(new PartitionedMutations(Collections.singletonList(put))));
+    Thread.sleep(200);
+
+    // Assert
+    assertThat(future.isDone()).isFalse();
+    verify(emitter, never()).emit(anyList());
+    batcher.flush();
+    future.get(1, TimeUnit.SECONDS);
+    verify(emitter).emit(Collections.singletonList(put));
+  }
+
+  @Test
+  public void commit_AfterClosed_ShouldEmitMutationsForEachPartitionWithoutWaiting()
+      throws Exception {
+    // Arrange
+    CommitRecordBatcher batcher = prepareBatcher(false);
+    when(flushExecutorService.awaitTermination(anyLong(), any())).thenReturn(true);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_2, "c2");
+    doNothing().when(emitter).emit(anyList());
+    batcher.close();
+
+    // Act
+    Future<?> future =
+        callerExecutorService.submit(
+            () -> batcher.commit(new PartitionedMutations(Arrays.asList(put1, put2))));
+
+    // Assert
+    future.get(1, TimeUnit.SECONDS);
+    verify(emitter).emit(Collections.singletonList(put1));
+    verify(emitter).emit(Collections.singletonList(put2));
+  }
+}
@@ -3,6 +3,7 @@ package com.scalar.db.transaction.consensuscommit;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -283,6 +284,26 @@ public class ConsensusCommitAdminTest {
         .isInstanceOf(IllegalArgumentException.class);
   }
 
+  @Test
+  public void createTable_tableNameWithVersionTableSuffixGiven_shouldThrowIllegalArgumentException()
+      throws ExecutionException {
+    // Arrange
+
+    // Act Assert
+    assertThatThrownBy(
+            () ->
+                admin.createTable(
+                    NAMESPACE,
+                    ConsensusCommitUtils.getVersionTableName(TABLE),
+                    TableMetadata.newBuilder()
+                        .addColumn("col1", DataType.INT)
+                        .addColumn("col2", DataType.INT)
+                        .addPartitionKey("col1")
+                        .build()))
+        .isInstanceOf(IllegalArgumentException.class);
+    verify(distributedStorageAdmin, never()).createTable(any(), any(), any(), any());
+  }
+
   @Test
   public void createNamespace_ShouldCallJdbcAdminProperly() throws ExecutionException {
     // Arrange
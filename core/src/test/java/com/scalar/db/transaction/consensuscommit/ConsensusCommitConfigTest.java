@@ -23,12 +23,79 @@ public class ConsensusCommitConfigTest {
     assertThat(config.getCoordinatorNamespace()).isNotPresent();
     assertThat(config.getParallelExecutorCount())
         .isEqualTo(ConsensusCommitConfig.DEFAULT_PARALLEL_EXECUTOR_COUNT);
+    assertThat(config.getParallelExecutorType()).isEqualTo(ParallelExecutorType.FIXED);
+    assertThat(config.getParallelExecutorQueueSize())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_PARALLEL_EXECUTOR_QUEUE_SIZE);
     assertThat(config.isParallelPreparationEnabled()).isEqualTo(false);
     assertThat(config.isParallelValidationEnabled()).isEqualTo(false);
     assertThat(config.isParallelCommitEnabled()).isEqualTo(false);
     assertThat(config.isParallelRollbackEnabled()).isEqualTo(false);
     assertThat(config.isAsyncCommitEnabled()).isEqualTo(false);
     assertThat(config.isAsyncRollbackEnabled()).isEqualTo(false);
+    assertThat(config.isOnePhaseCommitEnabled()).isEqualTo(false);
+    assertThat(config.isBatchValidationEnabled()).isEqualTo(false);
+    assertThat(config.isBeforeImageReadEnabled()).isEqualTo(false);
+    assertThat(config.isDeltaBeforeImageEnabled()).isEqualTo(false);
+    assertThat(config.isCoordinatorStateCacheEnabled()).isEqualTo(false);
+    assertThat(config.getCoordinatorStateCacheMaxSize())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COORDINATOR_STATE_CACHE_MAX_SIZE);
+    assertThat(config.getCoordinatorStateCacheExpirationTimeMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COORDINATOR_STATE_CACHE_EXPIRATION_TIME_MILLIS);
+    assertThat(config.isRecoverySweeperEnabled()).isEqualTo(false);
+    assertThat(config.getRecoverySweeperTables()).isEmpty();
+    assertThat(config.getRecoverySweeperIntervalMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_RECOVERY_SWEEPER_INTERVAL_MILLIS);
+    assertThat(config.getRecoverySweeperMaxRecordsPerSecond())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_RECOVERY_SWEEPER_MAX_RECORDS_PER_SECOND);
+    assertThat(config.getRecoverySweeperBatchSize())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_RECOVERY_SWEEPER_BATCH_SIZE);
+    assertThat(config.isCoordinatorGcEnabled()).isEqualTo(false);
+    assertThat(config.getCoordinatorGcNamespaces()).isEmpty();
+    assertThat(config.getCoordinatorGcIntervalMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COORDINATOR_GC_INTERVAL_MILLIS);
+    assertThat(config.getCoordinatorGcHorizonMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COORDINATOR_GC_HORIZON_MILLIS);
+    assertThat(config.getCoordinatorGcMaxDeletionsPerSecond())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COORDINATOR_GC_MAX_DELETIONS_PER_SECOND);
+    assertThat(config.isLockTableEnabled()).isEqualTo(false);
+    assertThat(config.getLockTableStripes())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_LOCK_TABLE_STRIPES);
+    assertThat(config.getLockTableTimeoutMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_LOCK_TABLE_TIMEOUT_MILLIS);
+    assertThat(config.isMultiVersionEnabled()).isEqualTo(false);
+    assertThat(config.getMultiVersionRetainedVersions())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_MULTI_VERSION_RETAINED_VERSIONS);
+    assertThat(config.getMultiVersionRetentionMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_MULTI_VERSION_RETENTION_MILLIS);
+    assertThat(config.isMultiVersionGcEnabled()).isEqualTo(false);
+    assertThat(config.getMultiVersionGcTables()).isEmpty();
+    assertThat(config.getMultiVersionGcIntervalMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_MULTI_VERSION_GC_INTERVAL_MILLIS);
+    assertThat(config.getTransactionIdGenerator())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_TRANSACTION_ID_GENERATOR);
+    assertThat(config.getTransactionIdGeneratorNodeId()).isEmpty();
+    assertThat(config.getTransactionTimeoutMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_TRANSACTION_TIMEOUT_MILLIS);
+    assertThat(config.isCommitBatchingEnabled()).isFalse();
+    assertThat(config.getCommitBatchingDelayMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COMMIT_BATCHING_DELAY_MILLIS);
+    assertThat(config.getCommitBatchingMaxMutations())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COMMIT_BATCHING_MAX_MUTATIONS);
+    assertThat(config.getCommitBatchingEmitThreadCount())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COMMIT_BATCHING_EMIT_THREAD_COUNT);
+    assertThat(config.getLargeTransactionSpillThreshold())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_LARGE_TRANSACTION_SPILL_THRESHOLD);
+    assertThat(config.getLargeTransactionSpillDirectory()).isEmpty();
+    assertThat(config.getRetryMaxRetries())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_RETRY_MAX_RETRIES);
+    assertThat(config.getRetryBaseBackoffMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_RETRY_BASE_BACKOFF_MILLIS);
+    assertThat(config.getRetryMaxBackoffMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_RETRY_MAX_BACKOFF_MILLIS);
+    assertThat(config.getRetryContentionHalfLifeMillis())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_RETRY_CONTENTION_HALF_LIFE_MILLIS);
+    assertThat(config.getRetryMaxContentionFactor())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_RETRY_MAX_CONTENTION_FACTOR);
   }
 
   @Test
@@ -57,11 +124,24 @@ public class ConsensusCommitConfigTest {
     assertThat(config.getIsolation()).isEqualTo(Isolation.SERIALIZABLE);
   }
 
+  @Test
+  public void constructor_PropertiesWithReadCommittedIsolationLevelGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.ISOLATION_LEVEL, Isolation.READ_COMMITTED.toString());
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.getIsolation()).isEqualTo(Isolation.READ_COMMITTED);
+  }
+
   @Test
   public void constructor_UnsupportedIsolationGiven_ShouldThrowIllegalArgumentException() {
     // Arrange
     Properties props = new Properties();
-    props.setProperty(ConsensusCommitConfig.ISOLATION_LEVEL, "READ_COMMITTED");
+    props.setProperty(ConsensusCommitConfig.ISOLATION_LEVEL, "READ_UNCOMMITTED");
 
     // Act Assert
     assertThatThrownBy(() -> new ConsensusCommitConfig(new DatabaseConfig(props)))
@@ -129,6 +209,21 @@ public class ConsensusCommitConfigTest {
     assertThat(config.isParallelRollbackEnabled()).isEqualTo(true);
   }
 
+  @Test
+  public void constructor_PropertiesWithParallelExecutorTypeGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.PARALLEL_EXECUTOR_TYPE, "bounded");
+    props.setProperty(ConsensusCommitConfig.PARALLEL_EXECUTOR_QUEUE_SIZE, "200");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.getParallelExecutorType()).isEqualTo(ParallelExecutorType.BOUNDED);
+    assertThat(config.getParallelExecutorQueueSize()).isEqualTo(200);
+  }
+
   @Test
   public void
       constructor_ParallelExecutionRelatedPropertiesWithoutParallelValidationAndParallelRollbackPropertyGiven_ShouldUseParallelCommitValueForParallelValidationAndParallelRollback() {
@@ -179,4 +274,366 @@ public class ConsensusCommitConfigTest {
     assertThat(config.isAsyncCommitEnabled()).isEqualTo(true);
     assertThat(config.isAsyncRollbackEnabled()).isEqualTo(true); // use the async commit value
   }
+
+  @Test
+  public void constructor_PropertiesWithOnePhaseCommitEnabledGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.ONE_PHASE_COMMIT_ENABLED, "true");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isOnePhaseCommitEnabled()).isEqualTo(true);
+  }
+
+  @Test
+  public void
+      constructor_PropertiesWithOnePhaseCommitAndMultiVersionEnabledGiven_ShouldDisableOnePhaseCommit() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.ONE_PHASE_COMMIT_ENABLED, "true");
+    props.setProperty(ConsensusCommitConfig.MULTI_VERSION_ENABLED, "true");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isOnePhaseCommitEnabled()).isEqualTo(false);
+    assertThat(config.isMultiVersionEnabled()).isEqualTo(true);
+  }
+
+  @Test
+  public void constructor_PropertiesWithCoordinatorStateCacheGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_STATE_CACHE_ENABLED, "true");
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_STATE_CACHE_MAX_SIZE, "500");
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_STATE_CACHE_EXPIRATION_TIME_MILLIS, "1000");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isCoordinatorStateCacheEnabled()).isEqualTo(true);
+    assertThat(config.getCoordinatorStateCacheMaxSize()).isEqualTo(500);
+    assertThat(config.getCoordinatorStateCacheExpirationTimeMillis()).isEqualTo(1000);
+  }
+
+  @Test
+  public void constructor_PropertiesWithRecoverySweeperGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.RECOVERY_SWEEPER_ENABLED, "true");
+    props.setProperty(ConsensusCommitConfig.RECOVERY_SWEEPER_TABLES, "ns1.tbl1, ns2.tbl2");
+    props.setProperty(ConsensusCommitConfig.RECOVERY_SWEEPER_INTERVAL_MILLIS, "1000");
+    props.setProperty(ConsensusCommitConfig.RECOVERY_SWEEPER_MAX_RECORDS_PER_SECOND, "10");
+    props.setProperty(ConsensusCommitConfig.RECOVERY_SWEEPER_BATCH_SIZE, "5");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isRecoverySweeperEnabled()).isEqualTo(true);
+    assertThat(config.getRecoverySweeperTables()).containsExactly("ns1.tbl1", "ns2.tbl2");
+    assertThat(config.getRecoverySweeperIntervalMillis()).isEqualTo(1000);
+    assertThat(config.getRecoverySweeperMaxRecordsPerSecond()).isEqualTo(10);
+    assertThat(config.getRecoverySweeperBatchSize()).isEqualTo(5);
+  }
+
+  @Test
+  public void constructor_InvalidRecoverySweeperTableGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.RECOVERY_SWEEPER_TABLES, "tbl1");
+
+    // Act Assert
+    assertThatThrownBy(() -> new ConsensusCommitConfig(new DatabaseConfig(props)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void constructor_PropertiesWithCoordinatorGcGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_ENABLED, "true");
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_NAMESPACES, "ns1,ns2");
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_INTERVAL_MILLIS, "1000");
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_HORIZON_MILLIS, "3600000");
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_MAX_DELETIONS_PER_SECOND, "10");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isCoordinatorGcEnabled()).isEqualTo(true);
+    assertThat(config.getCoordinatorGcNamespaces()).containsExactly("ns1", "ns2");
+    assertThat(config.getCoordinatorGcIntervalMillis()).isEqualTo(1000);
+    assertThat(config.getCoordinatorGcHorizonMillis()).isEqualTo(3600000);
+    assertThat(config.getCoordinatorGcMaxDeletionsPerSecond()).isEqualTo(10);
+  }
+
+  @Test
+  public void constructor_PropertiesWithLockTableGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.LOCK_TABLE_ENABLED, "true");
+    props.setProperty(ConsensusCommitConfig.LOCK_TABLE_STRIPES, "64");
+    props.setProperty(ConsensusCommitConfig.LOCK_TABLE_TIMEOUT_MILLIS, "500");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isLockTableEnabled()).isEqualTo(true);
+    assertThat(config.getLockTableStripes()).isEqualTo(64);
+    assertThat(config.getLockTableTimeoutMillis()).isEqualTo(500);
+  }
+
+  @Test
+  public void constructor_PropertiesWithRetryGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.RETRY_MAX_RETRIES, "5");
+    props.setProperty(ConsensusCommitConfig.RETRY_BASE_BACKOFF_MILLIS, "20");
+    props.setProperty(ConsensusCommitConfig.RETRY_MAX_BACKOFF_MILLIS, "2000");
+    props.setProperty(ConsensusCommitConfig.RETRY_CONTENTION_HALF_LIFE_MILLIS, "500");
+    props.setProperty(ConsensusCommitConfig.RETRY_MAX_CONTENTION_FACTOR, "8");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.getRetryMaxRetries()).isEqualTo(5);
+    assertThat(config.getRetryBaseBackoffMillis()).isEqualTo(20);
+    assertThat(config.getRetryMaxBackoffMillis()).isEqualTo(2000);
+    assertThat(config.getRetryContentionHalfLifeMillis()).isEqualTo(500);
+    assertThat(config.getRetryMaxContentionFactor()).isEqualTo(8);
+  }
+
+  @Test
+  public void constructor_PropertiesWithMaxBackoffLessThanBaseBackoffGiven_ShouldThrowException() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.RETRY_BASE_BACKOFF_MILLIS, "100");
+    props.setProperty(ConsensusCommitConfig.RETRY_MAX_BACKOFF_MILLIS, "10");
+
+    // Act Assert
+    assertThatThrownBy(() -> new ConsensusCommitConfig(new DatabaseConfig(props)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void constructor_PropertiesWithMultiVersionGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.MULTI_VERSION_ENABLED, "true");
+    props.setProperty(ConsensusCommitConfig.MULTI_VERSION_RETAINED_VERSIONS, "3");
+    props.setProperty(ConsensusCommitConfig.MULTI_VERSION_RETENTION_MILLIS, "60000");
+    props.setProperty(ConsensusCommitConfig.MULTI_VERSION_GC_ENABLED, "true");
+    props.setProperty(ConsensusCommitConfig.MULTI_VERSION_GC_TABLES, "ns1.tbl1,ns2.tbl2");
+    props.setProperty(ConsensusCommitConfig.MULTI_VERSION_GC_INTERVAL_MILLIS, "1000");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isMultiVersionEnabled()).isEqualTo(true);
+    assertThat(config.getMultiVersionRetainedVersions()).isEqualTo(3);
+    assertThat(config.getMultiVersionRetentionMillis()).isEqualTo(60000);
+    assertThat(config.isMultiVersionGcEnabled()).isEqualTo(true);
+    assertThat(config.getMultiVersionGcTables()).containsExactly("ns1.tbl1", "ns2.tbl2");
+    assertThat(config.getMultiVersionGcIntervalMillis()).isEqualTo(1000);
+  }
+
+  @Test
+  public void constructor_PropertiesWithTransactionIdGeneratorGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.TRANSACTION_ID_GENERATOR, "uuid");
+    props.setProperty(ConsensusCommitConfig.TRANSACTION_ID_GENERATOR_NODE_ID, "4294967295");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.getTransactionIdGenerator()).isEqualTo("uuid");
+    assertThat(config.getTransactionIdGeneratorNodeId()).hasValue(-1);
+  }
+
+  @Test
+  public void constructor_PropertiesWithTransactionTimeoutGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.TRANSACTION_TIMEOUT_MILLIS, "3000");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.getTransactionTimeoutMillis()).isEqualTo(3000);
+  }
+
+  @Test
+  public void constructor_PropertiesWithCommitBatchingGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.COMMIT_BATCHING_ENABLED, "true");
+    props.setProperty(ConsensusCommitConfig.COMMIT_BATCHING_DELAY_MILLIS, "10");
+    props.setProperty(ConsensusCommitConfig.COMMIT_BATCHING_MAX_MUTATIONS, "50");
+    props.setProperty(ConsensusCommitConfig.COMMIT_BATCHING_EMIT_THREAD_COUNT, "2");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isCommitBatchingEnabled()).isTrue();
+    assertThat(config.getCommitBatchingDelayMillis()).isEqualTo(10);
+    assertThat(config.getCommitBatchingMaxMutations()).isEqualTo(50);
+    assertThat(config.getCommitBatchingEmitThreadCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void constructor_PropertiesWithLargeTransactionGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.LARGE_TRANSACTION_SPILL_THRESHOLD, "10000");
+    props.setProperty(ConsensusCommitConfig.LARGE_TRANSACTION_SPILL_DIRECTORY, "/var/tmp");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.getLargeTransactionSpillThreshold()).isEqualTo(10000);
+    assertThat(config.getLargeTransactionSpillDirectory()).hasValue("/var/tmp");
+  }
+
+  @Test
+  public void constructor_PropertiesWithDynamoStorageGiven_ShouldLimitCommitBatchingMaxMutations() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(DatabaseConfig.STORAGE, "dynamo");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.getCommitBatchingMaxMutations())
+        .isEqualTo(ConsensusCommitConfig.DEFAULT_COMMIT_BATCHING_MAX_MUTATIONS_FOR_DYNAMO);
+  }
+
+  @Test
+  public void constructor_PropertiesWithNonPositiveCommitBatchingMaxMutations_ShouldThrowIAE() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.COMMIT_BATCHING_MAX_MUTATIONS, "0");
+
+    // Act Assert
+    assertThatThrownBy(() -> new ConsensusCommitConfig(new DatabaseConfig(props)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void
+      constructor_MultiVersionGcEnabledWithoutTablesGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.MULTI_VERSION_GC_ENABLED, "true");
+
+    // Act Assert
+    assertThatThrownBy(() -> new ConsensusCommitConfig(new DatabaseConfig(props)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void
+      constructor_CoordinatorGcEnabledWithoutNamespacesGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_ENABLED, "true");
+
+    // Act Assert
+    assertThatThrownBy(() -> new ConsensusCommitConfig(new DatabaseConfig(props)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void
+      constructor_CoordinatorGcHorizonWithoutSafetyMarginGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.RECOVERY_SWEEPER_INTERVAL_MILLIS, "60000");
+    // longer than the transaction lifetimes, but without the margin over them
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_HORIZON_MILLIS, "120000");
+
+    // Act Assert
+    assertThatThrownBy(() -> new ConsensusCommitConfig(new DatabaseConfig(props)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void constructor_CoordinatorGcHorizonWithSafetyMarginGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.RECOVERY_SWEEPER_INTERVAL_MILLIS, "60000");
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_HORIZON_MILLIS, "300000");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.getCoordinatorGcHorizonMillis()).isEqualTo(300000);
+  }
+
+  @Test
+  public void
+      constructor_CoordinatorGcHorizonShorterThanTransactionLifetimeGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.COORDINATOR_GC_HORIZON_MILLIS, "1000");
+
+    // Act Assert
+    assertThatThrownBy(() -> new ConsensusCommitConfig(new DatabaseConfig(props)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void constructor_PropertiesWithBeforeImageReadEnabledGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.BEFORE_IMAGE_READ_ENABLED, "true");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isBeforeImageReadEnabled()).isEqualTo(true);
+  }
+
+  @Test
+  public void constructor_PropertiesWithDeltaBeforeImageEnabledGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.DELTA_BEFORE_IMAGE_ENABLED, "true");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isDeltaBeforeImageEnabled()).isEqualTo(true);
+  }
+
+  @Test
+  public void constructor_PropertiesWithBatchValidationEnabledGiven_ShouldLoadProperly() {
+    // Arrange
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.BATCH_VALIDATION_ENABLED, "true");
+
+    // Act
+    ConsensusCommitConfig config = new ConsensusCommitConfig(new DatabaseConfig(props));
+
+    // Assert
+    assertThat(config.isBatchValidationEnabled()).isEqualTo(true);
+  }
 }
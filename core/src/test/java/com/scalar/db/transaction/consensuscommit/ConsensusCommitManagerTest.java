@@ -7,39 +7,38 @@ import static org.mockito.Mockito.when;
 
 import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.DistributedStorageAdmin;
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Put;
 import com.scalar.db.api.TransactionState;
 import com.scalar.db.config.DatabaseConfig;
+import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.TransactionException;
 import com.scalar.db.exception.transaction.UnknownTransactionStatusException;
+import com.scalar.db.io.Key;
 import com.scalar.db.transaction.consensuscommit.Coordinator.State;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 public class ConsensusCommitManagerTest {
   private static final String ANY_TX_ID = "any_id";
 
-  @Mock
-  @SuppressWarnings("unused")
-  private DistributedStorage storage;
-
-  @Mock
-  @SuppressWarnings("unused")
-  private DistributedStorageAdmin admin;
-
-  @Mock
-  @SuppressWarnings("unused")
-  private DatabaseConfig databaseConfig;
+  @Mock private DistributedStorage storage;
+  @Mock private DistributedStorageAdmin admin;
+  @Mock private DatabaseConfig databaseConfig;
 
   @Mock private ConsensusCommitConfig consensusCommitConfig;
   @Mock private Coordinator coordinator;
   @Mock private RecoveryHandler recovery;
   @Mock private CommitHandler commit;
 
-  @InjectMocks private ConsensusCommitManager manager;
+  @Mock private ParallelExecutor parallelExecutor;
+
+  private ConsensusCommitManager manager;
 
   @BeforeEach
   public void setUp() throws Exception {
@@ -48,6 +47,19 @@ public class ConsensusCommitManagerTest {
     when(consensusCommitConfig.getIsolation()).thenReturn(Isolation.SNAPSHOT);
     when(consensusCommitConfig.getSerializableStrategy())
         .thenReturn(SerializableStrategy.EXTRA_READ);
+    when(consensusCommitConfig.getTransactionIdGenerator())
+        .thenReturn(ConsensusCommitConfig.DEFAULT_TRANSACTION_ID_GENERATOR);
+
+    manager =
+        new ConsensusCommitManager(
+            storage,
+            admin,
+            consensusCommitConfig,
+            databaseConfig,
+            coordinator,
+            parallelExecutor,
+            recovery,
+            commit);
   }
 
   @Test
@@ -76,6 +88,19 @@ public class ConsensusCommitManagerTest {
         .isEqualTo(Isolation.SNAPSHOT);
   }
 
+  @Test
+  public void beginReadOnly_NoArgumentGiven_ReturnReadOnlyConsensusCommit() {
+    // Arrange
+
+    // Act
+    ConsensusCommit transaction = manager.beginReadOnly();
+
+    // Assert
+    assertThat(transaction.isReadOnly()).isTrue();
+    assertThat(transaction.getCrudHandler().getSnapshot().getId()).isNotNull();
+    assertThat(manager.begin().isReadOnly()).isFalse();
+  }
+
   @Test
   public void begin_CalledTwice_ReturnRespectiveConsensusCommitWithSharedCommitAndRecovery() {
     // Arrange
@@ -285,4 +310,43 @@ public class ConsensusCommitManagerTest {
     // Assert
     assertThat(actual).isEqualTo(TransactionState.UNKNOWN);
   }
+
+  @Test
+  public void
+      getContentionKeys_UncommittedRecordExceptionGiven_ShouldReturnPartitionKeysOfRecords() {
+    // Arrange
+    ConsensusCommit transaction = manager.begin();
+    Key partitionKey = new Key("c1", "v1");
+    TransactionResult result = mock(TransactionResult.class);
+    when(result.getPartitionKey()).thenReturn(Optional.of(partitionKey));
+    Get get = new Get(partitionKey).forNamespace("ns").forTable("tbl");
+    UncommittedRecordException exception =
+        new UncommittedRecordException(get, result, "uncommitted");
+
+    // Act
+    Collection<String> keys = manager.getContentionKeys(transaction, exception);
+
+    // Assert
+    assertThat(keys).isEqualTo(Collections.singleton("ns.tbl:" + partitionKey));
+  }
+
+  @Test
+  public void getContentionKeys_CommitConflictExceptionGiven_ShouldReturnPartitionKeysOfWrites() {
+    // Arrange
+    ConsensusCommit transaction = manager.begin();
+    Key partitionKey = new Key("c1", "v1");
+    Put put =
+        new Put(partitionKey, new Key("c2", "v2"))
+            .withValue("c3", 1)
+            .forNamespace("ns")
+            .forTable("tbl");
+    transaction.getCrudHandler().put(put);
+
+    // Act
+    Collection<String> keys =
+        manager.getContentionKeys(transaction, new CommitConflictException("conflict"));
+
+    // Assert
+    assertThat(keys).isEqualTo(Collections.singleton("ns.tbl:" + partitionKey));
+  }
 }
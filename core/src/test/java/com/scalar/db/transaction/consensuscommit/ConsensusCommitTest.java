@@ -25,7 +25,6 @@ import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -43,11 +42,14 @@ public class ConsensusCommitTest {
   @Mock private CrudHandler crud;
   @Mock private CommitHandler commit;
   @Mock private RecoveryHandler recovery;
-  @InjectMocks private ConsensusCommit consensus;
+  private ConsensusCommit consensus;
 
   @BeforeEach
   public void setUp() throws Exception {
     MockitoAnnotations.openMocks(this).close();
+
+    // Arrange
+    consensus = new ConsensusCommit(crud, commit, recovery);
   }
 
   private Get prepareGet() {
@@ -209,4 +211,32 @@ public class ConsensusCommitTest {
     // Assert
     verify(commit).commit(snapshot);
   }
+
+  @Test
+  public void commit_ReadOnlyTransactionGiven_ShouldCommitReadOnlyWithSnapshot()
+      throws CommitException, UnknownTransactionStatusException {
+    // Arrange
+    consensus = new ConsensusCommit(crud, commit, recovery, true);
+    when(crud.getSnapshot()).thenReturn(snapshot);
+
+    // Act
+    consensus.commit();
+
+    // Assert
+    verify(commit).commitReadOnly(snapshot);
+    verify(commit, never()).commit(any(Snapshot.class));
+  }
+
+  @Test
+  public void put_ReadOnlyTransactionGiven_ShouldThrowIllegalStateException() {
+    // Arrange
+    consensus = new ConsensusCommit(crud, commit, recovery, true);
+
+    // Act Assert
+    assertThatThrownBy(() -> consensus.put(preparePut())).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> consensus.delete(prepareDelete()))
+        .isInstanceOf(IllegalStateException.class);
+    verify(crud, never()).put(any());
+    verify(crud, never()).delete(any());
+  }
 }
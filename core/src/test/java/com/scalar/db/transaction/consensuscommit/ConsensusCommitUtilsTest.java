@@ -3,8 +3,11 @@ package com.scalar.db.transaction.consensuscommit;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.scalar.db.api.Scan;
 import com.scalar.db.api.TableMetadata;
+import com.scalar.db.config.DatabaseConfig;
 import com.scalar.db.io.DataType;
+import java.util.Properties;
 import org.junit.jupiter.api.Test;
 
 public class ConsensusCommitUtilsTest {
@@ -53,6 +56,28 @@ public class ConsensusCommitUtilsTest {
     assertThat(actual).isEqualTo(expected);
   }
 
+  @Test
+  public void
+      buildTransactionTableMetadata_deltaBeforeImageEnabled_shouldAddBeforeImageColumnsMarker() {
+    // Arrange
+    TableMetadata tableMetadata =
+        TableMetadata.newBuilder()
+            .addColumn("account_id", DataType.INT)
+            .addColumn("balance", DataType.INT)
+            .addPartitionKey("account_id")
+            .build();
+
+    // Act
+    TableMetadata actual = ConsensusCommitUtils.buildTransactionTableMetadata(tableMetadata, true);
+
+    // Assert
+    assertThat(actual.getColumnDataType(Attribute.BEFORE_IMAGE_COLUMNS)).isEqualTo(DataType.TEXT);
+    assertThat(ConsensusCommitUtils.isTransactionTableMetadata(actual)).isTrue();
+    assertThat(ConsensusCommitUtils.isTransactionMetaColumn(Attribute.BEFORE_IMAGE_COLUMNS, actual))
+        .isTrue();
+    assertThat(ConsensusCommitUtils.removeTransactionMetaColumns(actual)).isEqualTo(tableMetadata);
+  }
+
   @Test
   public void
       buildTransactionTableMetadata_tableMetadataThatHasTransactionMetaColumnGiven_shouldThrowIllegalArgumentException() {
@@ -91,6 +116,49 @@ public class ConsensusCommitUtilsTest {
         .isInstanceOf(IllegalArgumentException.class);
   }
 
+  @Test
+  public void buildVersionTableMetadata_tableMetadataGiven_shouldCreateVersionTableProperly() {
+    // Arrange
+    final String ACCOUNT_ID = "account_id";
+    final String ACCOUNT_TYPE = "account_type";
+    final String BALANCE = "balance";
+
+    TableMetadata tableMetadata =
+        TableMetadata.newBuilder()
+            .addColumn(ACCOUNT_ID, DataType.INT)
+            .addColumn(ACCOUNT_TYPE, DataType.INT)
+            .addColumn(BALANCE, DataType.INT)
+            .addPartitionKey(ACCOUNT_ID)
+            .addClusteringKey(ACCOUNT_TYPE, Scan.Ordering.Order.DESC)
+            .build();
+
+    TableMetadata expected =
+        TableMetadata.newBuilder()
+            .addColumn(ACCOUNT_ID, DataType.INT)
+            .addColumn(ACCOUNT_TYPE, DataType.INT)
+            .addColumn(BALANCE, DataType.INT)
+            .addColumn(Attribute.ID, DataType.TEXT)
+            .addColumn(Attribute.STATE, DataType.INT)
+            .addColumn(Attribute.VERSION, DataType.INT)
+            .addColumn(Attribute.COMMITTED_AT, DataType.BIGINT)
+            .addPartitionKey(ACCOUNT_ID)
+            .addClusteringKey(ACCOUNT_TYPE, Scan.Ordering.Order.DESC)
+            .addClusteringKey(Attribute.COMMITTED_AT, Scan.Ordering.Order.DESC)
+            .addClusteringKey(Attribute.VERSION, Scan.Ordering.Order.DESC)
+            .build();
+
+    // Act
+    TableMetadata actual = ConsensusCommitUtils.buildVersionTableMetadata(tableMetadata);
+
+    // Assert
+    assertThat(actual).isEqualTo(expected);
+    assertThat(
+            ConsensusCommitUtils.isVersionTableName(
+                ConsensusCommitUtils.getVersionTableName("tbl")))
+        .isTrue();
+    assertThat(ConsensusCommitUtils.isVersionTableName("tbl")).isFalse();
+  }
+
   @Test
   public void getBeforeImageColumnName_tableMetadataGiven_shouldCreateTransactionalTableProperly() {
     // Arrange
@@ -560,4 +628,40 @@ public class ConsensusCommitUtilsTest {
         .isFalse();
     assertThat(ConsensusCommitUtils.isAfterImageColumn("aaa", metadata)).isFalse();
   }
+
+  @Test
+  public void createTransactionIdGenerator_GeneratorNamesGiven_ShouldCreateProperGenerators() {
+    // Arrange
+    ConsensusCommitConfig config1 = createConfig("time_ordered");
+    ConsensusCommitConfig config2 = createConfig("UUID");
+    ConsensusCommitConfig config3 = createConfig(UuidTransactionIdGenerator.class.getName());
+
+    // Act Assert
+    assertThat(ConsensusCommitUtils.createTransactionIdGenerator(config1))
+        .isInstanceOf(TimeOrderedTransactionIdGenerator.class);
+    assertThat(ConsensusCommitUtils.createTransactionIdGenerator(config2))
+        .isInstanceOf(UuidTransactionIdGenerator.class);
+    assertThat(ConsensusCommitUtils.createTransactionIdGenerator(config3))
+        .isInstanceOf(UuidTransactionIdGenerator.class);
+  }
+
+  @Test
+  public void
+      createTransactionIdGenerator_InvalidClassNameGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    ConsensusCommitConfig config1 = createConfig("com.example.UnknownGenerator");
+    ConsensusCommitConfig config2 = createConfig(String.class.getName());
+
+    // Act Assert
+    assertThatThrownBy(() -> ConsensusCommitUtils.createTransactionIdGenerator(config1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ConsensusCommitUtils.createTransactionIdGenerator(config2))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private ConsensusCommitConfig createConfig(String transactionIdGenerator) {
+    Properties props = new Properties();
+    props.setProperty(ConsensusCommitConfig.TRANSACTION_ID_GENERATOR, transactionIdGenerator);
+    return new ConsensusCommitConfig(new DatabaseConfig(props));
+  }
 }
@@ -0,0 +1,192 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.RateLimiter;
+import com.scalar.db.api.Delete;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.DistributedStorageAdmin;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.Scanner;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.common.ResultImpl;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.Key;
+import com.scalar.db.io.TextColumn;
+import com.scalar.db.util.ScalarDbUtils;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class CoordinatorGarbageCollectorTest {
+  private static final String ANY_NAMESPACE_NAME = "namespace";
+  private static final String ANY_TABLE_NAME = "table";
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_ID_1 = "id1";
+  private static final String ANY_ID_2 = "id2";
+  private static final String ANY_ID_3 = "id3";
+  private static final long HORIZON_MILLIS = 3600000;
+
+  private static final TableMetadata TABLE_METADATA =
+      ConsensusCommitUtils.buildTransactionTableMetadata(
+          TableMetadata.newBuilder()
+              .addColumn(ANY_NAME_1, DataType.TEXT)
+              .addPartitionKey(ANY_NAME_1)
+              .build());
+
+  @Mock private DistributedStorage storage;
+  @Mock private DistributedStorageAdmin admin;
+  @Mock private RateLimiter rateLimiter;
+  @Mock private Scanner tableScanner;
+  @Mock private Scanner coordinatorScanner;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+
+    // Arrange
+    when(storage.scan(any(Scan.class))).thenReturn(tableScanner, coordinatorScanner);
+    when(admin.namespaceExists(ANY_NAMESPACE_NAME)).thenReturn(true);
+    when(admin.getNamespaceTableNames(ANY_NAMESPACE_NAME))
+        .thenReturn(ImmutableSet.of(ANY_TABLE_NAME));
+    when(admin.getTableMetadata(ANY_NAMESPACE_NAME, ANY_TABLE_NAME)).thenReturn(TABLE_METADATA);
+  }
+
+  private CoordinatorGarbageCollector prepareCollector(List<String> namespaces) {
+    return new CoordinatorGarbageCollector(
+        storage, admin, Coordinator.NAMESPACE, namespaces, HORIZON_MILLIS, 1000, rateLimiter);
+  }
+
+  private Result prepareRecord(String id, TransactionState state) {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(id)))
+            .put(Attribute.STATE, ScalarDbUtils.toColumn(Attribute.toStateValue(state)))
+            .build();
+    return new ResultImpl(columns, TABLE_METADATA);
+  }
+
+  private Result prepareState(String id, TransactionState state, long createdAt) {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(id)))
+            .put(Attribute.STATE, ScalarDbUtils.toColumn(Attribute.toStateValue(state)))
+            .put(
+                Attribute.CREATED_AT, ScalarDbUtils.toColumn(Attribute.toCreatedAtValue(createdAt)))
+            .build();
+    return new ResultImpl(columns, Coordinator.TABLE_METADATA);
+  }
+
+  @Test
+  public void collect_OldStatesGiven_ShouldDeleteOnlyUnreferencedOnes() throws Exception {
+    // Arrange
+    CoordinatorGarbageCollector collector =
+        prepareCollector(Collections.singletonList(ANY_NAMESPACE_NAME));
+    long old = System.currentTimeMillis() - HORIZON_MILLIS - 1000;
+    when(tableScanner.one())
+        .thenReturn(Optional.of(prepareRecord(ANY_ID_1, TransactionState.PREPARED)))
+        .thenReturn(Optional.of(prepareRecord(ANY_ID_2, TransactionState.COMMITTED)))
+        .thenReturn(Optional.empty());
+    when(coordinatorScanner.one())
+        .thenReturn(Optional.of(prepareState(ANY_ID_1, TransactionState.COMMITTED, old)))
+        .thenReturn(Optional.of(prepareState(ANY_ID_2, TransactionState.ABORTED, old)))
+        .thenReturn(
+            Optional.of(
+                prepareState(ANY_ID_3, TransactionState.COMMITTED, System.currentTimeMillis())))
+        .thenReturn(Optional.empty());
+
+    // Act
+    long deleted = collector.collect();
+
+    // Assert
+    ArgumentCaptor<Delete> captor = ArgumentCaptor.forClass(Delete.class);
+    verify(storage).delete(captor.capture());
+    assertThat((Object) captor.getValue().getPartitionKey())
+        .isEqualTo(new Key(Attribute.ID, ANY_ID_2));
+    assertThat(captor.getValue().forNamespace()).hasValue(Coordinator.NAMESPACE);
+    assertThat(captor.getValue().forTable()).hasValue(Coordinator.TABLE);
+    verify(rateLimiter, times(1)).acquire();
+    assertThat(deleted).isEqualTo(1);
+    assertThat(collector.getScannedStateCount()).isEqualTo(3);
+    assertThat(collector.getDeletedStateCount()).isEqualTo(1);
+    assertThat(collector.getReferencedStateCount()).isEqualTo(1);
+    assertThat(collector.getCompletedRunCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void getTransactionalTables_NamespaceGiven_ShouldReturnOnlyTransactionalTables()
+      throws Exception {
+    // Arrange
+    String nonTransactionalTable = "non_transactional";
+    String versionTable = ANY_TABLE_NAME + ConsensusCommitUtils.VERSION_TABLE_SUFFIX;
+    when(admin.getNamespaceTableNames(ANY_NAMESPACE_NAME))
+        .thenReturn(ImmutableSet.of(ANY_TABLE_NAME, nonTransactionalTable, versionTable));
+    when(admin.getTableMetadata(ANY_NAMESPACE_NAME, nonTransactionalTable))
+        .thenReturn(
+            TableMetadata.newBuilder()
+                .addColumn(ANY_NAME_1, DataType.TEXT)
+                .addPartitionKey(ANY_NAME_1)
+                .build());
+    when(admin.getTableMetadata(ANY_NAMESPACE_NAME, versionTable)).thenReturn(TABLE_METADATA);
+    CoordinatorGarbageCollector collector =
+        prepareCollector(Collections.singletonList(ANY_NAMESPACE_NAME));
+
+    // Act
+    List<String[]> tables = collector.getTransactionalTables();
+
+    // Assert
+    assertThat(tables).containsExactly(new String[] {ANY_NAMESPACE_NAME, ANY_TABLE_NAME});
+  }
+
+  @Test
+  public void collect_NonExistingNamespaceGiven_ShouldThrowIllegalStateException()
+      throws Exception {
+    // Arrange
+    CoordinatorGarbageCollector collector =
+        prepareCollector(Collections.singletonList("non_existing"));
+
+    // Act Assert
+    assertThatThrownBy(collector::collect).isInstanceOf(IllegalStateException.class);
+    verify(storage, never()).delete(any(Delete.class));
+  }
+
+  @Test
+  public void collect_NoNamespacesGiven_ShouldThrowIllegalStateException() throws Exception {
+    // Arrange
+    CoordinatorGarbageCollector collector = prepareCollector(Collections.emptyList());
+
+    // Act Assert
+    assertThatThrownBy(collector::collect).isInstanceOf(IllegalStateException.class);
+    verify(storage, never()).delete(any(Delete.class));
+  }
+
+  @Test
+  public void start_CalledTwice_ShouldThrowIllegalStateException() {
+    // Arrange
+    CoordinatorGarbageCollector collector =
+        prepareCollector(Collections.singletonList(ANY_NAMESPACE_NAME));
+    collector.start();
+
+    // Act Assert
+    assertThatThrownBy(collector::start).isInstanceOf(IllegalStateException.class);
+    collector.close();
+  }
+}
@@ -6,7 +6,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,6 +20,7 @@ import com.scalar.db.api.PutIfNotExists;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.TransactionState;
 import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.exception.storage.NoMutationException;
 import com.scalar.db.io.BigIntValue;
 import com.scalar.db.io.IntValue;
 import com.scalar.db.io.TextValue;
@@ -78,6 +81,99 @@ public class CoordinatorTest {
     assertThatThrownBy(() -> coordinator.getState(id)).isInstanceOf(CoordinatorException.class);
   }
 
+  private Result prepareStateResult(String id, TransactionState state) {
+    Result result = mock(Result.class);
+    when(result.getValue(Attribute.ID)).thenReturn(Optional.of(new TextValue(Attribute.ID, id)));
+    when(result.getValue(Attribute.STATE))
+        .thenReturn(Optional.of(new IntValue(Attribute.STATE, state.get())));
+    when(result.getValue(Attribute.CREATED_AT))
+        .thenReturn(Optional.of(new BigIntValue(Attribute.CREATED_AT, ANY_TIME_1)));
+    return result;
+  }
+
+  private void enableStateCache() {
+    when(config.isCoordinatorStateCacheEnabled()).thenReturn(true);
+    when(config.getCoordinatorStateCacheMaxSize()).thenReturn(100L);
+    when(config.getCoordinatorStateCacheExpirationTimeMillis()).thenReturn(60000L);
+    coordinator = new Coordinator(storage, config);
+  }
+
+  @Test
+  public void getState_StateCacheEnabledAndCalledTwice_ShouldGetFromStorageOnlyOnce()
+      throws ExecutionException, CoordinatorException {
+    // Arrange
+    enableStateCache();
+    Result result = prepareStateResult(ANY_ID_1, TransactionState.COMMITTED);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(result));
+
+    // Act
+    Optional<Coordinator.State> state1 = coordinator.getState(ANY_ID_1);
+    Optional<Coordinator.State> state2 = coordinator.getState(ANY_ID_1);
+
+    // Assert
+    assertThat(state1).isEqualTo(state2);
+    assertThat(state2.get().getState()).isEqualTo(TransactionState.COMMITTED);
+    verify(storage, times(1)).get(any(Get.class));
+    assertThat(coordinator.getStateCacheStats().get().hitCount()).isEqualTo(1);
+    assertThat(coordinator.getStateCacheStats().get().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void getState_StateCacheEnabledAndNoStateExists_ShouldNotCache()
+      throws ExecutionException, CoordinatorException {
+    // Arrange
+    enableStateCache();
+    when(storage.get(any(Get.class))).thenReturn(Optional.empty());
+
+    // Act
+    coordinator.getState(ANY_ID_1);
+    coordinator.getState(ANY_ID_1);
+
+    // Assert
+    verify(storage, times(2)).get(any(Get.class));
+  }
+
+  @Test
+  public void getState_StateCacheEnabledAndStatePut_ShouldReturnStateWithoutGet()
+      throws ExecutionException, CoordinatorException {
+    // Arrange
+    enableStateCache();
+    Coordinator.State state = new Coordinator.State(ANY_ID_1, TransactionState.ABORTED);
+    coordinator.putState(state);
+
+    // Act
+    Optional<Coordinator.State> actual = coordinator.getState(ANY_ID_1);
+
+    // Assert
+    assertThat(actual).hasValue(state);
+    verify(storage, never()).get(any(Get.class));
+  }
+
+  @Test
+  public void getState_StateCacheEnabledAndPutFailed_ShouldNotCache()
+      throws ExecutionException, CoordinatorException {
+    // Arrange
+    enableStateCache();
+    Coordinator.State state = new Coordinator.State(ANY_ID_1, TransactionState.ABORTED);
+    Result result = prepareStateResult(ANY_ID_1, TransactionState.COMMITTED);
+    doThrow(NoMutationException.class).when(storage).put(any(Put.class));
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(result));
+    assertThatThrownBy(() -> coordinator.putState(state)).isInstanceOf(CoordinatorException.class);
+
+    // Act
+    Optional<Coordinator.State> actual = coordinator.getState(ANY_ID_1);
+
+    // Assert
+    assertThat(actual.get().getState()).isEqualTo(TransactionState.COMMITTED);
+    verify(storage).get(any(Get.class));
+  }
+
+  @Test
+  public void getStateCacheStats_StateCacheDisabled_ShouldReturnEmpty() {
+    // Arrange Act Assert
+    assertThat(coordinator.getStateCacheStats()).isEmpty();
+  }
+
   @Test
   public void putState_StateGiven_ShouldPutWithCorrectValues()
       throws ExecutionException, CoordinatorException {
@@ -185,4 +281,49 @@ public class CoordinatorTest {
     assertThat(captor.getValue().forNamespace().get()).isEqualTo("changed_coordinator");
     assertThat(captor.getValue().forTable().get()).isEqualTo(Coordinator.TABLE);
   }
+
+  @Test
+  public void getState_DeadlineExceededGiven_ShouldThrowCoordinatorExceptionWithoutGet()
+      throws ExecutionException {
+    // Arrange
+    long deadline = System.currentTimeMillis() - 1;
+
+    // Act Assert
+    assertThatThrownBy(() -> coordinator.getState(ANY_ID_1, deadline))
+        .isInstanceOf(CoordinatorException.class);
+    verify(storage, never()).get(any(Get.class));
+  }
+
+  @Test
+  public void getState_DeadlineGivenAndExceptionThrownInGet_ShouldGiveUpRetryingByDeadline()
+      throws ExecutionException {
+    // Arrange
+    long deadline = System.currentTimeMillis() + 40;
+    ExecutionException toThrow = mock(ExecutionException.class);
+    when(storage.get(any(Get.class))).thenThrow(toThrow);
+
+    // Act Assert
+    assertThatThrownBy(() -> coordinator.getState(ANY_ID_1, deadline))
+        .isInstanceOf(CoordinatorException.class);
+    ArgumentCaptor<Get> captor = ArgumentCaptor.forClass(Get.class);
+    verify(storage).get(captor.capture());
+    assertThat(captor.getValue().getDeadlineMillis()).isEqualTo(deadline);
+  }
+
+  @Test
+  public void putState_DeadlineGivenAndExceptionThrownInPut_ShouldGiveUpRetryingByDeadline()
+      throws ExecutionException {
+    // Arrange
+    long deadline = System.currentTimeMillis() + 40;
+    Coordinator.State state = new Coordinator.State(ANY_ID_1, TransactionState.COMMITTED);
+    ExecutionException toThrow = mock(ExecutionException.class);
+    doThrow(toThrow).when(storage).put(any(Put.class));
+
+    // Act Assert
+    assertThatThrownBy(() -> coordinator.putState(state, deadline))
+        .isInstanceOf(CoordinatorException.class);
+    ArgumentCaptor<Put> captor = ArgumentCaptor.forClass(Put.class);
+    verify(storage).put(captor.capture());
+    assertThat(captor.getValue().getDeadlineMillis()).isEqualTo(deadline);
+  }
 }
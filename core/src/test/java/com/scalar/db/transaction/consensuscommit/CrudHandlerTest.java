@@ -3,9 +3,11 @@ package com.scalar.db.transaction.consensuscommit;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -13,29 +15,37 @@ import com.google.common.collect.ImmutableMap;
 import com.scalar.db.api.Delete;
 import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.Get;
+import com.scalar.db.api.Put;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.Scan;
 import com.scalar.db.api.Scanner;
 import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionCrudOperable;
 import com.scalar.db.api.TransactionState;
 import com.scalar.db.common.ResultImpl;
 import com.scalar.db.exception.storage.ExecutionException;
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.CrudException;
 import com.scalar.db.io.Column;
 import com.scalar.db.io.DataType;
 import com.scalar.db.io.Key;
 import com.scalar.db.io.TextColumn;
 import com.scalar.db.util.ScalarDbUtils;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -44,8 +54,10 @@ public class CrudHandlerTest {
   private static final String ANY_TABLE_NAME = "table";
   private static final String ANY_ID_1 = "id1";
   private static final String ANY_ID_2 = "id2";
+  private static final long ANY_TIME_1 = 100;
   private static final String ANY_NAME_1 = "name1";
   private static final String ANY_NAME_2 = "name2";
+  private static final String ANY_NAME_3 = "name3";
   private static final String ANY_TEXT_1 = "text1";
   private static final String ANY_TEXT_2 = "text2";
   private static final String ANY_TEXT_3 = "text3";
@@ -60,7 +72,17 @@ public class CrudHandlerTest {
               .addClusteringKey(ANY_NAME_2)
               .build());
 
-  @InjectMocks private CrudHandler handler;
+  private static final TableMetadata WIDE_TABLE_METADATA =
+      ConsensusCommitUtils.buildTransactionTableMetadata(
+          TableMetadata.newBuilder()
+              .addColumn(ANY_NAME_1, DataType.TEXT)
+              .addColumn(ANY_NAME_2, DataType.TEXT)
+              .addColumn(ANY_NAME_3, DataType.TEXT)
+              .addPartitionKey(ANY_NAME_1)
+              .addClusteringKey(ANY_NAME_2)
+              .build());
+
+  private CrudHandler handler;
   @Mock private DistributedStorage storage;
   @Mock private Snapshot snapshot;
   @Mock private TransactionTableMetadataManager tableMetadataManager;
@@ -77,6 +99,7 @@ public class CrudHandlerTest {
         .thenReturn(new TransactionTableMetadata(TABLE_METADATA));
     when(tableMetadataManager.getTransactionTableMetadata(any(), any()))
         .thenReturn(new TransactionTableMetadata(TABLE_METADATA));
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
   }
 
   private Get prepareGet() {
@@ -110,6 +133,29 @@ public class CrudHandlerTest {
     return new TransactionResult(new ResultImpl(columns, TABLE_METADATA));
   }
 
+  private TransactionResult prepareWideResult(int version, boolean withName3) {
+    ImmutableMap.Builder<String, Column<?>> builder =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID_2)))
+            .put(
+                Attribute.STATE,
+                ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.COMMITTED)))
+            .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(version)));
+    if (withName3) {
+      builder.put(ANY_NAME_3, TextColumn.of(ANY_NAME_3, ANY_TEXT_3));
+    }
+    return new TransactionResult(new ResultImpl(builder.build(), WIDE_TABLE_METADATA));
+  }
+
+  private void prepareWideTableMetadata() throws ExecutionException {
+    when(tableMetadataManager.getTransactionTableMetadata(any()))
+        .thenReturn(new TransactionTableMetadata(WIDE_TABLE_METADATA));
+    when(tableMetadataManager.getTransactionTableMetadata(any(), any()))
+        .thenReturn(new TransactionTableMetadata(WIDE_TABLE_METADATA));
+  }
+
   @Test
   public void get_KeyExistsInSnapshot_ShouldReturnFromSnapshot() throws CrudException {
     // Arrange
@@ -197,6 +243,101 @@ public class CrudHandlerTest {
     assertThatThrownBy(() -> handler.get(get)).isInstanceOf(CrudException.class).hasCause(toThrow);
   }
 
+  @Test
+  public void get_DeadlineExceeded_ShouldThrowCrudExceptionWithoutGet() throws ExecutionException {
+    // Arrange
+    Get get = prepareGet();
+    when(snapshot.isDeadlineExceeded()).thenReturn(true);
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.get(get)).isInstanceOf(CrudException.class);
+    verify(storage, never()).get(any(Get.class));
+  }
+
+  @Test
+  public void scan_DeadlineExceeded_ShouldThrowCrudExceptionWithoutScan()
+      throws ExecutionException {
+    // Arrange
+    Scan scan = prepareScan();
+    when(snapshot.isDeadlineExceeded()).thenReturn(true);
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.scan(scan)).isInstanceOf(CrudException.class);
+    verify(storage, never()).scan(any(Scan.class));
+  }
+
+  @Test
+  public void get_DeadlineGiven_ShouldGetFromStorageWithDeadline()
+      throws CrudException, ExecutionException {
+    // Arrange
+    Get get = prepareGet();
+    long deadline = System.currentTimeMillis() + 60000;
+    when(snapshot.getDeadlineMillis()).thenReturn(deadline);
+    when(storage.get(get)).thenReturn(Optional.empty());
+
+    // Act
+    handler.get(get);
+
+    // Assert
+    ArgumentCaptor<Get> captor = ArgumentCaptor.forClass(Get.class);
+    verify(storage).get(captor.capture());
+    assertThat(captor.getValue().getDeadlineMillis()).isEqualTo(deadline);
+  }
+
+  @Test
+  public void get_RecordNotLockedGiven_ShouldLockItBeforeReading()
+      throws CrudException, ExecutionException {
+    // Arrange
+    Get get = prepareGet();
+    Snapshot.Key key = new Snapshot.Key(get);
+    LockTable lockTable = new LockTable(16, 10);
+    CrudHandler handler =
+        new CrudHandler(storage, snapshot, tableMetadataManager, null, lockTable, null);
+    Optional<Result> expected = Optional.of(prepareResult(TransactionState.COMMITTED));
+    when(storage.get(get)).thenReturn(expected);
+    when(snapshot.get(key)).thenReturn(expected.map(e -> (TransactionResult) e));
+
+    // Act
+    Optional<Result> actual = handler.get(get);
+
+    // Assert
+    assertThat(actual).isPresent();
+    assertThat(lockTable.getAcquiredCount()).isEqualTo(1);
+    assertThat(lockTable.acquire(lockTable.newOwner(), Collections.singletonList(key))).isFalse();
+  }
+
+  @Test
+  public void get_RecordLockedByAnotherTransaction_ShouldThrowCrudConflictExceptionWithoutReading()
+      throws ExecutionException {
+    // Arrange
+    Get get = prepareGet();
+    Snapshot.Key key = new Snapshot.Key(get);
+    LockTable lockTable = new LockTable(16, 10);
+    lockTable.acquire(lockTable.newOwner(), Collections.singletonList(key));
+    CrudHandler handler =
+        new CrudHandler(storage, snapshot, tableMetadataManager, null, lockTable, null);
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.get(get)).isInstanceOf(CrudConflictException.class);
+    verify(storage, never()).get(any(Get.class));
+    assertThat(lockTable.getTimedOutCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void
+      lockWrittenRecords_RecordLockedByAnotherTransaction_ShouldThrowCommitConflictException() {
+    // Arrange
+    Snapshot.Key key = new Snapshot.Key(prepareGet());
+    LockTable lockTable = new LockTable(16, 10);
+    lockTable.acquire(lockTable.newOwner(), Collections.singletonList(key));
+    when(snapshot.getWrittenKeys()).thenReturn(Collections.singleton(key));
+    CrudHandler handler =
+        new CrudHandler(storage, snapshot, tableMetadataManager, null, lockTable, null);
+
+    // Act Assert
+    assertThatThrownBy(handler::lockWrittenRecords).isInstanceOf(CommitConflictException.class);
+  }
+
   @Test
   public void scan_ResultGivenFromStorage_ShouldUpdateSnapshotAndReturn()
       throws ExecutionException, CrudException {
@@ -409,4 +550,585 @@ public class CrudHandlerTest {
     assertThat(readSet.get(key2).isPresent()).isTrue();
     assertThat(readSet.get(key2).get()).isEqualTo(new TransactionResult(result2));
   }
+
+  private Result prepareCommittedResult(String clusteringKeyValue) {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, clusteringKeyValue))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID_2)))
+            .put(
+                Attribute.STATE,
+                ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.COMMITTED)))
+            .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(2)))
+            .build();
+    return new ResultImpl(columns, TABLE_METADATA);
+  }
+
+  private Put preparePut(String clusteringKeyValue) {
+    return new Put(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, clusteringKeyValue))
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME);
+  }
+
+  private List<String> getClusteringKeyValues(List<Result> results) {
+    return results.stream().map(r -> r.getText(ANY_NAME_2)).collect(Collectors.toList());
+  }
+
+  @Test
+  public void scan_CalledAfterPutUnderRealSnapshot_ShouldReturnResultsMergedInClusteringOrder()
+      throws ExecutionException, CrudException {
+    // Arrange
+    Scan scan = prepareScan();
+    snapshot =
+        new Snapshot(ANY_TX_ID, Isolation.SNAPSHOT, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    when(scanner.iterator())
+        .thenReturn(Collections.singletonList(prepareCommittedResult(ANY_TEXT_2)).iterator());
+    when(storage.scan(scan)).thenReturn(scanner);
+
+    // Act
+    handler.put(preparePut(ANY_TEXT_3));
+    handler.put(preparePut(ANY_TEXT_1));
+    List<Result> results = handler.scan(scan);
+
+    // Assert
+    assertThat(getClusteringKeyValues(results)).containsExactly(ANY_TEXT_1, ANY_TEXT_2, ANY_TEXT_3);
+  }
+
+  @Test
+  public void
+      scan_WithReverseOrderingCalledAfterPutUnderRealSnapshot_ShouldReturnResultsMergedInReverseOrder()
+          throws ExecutionException, CrudException {
+    // Arrange
+    Scan scan = prepareScan().withOrdering(Scan.Ordering.desc(ANY_NAME_2));
+    snapshot =
+        new Snapshot(ANY_TX_ID, Isolation.SNAPSHOT, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    when(scanner.iterator())
+        .thenReturn(Collections.singletonList(prepareCommittedResult(ANY_TEXT_2)).iterator());
+    when(storage.scan(scan)).thenReturn(scanner);
+
+    // Act
+    handler.put(preparePut(ANY_TEXT_1));
+    handler.put(preparePut(ANY_TEXT_3));
+    List<Result> results = handler.scan(scan);
+
+    // Assert
+    assertThat(getClusteringKeyValues(results)).containsExactly(ANY_TEXT_3, ANY_TEXT_2, ANY_TEXT_1);
+  }
+
+  @Test
+  public void
+      scan_WithLimitCalledAfterDeleteAndPutUnderRealSnapshot_ShouldScanMoreAndReturnMergedResultsWithinLimit()
+          throws ExecutionException, CrudException {
+    // Arrange
+    Scan scan = prepareScan().withLimit(2);
+    snapshot =
+        new Snapshot(ANY_TX_ID, Isolation.SNAPSHOT, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    when(scanner.iterator())
+        .thenReturn(
+            Arrays.asList(
+                    prepareCommittedResult(ANY_TEXT_1),
+                    prepareCommittedResult(ANY_TEXT_2),
+                    prepareCommittedResult("text4"))
+                .iterator());
+    when(storage.scan(any())).thenReturn(scanner);
+    Delete delete =
+        new Delete(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, ANY_TEXT_1))
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME);
+
+    // Act
+    handler.delete(delete);
+    // "text5" is after the last scanned record, so it shouldn't be merged
+    handler.put(preparePut("text5"));
+    handler.put(preparePut(ANY_TEXT_3));
+    List<Result> results = handler.scan(scan);
+
+    // Assert
+    ArgumentCaptor<Scan> captor = ArgumentCaptor.forClass(Scan.class);
+    verify(storage).scan(captor.capture());
+    assertThat(captor.getValue().getLimit()).isEqualTo(3);
+    assertThat(scan.getLimit()).isEqualTo(2);
+    assertThat(getClusteringKeyValues(results)).containsExactly(ANY_TEXT_2, ANY_TEXT_3);
+  }
+
+  private CrudHandler prepareBeforeImageReadHandler(RecoveryHandler recovery) {
+    return prepareBeforeImageReadHandler(recovery, TransactionState.ABORTED);
+  }
+
+  private CrudHandler prepareBeforeImageReadHandler(
+      RecoveryHandler recovery, @Nullable TransactionState writerState) {
+    when(snapshot.getIsolation()).thenReturn(Isolation.SNAPSHOT);
+    when(snapshot.getDeadlineMillis()).thenReturn(Long.MAX_VALUE);
+    try {
+      when(recovery.getCoordinatorState(ANY_ID_2, Long.MAX_VALUE))
+          .thenReturn(
+              writerState == null
+                  ? Optional.empty()
+                  : Optional.of(new Coordinator.State(ANY_ID_2, writerState, ANY_TIME_1)));
+    } catch (CoordinatorException e) {
+      throw new AssertionError(e);
+    }
+    return new CrudHandler(storage, snapshot, tableMetadataManager, recovery, null, null);
+  }
+
+  @Test
+  public void
+      get_RecordInStorageNotCommittedAndWriterAbortedInBeforeImageReadMode_ShouldReturnBeforeImage()
+          throws CrudException, ExecutionException {
+    // Arrange
+    RecoveryHandler recovery = mock(RecoveryHandler.class);
+    CrudHandler handler = prepareBeforeImageReadHandler(recovery);
+    Get get = prepareGet();
+    Snapshot.Key key = new Snapshot.Key(get);
+    TransactionResult uncommitted = prepareResult(TransactionState.PREPARED);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(uncommitted));
+
+    // Act
+    handler.get(get);
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Optional<TransactionResult>> captor = ArgumentCaptor.forClass(Optional.class);
+    verify(snapshot).put(eq(key), captor.capture());
+    assertThat(captor.getValue()).isPresent();
+    TransactionResult beforeImage = captor.getValue().get();
+    assertThat(beforeImage.getId()).isEqualTo(ANY_ID_1);
+    assertThat(beforeImage.getState()).isEqualTo(TransactionState.COMMITTED);
+    assertThat(beforeImage.getVersion()).isEqualTo(1);
+    assertThat(beforeImage.getText(ANY_NAME_1)).isEqualTo(ANY_TEXT_1);
+    assertThat(beforeImage.getText(ANY_NAME_2)).isEqualTo(ANY_TEXT_2);
+    verify(recovery).recoverAsync(get, uncommitted);
+  }
+
+  @Test
+  public void
+      get_RecordInStorageNotCommittedWithoutBeforeImageAndWriterAbortedInBeforeImageReadMode_ShouldBeEmpty()
+          throws CrudException, ExecutionException {
+    // Arrange
+    RecoveryHandler recovery = mock(RecoveryHandler.class);
+    CrudHandler handler = prepareBeforeImageReadHandler(recovery);
+    Get get = prepareGet();
+    Snapshot.Key key = new Snapshot.Key(get);
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID_2)))
+            .put(
+                Attribute.STATE,
+                ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.PREPARED)))
+            .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(1)))
+            .put(Attribute.BEFORE_ID, TextColumn.ofNull(Attribute.BEFORE_ID))
+            .build();
+    TransactionResult uncommitted = new TransactionResult(new ResultImpl(columns, TABLE_METADATA));
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(uncommitted));
+    when(snapshot.get(key)).thenReturn(Optional.empty());
+
+    // Act
+    Optional<Result> actual = handler.get(get);
+
+    // Assert
+    assertThat(actual).isNotPresent();
+    verify(snapshot).put(key, Optional.empty());
+    verify(recovery).recoverAsync(get, uncommitted);
+  }
+
+  @Test
+  public void
+      get_RecordInStorageNotCommittedInBeforeImageReadModeUnderSerializable_ShouldThrowUncommittedRecordException()
+          throws ExecutionException {
+    // Arrange
+    RecoveryHandler recovery = mock(RecoveryHandler.class);
+    CrudHandler handler =
+        new CrudHandler(storage, snapshot, tableMetadataManager, recovery, null, null);
+    when(snapshot.getIsolation()).thenReturn(Isolation.SERIALIZABLE);
+    Get get = prepareGet();
+    when(storage.get(any(Get.class)))
+        .thenReturn(Optional.of(prepareResult(TransactionState.PREPARED)));
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.get(get)).isInstanceOf(UncommittedRecordException.class);
+    verify(recovery, never()).recoverAsync(any(), any());
+  }
+
+  @Test
+  public void
+      scan_PreparedResultGivenFromStorageAndWriterAbortedInBeforeImageReadMode_ShouldReturnBeforeImage()
+          throws ExecutionException, CrudException {
+    // Arrange
+    RecoveryHandler recovery = mock(RecoveryHandler.class);
+    CrudHandler handler = prepareBeforeImageReadHandler(recovery);
+    Scan scan = prepareScan();
+    TransactionResult uncommitted = prepareResult(TransactionState.PREPARED);
+    Snapshot.Key key = new Snapshot.Key(scan, uncommitted);
+    when(scanner.iterator()).thenReturn(Collections.singletonList((Result) uncommitted).iterator());
+    when(storage.scan(scan)).thenReturn(scanner);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(uncommitted));
+
+    // Act
+    handler.scan(scan);
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Optional<TransactionResult>> captor = ArgumentCaptor.forClass(Optional.class);
+    verify(snapshot).put(eq(key), captor.capture());
+    assertThat(captor.getValue()).isPresent();
+    assertThat(captor.getValue().get().getId()).isEqualTo(ANY_ID_1);
+    assertThat(captor.getValue().get().getVersion()).isEqualTo(1);
+    verify(recovery).recoverAsync(scan, uncommitted);
+  }
+
+  @Test
+  public void
+      get_RecordInStorageNotCommittedAndWriterCommittedInBeforeImageReadMode_ShouldReturnAfterImage()
+          throws CrudException, ExecutionException {
+    // Arrange
+    RecoveryHandler recovery = mock(RecoveryHandler.class);
+    CrudHandler handler = prepareBeforeImageReadHandler(recovery, TransactionState.COMMITTED);
+    Get get = prepareGet();
+    Snapshot.Key key = new Snapshot.Key(get);
+    TransactionResult uncommitted = prepareResult(TransactionState.PREPARED);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(uncommitted));
+
+    // Act
+    handler.get(get);
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Optional<TransactionResult>> captor = ArgumentCaptor.forClass(Optional.class);
+    verify(snapshot).put(eq(key), captor.capture());
+    assertThat(captor.getValue()).isPresent();
+    TransactionResult afterImage = captor.getValue().get();
+    assertThat(afterImage.getId()).isEqualTo(ANY_ID_2);
+    assertThat(afterImage.getState()).isEqualTo(TransactionState.COMMITTED);
+    assertThat(afterImage.getVersion()).isEqualTo(2);
+    assertThat(afterImage.getCommittedAt()).isEqualTo(ANY_TIME_1);
+    assertThat(afterImage.contains(Attribute.BEFORE_ID)).isFalse();
+    verify(recovery).recoverAsync(get, uncommitted);
+  }
+
+  @Test
+  public void get_RecordInStorageDeletedAndWriterCommittedInBeforeImageReadMode_ShouldBeEmpty()
+      throws CrudException, ExecutionException {
+    // Arrange
+    RecoveryHandler recovery = mock(RecoveryHandler.class);
+    CrudHandler handler = prepareBeforeImageReadHandler(recovery, TransactionState.COMMITTED);
+    Get get = prepareGet();
+    Snapshot.Key key = new Snapshot.Key(get);
+    TransactionResult uncommitted = prepareResult(TransactionState.DELETED);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(uncommitted));
+
+    // Act
+    handler.get(get);
+
+    // Assert
+    verify(snapshot).put(key, Optional.empty());
+    verify(recovery).recoverAsync(get, uncommitted);
+  }
+
+  @Test
+  public void
+      get_RecordInStorageNotCommittedAndWriterNotFinishedInBeforeImageReadMode_ShouldThrowUncommittedRecordException()
+          throws ExecutionException {
+    // Arrange
+    RecoveryHandler recovery = mock(RecoveryHandler.class);
+    CrudHandler handler = prepareBeforeImageReadHandler(recovery, null);
+    Get get = prepareGet();
+    when(storage.get(any(Get.class)))
+        .thenReturn(Optional.of(prepareResult(TransactionState.PREPARED)));
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.get(get)).isInstanceOf(UncommittedRecordException.class);
+    verify(recovery, never()).recoverAsync(any(), any());
+  }
+
+  @Test
+  public void get_WithProjectionsGiven_ShouldPushProjectionsDownWithMetadataColumns()
+      throws ExecutionException, CrudException {
+    // Arrange
+    prepareWideTableMetadata();
+    Get get = prepareGet().withProjection(ANY_NAME_1);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(prepareWideResult(2, false)));
+
+    // Act
+    handler.get(get);
+
+    // Assert
+    ArgumentCaptor<Get> captor = ArgumentCaptor.forClass(Get.class);
+    verify(storage).get(captor.capture());
+    assertThat(captor.getValue().getProjections())
+        .contains(ANY_NAME_1, ANY_NAME_2, Attribute.ID, Attribute.STATE, Attribute.VERSION)
+        .doesNotContain(ANY_NAME_3, Attribute.BEFORE_ID);
+  }
+
+  @Test
+  public void get_WithProjectionsGivenUnderExtraWrite_ShouldReadAllColumns()
+      throws ExecutionException, CrudException {
+    // Arrange
+    prepareWideTableMetadata();
+    when(snapshot.isReadSetWrittenBack()).thenReturn(true);
+    Get get = prepareGet().withProjection(ANY_NAME_1);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(prepareWideResult(2, true)));
+
+    // Act
+    handler.get(get);
+
+    // Assert
+    ArgumentCaptor<Get> captor = ArgumentCaptor.forClass(Get.class);
+    verify(storage).get(captor.capture());
+    assertThat(captor.getValue().getProjections())
+        .contains(ANY_NAME_1, ANY_NAME_2, ANY_NAME_3, Attribute.ID, Attribute.VERSION)
+        .doesNotContain(Attribute.BEFORE_ID);
+  }
+
+  @Test
+  public void get_CalledWithoutProjectionsAfterProjectedGet_ShouldReadUnreadColumns()
+      throws ExecutionException, CrudException {
+    // Arrange
+    prepareWideTableMetadata();
+    snapshot =
+        new Snapshot(ANY_TX_ID, Isolation.SNAPSHOT, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    when(storage.get(any(Get.class)))
+        .thenReturn(Optional.of(prepareWideResult(2, false)))
+        .thenReturn(Optional.of(prepareWideResult(2, true)));
+
+    // Act
+    handler.get(prepareGet().withProjection(ANY_NAME_1));
+    Optional<Result> actual = handler.get(prepareGet());
+
+    // Assert
+    assertThat(actual).isPresent();
+    assertThat(actual.get().getText(ANY_NAME_3)).isEqualTo(ANY_TEXT_3);
+  }
+
+  @Test
+  public void
+      get_CalledWithoutProjectionsAfterProjectedGetAndRecordUpdated_ShouldThrowCrudConflictException()
+          throws ExecutionException, CrudException {
+    // Arrange
+    prepareWideTableMetadata();
+    snapshot =
+        new Snapshot(ANY_TX_ID, Isolation.SNAPSHOT, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    when(storage.get(any(Get.class)))
+        .thenReturn(Optional.of(prepareWideResult(2, false)))
+        .thenReturn(Optional.of(prepareWideResult(3, true)));
+    handler.get(prepareGet().withProjection(ANY_NAME_1));
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.get(prepareGet())).isInstanceOf(CrudConflictException.class);
+  }
+
+  @Test
+  public void getScanner_ClosedAfterFetchingSomeResults_ShouldPutOnlyFetchedRecordsIntoSnapshot()
+      throws ExecutionException, CrudException, IOException {
+    // Arrange
+    Scan scan = prepareScan();
+    Result result1 = prepareCommittedResult("a");
+    Result result2 = prepareCommittedResult("b");
+    snapshot =
+        new Snapshot(ANY_TX_ID, Isolation.SNAPSHOT, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    when(scanner.one()).thenReturn(Optional.of(result1)).thenReturn(Optional.of(result2));
+    when(storage.scan(scan)).thenReturn(scanner);
+
+    // Act
+    TransactionCrudOperable.Scanner actual = handler.getScanner(scan, e -> {});
+    Optional<Result> first = actual.one();
+    actual.close();
+
+    // Assert
+    assertThat(first).isPresent();
+    assertThat(first.get().getText(ANY_NAME_2)).isEqualTo("a");
+    verify(scanner).one();
+    verify(scanner).close();
+    Snapshot.Key key1 = new Snapshot.Key(scan, result1);
+    assertThat(snapshot.containsKeyInReadSet(key1)).isTrue();
+    assertThat(snapshot.containsKeyInReadSet(new Snapshot.Key(scan, result2))).isFalse();
+    assertThat(snapshot.get(new Scan(scan).withLimit(1)))
+        .isEqualTo(Optional.of(Collections.singletonList(key1)));
+    assertThat(snapshot.get(scan)).isEmpty();
+  }
+
+  @Test
+  public void getScanner_AllResultsFetched_ShouldPutScanIntoSnapshotWhenClosed()
+      throws ExecutionException, CrudException {
+    // Arrange
+    Scan scan = prepareScan();
+    Result result1 = prepareCommittedResult("a");
+    Result result2 = prepareCommittedResult("b");
+    snapshot =
+        new Snapshot(ANY_TX_ID, Isolation.SNAPSHOT, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    when(scanner.one())
+        .thenReturn(Optional.of(result1))
+        .thenReturn(Optional.of(result2))
+        .thenReturn(Optional.empty());
+    when(storage.scan(scan)).thenReturn(scanner);
+
+    // Act
+    TransactionCrudOperable.Scanner actual = handler.getScanner(scan, e -> {});
+    List<Result> results = actual.all();
+    handler.closeScanners();
+
+    // Assert
+    assertThat(results).hasSize(2);
+    assertThat(snapshot.get(scan))
+        .isEqualTo(
+            Optional.of(
+                Arrays.asList(new Snapshot.Key(scan, result1), new Snapshot.Key(scan, result2))));
+  }
+
+  @Test
+  public void getScanner_UncommittedRecordFetched_ShouldCallHandlerAndThrowException()
+      throws ExecutionException, CrudException {
+    // Arrange
+    Scan scan = prepareScan();
+    result = prepareResult(TransactionState.PREPARED);
+    when(scanner.one()).thenReturn(Optional.of(result));
+    when(storage.scan(scan)).thenReturn(scanner);
+    List<UncommittedRecordException> handled = new ArrayList<>();
+
+    // Act
+    TransactionCrudOperable.Scanner actual = handler.getScanner(scan, handled::add);
+
+    // Assert
+    assertThatThrownBy(actual::one).isInstanceOf(UncommittedRecordException.class);
+    assertThat(handled).hasSize(1);
+    verify(snapshot, never())
+        .put(any(Snapshot.Key.class), ArgumentMatchers.<Optional<TransactionResult>>any());
+  }
+
+  @Test
+  public void get_InReadCommitted_ShouldReadFromStorageEveryTimeWithoutPuttingIntoSnapshot()
+      throws ExecutionException, CrudException {
+    // Arrange
+    Get get = prepareGet();
+    result = prepareResult(TransactionState.COMMITTED);
+    snapshot =
+        new Snapshot(
+            ANY_TX_ID, Isolation.READ_COMMITTED, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(result));
+
+    // Act
+    Optional<Result> actual1 = handler.get(get);
+    Optional<Result> actual2 = handler.get(prepareGet());
+
+    // Assert
+    assertThat(actual1).isPresent();
+    assertThat(actual2).isPresent();
+    verify(storage, times(2)).get(any(Get.class));
+    assertThat(snapshot.containsKeyInReadSet(new Snapshot.Key(get))).isFalse();
+  }
+
+  @Test
+  public void scan_InReadCommittedAfterPut_ShouldReturnResultsMergedWithPut()
+      throws ExecutionException, CrudException {
+    // Arrange
+    prepareWideTableMetadata();
+    Scan scan = prepareScan();
+    result = prepareWideResult(2, true);
+    snapshot =
+        new Snapshot(
+            ANY_TX_ID, Isolation.READ_COMMITTED, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    handler.put(
+        new Put(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, ANY_TEXT_2))
+            .withValue(ANY_NAME_3, "updated")
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME));
+    when(scanner.iterator()).thenReturn(Collections.singletonList(result).iterator());
+    when(storage.scan(scan)).thenReturn(scanner);
+
+    // Act
+    List<Result> results = handler.scan(scan);
+
+    // Assert
+    assertThat(results).hasSize(1);
+    assertThat(results.get(0).getText(ANY_NAME_3)).isEqualTo("updated");
+    assertThat(snapshot.containsKeyInReadSet(new Snapshot.Key(scan, result))).isFalse();
+    assertThat(snapshot.get(scan)).isEmpty();
+  }
+
+  @Test
+  public void readRecordsToWrite_InReadCommitted_ShouldPutLatestRecordsIntoReadSet()
+      throws ExecutionException, CrudException {
+    // Arrange
+    Get get = prepareGet();
+    result = prepareResult(TransactionState.COMMITTED);
+    snapshot =
+        new Snapshot(
+            ANY_TX_ID, Isolation.READ_COMMITTED, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    handler.get(get);
+    handler.delete(
+        new Delete(get.getPartitionKey(), get.getClusteringKey().get())
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME));
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(result));
+
+    // Act
+    handler.readRecordsToWrite();
+
+    // Assert
+    assertThat(snapshot.getFromReadSet(new Snapshot.Key(get))).isEqualTo(Optional.of(result));
+  }
+
+  @Test
+  public void
+      readRecordsToWrite_InReadCommittedAndRecordBeingWritten_ShouldThrowCrudConflictException()
+          throws ExecutionException, CrudException {
+    // Arrange
+    snapshot =
+        new Snapshot(
+            ANY_TX_ID, Isolation.READ_COMMITTED, null, tableMetadataManager, parallelExecutor);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager);
+    handler.put(
+        new Put(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, ANY_TEXT_2))
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME));
+    when(storage.get(any(Get.class)))
+        .thenReturn(Optional.of(prepareResult(TransactionState.PREPARED)));
+
+    // Act Assert
+    assertThatThrownBy(() -> handler.readRecordsToWrite())
+        .isInstanceOf(CrudConflictException.class);
+  }
+
+  @Test
+  public void get_WithVersionReaderAndMultiVersionedTable_ShouldReadAsOfTimestampWithoutSnapshot()
+      throws ExecutionException, CrudException {
+    // Arrange
+    TransactionTableMetadata metadata =
+        new TransactionTableMetadata(
+            TABLE_METADATA,
+            ConsensusCommitUtils.buildVersionTableMetadata(
+                ConsensusCommitUtils.removeTransactionMetaColumns(TABLE_METADATA)));
+    when(tableMetadataManager.getTransactionTableMetadata(any())).thenReturn(metadata);
+    when(tableMetadataManager.getTransactionTableMetadata(any(), any())).thenReturn(metadata);
+    VersionReader versionReader = mock(VersionReader.class);
+    handler = new CrudHandler(storage, snapshot, tableMetadataManager, null, null, versionReader);
+    Get get = prepareGet();
+    TransactionResult latest = prepareResult(TransactionState.COMMITTED);
+    TransactionResult old = prepareResult(TransactionState.COMMITTED);
+    when(storage.get(any(Get.class))).thenReturn(Optional.of(latest));
+    when(versionReader.get(any(Get.class), eq(Optional.of(latest)), eq(metadata)))
+        .thenReturn(Optional.of(old));
+
+    // Act
+    Optional<Result> actual = handler.get(get);
+
+    // Assert
+    assertThat(actual).isPresent();
+    assertThat(actual.get().getText(ANY_NAME_2)).isEqualTo(ANY_TEXT_2);
+    verify(versionReader).get(any(Get.class), eq(Optional.of(latest)), eq(metadata));
+    verify(snapshot, never())
+        .put(any(Snapshot.Key.class), ArgumentMatchers.<Optional<TransactionResult>>any());
+  }
 }
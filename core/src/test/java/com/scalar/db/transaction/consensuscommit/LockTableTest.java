@@ -0,0 +1,111 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.scalar.db.api.Get;
+import com.scalar.db.io.Key;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class LockTableTest {
+  private static final String ANY_NAMESPACE_NAME = "namespace";
+  private static final String ANY_TABLE_NAME = "table";
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_TEXT_2 = "text2";
+
+  private Snapshot.Key prepareKey(String text) {
+    return new Snapshot.Key(
+        new Get(new Key(ANY_NAME_1, text))
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME));
+  }
+
+  @Test
+  public void acquire_FreeLocksGiven_ShouldAcquireThem() {
+    // Arrange
+    LockTable lockTable = new LockTable(16, 100);
+    LockTable.Owner owner = lockTable.newOwner();
+
+    // Act
+    boolean acquired =
+        lockTable.acquire(owner, Arrays.asList(prepareKey(ANY_TEXT_1), prepareKey(ANY_TEXT_2)));
+
+    // Assert
+    assertThat(acquired).isTrue();
+    assertThat(owner.holdsAny()).isTrue();
+    assertThat(lockTable.getAcquiredCount()).isBetween(1L, 2L);
+    assertThat(lockTable.getTimedOutCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void acquire_LockHeldByAnotherOwnerGiven_ShouldTimeOut() {
+    // Arrange
+    LockTable lockTable = new LockTable(16, 100);
+    LockTable.Owner owner1 = lockTable.newOwner();
+    LockTable.Owner owner2 = lockTable.newOwner();
+    lockTable.acquire(owner1, Collections.singletonList(prepareKey(ANY_TEXT_1)));
+
+    // Act
+    boolean acquired = lockTable.acquire(owner2, Collections.singletonList(prepareKey(ANY_TEXT_1)));
+
+    // Assert
+    assertThat(acquired).isFalse();
+    assertThat(owner2.holdsAny()).isFalse();
+    assertThat(lockTable.getTimedOutCount()).isEqualTo(1);
+    assertThat(lockTable.getMaxWaitTimeNanos()).isGreaterThanOrEqualTo(100_000_000L);
+  }
+
+  @Test
+  public void acquire_LockHeldBySameOwnerGiven_ShouldNotWait() {
+    // Arrange
+    LockTable lockTable = new LockTable(1, 100);
+    LockTable.Owner owner = lockTable.newOwner();
+    lockTable.acquire(owner, Collections.singletonList(prepareKey(ANY_TEXT_1)));
+
+    // Act
+    boolean acquired = lockTable.acquire(owner, Collections.singletonList(prepareKey(ANY_TEXT_2)));
+
+    // Assert
+    assertThat(acquired).isTrue();
+    assertThat(lockTable.getAcquiredCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void release_LocksHeldGiven_ShouldLetAnotherOwnerAcquireThem() {
+    // Arrange
+    LockTable lockTable = new LockTable(16, 100);
+    LockTable.Owner owner1 = lockTable.newOwner();
+    LockTable.Owner owner2 = lockTable.newOwner();
+    lockTable.acquire(owner1, Collections.singletonList(prepareKey(ANY_TEXT_1)));
+
+    // Act
+    lockTable.release(owner1);
+    boolean acquired = lockTable.acquire(owner2, Collections.singletonList(prepareKey(ANY_TEXT_1)));
+
+    // Assert
+    assertThat(owner1.holdsAny()).isFalse();
+    assertThat(acquired).isTrue();
+  }
+
+  @Test
+  public void acquire_OwnerNotAccessedForLifetime_ShouldReleaseItsLocks() {
+    // Arrange
+    LockTable lockTable = new LockTable(16, 100, 50, 10);
+    LockTable.Owner owner1 = lockTable.newOwner();
+    LockTable.Owner owner2 = lockTable.newOwner();
+    lockTable.acquire(owner1, Collections.singletonList(prepareKey(ANY_TEXT_1)));
+
+    // Act
+    Uninterruptibles.sleepUninterruptibly(500, TimeUnit.MILLISECONDS);
+    boolean acquired = lockTable.acquire(owner2, Collections.singletonList(prepareKey(ANY_TEXT_1)));
+
+    // Assert
+    assertThat(acquired).isTrue();
+    assertThat(owner1.holdsAny()).isFalse();
+    assertThat(lockTable.getExpiredOwnerCount()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,211 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static com.scalar.db.api.ConditionalExpression.Operator;
+import static com.scalar.db.transaction.consensuscommit.Attribute.ID;
+import static com.scalar.db.transaction.consensuscommit.Attribute.VERSION;
+import static com.scalar.db.transaction.consensuscommit.Attribute.toIdValue;
+import static com.scalar.db.transaction.consensuscommit.Attribute.toVersionValue;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableMap;
+import com.scalar.db.api.ConditionalExpression;
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.Delete;
+import com.scalar.db.api.DeleteIf;
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Mutation;
+import com.scalar.db.api.Put;
+import com.scalar.db.api.PutIf;
+import com.scalar.db.api.PutIfNotExists;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.common.ResultImpl;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.Key;
+import com.scalar.db.io.TextColumn;
+import com.scalar.db.util.ScalarDbUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OnePhaseCommitMutationComposerTest {
+  private static final String ANY_NAMESPACE_NAME = "namespace";
+  private static final String ANY_TABLE_NAME = "table";
+  private static final String ANY_ID_1 = "id1";
+  private static final String ANY_ID_2 = "id2";
+  private static final String ANY_ID_3 = "id3";
+  private static final long ANY_TIME_1 = 100;
+  private static final long ANY_TIME_2 = 200;
+  private static final long ANY_TIME_3 = 300;
+  private static final long ANY_TIME_4 = 400;
+  private static final long ANY_TIME_5 = 500;
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_NAME_2 = "name2";
+  private static final String ANY_NAME_3 = "name3";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_TEXT_2 = "text2";
+  private static final int ANY_INT_1 = 100;
+  private static final int ANY_INT_2 = 200;
+  private static final int ANY_INT_3 = 300;
+
+  private static final TableMetadata TABLE_METADATA =
+      ConsensusCommitUtils.buildTransactionTableMetadata(
+          TableMetadata.newBuilder()
+              .addColumn(ANY_NAME_1, DataType.TEXT)
+              .addColumn(ANY_NAME_2, DataType.TEXT)
+              .addColumn(ANY_NAME_3, DataType.INT)
+              .addPartitionKey(ANY_NAME_1)
+              .addClusteringKey(ANY_NAME_2)
+              .build());
+
+  private OnePhaseCommitMutationComposer composer;
+  private List<Mutation> mutations;
+
+  @BeforeEach
+  public void setUp() {
+    mutations = new ArrayList<>();
+    composer = new OnePhaseCommitMutationComposer(ANY_ID_3, mutations, ANY_TIME_5);
+  }
+
+  private Put preparePut() {
+    Key partitionKey = new Key(ANY_NAME_1, ANY_TEXT_1);
+    Key clusteringKey = new Key(ANY_NAME_2, ANY_TEXT_2);
+    return new Put(partitionKey, clusteringKey)
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME)
+        .withValue(ANY_NAME_3, ANY_INT_3);
+  }
+
+  private Delete prepareDelete() {
+    Key partitionKey = new Key(ANY_NAME_1, ANY_TEXT_1);
+    Key clusteringKey = new Key(ANY_NAME_2, ANY_TEXT_2);
+    return new Delete(partitionKey, clusteringKey)
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME);
+  }
+
+  private TransactionResult prepareResult() {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+            .put(ANY_NAME_3, IntColumn.of(ANY_NAME_3, ANY_INT_2))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID_2)))
+            .put(
+                Attribute.PREPARED_AT,
+                ScalarDbUtils.toColumn(Attribute.toPreparedAtValue(ANY_TIME_3)))
+            .put(
+                Attribute.COMMITTED_AT,
+                ScalarDbUtils.toColumn(Attribute.toCommittedAtValue(ANY_TIME_4)))
+            .put(
+                Attribute.STATE,
+                ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.COMMITTED)))
+            .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(2)))
+            .put(
+                Attribute.BEFORE_PREFIX + ANY_NAME_3,
+                IntColumn.of(Attribute.BEFORE_PREFIX + ANY_NAME_3, ANY_INT_1))
+            .put(Attribute.BEFORE_ID, ScalarDbUtils.toColumn(Attribute.toBeforeIdValue(ANY_ID_1)))
+            .put(
+                Attribute.BEFORE_PREPARED_AT,
+                ScalarDbUtils.toColumn(Attribute.toBeforePreparedAtValue(ANY_TIME_1)))
+            .put(
+                Attribute.BEFORE_COMMITTED_AT,
+                ScalarDbUtils.toColumn(Attribute.toBeforeCommittedAtValue(ANY_TIME_2)))
+            .put(
+                Attribute.BEFORE_STATE,
+                ScalarDbUtils.toColumn(Attribute.toBeforeStateValue(TransactionState.COMMITTED)))
+            .put(
+                Attribute.BEFORE_VERSION, ScalarDbUtils.toColumn(Attribute.toBeforeVersionValue(1)))
+            .build();
+    return new TransactionResult(new ResultImpl(columns, TABLE_METADATA));
+  }
+
+  @Test
+  public void add_PutAndResultGiven_ShouldComposeCommittedPutWithPutIfCondition() {
+    // Arrange
+    Put put = preparePut();
+    TransactionResult result = prepareResult();
+
+    // Act
+    composer.add(put, result);
+
+    // Assert
+    Put actual = (Put) mutations.get(0);
+    put.withConsistency(Consistency.LINEARIZABLE);
+    put.withCondition(
+        new PutIf(
+            new ConditionalExpression(VERSION, toVersionValue(2), Operator.EQ),
+            new ConditionalExpression(ID, toIdValue(ANY_ID_2), Operator.EQ)));
+    put.withValue(Attribute.toPreparedAtValue(ANY_TIME_5));
+    put.withValue(Attribute.toCommittedAtValue(ANY_TIME_5));
+    put.withValue(Attribute.toIdValue(ANY_ID_3));
+    put.withValue(Attribute.toStateValue(TransactionState.COMMITTED));
+    put.withValue(Attribute.toVersionValue(3));
+    assertThat(actual).isEqualTo(put);
+  }
+
+  @Test
+  public void add_PutAndNullResultGiven_ShouldComposeCommittedPutWithPutIfNotExistsCondition() {
+    // Arrange
+    Put put = preparePut();
+
+    // Act
+    composer.add(put, null);
+
+    // Assert
+    Put actual = (Put) mutations.get(0);
+    put.withConsistency(Consistency.LINEARIZABLE);
+    put.withCondition(new PutIfNotExists());
+    put.withValue(Attribute.toPreparedAtValue(ANY_TIME_5));
+    put.withValue(Attribute.toCommittedAtValue(ANY_TIME_5));
+    put.withValue(Attribute.toIdValue(ANY_ID_3));
+    put.withValue(Attribute.toStateValue(TransactionState.COMMITTED));
+    put.withValue(Attribute.toVersionValue(1));
+    assertThat(actual).isEqualTo(put);
+  }
+
+  @Test
+  public void add_DeleteAndResultGiven_ShouldComposeDeleteWithDeleteIfCondition() {
+    // Arrange
+    Delete delete = prepareDelete();
+    TransactionResult result = prepareResult();
+
+    // Act
+    composer.add(delete, result);
+
+    // Assert
+    Delete actual = (Delete) mutations.get(0);
+    delete.withConsistency(Consistency.LINEARIZABLE);
+    delete.withCondition(
+        new DeleteIf(
+            new ConditionalExpression(VERSION, toVersionValue(2), Operator.EQ),
+            new ConditionalExpression(ID, toIdValue(ANY_ID_2), Operator.EQ)));
+    assertThat(actual).isEqualTo(delete);
+  }
+
+  @Test
+  public void add_DeleteAndNullResultGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    Delete delete = prepareDelete();
+
+    // Act Assert
+    assertThatThrownBy(() -> composer.add(delete, null))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void add_GetGiven_ShouldThrowIllegalArgumentException() {
+    // Arrange
+    Get get =
+        new Get(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, ANY_TEXT_2))
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME);
+
+    // Act Assert
+    assertThatThrownBy(() -> composer.add(get, null)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
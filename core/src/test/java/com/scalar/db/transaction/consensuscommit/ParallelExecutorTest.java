@@ -1,18 +1,25 @@
 package com.scalar.db.transaction.consensuscommit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.transaction.consensuscommit.ParallelExecutor.ParallelExecutorTask;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -208,4 +215,86 @@ public class ParallelExecutorTest {
         .submit(ArgumentMatchers.<Callable<Void>>any());
     verify(future, never()).get();
   }
+
+  @Test
+  public void prepare_BoundedExecutorTypeGiven_ShouldExecuteTasksAndRecordWaitTime()
+      throws ExecutionException {
+    // Arrange
+    when(config.getParallelExecutorType()).thenReturn(ParallelExecutorType.BOUNDED);
+    when(config.getParallelExecutorCount()).thenReturn(2);
+    when(config.getParallelExecutorQueueSize()).thenReturn(1);
+    when(config.isParallelPreparationEnabled()).thenReturn(true);
+    ParallelExecutor executor = new ParallelExecutor(config);
+    AtomicInteger executed = new AtomicInteger();
+    List<ParallelExecutorTask> tasks =
+        IntStream.range(0, 10)
+            .<ParallelExecutorTask>mapToObj(i -> executed::incrementAndGet)
+            .collect(Collectors.toList());
+
+    // Act
+    executor.prepare(tasks);
+
+    // Assert
+    assertThat(executed.get()).isEqualTo(10);
+    assertThat(executor.getExecutedTaskCount(ParallelExecutor.Phase.PREPARE)).isEqualTo(10);
+    assertThat(executor.getMaxWaitTimeNanos(ParallelExecutor.Phase.PREPARE))
+        .isLessThanOrEqualTo(executor.getTotalWaitTimeNanos(ParallelExecutor.Phase.PREPARE));
+    assertThat(executor.getExecutedTaskCount(ParallelExecutor.Phase.COMMIT)).isEqualTo(0);
+    assertThat(executor.getQueueDepth(ParallelExecutor.Phase.PREPARE)).isEqualTo(0);
+    executor.close();
+  }
+
+  @Test
+  public void
+      commit_BoundedExecutorTypeAndAsyncCommitGivenAndQueueFull_ShouldRejectTasksWithoutRunningThem()
+          throws ExecutionException {
+    // Arrange
+    when(config.getParallelExecutorType()).thenReturn(ParallelExecutorType.BOUNDED);
+    when(config.getParallelExecutorCount()).thenReturn(1);
+    when(config.getParallelExecutorQueueSize()).thenReturn(1);
+    when(config.isParallelCommitEnabled()).thenReturn(true);
+    when(config.isAsyncCommitEnabled()).thenReturn(true);
+    ParallelExecutor executor = new ParallelExecutor(config);
+    CountDownLatch latch = new CountDownLatch(1);
+    Thread caller = Thread.currentThread();
+    AtomicInteger executedByCaller = new AtomicInteger();
+    ParallelExecutorTask blockingTask =
+        () -> Uninterruptibles.awaitUninterruptibly(latch, 10, TimeUnit.SECONDS);
+    ParallelExecutorTask task =
+        () -> {
+          if (Thread.currentThread() == caller) {
+            executedByCaller.incrementAndGet();
+          }
+        };
+
+    // Act
+    executor.commit(Arrays.asList(blockingTask, task, task, task, task));
+
+    // Assert
+    assertThat(executedByCaller.get()).isEqualTo(0);
+    assertThat(executor.getRejectedTaskCount(ParallelExecutor.Phase.COMMIT))
+        .isGreaterThanOrEqualTo(2);
+    assertThat(executor.getMaxQueueDepth(ParallelExecutor.Phase.COMMIT)).isEqualTo(1);
+    latch.countDown();
+    executor.close();
+  }
+
+  @Test
+  public void prepare_VirtualExecutorTypeGiven_ShouldExecuteTasksRegardlessOfJdkVersion()
+      throws ExecutionException {
+    // Arrange
+    when(config.getParallelExecutorType()).thenReturn(ParallelExecutorType.VIRTUAL);
+    when(config.getParallelExecutorCount()).thenReturn(2);
+    when(config.isParallelPreparationEnabled()).thenReturn(true);
+    ParallelExecutor executor = new ParallelExecutor(config);
+    AtomicInteger executed = new AtomicInteger();
+
+    // Act
+    executor.prepare(Arrays.asList(executed::incrementAndGet, executed::incrementAndGet));
+
+    // Assert
+    assertThat(executed.get()).isEqualTo(2);
+    assertThat(executor.getExecutedTaskCount(ParallelExecutor.Phase.PREPARE)).isEqualTo(2);
+    executor.close();
+  }
 }
@@ -25,6 +25,7 @@ import com.scalar.db.io.Key;
 import com.scalar.db.io.TextColumn;
 import com.scalar.db.util.ScalarDbUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,6 +44,7 @@ public class PrepareMutationComposerTest {
   private static final String ANY_NAME_1 = "name1";
   private static final String ANY_NAME_2 = "name2";
   private static final String ANY_NAME_3 = "name3";
+  private static final String ANY_NAME_4 = "name4";
   private static final String ANY_TEXT_1 = "text1";
   private static final String ANY_TEXT_2 = "text2";
   private static final int ANY_INT_1 = 100;
@@ -59,6 +61,18 @@ public class PrepareMutationComposerTest {
               .addClusteringKey(ANY_NAME_2)
               .build());
 
+  private static final TableMetadata DELTA_TABLE_METADATA =
+      ConsensusCommitUtils.buildTransactionTableMetadata(
+          TableMetadata.newBuilder()
+              .addColumn(ANY_NAME_1, DataType.TEXT)
+              .addColumn(ANY_NAME_2, DataType.TEXT)
+              .addColumn(ANY_NAME_3, DataType.INT)
+              .addColumn(ANY_NAME_4, DataType.INT)
+              .addPartitionKey(ANY_NAME_1)
+              .addClusteringKey(ANY_NAME_2)
+              .build(),
+          true);
+
   private PrepareMutationComposer composer;
   private List<Mutation> mutations;
 
@@ -121,6 +135,32 @@ public class PrepareMutationComposerTest {
     return new TransactionResult(new ResultImpl(columns, TABLE_METADATA));
   }
 
+  private TransactionResult prepareResultWithBeforeImageColumns() {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+            .put(ANY_NAME_3, IntColumn.of(ANY_NAME_3, ANY_INT_2))
+            .put(ANY_NAME_4, IntColumn.of(ANY_NAME_4, ANY_INT_2))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID_2)))
+            .put(
+                Attribute.PREPARED_AT,
+                ScalarDbUtils.toColumn(Attribute.toPreparedAtValue(ANY_TIME_3)))
+            .put(
+                Attribute.COMMITTED_AT,
+                ScalarDbUtils.toColumn(Attribute.toCommittedAtValue(ANY_TIME_4)))
+            .put(
+                Attribute.STATE,
+                ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.COMMITTED)))
+            .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(2)))
+            .put(
+                Attribute.BEFORE_IMAGE_COLUMNS,
+                ScalarDbUtils.toColumn(
+                    Attribute.toBeforeImageColumnsValue(Collections.singletonList(ANY_NAME_4))))
+            .build();
+    return new TransactionResult(new ResultImpl(columns, DELTA_TABLE_METADATA));
+  }
+
   @Test
   public void add_PutAndResultGiven_ShouldComposePutWithPutIfCondition() {
     // Arrange
@@ -224,4 +264,71 @@ public class PrepareMutationComposerTest {
     expected.withValue(Attribute.toVersionValue(1));
     assertThat(actual).isEqualTo(expected);
   }
+
+  @Test
+  public void add_PutAndResultGivenWithDeltaBeforeImageEnabled_ShouldCopyOnlyTouchedColumns() {
+    // Arrange
+    composer = new PrepareMutationComposer(ANY_ID_3, mutations, ANY_TIME_5, true);
+    Put put = preparePut();
+    TransactionResult result = prepareResultWithBeforeImageColumns();
+
+    // Act
+    composer.add(put, result);
+
+    // Assert
+    Put actual = (Put) mutations.get(0);
+    put.withConsistency(Consistency.LINEARIZABLE);
+    put.withCondition(
+        new PutIf(
+            new ConditionalExpression(VERSION, toVersionValue(2), Operator.EQ),
+            new ConditionalExpression(ID, toIdValue(ANY_ID_2), Operator.EQ)));
+    put.withValue(Attribute.toPreparedAtValue(ANY_TIME_5));
+    put.withValue(Attribute.toIdValue(ANY_ID_3));
+    put.withValue(Attribute.toStateValue(TransactionState.PREPARED));
+    put.withValue(Attribute.toVersionValue(3));
+    put.withValue(Attribute.toBeforePreparedAtValue(ANY_TIME_3));
+    put.withValue(Attribute.toBeforeCommittedAtValue(ANY_TIME_4));
+    put.withValue(Attribute.toBeforeIdValue(ANY_ID_2));
+    put.withValue(Attribute.toBeforeStateValue(TransactionState.COMMITTED));
+    put.withValue(Attribute.toBeforeVersionValue(2));
+    put.withValue(Attribute.BEFORE_PREFIX + ANY_NAME_3, ANY_INT_2);
+    put.withValue(Attribute.toBeforeImageColumnsValue(Collections.singletonList(ANY_NAME_3)));
+    assertThat(actual).isEqualTo(put);
+  }
+
+  @Test
+  public void add_PutAndResultWithMarkerGivenWithDeltaBeforeImageDisabled_ShouldClearMarker() {
+    // Arrange
+    Put put = preparePut();
+    TransactionResult result = prepareResultWithBeforeImageColumns();
+
+    // Act
+    composer.add(put, result);
+
+    // Assert
+    Put actual = (Put) mutations.get(0);
+    assertThat(actual.getColumns()).containsKey(Attribute.BEFORE_PREFIX + ANY_NAME_4);
+    assertThat(actual.getColumns().get(Attribute.BEFORE_IMAGE_COLUMNS).hasNullValue()).isTrue();
+  }
+
+  @Test
+  public void delete_DeleteAndResultGivenWithDeltaBeforeImageEnabled_ShouldCopyOnlyMetadata() {
+    // Arrange
+    composer = new PrepareMutationComposer(ANY_ID_3, mutations, ANY_TIME_5, true);
+    Delete delete = prepareDelete();
+    TransactionResult result = prepareResultWithBeforeImageColumns();
+
+    // Act
+    composer.add(delete, result);
+
+    // Assert
+    Put actual = (Put) mutations.get(0);
+    assertThat(actual.getColumns())
+        .containsKeys(Attribute.BEFORE_ID, Attribute.BEFORE_STATE, Attribute.BEFORE_VERSION)
+        .doesNotContainKeys(
+            Attribute.BEFORE_PREFIX + ANY_NAME_3, Attribute.BEFORE_PREFIX + ANY_NAME_4);
+    assertThat(actual.getColumns().get(Attribute.BEFORE_IMAGE_COLUMNS))
+        .isEqualTo(
+            ScalarDbUtils.toColumn(Attribute.toBeforeImageColumnsValue(Collections.emptyList())));
+  }
 }
@@ -1,15 +1,20 @@
 package com.scalar.db.transaction.consensuscommit;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableMap;
 import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Get;
 import com.scalar.db.api.Selection;
 import com.scalar.db.api.TableMetadata;
 import com.scalar.db.api.TransactionState;
@@ -17,9 +22,11 @@ import com.scalar.db.common.ResultImpl;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.io.Column;
 import com.scalar.db.io.DataType;
+import com.scalar.db.io.Key;
 import com.scalar.db.io.TextValue;
 import com.scalar.db.util.ScalarDbUtils;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -30,6 +37,7 @@ public class RecoveryHandlerTest {
   private static final String ANY_TEXT_1 = "text1";
   private static final String ANY_ID_1 = "id1";
   private static final long ANY_TIME_1 = 100;
+  private static final long ANY_TIME_2 = 200;
 
   private static final TableMetadata TABLE_METADATA =
       ConsensusCommitUtils.buildTransactionTableMetadata(
@@ -87,7 +95,7 @@ public class RecoveryHandlerTest {
 
     // Assert
     verify(coordinator, never()).putState(any());
-    verify(handler, never()).rollforwardRecord(any(), any());
+    verify(handler, never()).rollforwardRecord(any(), any(), anyLong());
     verify(handler, never()).rollbackRecord(any(), any());
   }
 
@@ -105,7 +113,7 @@ public class RecoveryHandlerTest {
 
     // Assert
     verify(coordinator, never()).putState(any());
-    verify(handler, never()).rollforwardRecord(any(), any());
+    verify(handler, never()).rollforwardRecord(any(), any(), anyLong());
     verify(handler, never()).rollbackRecord(any(), any());
   }
 
@@ -116,14 +124,17 @@ public class RecoveryHandlerTest {
     TransactionResult result = preparePreparedResult(ANY_TIME_1);
     doReturn(Optional.of(result)).when(handler).getLatestResult(selection, result);
     when(coordinator.getState(ANY_ID_1))
-        .thenReturn(Optional.of(new Coordinator.State(ANY_ID_1, TransactionState.COMMITTED)));
-    doNothing().when(handler).rollforwardRecord(any(Selection.class), any(TransactionResult.class));
+        .thenReturn(
+            Optional.of(new Coordinator.State(ANY_ID_1, TransactionState.COMMITTED, ANY_TIME_2)));
+    doNothing()
+        .when(handler)
+        .rollforwardRecord(any(Selection.class), any(TransactionResult.class), anyLong());
 
     // Act
     handler.recover(selection, result);
 
     // Assert
-    verify(handler).rollforwardRecord(selection, result);
+    verify(handler).rollforwardRecord(selection, result, ANY_TIME_2);
   }
 
   @Test
@@ -181,4 +192,46 @@ public class RecoveryHandlerTest {
     verify(coordinator).putState(new Coordinator.State(ANY_ID_1, TransactionState.ABORTED));
     verify(handler).rollbackRecord(selection, result);
   }
+
+  @Test
+  public void recoverAsync_SameRecordGivenTwice_ShouldScheduleRecoveryOnlyOnce() {
+    // Arrange
+    ExecutorService executorService = mock(ExecutorService.class);
+    RecoveryHandler handler =
+        new RecoveryHandler(storage, coordinator, tableMetadataManager, executorService);
+    Get get = new Get(new Key(ANY_NAME_1, ANY_TEXT_1)).forNamespace("ns").forTable("tbl");
+    TransactionResult result = preparePreparedResult(ANY_TIME_1);
+
+    // Act
+    handler.recoverAsync(get, result);
+    handler.recoverAsync(get, result);
+
+    // Assert
+    verify(executorService, times(1)).execute(any());
+  }
+
+  @Test
+  public void recoverAsync_RecoveryFinished_ShouldScheduleRecoveryAgain() {
+    // Arrange
+    ExecutorService executorService = mock(ExecutorService.class);
+    doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(executorService)
+        .execute(any());
+    RecoveryHandler handler =
+        spy(new RecoveryHandler(storage, coordinator, tableMetadataManager, executorService));
+    doNothing().when(handler).recover(any(), any());
+    Get get = new Get(new Key(ANY_NAME_1, ANY_TEXT_1)).forNamespace("ns").forTable("tbl");
+    TransactionResult result = preparePreparedResult(ANY_TIME_1);
+
+    // Act
+    handler.recoverAsync(get, result);
+    handler.recoverAsync(get, result);
+
+    // Assert
+    verify(handler, times(2)).recover(get, result);
+  }
 }
@@ -0,0 +1,250 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.RateLimiter;
+import com.scalar.db.api.Delete;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Mutation;
+import com.scalar.db.api.Put;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.Scanner;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.common.ResultImpl;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.TextValue;
+import com.scalar.db.util.ScalarDbUtils;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class RecoverySweeperTest {
+  private static final String ANY_NAMESPACE_NAME = "namespace";
+  private static final String ANY_TABLE_NAME = "table";
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_TEXT_2 = "text2";
+  private static final String ANY_ID_1 = "id1";
+  private static final String ANY_ID_2 = "id2";
+
+  private static final TableMetadata TABLE_METADATA =
+      ConsensusCommitUtils.buildTransactionTableMetadata(
+          TableMetadata.newBuilder()
+              .addColumn(ANY_NAME_1, DataType.TEXT)
+              .addPartitionKey(ANY_NAME_1)
+              .build());
+
+  @Mock private DistributedStorage storage;
+  @Mock private Coordinator coordinator;
+  @Mock private TransactionTableMetadataManager tableMetadataManager;
+  @Mock private RateLimiter rateLimiter;
+  @Mock private ScheduledExecutorService executorService;
+  @Mock private Scanner scanner;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+
+    // Arrange
+    when(storage.scan(any(Scan.class))).thenReturn(scanner);
+  }
+
+  private RecoverySweeper prepareSweeper(int batchSize) {
+    return new RecoverySweeper(
+        storage,
+        coordinator,
+        tableMetadataManager,
+        Collections.singletonList(ANY_NAMESPACE_NAME + "." + ANY_TABLE_NAME),
+        batchSize,
+        rateLimiter,
+        executorService);
+  }
+
+  private Result prepareResult(String text, String id, long preparedAt, TransactionState state) {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, ScalarDbUtils.toColumn(new TextValue(ANY_NAME_1, text)))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(id)))
+            .put(
+                Attribute.PREPARED_AT,
+                ScalarDbUtils.toColumn(Attribute.toPreparedAtValue(preparedAt)))
+            .put(Attribute.STATE, ScalarDbUtils.toColumn(Attribute.toStateValue(state)))
+            .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(1)))
+            .put(
+                Attribute.BEFORE_ID,
+                ScalarDbUtils.toColumn(new TextValue(Attribute.BEFORE_ID, (String) null)))
+            .build();
+    return new ResultImpl(columns, TABLE_METADATA);
+  }
+
+  private long expiredTime() {
+    return System.currentTimeMillis() - RecoveryHandler.TRANSACTION_LIFETIME_MILLIS - 1000;
+  }
+
+  @Test
+  public void sweep_StaleRecordOfCommittedTransactionGiven_ShouldRollforward() throws Exception {
+    // Arrange
+    RecoverySweeper sweeper = prepareSweeper(10);
+    when(scanner.one())
+        .thenReturn(
+            Optional.of(
+                prepareResult(ANY_TEXT_1, ANY_ID_1, expiredTime(), TransactionState.PREPARED)))
+        .thenReturn(Optional.empty());
+    when(coordinator.getState(ANY_ID_1))
+        .thenReturn(
+            Optional.of(new Coordinator.State(ANY_ID_1, TransactionState.COMMITTED, 1000L)));
+
+    // Act
+    sweeper.sweep();
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Mutation>> captor = ArgumentCaptor.forClass(List.class);
+    verify(storage).mutate(captor.capture());
+    assertThat(captor.getValue()).hasSize(1);
+    Put put = (Put) captor.getValue().get(0);
+    assertThat(put.forNamespace()).hasValue(ANY_NAMESPACE_NAME);
+    assertThat(put.forTable()).hasValue(ANY_TABLE_NAME);
+    assertThat(put.getValues().get(Attribute.STATE))
+        .isEqualTo(Attribute.toStateValue(TransactionState.COMMITTED));
+    assertThat(put.getValues().get(Attribute.COMMITTED_AT))
+        .isEqualTo(Attribute.toCommittedAtValue(1000L));
+    verify(coordinator, never()).putState(any());
+    assertThat(sweeper.getScannedRecordCount()).isEqualTo(1);
+    assertThat(sweeper.getRolledForwardRecordCount()).isEqualTo(1);
+    assertThat(sweeper.getRolledBackRecordCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void sweep_StaleRecordOfTransactionWithoutStateGiven_ShouldAbortAndRollback()
+      throws Exception {
+    // Arrange
+    RecoverySweeper sweeper = prepareSweeper(10);
+    when(scanner.one())
+        .thenReturn(
+            Optional.of(
+                prepareResult(ANY_TEXT_1, ANY_ID_1, expiredTime(), TransactionState.PREPARED)))
+        .thenReturn(Optional.empty());
+    when(coordinator.getState(ANY_ID_1)).thenReturn(Optional.empty());
+
+    // Act
+    sweeper.sweep();
+
+    // Assert
+    verify(coordinator).putState(new Coordinator.State(ANY_ID_1, TransactionState.ABORTED));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Mutation>> captor = ArgumentCaptor.forClass(List.class);
+    verify(storage).mutate(captor.capture());
+    assertThat(captor.getValue()).hasSize(1);
+    // the record has no before image, so it should be deleted
+    assertThat(captor.getValue().get(0)).isInstanceOf(Delete.class);
+    assertThat(sweeper.getRolledBackRecordCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void sweep_AbortingTransactionFailed_ShouldNotRollback() throws Exception {
+    // Arrange
+    RecoverySweeper sweeper = prepareSweeper(10);
+    when(scanner.one())
+        .thenReturn(
+            Optional.of(
+                prepareResult(ANY_TEXT_1, ANY_ID_1, expiredTime(), TransactionState.PREPARED)))
+        .thenReturn(Optional.empty());
+    when(coordinator.getState(ANY_ID_1)).thenReturn(Optional.empty());
+    doThrow(CoordinatorException.class).when(coordinator).putState(any());
+
+    // Act
+    sweeper.sweep();
+
+    // Assert
+    verify(storage, never()).mutate(anyList());
+    assertThat(sweeper.getRolledBackRecordCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void sweep_NonStaleRecordsGiven_ShouldNotRecoverThem() throws Exception {
+    // Arrange
+    RecoverySweeper sweeper = prepareSweeper(10);
+    when(scanner.one())
+        .thenReturn(
+            Optional.of(
+                prepareResult(
+                    ANY_TEXT_1, ANY_ID_1, System.currentTimeMillis(), TransactionState.PREPARED)))
+        .thenReturn(
+            Optional.of(
+                prepareResult(ANY_TEXT_2, ANY_ID_2, expiredTime(), TransactionState.COMMITTED)))
+        .thenReturn(Optional.empty());
+
+    // Act
+    sweeper.sweep();
+
+    // Assert
+    verify(coordinator, never()).getState(any());
+    verify(storage, never()).mutate(anyList());
+    verify(rateLimiter, times(2)).acquire();
+    assertThat(sweeper.getScannedRecordCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void sweep_StaleRecordsMoreThanBatchSizeGiven_ShouldRecoverThemInBatches()
+      throws Exception {
+    // Arrange
+    RecoverySweeper sweeper = prepareSweeper(1);
+    when(scanner.one())
+        .thenReturn(
+            Optional.of(
+                prepareResult(ANY_TEXT_1, ANY_ID_1, expiredTime(), TransactionState.PREPARED)))
+        .thenReturn(
+            Optional.of(
+                prepareResult(ANY_TEXT_2, ANY_ID_2, expiredTime(), TransactionState.DELETED)))
+        .thenReturn(Optional.empty());
+    when(coordinator.getState(ANY_ID_1))
+        .thenReturn(Optional.of(new Coordinator.State(ANY_ID_1, TransactionState.COMMITTED)));
+    when(coordinator.getState(ANY_ID_2))
+        .thenReturn(Optional.of(new Coordinator.State(ANY_ID_2, TransactionState.COMMITTED)));
+
+    // Act
+    sweeper.sweep();
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Mutation>> captor = ArgumentCaptor.forClass(List.class);
+    verify(storage, times(2)).mutate(captor.capture());
+    assertThat(captor.getAllValues().get(0).get(0)).isInstanceOf(Put.class);
+    assertThat(captor.getAllValues().get(1).get(0)).isInstanceOf(Delete.class);
+    assertThat(sweeper.getRolledForwardRecordCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void close_ShouldShutdownExecutorAndStopSweeping() throws Exception {
+    // Arrange
+    RecoverySweeper sweeper = prepareSweeper(10);
+    when(executorService.awaitTermination(anyLong(), any())).thenReturn(true);
+
+    // Act
+    sweeper.close();
+    sweeper.sweep();
+
+    // Assert
+    verify(executorService).shutdownNow();
+    verify(storage, never()).scan(any(Scan.class));
+  }
+}
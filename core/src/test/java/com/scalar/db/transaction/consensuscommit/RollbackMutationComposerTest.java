@@ -33,6 +33,7 @@ import com.scalar.db.io.TextColumn;
 import com.scalar.db.io.Value;
 import com.scalar.db.util.ScalarDbUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,6 +52,7 @@ public class RollbackMutationComposerTest {
   private static final String ANY_NAME_1 = "name1";
   private static final String ANY_NAME_2 = "name2";
   private static final String ANY_NAME_3 = "name3";
+  private static final String ANY_NAME_4 = "name4";
   private static final String ANY_TEXT_1 = "text1";
   private static final String ANY_TEXT_2 = "text2";
   private static final int ANY_INT_1 = 100;
@@ -455,4 +457,60 @@ public class RollbackMutationComposerTest {
                 STATE, toStateValue(TransactionState.PREPARED), Operator.EQ)));
     assertThat(actual).isEqualTo(expected);
   }
+
+  @Test
+  public void add_GetAndPreparedResultWithDeltaBeforeImageGiven_ShouldRestoreOnlyMarkedColumns()
+      throws ExecutionException {
+    // Arrange
+    TableMetadata metadata =
+        ConsensusCommitUtils.buildTransactionTableMetadata(
+            TableMetadata.newBuilder()
+                .addColumn(ANY_NAME_1, DataType.TEXT)
+                .addColumn(ANY_NAME_2, DataType.TEXT)
+                .addColumn(ANY_NAME_3, DataType.INT)
+                .addColumn(ANY_NAME_4, DataType.INT)
+                .addPartitionKey(ANY_NAME_1)
+                .addClusteringKey(ANY_NAME_2)
+                .build(),
+            true);
+    when(tableMetadataManager.getTransactionTableMetadata(any()))
+        .thenReturn(new TransactionTableMetadata(metadata));
+    TransactionResult result =
+        new TransactionResult(
+            new ResultImpl(
+                ImmutableMap.<String, Column<?>>builder()
+                    .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+                    .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, ANY_TEXT_2))
+                    .put(ANY_NAME_3, IntColumn.of(ANY_NAME_3, ANY_INT_2))
+                    .put(ANY_NAME_4, IntColumn.of(ANY_NAME_4, ANY_INT_2))
+                    .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID_2)))
+                    .put(
+                        Attribute.STATE,
+                        ScalarDbUtils.toColumn(Attribute.toStateValue(TransactionState.PREPARED)))
+                    .put(
+                        Attribute.BEFORE_PREFIX + ANY_NAME_3,
+                        IntColumn.of(Attribute.BEFORE_PREFIX + ANY_NAME_3, ANY_INT_1))
+                    .put(
+                        Attribute.BEFORE_PREFIX + ANY_NAME_4,
+                        IntColumn.of(Attribute.BEFORE_PREFIX + ANY_NAME_4, ANY_INT_3))
+                    .put(
+                        Attribute.BEFORE_ID,
+                        ScalarDbUtils.toColumn(Attribute.toBeforeIdValue(ANY_ID_1)))
+                    .put(
+                        Attribute.BEFORE_IMAGE_COLUMNS,
+                        ScalarDbUtils.toColumn(
+                            Attribute.toBeforeImageColumnsValue(
+                                Collections.singletonList(ANY_NAME_3))))
+                    .build(),
+                metadata));
+    composer = new RollbackMutationComposer(ANY_ID_2, storage, tableMetadataManager, mutations);
+
+    // Act
+    composer.add(prepareGet(), result);
+
+    // Assert
+    Put actual = (Put) mutations.get(0);
+    assertThat(actual.getColumns().get(ANY_NAME_3)).isEqualTo(IntColumn.of(ANY_NAME_3, ANY_INT_1));
+    assertThat(actual.getColumns()).containsKey(Attribute.ID).doesNotContainKey(ANY_NAME_4);
+  }
 }
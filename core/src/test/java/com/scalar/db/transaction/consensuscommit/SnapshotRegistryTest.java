@@ -0,0 +1,87 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.scalar.db.api.Put;
+import com.scalar.db.io.Key;
+import com.scalar.db.util.ActiveExpiringMap;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class SnapshotRegistryTest {
+  private static final String ANY_ID = "id";
+
+  @Mock private ActiveExpiringMap<String, Snapshot> snapshots;
+  private SnapshotRegistry registry;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+
+    registry = new SnapshotRegistry(snapshots);
+  }
+
+  private Snapshot prepareSnapshot() {
+    return new Snapshot(
+        ANY_ID, Isolation.SNAPSHOT, SerializableStrategy.EXTRA_READ, null, null, false, 0, null);
+  }
+
+  @Test
+  public void register_SnapshotGiven_ShouldPutIt() {
+    // Arrange
+    Snapshot snapshot = prepareSnapshot();
+
+    // Act
+    registry.register(snapshot);
+
+    // Assert
+    verify(snapshots).put(ANY_ID, snapshot);
+  }
+
+  @Test
+  public void put_SnapshotRegistered_ShouldUpdateExpirationTime() {
+    // Arrange
+    Snapshot snapshot = prepareSnapshot();
+    registry.register(snapshot);
+    Put put = new Put(new Key("p", "v")).withValue("c", 1).forNamespace("ns").forTable("tbl");
+
+    // Act
+    snapshot.put(new Snapshot.Key(put), put);
+
+    // Assert
+    verify(snapshots).updateExpirationTime(ANY_ID);
+  }
+
+  @Test
+  public void close_SnapshotRegisteredAndClosed_ShouldRemoveIt() {
+    // Arrange
+    Snapshot snapshot = prepareSnapshot();
+    registry.register(snapshot);
+
+    // Act
+    snapshot.close();
+
+    // Assert
+    verify(snapshots).remove(ANY_ID);
+  }
+
+  @Test
+  public void close_SnapshotsRemaining_ShouldCloseThem() {
+    // Arrange
+    Snapshot snapshot1 = mock(Snapshot.class);
+    Snapshot snapshot2 = mock(Snapshot.class);
+    when(snapshots.values()).thenReturn(Arrays.asList(snapshot1, snapshot2));
+
+    // Act
+    registry.close();
+
+    // Assert
+    verify(snapshot1).close();
+    verify(snapshot2).close();
+  }
+}
@@ -18,12 +18,15 @@ import com.scalar.db.api.Consistency;
 import com.scalar.db.api.Delete;
 import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.Get;
+import com.scalar.db.api.Mutation;
+import com.scalar.db.api.Operation;
 import com.scalar.db.api.Put;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.Scan;
 import com.scalar.db.api.ScanAll;
 import com.scalar.db.api.Scanner;
 import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
 import com.scalar.db.common.ResultImpl;
 import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.transaction.CommitConflictException;
@@ -35,6 +38,7 @@ import com.scalar.db.io.TextColumn;
 import com.scalar.db.io.TextValue;
 import com.scalar.db.io.Value;
 import com.scalar.db.util.ScalarDbUtils;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -137,6 +141,13 @@ public class SnapshotTest {
     return new TransactionResult(new ResultImpl(columns, TABLE_METADATA));
   }
 
+  private Put preparePut(String partitionKeyValue, String clusteringKeyValue) {
+    return new Put(new Key(ANY_NAME_1, partitionKeyValue), new Key(ANY_NAME_2, clusteringKeyValue))
+        .withValue(ANY_NAME_3, ANY_TEXT_3)
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME);
+  }
+
   private Get prepareGet() {
     Key partitionKey = new Key(ANY_NAME_1, ANY_TEXT_1);
     Key clusteringKey = new Key(ANY_NAME_2, ANY_TEXT_2);
@@ -236,6 +247,40 @@ public class SnapshotTest {
     assertThat(readSet.get(key)).isEqualTo(Optional.of(result));
   }
 
+  @Test
+  public void
+      getLatestReadCommittedAt_CommittedAndPreparedRecordsRead_ShouldReturnLatestCommitted() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    snapshot.put(
+        new Snapshot.Key(prepareGet()),
+        Optional.of(prepareResultWithState(TransactionState.COMMITTED, 200)));
+    snapshot.put(
+        new Snapshot.Key(prepareAnotherGet()),
+        Optional.of(prepareResultWithState(TransactionState.PREPARED, 300)));
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_4)), Optional.empty());
+
+    // Act
+    long actual = snapshot.getLatestReadCommittedAt();
+
+    // Assert
+    assertThat(actual).isEqualTo(200);
+  }
+
+  private TransactionResult prepareResultWithState(TransactionState state, long committedAt) {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, ScalarDbUtils.toColumn(new TextValue(ANY_NAME_1, ANY_TEXT_1)))
+            .put(ANY_NAME_2, ScalarDbUtils.toColumn(new TextValue(ANY_NAME_2, ANY_TEXT_2)))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(ANY_ID)))
+            .put(Attribute.STATE, ScalarDbUtils.toColumn(Attribute.toStateValue(state)))
+            .put(
+                Attribute.COMMITTED_AT,
+                ScalarDbUtils.toColumn(Attribute.toCommittedAtValue(committedAt)))
+            .build();
+    return new TransactionResult(new ResultImpl(columns, TABLE_METADATA));
+  }
+
   @Test
   public void put_PutGiven_ShouldHoldWhatsGivenInWriteSet() {
     // Arrange
@@ -430,15 +475,20 @@ public class SnapshotTest {
   }
 
   @Test
-  public void get_KeyGivenContainedInWriteSet_ShouldThrowIllegalArgumentException() {
+  public void get_KeyGivenContainedInWriteSetOnly_ShouldReturnResultOfPut() throws CrudException {
     // Arrange
     snapshot = prepareSnapshot(Isolation.SNAPSHOT);
     Put put = preparePut();
     Snapshot.Key key = new Snapshot.Key(put);
     snapshot.put(key, put);
 
-    // Act Assert
-    assertThatThrownBy(() -> snapshot.get(key)).isInstanceOf(IllegalArgumentException.class);
+    // Act
+    Optional<TransactionResult> actual = snapshot.get(key);
+
+    // Assert
+    assertThat(actual).isPresent();
+    assertThat(actual.get().getValue(ANY_NAME_2)).hasValue(new TextValue(ANY_NAME_2, ANY_TEXT_2));
+    assertThat(actual.get().getValue(ANY_NAME_3)).hasValue(new TextValue(ANY_NAME_3, ANY_TEXT_3));
   }
 
   @Test
@@ -553,6 +603,94 @@ public class SnapshotTest {
     verify(commitComposer).add(delete, result);
   }
 
+  @Test
+  public void to_WriteSetSpilled_ShouldCallComposerWithMergedPuts()
+      throws CommitConflictException, ExecutionException {
+    // Arrange
+    snapshot =
+        new Snapshot(
+            ANY_ID,
+            Isolation.SNAPSHOT,
+            SerializableStrategy.EXTRA_WRITE,
+            tableMetadataManager,
+            new ParallelExecutor(config),
+            false,
+            1,
+            null);
+    Put put1 = preparePutWithPartitionKeyOnly();
+    Put put2 = prepareAnotherPut().withValue(ANY_NAME_3, ANY_TEXT_3);
+    Put put3 = prepareAnotherPut().withValue(ANY_NAME_4, ANY_TEXT_4);
+    snapshot.put(new Snapshot.Key(put1), put1);
+    // the second put is spilled and merged with the third one
+    snapshot.put(new Snapshot.Key(put2), put2);
+    snapshot.put(new Snapshot.Key(put3), put3);
+
+    // Act
+    snapshot.to(commitComposer);
+
+    // Assert
+    verify(commitComposer).add(put1, null);
+    verify(commitComposer)
+        .add(
+            prepareAnotherPut().withValue(ANY_NAME_3, ANY_TEXT_3).withValue(ANY_NAME_4, ANY_TEXT_4),
+            null);
+    assertThat(snapshot.getWrittenKeys())
+        .containsExactlyInAnyOrder(new Snapshot.Key(put1), new Snapshot.Key(put2));
+    snapshot.close();
+  }
+
+  @Test
+  public void to_ChunkConsumerGivenAndWriteSetSpilled_ShouldHandMutationsInChunksOfPartitions()
+      throws CommitConflictException, ExecutionException {
+    // Arrange
+    snapshot =
+        new Snapshot(
+            ANY_ID,
+            Isolation.SNAPSHOT,
+            SerializableStrategy.EXTRA_WRITE,
+            tableMetadataManager,
+            new ParallelExecutor(config),
+            false,
+            1,
+            null);
+    Put put1 = preparePut("p1", "c1");
+    Put put2 = preparePut("p1", "c2");
+    Put put3 = preparePut("p2", "c1");
+    snapshot.put(new Snapshot.Key(put3), put3);
+    snapshot.put(new Snapshot.Key(put2), put2);
+    snapshot.put(new Snapshot.Key(put1), put1);
+    List<List<Mutation>> chunks = new ArrayList<>();
+
+    // Act
+    snapshot.to(new PassThroughMutationComposer(), chunks::add);
+
+    // Assert
+    // a chunk is handed once it reaches the threshold, but a partition isn't split across chunks
+    assertThat(chunks).containsExactly(Arrays.asList(put1, put2), Collections.singletonList(put3));
+    snapshot.close();
+  }
+
+  @Test
+  public void to_ChunkConsumerGivenAndWriteSetNotSpilled_ShouldHandMutationsInSingleChunk()
+      throws CommitConflictException, ExecutionException {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    Put put1 = preparePut("p1", "c1");
+    Put put2 = preparePut("p2", "c1");
+    Delete delete = prepareAnotherDelete();
+    snapshot.put(new Snapshot.Key(put1), put1);
+    snapshot.put(new Snapshot.Key(put2), put2);
+    snapshot.put(new Snapshot.Key(delete), delete);
+    List<List<Mutation>> chunks = new ArrayList<>();
+
+    // Act
+    snapshot.to(new PassThroughMutationComposer(), chunks::add);
+
+    // Assert
+    assertThat(chunks).hasSize(1);
+    assertThat(chunks.get(0)).containsExactlyInAnyOrder(put1, put2, delete);
+  }
+
   @Test
   public void
       to_CommitMutationComposerGivenAndSerializableWithExtraWriteIsolationSet_ShouldCallComposerProperly()
@@ -740,6 +878,43 @@ public class SnapshotTest {
     verify(storage).get(getWithProjections);
   }
 
+  @Test
+  public void toSerializableForReadOnly_SnapshotIsolationGiven_ShouldNotValidateReadSet()
+      throws ExecutionException, CommitConflictException {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    Get get = prepareAnotherGet();
+    snapshot.put(new Snapshot.Key(get), Optional.of(prepareResult(ANY_ID)));
+    DistributedStorage storage = mock(DistributedStorage.class);
+
+    // Act
+    snapshot.toSerializableForReadOnly(storage);
+
+    // Assert
+    verify(storage, never()).get(any());
+  }
+
+  @Test
+  public void
+      toSerializableForReadOnly_ExtraWriteStrategyAndReadSetUpdated_ShouldThrowCommitConflictException()
+          throws ExecutionException {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SERIALIZABLE, SerializableStrategy.EXTRA_WRITE);
+    Get get = prepareAnotherGet();
+    snapshot.put(new Snapshot.Key(get), Optional.of(prepareResult(ANY_ID)));
+    DistributedStorage storage = mock(DistributedStorage.class);
+    Get getWithProjections =
+        prepareAnotherGet().withProjection(Attribute.ID).withProjection(Attribute.VERSION);
+    when(storage.get(getWithProjections)).thenReturn(Optional.of(prepareResult(ANY_ID + "x")));
+
+    // Act Assert
+    assertThatThrownBy(() -> snapshot.toSerializableForReadOnly(storage))
+        .isInstanceOf(CommitConflictException.class);
+
+    // Assert
+    verify(storage).get(getWithProjections);
+  }
+
   @Test
   public void toSerializableWithExtraRead_ReadSetExtended_ShouldThrowCommitConflictException()
       throws ExecutionException {
@@ -998,7 +1173,7 @@ public class SnapshotTest {
 
   @Test
   public void
-      get_ScanGivenAndPutWithSamePartitionKeyWithoutClusteringKeyInWriteSet_ShouldThrowIllegalArgumentException() {
+      getWrittenKeys_ScanGivenAndPutWithSamePartitionKeyWithoutClusteringKeyInWriteSet_ShouldReturnWrittenKeys() {
     // Arrange
     snapshot = prepareSnapshot(Isolation.SNAPSHOT);
     Put put = preparePutWithPartitionKeyOnly();
@@ -1006,16 +1181,74 @@ public class SnapshotTest {
     snapshot.put(putKey, put);
     Scan scan = prepareScan();
 
-    // Act Assert
-    Throwable thrown = catchThrowable(() -> snapshot.get(scan));
+    // Act
+    List<Snapshot.Key> keys = snapshot.getWrittenKeys(scan);
+
+    // Assert
+    assertThat(keys).containsExactly(putKey);
+  }
+
+  @Test
+  public void getWrittenKeys_ScanGivenAndPutInWriteSetReplacedWithDelete_ShouldReturnEmptyList() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    Put put = preparePut();
+    snapshot.put(new Snapshot.Key(put), put);
+    Delete delete = prepareDelete();
+    snapshot.put(new Snapshot.Key(delete), delete);
+    Scan scan = prepareScan();
+
+    // Act
+    List<Snapshot.Key> keys = snapshot.getWrittenKeys(scan);
+
+    // Assert
+    assertThat(keys).isEmpty();
+  }
+
+  @Test
+  public void getWrittenKeys_ScanGivenAndManyPutsInWriteSet_ShouldReturnOnlyOverlappedKeys() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    for (int i = 0; i < 10000; i++) {
+      if (i >= 5000 && i < 5100) {
+        continue;
+      }
+      Put put =
+          new Put(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, String.format("%05d", i)))
+              .withValue(ANY_NAME_3, ANY_TEXT_3)
+              .forNamespace(ANY_NAMESPACE_NAME)
+              .forTable(ANY_TABLE_NAME);
+      snapshot.put(new Snapshot.Key(put), put);
+    }
+    Scan scanInGap =
+        prepareScan()
+            .withStart(new Key(ANY_NAME_2, "05000"), true)
+            .withEnd(new Key(ANY_NAME_2, "05099"), true);
+    Scan scanOverlapped =
+        prepareScan()
+            .withStart(new Key(ANY_NAME_2, "05000"), true)
+            .withEnd(new Key(ANY_NAME_2, "05100"), true);
+    Scan scanInAnotherPartition =
+        new Scan(new Key(ANY_NAME_1, ANY_TEXT_2))
+            .withConsistency(Consistency.LINEARIZABLE)
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME);
+
+    // Act
+    List<Snapshot.Key> keys1 = snapshot.getWrittenKeys(scanInGap);
+    List<Snapshot.Key> keys2 = snapshot.getWrittenKeys(scanOverlapped);
+    List<Snapshot.Key> keys3 = snapshot.getWrittenKeys(scanInAnotherPartition);
 
     // Assert
-    assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    assertThat(keys1).isEmpty();
+    assertThat(keys2).hasSize(1);
+    assertThat(keys2.get(0).getClusteringKey()).hasValue(new Key(ANY_NAME_2, "05100"));
+    assertThat(keys3).isEmpty();
   }
 
   @Test
   public void
-      get_ScanWithNoRangeGivenAndPutInWriteSetOverlappedWithScan_ShouldThrowIllegalArgumentException() {
+      getWrittenKeys_ScanWithNoRangeGivenAndPutInWriteSetOverlappedWithScan_ShouldReturnWrittenKeys() {
     // Arrange
     snapshot = prepareSnapshot(Isolation.SNAPSHOT);
     // "text2"
@@ -1029,16 +1262,16 @@ public class SnapshotTest {
             .forNamespace(ANY_NAMESPACE_NAME)
             .forTable(ANY_TABLE_NAME);
 
-    // Act Assert
-    Throwable thrown = catchThrowable(() -> snapshot.get(scan));
+    // Act
+    List<Snapshot.Key> keys = snapshot.getWrittenKeys(scan);
 
     // Assert
-    assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    assertThat(keys).containsExactly(putKey);
   }
 
   @Test
   public void
-      get_ScanWithRangeGivenAndPutInWriteSetOverlappedWithScan_ShouldThrowIllegalArgumentException() {
+      getWrittenKeys_ScanWithRangeGivenAndPutInWriteSetOverlappedWithScan_ShouldReturnWrittenKeys() {
     // Arrange
     snapshot = prepareSnapshot(Isolation.SNAPSHOT);
     // "text2"
@@ -1071,24 +1304,24 @@ public class SnapshotTest {
             .withStart(new Key(ANY_NAME_2, ANY_TEXT_1), true)
             .withEnd(new Key(ANY_NAME_2, ANY_TEXT_2), false);
 
-    // Act Assert
-    Throwable thrown1 = catchThrowable(() -> snapshot.get(scan1));
-    Throwable thrown2 = catchThrowable(() -> snapshot.get(scan2));
-    Throwable thrown3 = catchThrowable(() -> snapshot.get(scan3));
-    Throwable thrown4 = catchThrowable(() -> snapshot.get(scan4));
-    Throwable thrown5 = catchThrowable(() -> snapshot.get(scan5));
+    // Act
+    List<Snapshot.Key> keys1 = snapshot.getWrittenKeys(scan1);
+    List<Snapshot.Key> keys2 = snapshot.getWrittenKeys(scan2);
+    List<Snapshot.Key> keys3 = snapshot.getWrittenKeys(scan3);
+    List<Snapshot.Key> keys4 = snapshot.getWrittenKeys(scan4);
+    List<Snapshot.Key> keys5 = snapshot.getWrittenKeys(scan5);
 
     // Assert
-    assertThat(thrown1).isInstanceOf(IllegalArgumentException.class);
-    assertThat(thrown2).isInstanceOf(IllegalArgumentException.class);
-    assertThat(thrown3).isInstanceOf(IllegalArgumentException.class);
-    assertThat(thrown4).doesNotThrowAnyException();
-    assertThat(thrown5).doesNotThrowAnyException();
+    assertThat(keys1).isNotEmpty();
+    assertThat(keys2).isNotEmpty();
+    assertThat(keys3).isNotEmpty();
+    assertThat(keys4).isEmpty();
+    assertThat(keys5).isEmpty();
   }
 
   @Test
   public void
-      get_ScanWithEndSideInfiniteRangeGivenAndPutInWriteSetOverlappedWithScan_ShouldThrowIllegalArgumentException() {
+      getWrittenKeys_ScanWithEndSideInfiniteRangeGivenAndPutInWriteSetOverlappedWithScan_ShouldReturnWrittenKeys() {
     // Arrange
     snapshot = prepareSnapshot(Isolation.SNAPSHOT);
     // "text2"
@@ -1117,20 +1350,20 @@ public class SnapshotTest {
             .forNamespace(ANY_NAMESPACE_NAME)
             .forTable(ANY_TABLE_NAME);
 
-    // Act Assert
-    Throwable thrown1 = catchThrowable(() -> snapshot.get(scan1));
-    Throwable thrown2 = catchThrowable(() -> snapshot.get(scan2));
-    Throwable thrown3 = catchThrowable(() -> snapshot.get(scan3));
+    // Act
+    List<Snapshot.Key> keys1 = snapshot.getWrittenKeys(scan1);
+    List<Snapshot.Key> keys2 = snapshot.getWrittenKeys(scan2);
+    List<Snapshot.Key> keys3 = snapshot.getWrittenKeys(scan3);
 
     // Assert
-    assertThat(thrown1).isInstanceOf(IllegalArgumentException.class);
-    assertThat(thrown2).isInstanceOf(IllegalArgumentException.class);
-    assertThat(thrown3).doesNotThrowAnyException();
+    assertThat(keys1).isNotEmpty();
+    assertThat(keys2).isNotEmpty();
+    assertThat(keys3).isEmpty();
   }
 
   @Test
   public void
-      get_ScanWithStartSideInfiniteRangeGivenAndPutInWriteSetOverlappedWithScan_ShouldThrowIllegalArgumentException() {
+      getWrittenKeys_ScanWithStartSideInfiniteRangeGivenAndPutInWriteSetOverlappedWithScan_ShouldReturnWrittenKeys() {
     // Arrange
     snapshot = prepareSnapshot(Isolation.SNAPSHOT);
     // "text2"
@@ -1159,19 +1392,19 @@ public class SnapshotTest {
             .forNamespace(ANY_NAMESPACE_NAME)
             .forTable(ANY_TABLE_NAME);
 
-    // Act Assert
-    Throwable thrown1 = catchThrowable(() -> snapshot.get(scan1));
-    Throwable thrown2 = catchThrowable(() -> snapshot.get(scan2));
-    Throwable thrown3 = catchThrowable(() -> snapshot.get(scan3));
+    // Act
+    List<Snapshot.Key> keys1 = snapshot.getWrittenKeys(scan1);
+    List<Snapshot.Key> keys2 = snapshot.getWrittenKeys(scan2);
+    List<Snapshot.Key> keys3 = snapshot.getWrittenKeys(scan3);
 
     // Assert
-    assertThat(thrown1).isInstanceOf(IllegalArgumentException.class);
-    assertThat(thrown2).isInstanceOf(IllegalArgumentException.class);
-    assertThat(thrown3).doesNotThrowAnyException();
+    assertThat(keys1).isNotEmpty();
+    assertThat(keys2).isNotEmpty();
+    assertThat(keys3).isEmpty();
   }
 
   @Test
-  public void get_ScanAllGivenAndPutInWriteSetInSameTable_ShouldThrowException() {
+  public void getWrittenKeys_ScanAllGivenAndPutInWriteSetInSameTable_ShouldReturnWrittenKeys() {
     // Arrange
     snapshot = prepareSnapshot(Isolation.SNAPSHOT);
     // "text2"
@@ -1184,11 +1417,11 @@ public class SnapshotTest {
             .forNamespace(ANY_NAMESPACE_NAME)
             .forTable(ANY_TABLE_NAME);
 
-    // Act Assert
-    Throwable thrown = catchThrowable(() -> snapshot.get(scanAll));
+    // Act
+    List<Snapshot.Key> keys = snapshot.getWrittenKeys(scanAll);
 
     // Assert
-    assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    assertThat(keys).containsExactly(putKey);
   }
 
   @Test
@@ -1236,4 +1469,295 @@ public class SnapshotTest {
     assertThat(keys).isNotEmpty();
     assertThat(keys.get()).containsExactly(aKey);
   }
+
+  @Test
+  public void isOnePhaseCommitApplicable_WritesInSinglePartitionGiven_ShouldReturnTrue() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    Put put = preparePut();
+    Put anotherPut = preparePutWithPartitionKeyOnly();
+    snapshot.put(new Snapshot.Key(put), put);
+    snapshot.put(new Snapshot.Key(anotherPut), anotherPut);
+
+    // Act
+    boolean actual = snapshot.isOnePhaseCommitApplicable();
+
+    // Assert
+    assertThat(actual).isTrue();
+  }
+
+  @Test
+  public void isOnePhaseCommitApplicable_WritesInMultiplePartitionsGiven_ShouldReturnFalse() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    Put put = preparePut();
+    Put anotherPut = prepareAnotherPut();
+    snapshot.put(new Snapshot.Key(put), put);
+    snapshot.put(new Snapshot.Key(anotherPut), anotherPut);
+
+    // Act
+    boolean actual = snapshot.isOnePhaseCommitApplicable();
+
+    // Assert
+    assertThat(actual).isFalse();
+  }
+
+  @Test
+  public void isOnePhaseCommitApplicable_NoWritesGiven_ShouldReturnFalse() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    snapshot.put(new Snapshot.Key(prepareGet()), Optional.of(prepareResult(ANY_ID)));
+
+    // Act
+    boolean actual = snapshot.isOnePhaseCommitApplicable();
+
+    // Assert
+    assertThat(actual).isFalse();
+  }
+
+  @Test
+  public void isOnePhaseCommitApplicable_DeleteForNonExistingRecordGiven_ShouldReturnFalse() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    Delete delete = prepareDelete();
+    snapshot.put(new Snapshot.Key(delete), delete);
+
+    // Act
+    boolean actual = snapshot.isOnePhaseCommitApplicable();
+
+    // Assert
+    assertThat(actual).isFalse();
+  }
+
+  @Test
+  public void isOnePhaseCommitApplicable_DeleteForReadRecordGiven_ShouldReturnTrue() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SNAPSHOT);
+    Delete delete = prepareDelete();
+    snapshot.put(new Snapshot.Key(prepareGet()), Optional.of(prepareResult(ANY_ID)));
+    snapshot.put(new Snapshot.Key(delete), delete);
+
+    // Act
+    boolean actual = snapshot.isOnePhaseCommitApplicable();
+
+    // Assert
+    assertThat(actual).isTrue();
+  }
+
+  @Test
+  public void
+      isOnePhaseCommitApplicable_SerializableWithReadRecordNotWrittenGiven_ShouldReturnFalse() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SERIALIZABLE, SerializableStrategy.EXTRA_READ);
+    Put put = preparePut();
+    snapshot.put(new Snapshot.Key(prepareAnotherGet()), Optional.of(prepareResult(ANY_ID)));
+    snapshot.put(new Snapshot.Key(put), put);
+
+    // Act
+    boolean actual = snapshot.isOnePhaseCommitApplicable();
+
+    // Assert
+    assertThat(actual).isFalse();
+  }
+
+  @Test
+  public void isOnePhaseCommitApplicable_SerializableWithReadRecordWrittenGiven_ShouldReturnTrue() {
+    // Arrange
+    snapshot = prepareSnapshot(Isolation.SERIALIZABLE, SerializableStrategy.EXTRA_READ);
+    Put put = preparePut();
+    snapshot.put(new Snapshot.Key(prepareGet()), Optional.of(prepareResult(ANY_ID)));
+    snapshot.put(new Snapshot.Key(put), put);
+
+    // Act
+    boolean actual = snapshot.isOnePhaseCommitApplicable();
+
+    // Assert
+    assertThat(actual).isTrue();
+  }
+
+  private Snapshot prepareBatchValidationSnapshot() {
+    readSet = new HashMap<>();
+    scanSet = new HashMap<>();
+    writeSet = new HashMap<>();
+    deleteSet = new HashMap<>();
+
+    return spy(
+        new Snapshot(
+            ANY_ID,
+            Isolation.SERIALIZABLE,
+            SerializableStrategy.EXTRA_READ,
+            tableMetadataManager,
+            new ParallelExecutor(config),
+            true,
+            readSet,
+            scanSet,
+            writeSet,
+            deleteSet));
+  }
+
+  private Get prepareGet(String clusteringKeyText) {
+    return new Get(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, clusteringKeyText))
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME);
+  }
+
+  private TransactionResult prepareResult(String txId, String clusteringKeyText) {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, ScalarDbUtils.toColumn(new TextValue(ANY_NAME_1, ANY_TEXT_1)))
+            .put(ANY_NAME_2, ScalarDbUtils.toColumn(new TextValue(ANY_NAME_2, clusteringKeyText)))
+            .put(Attribute.ID, ScalarDbUtils.toColumn(Attribute.toIdValue(txId)))
+            .put(Attribute.VERSION, ScalarDbUtils.toColumn(Attribute.toVersionValue(ANY_VERSION)))
+            .build();
+    return new TransactionResult(new ResultImpl(columns, TABLE_METADATA));
+  }
+
+  private Scan prepareValidationScan(String startText, String endText) {
+    return new Scan(new Key(ANY_NAME_1, ANY_TEXT_1))
+        .withStart(new Key(ANY_NAME_2, startText), true)
+        .withEnd(new Key(ANY_NAME_2, endText), true)
+        .withProjections(Arrays.asList(Attribute.ID, Attribute.VERSION, ANY_NAME_1, ANY_NAME_2))
+        .withConsistency(Consistency.LINEARIZABLE)
+        .withLimit(2 * Snapshot.VALIDATION_SCAN_RECORDS_PER_KEY)
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME);
+  }
+
+  @Test
+  public void
+      toSerializableWithExtraRead_BatchValidationEnabledAndReadSetInSamePartitionNotChanged_ShouldValidateWithSingleScan()
+          throws ExecutionException {
+    // Arrange
+    snapshot = prepareBatchValidationSnapshot();
+    TransactionResult result1 = prepareResult(ANY_ID + "x", ANY_TEXT_4);
+    TransactionResult result2 = prepareResult(ANY_ID + "x", ANY_TEXT_2);
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_4)), Optional.of(result1));
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_2)), Optional.of(result2));
+    DistributedStorage storage = mock(DistributedStorage.class);
+    Scanner scanner = mock(Scanner.class);
+    // a record in the range that wasn't read by the transaction should be ignored
+    TransactionResult notRead = prepareResult(ANY_ID + "y", ANY_TEXT_3);
+    when(scanner.iterator())
+        .thenReturn(Arrays.<Result>asList(result2, notRead, result1).iterator());
+    Scan validationScan = prepareValidationScan(ANY_TEXT_2, ANY_TEXT_4);
+    when(storage.scan(validationScan)).thenReturn(scanner);
+
+    // Act Assert
+    assertThatCode(() -> snapshot.toSerializableWithExtraRead(storage)).doesNotThrowAnyException();
+
+    // Assert
+    verify(storage).scan(validationScan);
+    verify(storage, never()).get(any());
+  }
+
+  @Test
+  public void
+      toSerializableWithExtraRead_BatchValidationEnabledAndReadSetInSamePartitionUpdated_ShouldThrowCommitConflictException()
+          throws ExecutionException {
+    // Arrange
+    snapshot = prepareBatchValidationSnapshot();
+    TransactionResult result1 = prepareResult(ANY_ID + "x", ANY_TEXT_2);
+    TransactionResult result2 = prepareResult(ANY_ID + "x", ANY_TEXT_4);
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_2)), Optional.of(result1));
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_4)), Optional.of(result2));
+    DistributedStorage storage = mock(DistributedStorage.class);
+    Scanner scanner = mock(Scanner.class);
+    TransactionResult changed = prepareResult(ANY_ID + "y", ANY_TEXT_4);
+    when(scanner.iterator()).thenReturn(Arrays.<Result>asList(result1, changed).iterator());
+    Scan validationScan = prepareValidationScan(ANY_TEXT_2, ANY_TEXT_4);
+    when(storage.scan(validationScan)).thenReturn(scanner);
+
+    // Act Assert
+    assertThatThrownBy(() -> snapshot.toSerializableWithExtraRead(storage))
+        .isInstanceOf(CommitConflictException.class);
+  }
+
+  @Test
+  public void
+      toSerializableWithExtraRead_BatchValidationEnabledAndReadRecordDeleted_ShouldThrowCommitConflictException()
+          throws ExecutionException {
+    // Arrange
+    snapshot = prepareBatchValidationSnapshot();
+    TransactionResult result1 = prepareResult(ANY_ID + "x", ANY_TEXT_2);
+    TransactionResult result2 = prepareResult(ANY_ID + "x", ANY_TEXT_4);
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_2)), Optional.of(result1));
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_4)), Optional.of(result2));
+    DistributedStorage storage = mock(DistributedStorage.class);
+    Scanner scanner = mock(Scanner.class);
+    when(scanner.iterator()).thenReturn(Collections.<Result>singletonList(result1).iterator());
+    when(storage.scan(prepareValidationScan(ANY_TEXT_2, ANY_TEXT_4))).thenReturn(scanner);
+
+    // Act Assert
+    assertThatThrownBy(() -> snapshot.toSerializableWithExtraRead(storage))
+        .isInstanceOf(CommitConflictException.class);
+  }
+
+  @Test
+  public void
+      toSerializableWithExtraRead_BatchValidationEnabledAndSingleReadInPartition_ShouldValidateWithGet()
+          throws ExecutionException {
+    // Arrange
+    snapshot = prepareBatchValidationSnapshot();
+    TransactionResult result = prepareResult(ANY_ID + "x", ANY_TEXT_2);
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_2)), Optional.of(result));
+    DistributedStorage storage = mock(DistributedStorage.class);
+    Get getWithProjections =
+        prepareGet(ANY_TEXT_2)
+            .withProjection(Attribute.ID)
+            .withProjection(Attribute.VERSION)
+            .withConsistency(Consistency.LINEARIZABLE);
+    when(storage.get(getWithProjections)).thenReturn(Optional.of(result));
+
+    // Act Assert
+    assertThatCode(() -> snapshot.toSerializableWithExtraRead(storage)).doesNotThrowAnyException();
+
+    // Assert
+    verify(storage).get(getWithProjections);
+    verify(storage, never()).scan(any());
+  }
+
+  @Test
+  public void
+      toSerializableWithExtraRead_BatchValidationEnabledAndReadSetSparseInRange_ShouldValidateUnreachedRecordsWithGet()
+          throws ExecutionException {
+    // Arrange
+    snapshot = prepareBatchValidationSnapshot();
+    TransactionResult result1 = prepareResult(ANY_ID + "x", ANY_TEXT_1);
+    TransactionResult result2 = prepareResult(ANY_ID + "x", ANY_TEXT_4);
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_1)), Optional.of(result1));
+    snapshot.put(new Snapshot.Key(prepareGet(ANY_TEXT_4)), Optional.of(result2));
+    DistributedStorage storage = mock(DistributedStorage.class);
+    Scanner scanner = mock(Scanner.class);
+    // the range is filled with records that weren't read by the transaction up to the limit
+    List<Result> scanned = new ArrayList<>();
+    scanned.add(result1);
+    for (int i = 1; i < 2 * Snapshot.VALIDATION_SCAN_RECORDS_PER_KEY; i++) {
+      scanned.add(prepareResult(ANY_ID + "y", ANY_TEXT_2 + i));
+    }
+    when(scanner.iterator()).thenReturn(scanned.iterator());
+    when(storage.scan(prepareValidationScan(ANY_TEXT_1, ANY_TEXT_4))).thenReturn(scanner);
+    Get getWithProjections =
+        prepareGet(ANY_TEXT_4)
+            .withProjection(Attribute.ID)
+            .withProjection(Attribute.VERSION)
+            .withConsistency(Consistency.LINEARIZABLE);
+    when(storage.get(getWithProjections)).thenReturn(Optional.of(result2));
+
+    // Act Assert
+    assertThatCode(() -> snapshot.toSerializableWithExtraRead(storage)).doesNotThrowAnyException();
+
+    // Assert
+    verify(storage).get(getWithProjections);
+  }
+
+  private static class PassThroughMutationComposer extends AbstractMutationComposer {
+    private PassThroughMutationComposer() {
+      super(ANY_ID);
+    }
+
+    @Override
+    public void add(Operation base, TransactionResult result) {
+      mutations.add((Mutation) base);
+    }
+  }
 }
@@ -0,0 +1,198 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.Put;
+import com.scalar.db.api.PutIfNotExists;
+import com.scalar.db.io.Key;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SpillableWriteSetTest {
+  private static final String ANY_NAMESPACE_NAME = "namespace";
+  private static final String ANY_TABLE_NAME = "table";
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_NAME_2 = "name2";
+  private static final String ANY_NAME_3 = "name3";
+  private static final String ANY_NAME_4 = "name4";
+  private static final String ANY_NAME_5 = "name5";
+  private static final String ANY_NAME_6 = "name6";
+  private static final String ANY_NAME_7 = "name7";
+  private static final String ANY_NAME_8 = "name8";
+  private static final String ANY_NAME_9 = "name9";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_TEXT_2 = "text2";
+  private static final String ANY_TEXT_3 = "text3";
+
+  @TempDir Path directory;
+
+  private Put preparePut(String partitionKeyValue, String clusteringKeyValue) {
+    return new Put(new Key(ANY_NAME_1, partitionKeyValue), new Key(ANY_NAME_2, clusteringKeyValue))
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME)
+        .withValue(ANY_NAME_3, ANY_TEXT_3);
+  }
+
+  private SpillableWriteSet prepareWriteSet(int threshold) {
+    return new SpillableWriteSet(threshold, directory.toString());
+  }
+
+  @Test
+  public void encode_PutWithAllDataTypesGiven_ShouldBeDecodedToSamePut() {
+    // Arrange
+    Put put =
+        new Put(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, ANY_TEXT_2))
+            .withConsistency(Consistency.LINEARIZABLE)
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME)
+            .withBooleanValue(ANY_NAME_3, true)
+            .withIntValue(ANY_NAME_4, 10)
+            .withBigIntValue(ANY_NAME_5, 100L)
+            .withFloatValue(ANY_NAME_6, 1.0f)
+            .withDoubleValue(ANY_NAME_7, 2.0)
+            .withTextValue(ANY_NAME_8, ANY_TEXT_3)
+            .withBlobValue(ANY_NAME_9, new byte[] {1, 2, 3})
+            .withTextValue("null_text", null)
+            .withIntValue("null_int", null)
+            .withBlobValue("null_blob", (byte[]) null);
+
+    // Act
+    Put actual = SpillableWriteSet.decode(new Snapshot.Key(put), SpillableWriteSet.encode(put));
+
+    // Assert
+    assertThat(actual).isEqualTo(put);
+  }
+
+  @Test
+  public void put_PutsMoreThanThresholdGiven_ShouldSpillOthersAndReadThemBack() {
+    // Arrange
+    SpillableWriteSet writeSet = prepareWriteSet(1);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2");
+    Put put3 = preparePut(ANY_TEXT_2, "c3");
+
+    // Act
+    writeSet.put(new Snapshot.Key(put1), put1);
+    writeSet.put(new Snapshot.Key(put2), put2);
+    writeSet.put(new Snapshot.Key(put3), put3);
+
+    // Assert
+    assertThat(writeSet.getSpilledCount()).isEqualTo(2);
+    assertThat(writeSet.size()).isEqualTo(3);
+    assertThat(writeSet.containsKey(new Snapshot.Key(put2))).isTrue();
+    assertThat(writeSet.get(new Snapshot.Key(put1))).isSameAs(put1);
+    assertThat(writeSet.get(new Snapshot.Key(put2))).isEqualTo(put2);
+    assertThat(writeSet.get(new Snapshot.Key(put3))).isEqualTo(put3);
+    assertThat(writeSet.keySet())
+        .containsExactlyInAnyOrder(
+            new Snapshot.Key(put1), new Snapshot.Key(put2), new Snapshot.Key(put3));
+    writeSet.close();
+  }
+
+  @Test
+  public void entrySet_ShouldIterateEntriesInKeyOrder() {
+    // Arrange
+    SpillableWriteSet writeSet = prepareWriteSet(1);
+    Put put1 = preparePut(ANY_TEXT_2, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2");
+    Put put3 = preparePut(ANY_TEXT_1, "c1");
+    writeSet.put(new Snapshot.Key(put1), put1);
+    writeSet.put(new Snapshot.Key(put2), put2);
+    writeSet.put(new Snapshot.Key(put3), put3);
+
+    // Act
+    List<Put> actual = new ArrayList<>();
+    for (Map.Entry<Snapshot.Key, Put> entry : writeSet.entrySet()) {
+      actual.add(entry.getValue());
+    }
+
+    // Assert
+    assertThat(actual).isEqualTo(Arrays.asList(put3, put2, put1));
+    writeSet.close();
+  }
+
+  @Test
+  public void put_SpilledPutReplaced_ShouldReturnPreviousAndHoldNewOne() {
+    // Arrange
+    SpillableWriteSet writeSet = prepareWriteSet(1);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2");
+    Put put3 = preparePut(ANY_TEXT_1, "c2").withValue(ANY_NAME_4, 100);
+    writeSet.put(new Snapshot.Key(put1), put1);
+    writeSet.put(new Snapshot.Key(put2), put2);
+
+    // Act
+    Put previous = writeSet.put(new Snapshot.Key(put3), put3);
+
+    // Assert
+    assertThat(previous).isEqualTo(put2);
+    assertThat(writeSet.get(new Snapshot.Key(put2))).isEqualTo(put3);
+    assertThat(writeSet.size()).isEqualTo(2);
+    writeSet.close();
+  }
+
+  @Test
+  public void remove_SpilledPutGiven_ShouldRemoveIt() {
+    // Arrange
+    SpillableWriteSet writeSet = prepareWriteSet(1);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2");
+    writeSet.put(new Snapshot.Key(put1), put1);
+    writeSet.put(new Snapshot.Key(put2), put2);
+
+    // Act
+    Put removed = writeSet.remove(new Snapshot.Key(put2));
+
+    // Assert
+    assertThat(removed).isEqualTo(put2);
+    assertThat(writeSet.containsKey(new Snapshot.Key(put2))).isFalse();
+    assertThat(writeSet.size()).isEqualTo(1);
+    writeSet.close();
+  }
+
+  @Test
+  public void put_PutWithConditionGiven_ShouldNotSpillIt() {
+    // Arrange
+    SpillableWriteSet writeSet = prepareWriteSet(1);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2").withCondition(new PutIfNotExists());
+
+    // Act
+    writeSet.put(new Snapshot.Key(put1), put1);
+    writeSet.put(new Snapshot.Key(put2), put2);
+
+    // Assert
+    assertThat(writeSet.getSpilledCount()).isEqualTo(0);
+    assertThat(writeSet.get(new Snapshot.Key(put2))).isSameAs(put2);
+    writeSet.close();
+  }
+
+  @Test
+  public void close_ShouldDeleteTemporaryFileAndKeepKeys() {
+    // Arrange
+    SpillableWriteSet writeSet = prepareWriteSet(1);
+    Put put1 = preparePut(ANY_TEXT_1, "c1");
+    Put put2 = preparePut(ANY_TEXT_1, "c2");
+    writeSet.put(new Snapshot.Key(put1), put1);
+    writeSet.put(new Snapshot.Key(put2), put2);
+    Path path = writeSet.getPath();
+    assertThat(path).isNotNull();
+
+    // Act
+    writeSet.close();
+
+    // Assert
+    assertThat(Files.exists(path)).isFalse();
+    assertThat(writeSet.keySet()).hasSize(2);
+    assertThatThrownBy(() -> writeSet.get(new Snapshot.Key(put2)))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,110 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class TimeOrderedTransactionIdGeneratorTest {
+  private static final int ANY_NODE_ID = 1;
+
+  @Test
+  public void generate_ShouldReturnFixedLengthBase32Id() {
+    // Arrange
+    TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator();
+
+    // Act
+    String id = generator.generate();
+
+    // Assert
+    assertThat(id).hasSize(26).matches("[0-9A-HJKMNP-TV-Z]+");
+  }
+
+  @Test
+  public void generate_TimeAdvanced_ShouldReturnGreaterId() {
+    // Arrange
+    AtomicLong clock = new AtomicLong(1000);
+    TimeOrderedTransactionIdGenerator generator =
+        new TimeOrderedTransactionIdGenerator(ANY_NODE_ID, clock::get, Long.MAX_VALUE - 1);
+
+    // Act
+    String id1 = generator.generate();
+    clock.incrementAndGet();
+    String id2 = generator.generate();
+    clock.addAndGet(1000000);
+    String id3 = generator.generate();
+
+    // Assert
+    assertThat(id1).isLessThan(id2);
+    assertThat(id2).isLessThan(id3);
+  }
+
+  @Test
+  public void generate_DifferentNodeIdsGiven_ShouldReturnIdsPrefixedWithNodeIds() {
+    // Arrange
+    TimeOrderedTransactionIdGenerator generator1 =
+        new TimeOrderedTransactionIdGenerator(1, () -> 2000, 0);
+    TimeOrderedTransactionIdGenerator generator2 =
+        new TimeOrderedTransactionIdGenerator(2, () -> 1000, 0);
+
+    // Act
+    String id1 = generator1.generate();
+    String id2 = generator2.generate();
+
+    // Assert
+    assertThat(id1).isNotEqualTo(id2);
+    assertThat(id1).isLessThan(id2);
+  }
+
+  @Test
+  public void generate_SameTimeInManyThreads_ShouldReturnUniqueIds() throws Exception {
+    // Arrange
+    TimeOrderedTransactionIdGenerator generator =
+        new TimeOrderedTransactionIdGenerator(ANY_NODE_ID, () -> 1000, 0);
+    int threadCount = 8;
+    int idsPerThread = TimeOrderedTransactionIdGenerator.SEQUENCE_BLOCK_SIZE * 3 + 1;
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+    // Act
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int j = 0; j < idsPerThread; j++) {
+                  ids.add(generator.generate());
+                }
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+
+    // Assert
+    assertThat(ids).hasSize(threadCount * idsPerThread);
+  }
+
+  @Test
+  public void encode_ProperValuesGiven_ShouldEncodeInCrockfordBase32() {
+    // Arrange Act Assert
+    assertThat(TimeOrderedTransactionIdGenerator.encode(0, 0))
+        .isEqualTo("00000000000000000000000000");
+    assertThat(TimeOrderedTransactionIdGenerator.encode(0, 31))
+        .isEqualTo("0000000000000000000000000Z");
+    assertThat(TimeOrderedTransactionIdGenerator.encode(0, 32))
+        .isEqualTo("00000000000000000000000010");
+    assertThat(TimeOrderedTransactionIdGenerator.encode(-1, -1))
+        .isEqualTo("7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+  }
+}
@@ -39,6 +39,8 @@ public class TwoPhaseConsensusCommitManagerTest {
     // Arrange
     when(config.getIsolation()).thenReturn(Isolation.SNAPSHOT);
     when(config.getSerializableStrategy()).thenReturn(SerializableStrategy.EXTRA_READ);
+    when(config.getTransactionIdGenerator())
+        .thenReturn(ConsensusCommitConfig.DEFAULT_TRANSACTION_ID_GENERATOR);
 
     manager =
         new TwoPhaseConsensusCommitManager(
@@ -0,0 +1,196 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.scalar.db.api.Delete;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.Scanner;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.common.ResultImpl;
+import com.scalar.db.io.BigIntColumn;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.Key;
+import com.scalar.db.io.TextColumn;
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class VersionGarbageCollectorTest {
+  private static final String ANY_NAMESPACE_NAME = "namespace";
+  private static final String ANY_TABLE_NAME = "table";
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_NAME_2 = "name2";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_TEXT_2 = "text2";
+  private static final String ANY_TEXT_3 = "text3";
+  private static final String ANY_ID = "id";
+  private static final long RETENTION_MILLIS = 3600000;
+
+  private static final TableMetadata BASE_METADATA =
+      TableMetadata.newBuilder()
+          .addColumn(ANY_NAME_1, DataType.TEXT)
+          .addColumn(ANY_NAME_2, DataType.TEXT)
+          .addPartitionKey(ANY_NAME_1)
+          .addClusteringKey(ANY_NAME_2)
+          .build();
+  private static final TransactionTableMetadata METADATA =
+      new TransactionTableMetadata(
+          ConsensusCommitUtils.buildTransactionTableMetadata(BASE_METADATA),
+          ConsensusCommitUtils.buildVersionTableMetadata(BASE_METADATA));
+
+  @Mock private DistributedStorage storage;
+  @Mock private TransactionTableMetadataManager tableMetadataManager;
+  @Mock private Scanner scanner;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+
+    // Arrange
+    when(storage.scan(any(Scan.class))).thenReturn(scanner);
+    when(tableMetadataManager.getTransactionTableMetadata(ANY_NAMESPACE_NAME, ANY_TABLE_NAME))
+        .thenReturn(METADATA);
+  }
+
+  private VersionGarbageCollector prepareCollector(int retainedVersions) {
+    return new VersionGarbageCollector(
+        storage,
+        tableMetadataManager,
+        Collections.singletonList(ANY_NAMESPACE_NAME + "." + ANY_TABLE_NAME),
+        retainedVersions,
+        RETENTION_MILLIS,
+        1000);
+  }
+
+  private Result prepareVersion(
+      String clusteringKeyValue, TransactionState state, int version, long committedAt) {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, clusteringKeyValue))
+            .put(Attribute.ID, TextColumn.of(Attribute.ID, ANY_ID))
+            .put(Attribute.STATE, IntColumn.of(Attribute.STATE, state.get()))
+            .put(Attribute.VERSION, IntColumn.of(Attribute.VERSION, version))
+            .put(Attribute.COMMITTED_AT, BigIntColumn.of(Attribute.COMMITTED_AT, committedAt))
+            .build();
+    return new ResultImpl(columns, METADATA.getVersionTableMetadata().get());
+  }
+
+  @Test
+  public void collect_OldVersionsGiven_ShouldDeleteVersionsOlderThanOneAtHorizon()
+      throws Exception {
+    // Arrange
+    VersionGarbageCollector collector = prepareCollector(1);
+    long now = System.currentTimeMillis();
+    long old = now - RETENTION_MILLIS - 1000;
+    when(scanner.one())
+        .thenReturn(
+            Optional.of(prepareVersion(ANY_TEXT_2, TransactionState.COMMITTED, 1, old - 2000)))
+        .thenReturn(Optional.of(prepareVersion(ANY_TEXT_2, TransactionState.COMMITTED, 3, now)))
+        .thenReturn(Optional.of(prepareVersion(ANY_TEXT_2, TransactionState.COMMITTED, 2, old)))
+        .thenReturn(Optional.of(prepareVersion(ANY_TEXT_3, TransactionState.COMMITTED, 1, old)))
+        .thenReturn(Optional.empty());
+
+    // Act
+    long deleted = collector.collect();
+
+    // Assert
+    ArgumentCaptor<Delete> captor = ArgumentCaptor.forClass(Delete.class);
+    verify(storage).delete(captor.capture());
+    assertThat((Object) captor.getValue().getClusteringKey().get())
+        .isEqualTo(
+            Key.newBuilder()
+                .addText(ANY_NAME_2, ANY_TEXT_2)
+                .addBigInt(Attribute.COMMITTED_AT, old - 2000)
+                .addInt(Attribute.VERSION, 1)
+                .build());
+    assertThat(captor.getValue().forTable())
+        .hasValue(ConsensusCommitUtils.getVersionTableName(ANY_TABLE_NAME));
+    assertThat(deleted).isEqualTo(1);
+    assertThat(collector.getScannedVersionCount()).isEqualTo(4);
+    assertThat(collector.getDeletedVersionCount()).isEqualTo(1);
+    assertThat(collector.getCompletedRunCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void collect_MoreRetainedVersionsGiven_ShouldKeepThem() throws Exception {
+    // Arrange
+    VersionGarbageCollector collector = prepareCollector(3);
+    long old = System.currentTimeMillis() - RETENTION_MILLIS - 1000;
+    when(scanner.one())
+        .thenReturn(Optional.of(prepareVersion(ANY_TEXT_2, TransactionState.COMMITTED, 1, old)))
+        .thenReturn(Optional.of(prepareVersion(ANY_TEXT_2, TransactionState.COMMITTED, 2, old)))
+        .thenReturn(Optional.of(prepareVersion(ANY_TEXT_2, TransactionState.COMMITTED, 3, old)))
+        .thenReturn(Optional.empty());
+
+    // Act
+    long deleted = collector.collect();
+
+    // Assert
+    verify(storage, never()).delete(any(Delete.class));
+    assertThat(deleted).isEqualTo(0);
+  }
+
+  @Test
+  public void collect_OldTombstoneAsNewestVersionGiven_ShouldDeleteAllVersions() throws Exception {
+    // Arrange
+    VersionGarbageCollector collector = prepareCollector(1);
+    long old = System.currentTimeMillis() - RETENTION_MILLIS - 1000;
+    when(scanner.one())
+        .thenReturn(
+            Optional.of(prepareVersion(ANY_TEXT_2, TransactionState.COMMITTED, 1, old - 1000)))
+        .thenReturn(Optional.of(prepareVersion(ANY_TEXT_2, TransactionState.DELETED, 2, old)))
+        .thenReturn(Optional.empty());
+
+    // Act
+    long deleted = collector.collect();
+
+    // Assert
+    verify(storage, times(2)).delete(any(Delete.class));
+    assertThat(deleted).isEqualTo(2);
+  }
+
+  @Test
+  public void collect_NoTablesGiven_ShouldThrowIllegalStateException() {
+    // Arrange
+    VersionGarbageCollector collector =
+        new VersionGarbageCollector(
+            storage, tableMetadataManager, Collections.emptyList(), 1, RETENTION_MILLIS, 1000);
+
+    // Act Assert
+    assertThatThrownBy(collector::collect).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void collect_NonMultiVersionedTableGiven_ShouldNotScanIt() throws Exception {
+    // Arrange
+    when(tableMetadataManager.getTransactionTableMetadata(ANY_NAMESPACE_NAME, ANY_TABLE_NAME))
+        .thenReturn(
+            new TransactionTableMetadata(
+                ConsensusCommitUtils.buildTransactionTableMetadata(BASE_METADATA)));
+    VersionGarbageCollector collector = prepareCollector(1);
+
+    // Act
+    long deleted = collector.collect();
+
+    // Assert
+    verify(storage, never()).scan(any(Scan.class));
+    assertThat(deleted).isEqualTo(0);
+  }
+}
@@ -0,0 +1,393 @@
+package com.scalar.db.transaction.consensuscommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.scalar.db.api.DistributedStorage;
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.ScanAll;
+import com.scalar.db.api.Scanner;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.common.ResultImpl;
+import com.scalar.db.exception.transaction.CrudException;
+import com.scalar.db.io.BigIntColumn;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.Key;
+import com.scalar.db.io.TextColumn;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class VersionReaderTest {
+  private static final String ANY_NAMESPACE_NAME = "namespace";
+  private static final String ANY_TABLE_NAME = "table";
+  private static final String ANY_NAME_1 = "name1";
+  private static final String ANY_NAME_2 = "name2";
+  private static final String ANY_NAME_3 = "name3";
+  private static final String ANY_TEXT_1 = "text1";
+  private static final String ANY_TEXT_2 = "text2";
+  private static final String ANY_TEXT_3 = "text3";
+  private static final String ANY_ID_1 = "id1";
+  private static final String ANY_ID_2 = "id2";
+  private static final String ANY_ID_3 = "id3";
+  private static final long READ_TIMESTAMP = 1000;
+
+  private static final TableMetadata BASE_METADATA =
+      TableMetadata.newBuilder()
+          .addColumn(ANY_NAME_1, DataType.TEXT)
+          .addColumn(ANY_NAME_2, DataType.TEXT)
+          .addColumn(ANY_NAME_3, DataType.INT)
+          .addPartitionKey(ANY_NAME_1)
+          .addClusteringKey(ANY_NAME_2)
+          .build();
+  private static final TransactionTableMetadata METADATA =
+      new TransactionTableMetadata(
+          ConsensusCommitUtils.buildTransactionTableMetadata(BASE_METADATA),
+          ConsensusCommitUtils.buildVersionTableMetadata(BASE_METADATA));
+
+  @Mock private DistributedStorage storage;
+  @Mock private Scanner scanner;
+  private VersionReader reader;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this).close();
+
+    // Arrange
+    when(storage.scan(any(Scan.class))).thenReturn(scanner);
+    reader = new VersionReader(storage, READ_TIMESTAMP);
+  }
+
+  private Get prepareGet(String clusteringKeyValue) {
+    return new Get(new Key(ANY_NAME_1, ANY_TEXT_1), new Key(ANY_NAME_2, clusteringKeyValue))
+        .forNamespace(ANY_NAMESPACE_NAME)
+        .forTable(ANY_TABLE_NAME);
+  }
+
+  private TransactionResult prepareLatest(
+      String clusteringKeyValue,
+      String id,
+      TransactionState state,
+      int version,
+      long committedAt,
+      int value) {
+    ImmutableMap<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, clusteringKeyValue))
+            .put(ANY_NAME_3, IntColumn.of(ANY_NAME_3, value))
+            .put(Attribute.ID, TextColumn.of(Attribute.ID, id))
+            .put(Attribute.STATE, IntColumn.of(Attribute.STATE, state.get()))
+            .put(Attribute.VERSION, IntColumn.of(Attribute.VERSION, version))
+            .put(Attribute.PREPARED_AT, BigIntColumn.of(Attribute.PREPARED_AT, committedAt))
+            .put(Attribute.COMMITTED_AT, BigIntColumn.of(Attribute.COMMITTED_AT, committedAt))
+            .build();
+    return new TransactionResult(new ResultImpl(columns, METADATA.getTableMetadata()));
+  }
+
+  private Result prepareVersion(
+      String clusteringKeyValue,
+      String id,
+      TransactionState state,
+      int version,
+      long committedAt,
+      int value) {
+    ImmutableMap.Builder<String, Column<?>> columns =
+        ImmutableMap.<String, Column<?>>builder()
+            .put(ANY_NAME_1, TextColumn.of(ANY_NAME_1, ANY_TEXT_1))
+            .put(ANY_NAME_2, TextColumn.of(ANY_NAME_2, clusteringKeyValue))
+            .put(Attribute.ID, TextColumn.of(Attribute.ID, id))
+            .put(Attribute.STATE, IntColumn.of(Attribute.STATE, state.get()))
+            .put(Attribute.VERSION, IntColumn.of(Attribute.VERSION, version))
+            .put(Attribute.COMMITTED_AT, BigIntColumn.of(Attribute.COMMITTED_AT, committedAt));
+    if (state != TransactionState.DELETED) {
+      columns.put(ANY_NAME_3, IntColumn.of(ANY_NAME_3, value));
+    }
+    return new ResultImpl(columns.build(), METADATA.getVersionTableMetadata().get());
+  }
+
+  private void prepareVersions(Result... versions) {
+    List<Result> list = Arrays.asList(versions);
+    when(scanner.iterator()).thenReturn(list.iterator());
+  }
+
+  @Test
+  public void get_LatestCommittedBeforeReadTimestampGiven_ShouldReturnItWithoutReadingVersions()
+      throws Exception {
+    // Arrange
+    TransactionResult latest =
+        prepareLatest(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 1);
+
+    // Act
+    Optional<TransactionResult> actual =
+        reader.get(prepareGet(ANY_TEXT_2), Optional.of(latest), METADATA);
+
+    // Assert
+    assertThat(actual).hasValue(latest);
+    verify(storage, never()).scan(any(Scan.class));
+  }
+
+  @Test
+  public void get_LatestCommittedAfterReadTimestampGiven_ShouldReturnVersionAtReadTimestamp()
+      throws Exception {
+    // Arrange
+    TransactionResult latest =
+        prepareLatest(ANY_TEXT_2, ANY_ID_3, TransactionState.COMMITTED, 3, 1500, 3);
+    prepareVersions(
+        prepareVersion(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 800, 1),
+        prepareVersion(ANY_TEXT_2, ANY_ID_3, TransactionState.COMMITTED, 3, 1500, 3),
+        prepareVersion(ANY_TEXT_2, ANY_ID_2, TransactionState.COMMITTED, 2, 1200, 2));
+
+    // Act
+    Optional<TransactionResult> actual =
+        reader.get(prepareGet(ANY_TEXT_2), Optional.of(latest), METADATA);
+
+    // Assert
+    assertThat(actual).isPresent();
+    assertThat(actual.get().getInt(ANY_NAME_3)).isEqualTo(1);
+    assertThat(actual.get().getId()).isEqualTo(ANY_ID_1);
+    ArgumentCaptor<Scan> captor = ArgumentCaptor.forClass(Scan.class);
+    verify(storage).scan(captor.capture());
+    assertThat(captor.getValue().forTable())
+        .hasValue(ConsensusCommitUtils.getVersionTableName(ANY_TABLE_NAME));
+  }
+
+  @Test
+  public void get_RecordInsertedAfterReadTimestampGiven_ShouldReturnEmpty() throws Exception {
+    // Arrange
+    TransactionResult latest =
+        prepareLatest(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 1500, 1);
+    prepareVersions(prepareVersion(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 1500, 1));
+
+    // Act
+    Optional<TransactionResult> actual =
+        reader.get(prepareGet(ANY_TEXT_2), Optional.of(latest), METADATA);
+
+    // Assert
+    assertThat(actual).isEmpty();
+  }
+
+  @Test
+  public void get_RecordDeletedAfterReadTimestampGiven_ShouldReturnVersionBeforeDeletion()
+      throws Exception {
+    // Arrange
+    prepareVersions(
+        prepareVersion(ANY_TEXT_2, ANY_ID_2, TransactionState.DELETED, 2, 1500, 0),
+        prepareVersion(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 800, 1));
+
+    // Act
+    Optional<TransactionResult> actual =
+        reader.get(prepareGet(ANY_TEXT_2), Optional.empty(), METADATA);
+
+    // Assert
+    assertThat(actual).isPresent();
+    assertThat(actual.get().getInt(ANY_NAME_3)).isEqualTo(1);
+  }
+
+  @Test
+  public void get_RecordDeletedBeforeReadTimestampGiven_ShouldReturnEmpty() throws Exception {
+    // Arrange
+    prepareVersions(
+        prepareVersion(ANY_TEXT_2, ANY_ID_2, TransactionState.DELETED, 2, 900, 0),
+        prepareVersion(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 800, 1));
+
+    // Act
+    Optional<TransactionResult> actual =
+        reader.get(prepareGet(ANY_TEXT_2), Optional.empty(), METADATA);
+
+    // Assert
+    assertThat(actual).isEmpty();
+  }
+
+  @Test
+  public void get_VersionAtReadTimestampNotRetainedGiven_ShouldThrowCrudException() {
+    // Arrange
+    TransactionResult latest =
+        prepareLatest(ANY_TEXT_2, ANY_ID_3, TransactionState.COMMITTED, 3, 1500, 3);
+    prepareVersions(prepareVersion(ANY_TEXT_2, ANY_ID_3, TransactionState.COMMITTED, 3, 1500, 3));
+
+    // Act Assert
+    assertThatThrownBy(() -> reader.get(prepareGet(ANY_TEXT_2), Optional.of(latest), METADATA))
+        .isInstanceOf(CrudException.class);
+  }
+
+  @Test
+  public void get_VersionsWithGapGiven_ShouldThrowCrudException() {
+    // Arrange
+    TransactionResult latest =
+        prepareLatest(ANY_TEXT_2, ANY_ID_3, TransactionState.COMMITTED, 3, 1500, 3);
+    prepareVersions(prepareVersion(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 800, 1));
+
+    // Act Assert
+    assertThatThrownBy(() -> reader.get(prepareGet(ANY_TEXT_2), Optional.of(latest), METADATA))
+        .isInstanceOf(CrudException.class);
+  }
+
+  @Test
+  public void get_LatestPreparedBeforeReadTimestampGiven_ShouldThrowUncommittedRecordException() {
+    // Arrange
+    TransactionResult latest =
+        prepareLatest(ANY_TEXT_2, ANY_ID_2, TransactionState.PREPARED, 2, 900, 2);
+
+    // Act Assert
+    assertThatThrownBy(() -> reader.get(prepareGet(ANY_TEXT_2), Optional.of(latest), METADATA))
+        .isInstanceOf(UncommittedRecordException.class);
+  }
+
+  @Test
+  public void scan_RecordsUpdatedAndInsertedAfterReadTimestampGiven_ShouldReturnRecordsAtIt()
+      throws Exception {
+    // Arrange
+    Scan scan =
+        new Scan(new Key(ANY_NAME_1, ANY_TEXT_1))
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME);
+    List<Result> latest =
+        Arrays.asList(
+            prepareLatest(ANY_TEXT_2, ANY_ID_2, TransactionState.COMMITTED, 2, 1500, 2),
+            prepareLatest(ANY_TEXT_3, ANY_ID_3, TransactionState.COMMITTED, 1, 1500, 3));
+    prepareVersions(
+        prepareVersion(ANY_TEXT_2, ANY_ID_2, TransactionState.COMMITTED, 2, 1500, 2),
+        prepareVersion(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 800, 1),
+        prepareVersion(ANY_TEXT_3, ANY_ID_3, TransactionState.COMMITTED, 1, 1500, 3));
+
+    // Act
+    List<TransactionResult> actual = reader.scan(scan, latest.iterator(), METADATA);
+
+    // Assert
+    assertThat(actual).hasSize(1);
+    assertThat(actual.get(0).getText(ANY_NAME_2)).isEqualTo(ANY_TEXT_2);
+    assertThat(actual.get(0).getInt(ANY_NAME_3)).isEqualTo(1);
+  }
+
+  @Test
+  public void scan_NoVersionsGiven_ShouldReturnLatestRecordsCommittedBeforeReadTimestamp()
+      throws Exception {
+    // Arrange
+    Scan scan =
+        new Scan(new Key(ANY_NAME_1, ANY_TEXT_1))
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME);
+    TransactionResult latest =
+        prepareLatest(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 1);
+    prepareVersions();
+
+    // Act
+    List<TransactionResult> actual =
+        reader.scan(scan, Collections.<Result>singletonList(latest).iterator(), METADATA);
+
+    // Assert
+    assertThat(actual).containsExactly(latest);
+  }
+
+  @Test
+  public void scan_RecordDeletedAfterReadTimestampGiven_ShouldReturnItInClusteringOrder()
+      throws Exception {
+    // Arrange
+    Scan scan =
+        new Scan(new Key(ANY_NAME_1, ANY_TEXT_1))
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME);
+    List<Result> latest =
+        Arrays.asList(
+            prepareLatest(ANY_TEXT_1, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 1),
+            prepareLatest(ANY_TEXT_3, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 3));
+    prepareVersions(
+        prepareVersion(ANY_TEXT_2, ANY_ID_2, TransactionState.DELETED, 2, 1500, 0),
+        prepareVersion(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 2));
+
+    // Act
+    List<TransactionResult> actual = reader.scan(scan, latest.iterator(), METADATA);
+
+    // Assert
+    assertThat(actual).hasSize(3);
+    assertThat(actual.get(0)).isEqualTo(latest.get(0));
+    assertThat(actual.get(1).getText(ANY_NAME_2)).isEqualTo(ANY_TEXT_2);
+    assertThat(actual.get(1).getInt(ANY_NAME_3)).isEqualTo(2);
+    assertThat(actual.get(2)).isEqualTo(latest.get(1));
+  }
+
+  @Test
+  public void scan_LimitGiven_ShouldStopFetchingLatestRecordsAtLimit() throws Exception {
+    // Arrange
+    Scan scan =
+        new Scan(new Key(ANY_NAME_1, ANY_TEXT_1))
+            .withLimit(1)
+            .forNamespace(ANY_NAMESPACE_NAME)
+            .forTable(ANY_TABLE_NAME);
+    Iterator<Result> latest =
+        Arrays.<Result>asList(
+                prepareLatest(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 1),
+                prepareLatest(ANY_TEXT_3, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 3))
+            .iterator();
+    prepareVersions();
+
+    // Act
+    List<TransactionResult> actual = reader.scan(scan, latest, METADATA);
+
+    // Assert
+    assertThat(actual).hasSize(1);
+    assertThat(actual.get(0).getText(ANY_NAME_2)).isEqualTo(ANY_TEXT_2);
+    assertThat(latest.hasNext()).isTrue();
+  }
+
+  @Test
+  public void scan_ScanAllWithLimitAndVisibleRecordsGiven_ShouldNotReadVersions() throws Exception {
+    // Arrange
+    ScanAll scan =
+        (ScanAll)
+            new ScanAll().withLimit(1).forNamespace(ANY_NAMESPACE_NAME).forTable(ANY_TABLE_NAME);
+    List<Result> latest =
+        Arrays.asList(
+            prepareLatest(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 1),
+            prepareLatest(ANY_TEXT_3, ANY_ID_1, TransactionState.COMMITTED, 1, 500, 3));
+
+    // Act
+    List<TransactionResult> actual = reader.scan(scan, latest.iterator(), METADATA);
+
+    // Assert
+    assertThat(actual).containsExactly((TransactionResult) latest.get(0));
+    verify(storage, never()).scan(any(Scan.class));
+  }
+
+  @Test
+  public void scan_ScanAllWithRecordUpdatedAfterReadTimestampGiven_ShouldLookUpItsVersions()
+      throws Exception {
+    // Arrange
+    ScanAll scan =
+        (ScanAll)
+            new ScanAll().withLimit(1).forNamespace(ANY_NAMESPACE_NAME).forTable(ANY_TABLE_NAME);
+    List<Result> latest =
+        Collections.singletonList(
+            prepareLatest(ANY_TEXT_2, ANY_ID_2, TransactionState.COMMITTED, 2, 1500, 2));
+    prepareVersions(prepareVersion(ANY_TEXT_2, ANY_ID_1, TransactionState.COMMITTED, 1, 800, 1));
+
+    // Act
+    List<TransactionResult> actual = reader.scan(scan, latest.iterator(), METADATA);
+
+    // Assert
+    assertThat(actual).hasSize(1);
+    assertThat(actual.get(0).getInt(ANY_NAME_3)).isEqualTo(1);
+    ArgumentCaptor<Scan> captor = ArgumentCaptor.forClass(Scan.class);
+    verify(storage).scan(captor.capture());
+    assertThat(captor.getValue()).isNotInstanceOf(ScanAll.class);
+    assertThat(captor.getValue().getStartClusteringKey()).contains(new Key(ANY_NAME_2, ANY_TEXT_2));
+  }
+}
@@ -0,0 +1,126 @@
+package com.scalar.db.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ActiveExpiringMapTest {
+  private static final long LIFETIME_MILLIS = 1000;
+  private static final long INTERVAL_MILLIS = 100;
+
+  private List<String> expired;
+  private ActiveExpiringMap<String, String> map;
+
+  @BeforeEach
+  public void setUp() {
+    expired = new ArrayList<>();
+    map = new ActiveExpiringMap<>(LIFETIME_MILLIS, INTERVAL_MILLIS, expired::add, false);
+  }
+
+  @Test
+  public void expire_LifetimePassed_ShouldExpireValue() {
+    // Arrange
+    long now = System.currentTimeMillis();
+    map.put("key1", "value1");
+    map.putIfAbsent("key2", "value2");
+
+    // Act
+    map.expire(now + LIFETIME_MILLIS + INTERVAL_MILLIS * 2);
+
+    // Assert
+    assertThat(expired).containsExactlyInAnyOrder("value1", "value2");
+    assertThat(map.contains("key1")).isFalse();
+    assertThat(map.contains("key2")).isFalse();
+    assertThat(map.getActiveCount()).isEqualTo(0);
+    assertThat(map.getExpiredCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void expire_LifetimeNotPassed_ShouldNotExpireValue() {
+    // Arrange
+    long now = System.currentTimeMillis();
+    map.put("key1", "value1");
+
+    // Act
+    map.expire(now + LIFETIME_MILLIS / 2);
+
+    // Assert
+    assertThat(expired).isEmpty();
+    assertThat(map.get("key1")).hasValue("value1");
+    assertThat(map.getActiveCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void expire_ValueReplaced_ShouldExpireOnlyLatestValue() {
+    // Arrange
+    long now = System.currentTimeMillis();
+    map.put("key1", "value1");
+    map.put("key1", "value2");
+
+    // Act
+    map.expire(now + LIFETIME_MILLIS + INTERVAL_MILLIS * 2);
+
+    // Assert
+    assertThat(expired).containsExactly("value2");
+  }
+
+  @Test
+  public void expire_ValueRemoved_ShouldNotExpireIt() {
+    // Arrange
+    long now = System.currentTimeMillis();
+    map.put("key1", "value1");
+    map.remove("key1");
+
+    // Act
+    map.expire(now + LIFETIME_MILLIS + INTERVAL_MILLIS * 2);
+
+    // Assert
+    assertThat(expired).isEmpty();
+    assertThat(map.getExpiredCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void expire_ManyRotationsPassed_ShouldExpireValueOnce() {
+    // Arrange
+    long now = System.currentTimeMillis();
+    map.put("key1", "value1");
+
+    // Act
+    map.expire(now + LIFETIME_MILLIS * 10);
+    map.expire(now + LIFETIME_MILLIS * 20);
+
+    // Assert
+    assertThat(expired).containsExactly("value1");
+  }
+
+  @Test
+  public void expire_InfiniteLifetimeGiven_ShouldNeverExpireValue() {
+    // Arrange
+    map = new ActiveExpiringMap<>(Long.MAX_VALUE, Long.MAX_VALUE, expired::add, false);
+    map.put("key1", "value1");
+
+    // Act
+    map.expire(Long.MAX_VALUE);
+
+    // Assert
+    assertThat(expired).isEmpty();
+    assertThat(map.contains("key1")).isTrue();
+  }
+
+  @Test
+  public void values_ValuesPut_ShouldReturnCopyOfThem() {
+    // Arrange
+    map.put("key1", "value1");
+    map.put("key2", "value2");
+
+    // Act
+    List<String> values = map.values();
+    map.remove("key1");
+
+    // Assert
+    assertThat(values).containsExactlyInAnyOrder("value1", "value2");
+  }
+}
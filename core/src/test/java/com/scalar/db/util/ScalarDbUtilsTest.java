@@ -11,6 +11,7 @@ import com.scalar.db.io.Key;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import org.junit.jupiter.api.Test;
 
 @SuppressWarnings("ReferenceEquality")
@@ -106,4 +107,47 @@ public class ScalarDbUtilsTest {
     assertThat(actual.get(1).forNamespace()).isEqualTo(NAMESPACE);
     assertThat(actual.get(1).forTable()).isEqualTo(TABLE);
   }
+
+  @Test
+  public void getRemainingTimeMillis_NoDeadlineGiven_ShouldReturnEmpty() {
+    // Arrange
+    Put put = new Put(new Key("c1", "v1"));
+    Delete delete = new Delete(new Key("c1", "v1"));
+
+    // Act
+    OptionalLong actual = ScalarDbUtils.getRemainingTimeMillis(Arrays.asList(put, delete));
+
+    // Assert
+    assertThat(actual).isEmpty();
+  }
+
+  @Test
+  public void getRemainingTimeMillis_DeadlinesGiven_ShouldReturnRemainingTimeToEarliestOne() {
+    // Arrange
+    long now = System.currentTimeMillis();
+    Put put = new Put(new Key("c1", "v1"));
+    put.withDeadlineMillis(now + 60000);
+    Delete delete = new Delete(new Key("c1", "v1"));
+    delete.withDeadlineMillis(now + 30000);
+
+    // Act
+    OptionalLong actual = ScalarDbUtils.getRemainingTimeMillis(Arrays.asList(put, delete));
+
+    // Assert
+    assertThat(actual).isPresent();
+    assertThat(actual.getAsLong()).isBetween(0L, 30000L);
+  }
+
+  @Test
+  public void copyAndSetTargetToIfNot_GetWithDeadlineGiven_ShouldKeepDeadline() {
+    // Arrange
+    Get get = new Get(new Key("c1", "v1"));
+    get.withDeadlineMillis(1000);
+
+    // Act
+    Get actual = ScalarDbUtils.copyAndSetTargetToIfNot(get, NAMESPACE, TABLE);
+
+    // Assert
+    assertThat(actual.getDeadlineMillis()).isEqualTo(1000);
+  }
 }